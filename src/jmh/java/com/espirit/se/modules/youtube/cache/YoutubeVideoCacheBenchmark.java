@@ -0,0 +1,140 @@
+package com.espirit.se.modules.youtube.cache;
+
+import com.espirit.se.modules.youtube.YoutubeVideo;
+import com.espirit.se.modules.youtube.connector.BenchmarkQuota;
+import com.espirit.se.modules.youtube.connector.VideoLookupResult;
+import com.espirit.se.modules.youtube.connector.YoutubeConnector;
+import com.espirit.se.modules.youtube.stub.YoutubeStubServer;
+import com.google.api.client.http.apache.ApacheHttpTransport;
+import com.google.api.client.json.jackson2.JacksonFactory;
+import com.google.api.services.youtube.YouTube;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of resolving the videos of a page (10 ids drawn from a Zipf distribution over 10,000 videos) against
+ * a local stub server, with and without a {@link WTinyLfuCache} of 1,000 videos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class YoutubeVideoCacheBenchmark {
+
+	private static final String APIKEY = "apikey";
+	private static final int VIDEO_COUNT = 10_000;
+	private static final int PAGE_SIZE = 10;
+	private static final int PAGE_COUNT = 1 << 14;
+
+	private YoutubeStubServer _stubServer;
+	private ApacheHttpTransport _transport;
+	private YoutubeConnector _connector;
+	private WTinyLfuCache<String, YoutubeVideo> _cache;
+	private List<List<String>> _pages;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		_stubServer = YoutubeStubServer.start();
+		BenchmarkQuota.lift();
+		_transport = new ApacheHttpTransport();
+		YouTube youtube = new YouTube.Builder(_transport, JacksonFactory.getDefaultInstance(), request -> {
+		}).setRootUrl(_stubServer.getRootUrl()).build();
+		_connector = new YoutubeConnector(youtube, new ArrayList<>(), APIKEY);
+		_cache = new WTinyLfuCache<>(1_000, Duration.ofHours(1));
+		_pages = createPages();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		System.out.println();
+		System.out.println("Cache: " + _cache.stats());
+		BenchmarkQuota.restore();
+		_transport.shutdown();
+		_stubServer.close();
+	}
+
+	/**
+	 * Page of the thread.
+	 */
+	@State(Scope.Thread)
+	public static class Cursor {
+
+		private int _next;
+
+		private List<String> next(final List<List<String>> pages) {
+			return pages.get(_next++ & (PAGE_COUNT - 1));
+		}
+	}
+
+	/**
+	 * All ids of a page are requested.
+	 */
+	@Benchmark
+	public List<VideoLookupResult> uncached(final Cursor cursor) {
+		return _connector.lookupVideos(cursor.next(_pages));
+	}
+
+	/**
+	 * Only the ids of a page missing in the cache are requested.
+	 */
+	@Benchmark
+	public Map<String, YoutubeVideo> cached(final Cursor cursor) {
+		return _cache.getAll(cursor.next(_pages), this::requestVideos);
+	}
+
+	private Map<String, YoutubeVideo> requestVideos(final Set<String> videoIds) {
+		Map<String, YoutubeVideo> videos = new HashMap<>();
+		for (final VideoLookupResult result : _connector.lookupVideos(videoIds)) {
+			if (result.isFound()) {
+				videos.put(result.getVideoId(), result.getVideo());
+			}
+		}
+		return videos;
+	}
+
+	private static List<List<String>> createPages() {
+		// cumulative Zipf distribution (s = 1)
+		double[] cumulative = new double[VIDEO_COUNT];
+		double sum = 0;
+		for (int i = 0; i < VIDEO_COUNT; i++) {
+			sum += 1.0 / (i + 1);
+			cumulative[i] = sum;
+		}
+		Random random = new Random(42);
+		List<List<String>> pages = new ArrayList<>(PAGE_COUNT);
+		for (int page = 0; page < PAGE_COUNT; page++) {
+			List<String> ids = new ArrayList<>(PAGE_SIZE);
+			for (int i = 0; i < PAGE_SIZE; i++) {
+				int index = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+				ids.add("video" + (index < 0 ? -index - 1 : index));
+			}
+			pages.add(ids);
+		}
+		return pages;
+	}
+}
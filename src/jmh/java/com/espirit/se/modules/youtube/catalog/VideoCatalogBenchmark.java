@@ -0,0 +1,92 @@
+package com.espirit.se.modules.youtube.catalog;
+
+import com.espirit.se.modules.youtube.YoutubeVideo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Open, get and put of a {@link VideoCatalog} with 100,000 videos.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VideoCatalogBenchmark {
+
+	private static final int VIDEO_COUNT = 100_000;
+
+	private Path _directory;
+	private VideoCatalog _catalog;
+	private int _putCount;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		_directory = Files.createTempDirectory("video-catalog-benchmark");
+		try (VideoCatalog catalog = VideoCatalog.open(_directory)) {
+			for (int i = 0; i < VIDEO_COUNT; i++) {
+				catalog.put(createVideo("video" + i), System.currentTimeMillis());
+			}
+		}
+		_catalog = VideoCatalog.open(_directory);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		_catalog.close();
+		try (Stream<Path> paths = Files.walk(_directory)) {
+			for (final Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+				Files.delete(path);
+			}
+		}
+	}
+
+	/**
+	 * Opens and closes the catalog, a clean catalog only maps its index.
+	 */
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public int open() throws IOException {
+		_catalog.close();
+		_catalog = VideoCatalog.open(_directory);
+		return _catalog.size();
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.Throughput)
+	@OutputTimeUnit(TimeUnit.SECONDS)
+	public YoutubeVideo get() {
+		return _catalog.get("video" + ThreadLocalRandom.current().nextInt(VIDEO_COUNT));
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.Throughput)
+	@OutputTimeUnit(TimeUnit.SECONDS)
+	public void put() {
+		// replaces existing videos, so the catalog does not grow beyond the benchmark
+		_catalog.put(createVideo("video" + (_putCount++ % VIDEO_COUNT)), System.currentTimeMillis());
+	}
+
+	private static YoutubeVideo createVideo(final String id) {
+		return new YoutubeVideo(id, "Video " + id, "Description of video " + id, "https://i.ytimg.com/vi/" + id + "/default.jpg",
+								"https://i.ytimg.com/vi/" + id + "/hqdefault.jpg", "etag-" + id);
+	}
+}
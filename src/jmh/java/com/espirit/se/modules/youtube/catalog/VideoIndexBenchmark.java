@@ -0,0 +1,114 @@
+package com.espirit.se.modules.youtube.catalog;
+
+import com.espirit.se.modules.youtube.YoutubeVideo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Build and query of a {@link VideoIndex} with 100,000 videos of 10 channels.
+ * The words of titles and descriptions follow a Zipf distribution over a vocabulary of 20,000 words.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VideoIndexBenchmark {
+
+	private static final int VIDEO_COUNT = 100_000;
+	private static final int CHANNEL_COUNT = 10;
+	private static final int VOCABULARY_SIZE = 20_000;
+
+	private final List<List<YoutubeVideo>> _channelVideos = new ArrayList<>();
+	private final List<String> _queries = new ArrayList<>();
+	private VideoIndex _index;
+	private int _queryCount;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		double[] distribution = getZipfDistribution();
+		for (int channel = 0; channel < CHANNEL_COUNT; channel++) {
+			_channelVideos.add(new ArrayList<>());
+		}
+		for (int i = 0; i < VIDEO_COUNT; i++) {
+			String id = "video" + i;
+			_channelVideos.get(i % CHANNEL_COUNT).add(new YoutubeVideo(id, getText(random, distribution, 6), getText(random, distribution, 40),
+																	   "https://i.ytimg.com/vi/" + id + "/default.jpg", "https://i.ytimg.com/vi/" + id + "/hqdefault.jpg"));
+		}
+		for (int i = 0; i < 1000; i++) {
+			_queries.add(getText(random, distribution, 1 + random.nextInt(3)));
+		}
+		_index = build();
+	}
+
+	/**
+	 * Indexes all videos.
+	 */
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public VideoIndex build() {
+		VideoIndex index = new VideoIndex();
+		for (int channel = 0; channel < CHANNEL_COUNT; channel++) {
+			index.putAll("channel" + channel, _channelVideos.get(channel));
+		}
+		return index;
+	}
+
+	/**
+	 * Searches the first page of a query restricted to one channel.
+	 */
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public List<YoutubeVideo> searchChannel() {
+		int query = _queryCount++;
+		return _index.search(_queries.get(query % _queries.size()), List.of("channel" + query % CHANNEL_COUNT), 50);
+	}
+
+	/**
+	 * Searches the first page of a query over all channels.
+	 */
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public List<YoutubeVideo> searchAll() {
+		return _index.search(_queries.get(_queryCount++ % _queries.size()), null, 50);
+	}
+
+	private static double[] getZipfDistribution() {
+		double[] distribution = new double[VOCABULARY_SIZE];
+		double sum = 0;
+		for (int rank = 0; rank < VOCABULARY_SIZE; rank++) {
+			sum += 1.0 / (rank + 1);
+			distribution[rank] = sum;
+		}
+		for (int rank = 0; rank < VOCABULARY_SIZE; rank++) {
+			distribution[rank] /= sum;
+		}
+		return distribution;
+	}
+
+	private static String getText(final Random random, final double[] distribution, final int wordCount) {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < wordCount; i++) {
+			int rank = Arrays.binarySearch(distribution, random.nextDouble());
+			text.append(i > 0 ? " " : "").append("word").append(rank < 0 ? -rank - 1 : rank);
+		}
+		return text.toString();
+	}
+}
@@ -0,0 +1,46 @@
+package com.espirit.se.modules.youtube.connector;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lifts the quota limits of the {@link YoutubeQuotaScheduler} for benchmarks, which send far more requests to the stub
+ * server than the rate limit and the daily quota of an api key allow.
+ */
+public final class BenchmarkQuota {
+
+	private static ScheduledExecutorService _resetter;
+
+	private BenchmarkQuota() {
+		throw new IllegalStateException("Utility class");
+	}
+
+	/**
+	 * Disables the rate limit and forgets the used daily quota every 100 ms.
+	 */
+	public static synchronized void lift() {
+		YoutubeQuotaScheduler.configure(Long.MAX_VALUE / 2, 1e12);
+		YoutubeQuota.clear();
+		if (_resetter == null) {
+			_resetter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "benchmark-quota-reset");
+				thread.setDaemon(true);
+				return thread;
+			});
+			_resetter.scheduleAtFixedRate(YoutubeQuota::clear, 100, 100, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Restores the default quota limits.
+	 */
+	public static synchronized void restore() {
+		if (_resetter != null) {
+			_resetter.shutdownNow();
+			_resetter = null;
+		}
+		YoutubeQuotaScheduler.clear();
+		YoutubeQuota.clear();
+	}
+}
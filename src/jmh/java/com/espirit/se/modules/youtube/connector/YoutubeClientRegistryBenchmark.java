@@ -0,0 +1,90 @@
+package com.espirit.se.modules.youtube.connector;
+
+import com.espirit.se.modules.youtube.stub.YoutubeStubServer;
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.apache.ApacheHttpTransport;
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.jackson2.JacksonFactory;
+import com.google.api.services.youtube.YouTube;
+import com.google.api.services.youtube.model.VideoListResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of a single videos.list call against a local stub server, comparing the shared client of the
+ * {@link YoutubeClientRegistry} with clients created per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class YoutubeClientRegistryBenchmark {
+
+	private static final String APIKEY = "apikey";
+
+	private YoutubeStubServer _stubServer;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		_stubServer = YoutubeStubServer.start();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		YoutubeClientRegistry.shutdown();
+		_stubServer.close();
+	}
+
+	/**
+	 * Shared client with a warm, pooled connection.
+	 */
+	@Benchmark
+	public VideoListResponse sharedClient() throws IOException {
+		return listVideo(YoutubeClientRegistry.getClient(APIKEY, _stubServer.getRootUrl(), YoutubeClientRegistry.DEFAULT_MAX_CONNECTIONS));
+	}
+
+	/**
+	 * New client per request, as created by the connector builder before the registry existed.
+	 */
+	@Benchmark
+	public VideoListResponse netHttpClientPerRequest() throws IOException {
+		return listVideo(createClient(new NetHttpTransport()));
+	}
+
+	/**
+	 * New pooled client per request, i.e. a cold connection for every request.
+	 */
+	@Benchmark
+	public VideoListResponse pooledClientPerRequest() throws IOException {
+		ApacheHttpTransport transport = new ApacheHttpTransport();
+		try {
+			return listVideo(createClient(transport));
+		} finally {
+			transport.shutdown();
+		}
+	}
+
+	private YouTube createClient(final HttpTransport transport) {
+		return new YouTube.Builder(transport, new JacksonFactory(), request -> {
+		}).setApplicationName(YoutubeClientRegistry.APP_NAME).setRootUrl(_stubServer.getRootUrl()).build();
+	}
+
+	private static VideoListResponse listVideo(final YouTube youtube) throws IOException {
+		return youtube.videos().list("snippet").setKey(APIKEY).setId("dQw4w9WgXcQ").execute();
+	}
+}
@@ -0,0 +1,141 @@
+package com.espirit.se.modules.youtube.connector;
+
+import com.espirit.se.modules.youtube.YoutubeVideo;
+import com.espirit.se.modules.youtube.cache.YoutubePageCache;
+import com.espirit.se.modules.youtube.stub.YoutubeStubServer;
+import com.google.api.services.youtube.YouTube;
+import com.google.api.services.youtube.model.Channel;
+import com.google.api.services.youtube.model.ChannelSnippet;
+import com.google.api.services.youtube.model.ResourceId;
+import com.google.api.services.youtube.model.SearchResult;
+import com.google.api.services.youtube.model.SearchResultSnippet;
+import com.google.api.services.youtube.model.Thumbnail;
+import com.google.api.services.youtube.model.ThumbnailDetails;
+import com.google.api.services.youtube.model.Video;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Hot paths of the connector: mapping a YouTube resource to a {@link YoutubeVideo}, the first page of a search over
+ * {@value #CHANNEL_COUNT} channels (split among the channels by
+ * {@link YoutubeMultiChannelVideoSearchRequest#searchVideos(int)}) and the lookup of a page of videos, the latter two
+ * against a local stub server. Run with the {@code gc} profiler to see the allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class YoutubeConnectorBenchmark {
+
+	private static final String APIKEY = "apikey";
+	private static final int CHANNEL_COUNT = 3;
+	private static final int PAGE_SIZE = 30;
+
+	private final SearchResult _searchResult = createSearchResult("dQw4w9WgXcQ");
+	private final Video _video = YoutubeStubServer.createVideo("dQw4w9WgXcQ");
+	private final List<String> _videoIds = IntStream.range(0, 10).mapToObj(i -> "video" + i).collect(Collectors.toList());
+	private YoutubeStubServer _stubServer;
+	private YouTube _youtube;
+	private YoutubeConnector _connector;
+	private List<Channel> _channels;
+	private int _queryCount;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		_stubServer = YoutubeStubServer.start();
+		BenchmarkQuota.lift();
+		_youtube = YoutubeClientRegistry.getClient(APIKEY, _stubServer.getRootUrl(), YoutubeClientRegistry.DEFAULT_MAX_CONNECTIONS);
+		_connector = new YoutubeConnector.Builder().apikey(APIKEY).rootUrl(_stubServer.getRootUrl()).build();
+		_channels = IntStream.range(0, CHANNEL_COUNT)
+				.mapToObj(i -> new Channel().setId("channel" + i).setSnippet(new ChannelSnippet().setTitle("Channel " + i)))
+				.collect(Collectors.toList());
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		BenchmarkQuota.restore();
+		YoutubePageCache.clear();
+		YoutubeClientRegistry.shutdown();
+		_stubServer.close();
+	}
+
+	/**
+	 * Maps a search result.
+	 */
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.NANOSECONDS)
+	public YoutubeVideo createYoutubeVideoFromSearchResult() {
+		return YoutubeVideoSearchRequest.createYoutubeVideo(_searchResult);
+	}
+
+	/**
+	 * Maps a video resource.
+	 */
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.NANOSECONDS)
+	public YoutubeVideo createYoutubeVideoFromVideo() {
+		return YoutubeVideoSearchRequest.createYoutubeVideo(_video, "etag");
+	}
+
+	/**
+	 * First page of a new query, every channel is requested from the stub.
+	 */
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public List<YoutubeVideo> multiChannelFirstPage() throws IOException {
+		return searchFirstPage("query" + _queryCount++);
+	}
+
+	/**
+	 * First page of the same query, the pages of the channels are served from the page cache.
+	 */
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public List<YoutubeVideo> multiChannelFirstPageCached() throws IOException {
+		return searchFirstPage("query");
+	}
+
+	/**
+	 * Looks up a page of 10 videos by {@link YoutubeConnector#getVideo(java.util.Collection)}.
+	 */
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public List<YoutubeVideo> getVideo() {
+		return _connector.getVideo(_videoIds);
+	}
+
+	private List<YoutubeVideo> searchFirstPage(final String query) throws IOException {
+		List<RequestChannel> requestChannels = _channels.stream().map(RequestChannel::new).collect(Collectors.toList());
+		YoutubeMultiChannelVideoSearchRequest request = new YoutubeMultiChannelVideoSearchRequest(YoutubeStandardVideoSearchRequest.createRequestList(APIKEY, _youtube, query, null),
+																								  requestChannels);
+		return request.searchVideos(PAGE_SIZE);
+	}
+
+	private static SearchResult createSearchResult(final String id) {
+		return new SearchResult()
+				.setId(new ResourceId().setKind("youtube#video").setVideoId(id))
+				.setSnippet(new SearchResultSnippet()
+									.setTitle("Title " + id)
+									.setDescription("Description " + id)
+									.setThumbnails(new ThumbnailDetails()
+														   .setDefault(new Thumbnail().setUrl("https://i.ytimg.com/vi/" + id + "/default.jpg"))
+														   .setHigh(new Thumbnail().setUrl("https://i.ytimg.com/vi/" + id + "/hqdefault.jpg"))));
+	}
+}
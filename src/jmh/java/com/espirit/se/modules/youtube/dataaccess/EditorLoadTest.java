@@ -0,0 +1,229 @@
+package com.espirit.se.modules.youtube.dataaccess;
+
+import de.espirit.firstspirit.client.plugin.dataaccess.DataStream;
+
+import com.espirit.se.modules.youtube.YoutubeVideo;
+import com.espirit.se.modules.youtube.catalog.VideoCatalogs;
+import com.espirit.se.modules.youtube.connector.BenchmarkQuota;
+import com.espirit.se.modules.youtube.connector.QuotaExceededException;
+import com.espirit.se.modules.youtube.connector.YoutubeClientRegistry;
+import com.espirit.se.modules.youtube.connector.YoutubeRequestDispatcher;
+import com.espirit.se.modules.youtube.integration.YoutubeIntegrationConfig;
+import com.espirit.se.modules.youtube.stub.YoutubeStubServer;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load generator simulating concurrent editors against a local stub of the YouTube Data API. Every editor opens the
+ * report once ({@link YoutubeVideoDataStream.Builder}), then repeatedly searches ({@code createDataStream} and
+ * {@code getNext} of the first page, sometimes of the second), drops one of the found videos
+ * ({@link YoutubeVideoDataAccessSession#getData(java.util.Collection)}) and thinks for a while. The components are the
+ * ones of the report, only the FirstSpirit context is replaced by the configuration of the project and the root url of
+ * the stub.
+ * <p>
+ * The requests pass the production {@link com.espirit.se.modules.youtube.connector.YoutubeQuotaScheduler}, the
+ * requests it rejects are reported by the reason of the {@link QuotaExceededException}. The quota limits are only lifted
+ * on request, to measure the components without the scheduler.
+ * <p>
+ * Reports the throughput, the p50 and p99 latency of every operation, the rejected requests, the quota units the stub
+ * charged and the growth of the heap. Run with {@code ./gradlew loadTest -Peditors=200 -Pseconds=60}, the arguments are
+ * the number of editors, the duration in seconds, the think time and the latency of the stub in milliseconds and
+ * whether to lift the quota limits.
+ */
+public final class EditorLoadTest {
+
+	private static final String APIKEY = "loadTest";
+	private static final long PROJECT_ID = 1;
+	private static final int PAGE_SIZE = 20;
+	private static final List<String> CHANNEL_IDS = List.of("channel0", "channel1", "channel2");
+	private static final List<String> QUERIES = List.of("news", "music", "tutorial", "review", "live", "trailer", "interview", "highlights", "podcast", "recipe");
+
+	private final Operation _firstPage = new Operation("first page");
+	private final Operation _nextPage = new Operation("next page");
+	private final Operation _getData = new Operation("getData");
+	private final AtomicLong _failures = new AtomicLong();
+	private final String _rootUrl;
+
+	private EditorLoadTest(final String rootUrl) {
+		_rootUrl = rootUrl;
+	}
+
+	/**
+	 * Runs the load test.
+	 *
+	 * @param args the number of editors (200), the duration in seconds (60), the think time (1000) and the latency of
+	 *             the stub (100) in milliseconds, whether to lift the quota limits (false)
+	 * @throws Exception if the load test fails
+	 */
+	public static void main(final String[] args) throws Exception {
+		int editors = getArgument(args, 0, 200);
+		int seconds = getArgument(args, 1, 60);
+		int thinkMillis = getArgument(args, 2, 1000);
+		int latencyMillis = getArgument(args, 3, 100);
+		boolean liftQuota = args.length > 4 && Boolean.parseBoolean(args[4]);
+		Path dataDirectory = Files.createTempDirectory("youtube-load-test");
+		System.setProperty(VideoCatalogs.DATA_DIRECTORY_PROPERTY, dataDirectory.toString());
+		try (YoutubeStubServer stubServer = YoutubeStubServer.start()) {
+			stubServer.setLatency(latencyMillis);
+			if (liftQuota) {
+				BenchmarkQuota.lift();
+			}
+			new EditorLoadTest(stubServer.getRootUrl()).run(stubServer, editors, seconds, thinkMillis, latencyMillis, liftQuota);
+		} finally {
+			BenchmarkQuota.restore();
+			YoutubeClientRegistry.shutdown();
+			VideoCatalogs.closeAll();
+		}
+	}
+
+	private void run(final YoutubeStubServer stubServer, final int editors, final int seconds, final int thinkMillis, final int latencyMillis,
+					 final boolean liftQuota) throws InterruptedException {
+		YoutubeIntegrationConfig configuration = new YoutubeIntegrationConfig(APIKEY, CHANNEL_IDS, 0, 0, "load", 0);
+		Map<QuotaExceededException.Reason, Long> rejectionsBefore = getRejections();
+		MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		System.gc();
+		long heapBefore = memory.getHeapMemoryUsage().getUsed();
+		long start = System.nanoTime();
+		long end = start + TimeUnit.SECONDS.toNanos(seconds);
+		ExecutorService executor = Executors.newFixedThreadPool(editors);
+		for (int editor = 0; editor < editors; editor++) {
+			Random random = new Random(editor);
+			executor.execute(() -> simulateEditor(configuration, random, end, thinkMillis));
+		}
+		long peakHeap = heapBefore;
+		while (System.nanoTime() < end) {
+			Thread.sleep(100);
+			peakHeap = Math.max(peakHeap, memory.getHeapMemoryUsage().getUsed());
+		}
+		executor.shutdown();
+		executor.awaitTermination(1, TimeUnit.MINUTES);
+		double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+		System.gc();
+		long heapAfter = memory.getHeapMemoryUsage().getUsed();
+
+		System.out.printf(Locale.ROOT, "%d editors, %d s, think time %d ms, stub latency %d ms, quota %s%n", editors, seconds, thinkMillis, latencyMillis,
+						  liftQuota ? "lifted" : "enforced");
+		System.out.printf(Locale.ROOT, "%-12s %10s %10s %10s %10s%n", "operation", "count", "ops/s", "p50 ms", "p99 ms");
+		for (final Operation operation : List.of(_firstPage, _nextPage, _getData)) {
+			operation.print(elapsedSeconds);
+		}
+		System.out.printf(Locale.ROOT, "failures: %d%n", _failures.get());
+		// the components swallow most rejections into empty or failed results, the dispatcher counts them
+		System.out.printf(Locale.ROOT, "%-14s %10s %10s%n", "rejected", "count", "per s");
+		getRejections().forEach((reason, count) -> {
+			long rejections = count - rejectionsBefore.get(reason);
+			System.out.printf(Locale.ROOT, "%-14s %10d %10.1f%n", reason, rejections, rejections / elapsedSeconds);
+		});
+		System.out.printf(Locale.ROOT, "requests: %d, quota units: %d (%.0f per minute)%n", stubServer.getRequestCount(), stubServer.getUsedUnits(APIKEY),
+						  stubServer.getUsedUnits(APIKEY) * 60 / elapsedSeconds);
+		System.out.printf(Locale.ROOT, "heap: %d MB before, %d MB peak, %d MB after (growth %d MB)%n", heapBefore >> 20, peakHeap >> 20, heapAfter >> 20,
+						  (heapAfter - heapBefore) >> 20);
+	}
+
+	private void simulateEditor(final YoutubeIntegrationConfig configuration, final Random random, final long end, final int thinkMillis) {
+		YoutubeVideoDataStream.Builder builder = new YoutubeVideoDataStream.Builder(configuration, _rootUrl);
+		try {
+			while (System.nanoTime() < end) {
+				try {
+					search(builder, configuration, random);
+				} catch (Exception e) {
+					_failures.incrementAndGet();
+				}
+				Thread.sleep(thinkMillis / 2 + random.nextInt(thinkMillis + 1));
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void search(final YoutubeVideoDataStream.Builder builder, final YoutubeIntegrationConfig configuration, final Random random) throws Exception {
+		String query = random.nextInt(4) == 0 ? null : QUERIES.get(random.nextInt(QUERIES.size()));
+		String channel = random.nextBoolean() ? null : CHANNEL_IDS.get(random.nextInt(CHANNEL_IDS.size()));
+		List<YoutubeVideo> videos = new ArrayList<>();
+		DataStream<YoutubeVideo> stream = builder.createDataStream(query, channel);
+		try {
+			videos.addAll(_firstPage.measure(() -> stream.getNext(PAGE_SIZE)));
+			if (random.nextInt(3) == 0) {
+				videos.addAll(_nextPage.measure(() -> stream.getNext(PAGE_SIZE)));
+			}
+		} finally {
+			stream.close();
+		}
+		if (!videos.isEmpty()) {
+			// the editor drops one of the videos
+			String videoId = videos.get(random.nextInt(videos.size())).getId();
+			_getData.measure(() -> YoutubeVideoDataAccessSession.getData(List.of(videoId), PROJECT_ID, configuration, _rootUrl));
+		}
+	}
+
+	private static Map<QuotaExceededException.Reason, Long> getRejections() {
+		Map<QuotaExceededException.Reason, Long> rejections = new EnumMap<>(QuotaExceededException.Reason.class);
+		for (final QuotaExceededException.Reason reason : QuotaExceededException.Reason.values()) {
+			rejections.put(reason, YoutubeRequestDispatcher.getRejectionCount(reason));
+		}
+		return rejections;
+	}
+
+	private static int getArgument(final String[] args, final int index, final int defaultValue) {
+		return args.length > index ? Integer.parseInt(args[index]) : defaultValue;
+	}
+
+	/**
+	 * The latencies of an operation.
+	 */
+	private static final class Operation {
+
+		private final String _name;
+		private final List<Long> _latencies = new ArrayList<>();
+
+		private Operation(final String name) {
+			_name = name;
+		}
+
+		private List<YoutubeVideo> measure(final Action action) throws Exception {
+			long start = System.nanoTime();
+			List<YoutubeVideo> videos = action.run();
+			long latency = System.nanoTime() - start;
+			synchronized (_latencies) {
+				_latencies.add(latency);
+			}
+			return videos;
+		}
+
+		private void print(final double elapsedSeconds) {
+			long[] latencies;
+			synchronized (_latencies) {
+				latencies = _latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+			}
+			System.out.printf(Locale.ROOT, "%-12s %10d %10.1f %10.1f %10.1f%n", _name, latencies.length, latencies.length / elapsedSeconds,
+							  getPercentileMillis(latencies, 50), getPercentileMillis(latencies, 99));
+		}
+
+		private static double getPercentileMillis(final long[] sorted, final int percentile) {
+			if (sorted.length == 0) {
+				return 0;
+			}
+			int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+			return sorted[Math.max(0, index)] / 1e6;
+		}
+	}
+
+	@FunctionalInterface
+	private interface Action {
+
+		List<YoutubeVideo> run() throws Exception;
+	}
+}
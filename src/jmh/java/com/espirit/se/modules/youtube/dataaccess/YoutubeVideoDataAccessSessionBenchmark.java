@@ -0,0 +1,65 @@
+package com.espirit.se.modules.youtube.dataaccess;
+
+import de.espirit.firstspirit.client.plugin.dataaccess.aspects.DataTemplating;
+import de.espirit.firstspirit.json.JsonElement;
+
+import com.espirit.se.modules.youtube.YoutubeVideo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Report aspects of the data access session rendering a video: its JSON representation and the parameters of its
+ * fly-out. Neither aspect uses the generation context or the language, both are {@code null}. The parameter set
+ * collects the parameters in a map, as the report does. Run with the {@code gc} profiler to see the allocation per
+ * video.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class YoutubeVideoDataAccessSessionBenchmark {
+
+	private final YoutubeVideo _video = new YoutubeVideo("dQw4w9WgXcQ", "Title", "Description of the video\nin two lines",
+														 "https://i.ytimg.com/vi/dQw4w9WgXcQ/default.jpg", "https://i.ytimg.com/vi/dQw4w9WgXcQ/hqdefault.jpg");
+	private final YoutubeVideoDataAccessSession.YoutubeJsonReportingAspect _jsonReporting = new YoutubeVideoDataAccessSession.YoutubeJsonReportingAspect();
+	private final YoutubeVideoDataAccessSession.YoutubeVideoDataTemplatingAspect _dataTemplating = new YoutubeVideoDataAccessSession.YoutubeVideoDataTemplatingAspect();
+	private final Map<String, Object> _parameters = new HashMap<>();
+	private final DataTemplating.ParameterSet _parameterSet = (DataTemplating.ParameterSet) Proxy.newProxyInstance(
+			DataTemplating.ParameterSet.class.getClassLoader(), new Class<?>[]{DataTemplating.ParameterSet.class}, (proxy, method, args) -> {
+				if (args != null && args.length == 2 && args[0] instanceof String) {
+					_parameters.put((String) args[0], args[1]);
+				}
+				return null;
+			});
+
+	/**
+	 * JSON representation of a video in a report.
+	 */
+	@Benchmark
+	public JsonElement<?> jsonReportingHandle() {
+		return _jsonReporting.handle(null, _video);
+	}
+
+	/**
+	 * Parameters of the fly-out of a video in a report.
+	 */
+	@Benchmark
+	public Map<String, Object> registerParameters() {
+		_dataTemplating.registerParameters(_parameterSet, _video, null);
+		return _parameters;
+	}
+}
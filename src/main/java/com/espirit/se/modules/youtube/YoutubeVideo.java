@@ -16,6 +16,7 @@ public class YoutubeVideo {
 	private final String _description;
 	private final String _thumbnailUrl;
 	private final String _posterUrl;
+	private final String _etag;
 
 	/**
 	 * Instantiates a new Youtube video data object.
@@ -27,11 +28,26 @@ public class YoutubeVideo {
 	 * @param posterUrl    the high quality image for this video
 	 */
 	public YoutubeVideo(String id, String title, String description, String thumbnailUrl, String posterUrl) {
+		this(id, title, description, thumbnailUrl, posterUrl, null);
+	}
+
+	/**
+	 * Instantiates a new Youtube video data object.
+	 *
+	 * @param id           the ID that YouTube uses to uniquely identify the video
+	 * @param title        the video's title
+	 * @param description  the video's description
+	 * @param thumbnailUrl the thumbnail url for this video
+	 * @param posterUrl    the high quality image for this video
+	 * @param etag         the ETag of the response providing this video, may be {@code null}
+	 */
+	public YoutubeVideo(String id, String title, String description, String thumbnailUrl, String posterUrl, String etag) {
 		_id = id;
 		_title = title;
 		_description = description;
 		_thumbnailUrl = thumbnailUrl;
 		_posterUrl = posterUrl;
+		_etag = etag;
 	}
 
 	/**
@@ -79,4 +95,13 @@ public class YoutubeVideo {
 		return _posterUrl;
 	}
 
+	/**
+	 * Gets the ETag of the response providing this video, used to revalidate the video.
+	 *
+	 * @return the etag or {@code null} if unknown
+	 */
+	public String getEtag() {
+		return _etag;
+	}
+
 }
@@ -1,10 +1,23 @@
 package com.espirit.se.modules.youtube;
 
+import de.espirit.common.base.Logging;
 import de.espirit.firstspirit.module.Module;
 import de.espirit.firstspirit.module.ServerEnvironment;
 import de.espirit.firstspirit.module.descriptor.ModuleDescriptor;
 
 import com.espirit.moddev.components.annotations.ModuleComponent;
+import com.espirit.se.modules.youtube.cache.YoutubePageCache;
+import com.espirit.se.modules.youtube.cache.YoutubeVideoCache;
+import com.espirit.se.modules.youtube.catalog.VideoCatalogs;
+import com.espirit.se.modules.youtube.connector.YoutubeChannelSync;
+import com.espirit.se.modules.youtube.connector.YoutubeClientRegistry;
+import com.espirit.se.modules.youtube.connector.YoutubeQuota;
+import com.espirit.se.modules.youtube.dataaccess.YoutubeVideoRefresher;
+import com.espirit.se.modules.youtube.ledger.QuotaLedger;
+import com.espirit.se.modules.youtube.ledger.QuotaLedgers;
+
+import java.io.IOException;
+import java.time.LocalDate;
 
 /**
  * The FirstSpirit Youtube video integration module.
@@ -14,7 +27,16 @@ public class YoutubeVideoIntegration implements Module {
 
 	@Override
 	public void init(ModuleDescriptor moduleDescriptor, ServerEnvironment serverEnvironment) {
-		// Nothing needs to be done here
+		VideoCatalogs.warmLoad();
+		VideoCatalogs.start();
+		QuotaLedger ledger = QuotaLedgers.open();
+		if (ledger != null) {
+			try {
+				YoutubeQuota.restore(ledger.getRollup(LocalDate.now(QuotaLedger.DAY_ZONE)));
+			} catch (IOException e) {
+				Logging.logError("Unable to restore the quota used today", e, YoutubeVideoIntegration.class);
+			}
+		}
 	}
 
 	@Override
@@ -24,7 +46,13 @@ public class YoutubeVideoIntegration implements Module {
 
 	@Override
 	public void uninstalling() {
-		// Nothing needs to be done here
+		YoutubeChannelSync.shutdown();
+		YoutubeClientRegistry.shutdown();
+		YoutubeVideoCache.clear();
+		YoutubePageCache.clear();
+		YoutubeVideoRefresher.clear();
+		VideoCatalogs.closeAll();
+		QuotaLedgers.close();
 	}
 
 	@Override
@@ -0,0 +1,71 @@
+package com.espirit.se.modules.youtube.cache;
+
+/**
+ * Statistics of a cache.
+ */
+public final class CacheStats {
+
+	private final long _hitCount;
+	private final long _missCount;
+	private final long _evictionCount;
+
+	/**
+	 * Instantiates new cache statistics.
+	 *
+	 * @param hitCount      the hit count
+	 * @param missCount     the miss count
+	 * @param evictionCount the eviction count
+	 */
+	public CacheStats(final long hitCount, final long missCount, final long evictionCount) {
+		_hitCount = hitCount;
+		_missCount = missCount;
+		_evictionCount = evictionCount;
+	}
+
+	/**
+	 * Gets the number of lookups that found a value.
+	 *
+	 * @return the hit count
+	 */
+	public long getHitCount() {
+		return _hitCount;
+	}
+
+	/**
+	 * Gets the number of lookups that found no (or an expired) value.
+	 *
+	 * @return the miss count
+	 */
+	public long getMissCount() {
+		return _missCount;
+	}
+
+	/**
+	 * Gets the number of values evicted because of the size limit.
+	 *
+	 * @return the eviction count
+	 */
+	public long getEvictionCount() {
+		return _evictionCount;
+	}
+
+	/**
+	 * Gets the ratio of lookups that found a value.
+	 *
+	 * @return the hit rate, {@code 1.0} if there were no lookups yet
+	 */
+	public double getHitRate() {
+		long requestCount = _hitCount + _missCount;
+		return requestCount == 0 ? 1.0 : (double) _hitCount / requestCount;
+	}
+
+	@Override
+	public String toString() {
+		return "CacheStats{" +
+				"_hitCount=" + _hitCount +
+				", _missCount=" + _missCount +
+				", _evictionCount=" + _evictionCount +
+				", hitRate=" + String.format("%.3f", getHitRate()) +
+				'}';
+	}
+}
@@ -0,0 +1,99 @@
+package com.espirit.se.modules.youtube.cache;
+
+/**
+ * Count-Min sketch of 4-bit counters estimating how often a key has been accessed recently.
+ * Once the number of increments reaches the sample size all counters are halved, so the popularity of keys ages.
+ */
+final class FrequencySketch {
+
+	private static final int MAX_COUNT = 15;
+	private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+	private static final long RESET_MASK = 0x7777777777777777L;
+
+	private final long[] _table;
+	private final int _tableMask;
+	private final int _sampleSize;
+	private int _size;
+
+	/**
+	 * Instantiates a new frequency sketch.
+	 *
+	 * @param maximumSize the maximum number of keys of the cache
+	 */
+	FrequencySketch(final long maximumSize) {
+		int capacity = (int) Math.min(Math.max(maximumSize, 1), 1 << 30);
+		_table = new long[Math.max(Integer.highestOneBit(capacity - 1) << 1, 1)];
+		_tableMask = _table.length - 1;
+		_sampleSize = (int) Math.min(Integer.MAX_VALUE, 10L * capacity);
+	}
+
+	/**
+	 * Gets the estimated frequency of the specified key.
+	 *
+	 * @param key the key
+	 * @return the frequency, between 0 and 15
+	 */
+	int frequency(final Object key) {
+		int hash = spread(key.hashCode());
+		int frequency = MAX_COUNT;
+		for (int i = 0; i < SEEDS.length; i++) {
+			int index = indexOf(hash, i);
+			int offset = counterOffset(hash, i);
+			frequency = Math.min(frequency, (int) ((_table[index] >>> offset) & 0xfL));
+		}
+		return frequency;
+	}
+
+	/**
+	 * Increments the frequency of the specified key.
+	 *
+	 * @param key the key
+	 */
+	void increment(final Object key) {
+		int hash = spread(key.hashCode());
+		boolean added = false;
+		for (int i = 0; i < SEEDS.length; i++) {
+			added |= incrementAt(indexOf(hash, i), counterOffset(hash, i));
+		}
+		if (added && ++_size >= _sampleSize) {
+			reset();
+		}
+	}
+
+	private boolean incrementAt(final int index, final int offset) {
+		long mask = 0xfL << offset;
+		if ((_table[index] & mask) != mask) {
+			_table[index] += 1L << offset;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Halves all counters.
+	 */
+	private void reset() {
+		for (int i = 0; i < _table.length; i++) {
+			_table[i] = (_table[i] >>> 1) & RESET_MASK;
+		}
+		_size /= 2;
+	}
+
+	private int indexOf(final int hash, final int i) {
+		long h = (hash + SEEDS[i]) * SEEDS[i];
+		h += h >>> 32;
+		return ((int) h) & _tableMask;
+	}
+
+	/**
+	 * Every long holds 16 counters, each hash function uses its own quarter of them.
+	 */
+	private static int counterOffset(final int hash, final int i) {
+		return ((i << 2) + ((hash >>> (i << 3)) & 3)) << 2;
+	}
+
+	private static int spread(final int hashCode) {
+		int h = hashCode * 0x9e3779b9;
+		return h ^ (h >>> 16);
+	}
+}
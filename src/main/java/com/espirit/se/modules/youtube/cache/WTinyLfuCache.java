@@ -0,0 +1,356 @@
+package com.espirit.se.modules.youtube.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Thread-safe cache bounded by size and time to live, evicting by the W-TinyLFU policy.
+ * New entries are admitted to a small LRU window (1% of the size). Entries leaving the window compete with the least
+ * recently used entry of the main space, the one accessed less frequently according to a {@link FrequencySketch} is
+ * evicted. The main space is a segmented LRU, entries accessed again are promoted from its probation to its protected
+ * segment (80% of the main space). This keeps popular entries even if many entries are accessed only once.
+ * Expired entries are no longer provided by {@link #get(Object)}, but kept until they are replaced, evicted or
+ * invalidated, so they can be revalidated, see {@link #getAllExpired(Collection)}.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public final class WTinyLfuCache<K, V> {
+
+	private final long _windowMaximum;
+	private final long _mainMaximum;
+	private final long _protectedMaximum;
+	private final long _ttlNanos;
+	private final LongSupplier _ticker;
+	private final FrequencySketch _sketch;
+	private final Map<K, Node<V>> _data = new HashMap<>();
+	private final LinkedHashMap<K, Node<V>> _window = new LinkedHashMap<>();
+	private final LinkedHashMap<K, Node<V>> _probation = new LinkedHashMap<>();
+	private final LinkedHashMap<K, Node<V>> _protected = new LinkedHashMap<>();
+	private long _hitCount;
+	private long _missCount;
+	private long _evictionCount;
+
+	/**
+	 * Instantiates a new cache.
+	 *
+	 * @param maximumSize the maximum number of entries
+	 * @param ttl         the time to live of an entry after it was written
+	 */
+	public WTinyLfuCache(final long maximumSize, final Duration ttl) {
+		this(maximumSize, ttl, System::nanoTime);
+	}
+
+	/**
+	 * Instantiates a new cache.
+	 *
+	 * @param maximumSize the maximum number of entries
+	 * @param ttl         the time to live of an entry after it was written
+	 * @param ticker      the source of the current time in nanoseconds
+	 */
+	WTinyLfuCache(final long maximumSize, final Duration ttl, final LongSupplier ticker) {
+		if (maximumSize < 1) {
+			throw new IllegalArgumentException("The maximum size must be positive: " + maximumSize);
+		}
+		_windowMaximum = Math.max(1, maximumSize / 100);
+		_mainMaximum = maximumSize - _windowMaximum;
+		_protectedMaximum = _mainMaximum * 4 / 5;
+		_ttlNanos = ttl.toNanos();
+		_ticker = ticker;
+		_sketch = new FrequencySketch(maximumSize);
+	}
+
+	/**
+	 * Gets the value of the specified key.
+	 *
+	 * @param key the key
+	 * @return the value or {@code null} if the key is not cached or expired
+	 */
+	public synchronized V get(final K key) {
+		Node<V> node = _data.get(key);
+		if (node == null || isExpired(node)) {
+			_missCount++;
+			return null;
+		}
+		_hitCount++;
+		_sketch.increment(key);
+		onAccess(key, node);
+		return node._value;
+	}
+
+	/**
+	 * Checks whether the specified key is cached and not expired, without counting it as access.
+	 *
+	 * @param key the key
+	 * @return true if a value of the key is cached
+	 */
+	public synchronized boolean containsKey(final K key) {
+		Node<V> node = _data.get(key);
+		return node != null && !isExpired(node);
+	}
+
+	/**
+	 * Gets the cached values of the specified keys.
+	 *
+	 * @param keys the keys
+	 * @return the cached values by key, keys not cached are missing
+	 */
+	public synchronized Map<K, V> getAllPresent(final Collection<? extends K> keys) {
+		Map<K, V> result = new HashMap<>();
+		for (final K key : new LinkedHashSet<>(keys)) {
+			V value = get(key);
+			if (value != null) {
+				result.put(key, value);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the expired values of the specified keys still held by the cache, without counting them as access.
+	 *
+	 * @param keys the keys
+	 * @return the expired values by key, keys not cached or not expired are missing
+	 */
+	public synchronized Map<K, V> getAllExpired(final Collection<? extends K> keys) {
+		return getAllExpired(keys, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Gets the expired values of the specified keys still held by the cache, if they expired at most the specified
+	 * duration ago. They are not counted as access.
+	 *
+	 * @param keys         the keys
+	 * @param maxStaleness the maximum duration since the expiration
+	 * @return the expired values by key, keys not cached, not expired or expired too long ago are missing
+	 */
+	public synchronized Map<K, V> getAllExpired(final Collection<? extends K> keys, final Duration maxStaleness) {
+		return getAllExpired(keys, maxStaleness.toNanos());
+	}
+
+	private Map<K, V> getAllExpired(final Collection<? extends K> keys, final long maxStalenessNanos) {
+		long now = _ticker.getAsLong();
+		Map<K, V> result = new HashMap<>();
+		for (final K key : keys) {
+			Node<V> node = _data.get(key);
+			if (node != null && isExpired(node) && now - node._expiresAt <= maxStalenessNanos) {
+				result.put(key, node._value);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the values of the specified keys, the keys not cached are loaded by one call of the specified loader.
+	 * The loader is called without holding the lock of the cache, the values it provides are cached.
+	 *
+	 * @param keys   the keys
+	 * @param loader the loader of the missing keys, keys without value are left out
+	 * @return the values by key, keys without value are missing
+	 */
+	public Map<K, V> getAll(final Collection<? extends K> keys, final Function<Set<K>, Map<K, V>> loader) {
+		Map<K, V> result = getAllPresent(keys);
+		Set<K> missingKeys = new LinkedHashSet<>(keys);
+		missingKeys.removeAll(result.keySet());
+		if (!missingKeys.isEmpty()) {
+			Map<K, V> loaded = loader.apply(missingKeys);
+			putAll(loaded);
+			result.putAll(loaded);
+		}
+		return result;
+	}
+
+	/**
+	 * Caches the specified value.
+	 *
+	 * @param key   the key
+	 * @param value the value
+	 */
+	public synchronized void put(final K key, final V value) {
+		put(key, value, Duration.ZERO);
+	}
+
+	/**
+	 * Caches the specified value written the specified duration ago, e.g. restored from a persistent store.
+	 *
+	 * @param key   the key
+	 * @param value the value
+	 * @param age   the time since the value was written, it shortens the time to live
+	 */
+	public synchronized void put(final K key, final V value, final Duration age) {
+		long expiresAt = _ticker.getAsLong() + _ttlNanos - age.toNanos();
+		Node<V> node = _data.get(key);
+		if (node != null) {
+			node._value = value;
+			node._expiresAt = expiresAt;
+			onAccess(key, node);
+			return;
+		}
+		_sketch.increment(key);
+		node = new Node<>(value, expiresAt);
+		_data.put(key, node);
+		_window.put(key, node);
+		evict();
+	}
+
+	/**
+	 * Caches the specified values.
+	 *
+	 * @param values the values by key
+	 */
+	public synchronized void putAll(final Map<? extends K, ? extends V> values) {
+		values.forEach(this::put);
+	}
+
+	/**
+	 * Removes the specified key.
+	 *
+	 * @param key the key
+	 */
+	public synchronized void invalidate(final K key) {
+		Node<V> node = _data.get(key);
+		if (node != null) {
+			remove(key, node);
+		}
+	}
+
+	/**
+	 * Removes all entries.
+	 */
+	public synchronized void invalidateAll() {
+		_data.clear();
+		_window.clear();
+		_probation.clear();
+		_protected.clear();
+	}
+
+	/**
+	 * Gets the number of entries, including expired entries not yet removed.
+	 *
+	 * @return the size
+	 */
+	public synchronized long size() {
+		return _data.size();
+	}
+
+	/**
+	 * Gets the statistics.
+	 *
+	 * @return the statistics
+	 */
+	public synchronized CacheStats stats() {
+		return new CacheStats(_hitCount, _missCount, _evictionCount);
+	}
+
+	private boolean isExpired(final Node<V> node) {
+		return _ticker.getAsLong() - node._expiresAt >= 0;
+	}
+
+	private void onAccess(final K key, final Node<V> node) {
+		switch (node._region) {
+			case WINDOW:
+				_window.remove(key);
+				_window.put(key, node);
+				break;
+			case PROBATION:
+				// accessed again, promote to the protected segment
+				_probation.remove(key);
+				node._region = Region.PROTECTED;
+				_protected.put(key, node);
+				while (_protected.size() > _protectedMaximum) {
+					demote();
+				}
+				break;
+			default:
+				_protected.remove(key);
+				_protected.put(key, node);
+				break;
+		}
+	}
+
+	/**
+	 * Moves the least recently used entry of the protected segment to the probation segment.
+	 */
+	private void demote() {
+		Iterator<Map.Entry<K, Node<V>>> iterator = _protected.entrySet().iterator();
+		Map.Entry<K, Node<V>> entry = iterator.next();
+		iterator.remove();
+		entry.getValue()._region = Region.PROBATION;
+		_probation.put(entry.getKey(), entry.getValue());
+	}
+
+	/**
+	 * Moves entries from the window to the main space, evicting either them or the victims of the main space.
+	 */
+	private void evict() {
+		while (_window.size() > _windowMaximum) {
+			Iterator<Map.Entry<K, Node<V>>> iterator = _window.entrySet().iterator();
+			Map.Entry<K, Node<V>> candidate = iterator.next();
+			iterator.remove();
+			candidate.getValue()._region = Region.PROBATION;
+			_probation.put(candidate.getKey(), candidate.getValue());
+			if (_probation.size() + _protected.size() > _mainMaximum) {
+				K victim = getVictim(candidate.getKey());
+				if (victim == null || _sketch.frequency(candidate.getKey()) <= _sketch.frequency(victim)) {
+					victim = candidate.getKey();
+				}
+				remove(victim, _data.get(victim));
+				_evictionCount++;
+			}
+		}
+	}
+
+	private K getVictim(final K candidate) {
+		for (final K key : _probation.keySet()) {
+			if (!key.equals(candidate)) {
+				return key;
+			}
+		}
+		return _protected.isEmpty() ? null : _protected.keySet().iterator().next();
+	}
+
+	private void remove(final K key, final Node<V> node) {
+		_data.remove(key);
+		switch (node._region) {
+			case WINDOW:
+				_window.remove(key);
+				break;
+			case PROBATION:
+				_probation.remove(key);
+				break;
+			default:
+				_protected.remove(key);
+				break;
+		}
+	}
+
+	/**
+	 * The region of the cache an entry is in.
+	 */
+	private enum Region {
+		WINDOW, PROBATION, PROTECTED
+	}
+
+	/**
+	 * A cache entry.
+	 */
+	private static class Node<V> {
+
+		private V _value;
+		private long _expiresAt;
+		private Region _region = Region.WINDOW;
+
+		private Node(final V value, final long expiresAt) {
+			_value = value;
+			_expiresAt = expiresAt;
+		}
+	}
+}
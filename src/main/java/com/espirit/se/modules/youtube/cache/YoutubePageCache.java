@@ -0,0 +1,113 @@
+package com.espirit.se.modules.youtube.cache;
+
+import com.google.api.client.util.GenericData;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Cache of the result pages of search and playlist requests, shared by all editors.
+ * The pages are cached by the normalized request, i.e. by api key, query, channel or playlist and page token. Only the
+ * key holds the {@link #normalizeQuery(String) normalized query}, the request is sent with the query as typed. Every
+ * caller gets its own copy of a cached page.
+ */
+public final class YoutubePageCache {
+
+	/**
+	 * The maximum number of cached pages.
+	 */
+	public static final long MAXIMUM_SIZE = 500;
+	/**
+	 * The time to live of a cached page.
+	 */
+	public static final Duration TTL = Duration.ofMinutes(10);
+
+	/**
+	 * The boolean operator of YouTube searches, it is case-sensitive.
+	 */
+	static final String OR_OPERATOR = "OR";
+
+	private static final WTinyLfuCache<String, GenericData> CACHE = new WTinyLfuCache<>(MAXIMUM_SIZE, TTL);
+
+	private YoutubePageCache() {
+		throw new IllegalStateException("Utility class");
+	}
+
+	/**
+	 * Gets a copy of the cached page of the specified request.
+	 *
+	 * @param requestKey the normalized request
+	 * @param <T>        the response type
+	 * @return the page or {@code null} if not cached
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T extends GenericData> T get(final String requestKey) {
+		GenericData page = CACHE.get(requestKey);
+		return page != null ? (T) page.clone() : null;
+	}
+
+	/**
+	 * Gets a copy of the expired page of the specified request, if it is still held by the cache.
+	 *
+	 * @param requestKey the normalized request
+	 * @param <T>        the response type
+	 * @return the page or {@code null} if not cached or not expired
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T extends GenericData> T getExpired(final String requestKey) {
+		GenericData page = CACHE.getAllExpired(List.of(requestKey)).get(requestKey);
+		return page != null ? (T) page.clone() : null;
+	}
+
+	/**
+	 * Checks whether the page of the specified request is cached.
+	 *
+	 * @param requestKey the normalized request
+	 * @return true if the page is cached
+	 */
+	public static boolean contains(final String requestKey) {
+		return CACHE.containsKey(requestKey);
+	}
+
+	/**
+	 * Caches a copy of the page of the specified request.
+	 *
+	 * @param requestKey the normalized request
+	 * @param page       the page
+	 */
+	public static void put(final String requestKey, final GenericData page) {
+		CACHE.put(requestKey, page.clone());
+	}
+
+	/**
+	 * Normalizes the specified query for the key of its pages. YouTube searches are case-insensitive and ignore surplus
+	 * whitespace, except for the operator {@value #OR_OPERATOR}.
+	 *
+	 * @param query the query
+	 * @return the normalized query
+	 */
+	public static String normalizeQuery(final String query) {
+		return Arrays.stream(query.trim().split("\\s+"))
+				.map(term -> OR_OPERATOR.equals(term) ? term : term.toLowerCase(Locale.ROOT))
+				.collect(Collectors.joining(" "));
+	}
+
+	/**
+	 * Gets the statistics.
+	 *
+	 * @return the statistics
+	 */
+	public static CacheStats stats() {
+		return CACHE.stats();
+	}
+
+	/**
+	 * Removes all pages.
+	 */
+	public static void clear() {
+		CACHE.invalidateAll();
+	}
+}
@@ -0,0 +1,53 @@
+package com.espirit.se.modules.youtube.cache;
+
+import com.espirit.se.modules.youtube.YoutubeVideo;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the video caches, one per project and shared by all sessions of the project.
+ */
+public final class YoutubeVideoCache {
+
+	/**
+	 * The maximum number of cached videos per project.
+	 */
+	public static final long MAXIMUM_SIZE = 10_000;
+	/**
+	 * The time to live of a cached video, afterwards it is served stale while it is revalidated.
+	 */
+	public static final Duration TTL = Duration.ofHours(1);
+	/**
+	 * The time to live of a cached video including the time it is served stale.
+	 */
+	public static final Duration HARD_TTL = Duration.ofDays(1);
+	/**
+	 * The maximum duration an expired video is served stale.
+	 */
+	public static final Duration MAX_STALENESS = HARD_TTL.minus(TTL);
+
+	private static final Map<Long, WTinyLfuCache<String, YoutubeVideo>> CACHES = new ConcurrentHashMap<>();
+
+	private YoutubeVideoCache() {
+		throw new IllegalStateException("Utility class");
+	}
+
+	/**
+	 * Gets the video cache of the specified project.
+	 *
+	 * @param projectId the project id
+	 * @return the cache
+	 */
+	public static WTinyLfuCache<String, YoutubeVideo> forProject(final long projectId) {
+		return CACHES.computeIfAbsent(projectId, id -> new WTinyLfuCache<>(MAXIMUM_SIZE, TTL));
+	}
+
+	/**
+	 * Removes the caches of all projects.
+	 */
+	public static void clear() {
+		CACHES.clear();
+	}
+}
@@ -0,0 +1,263 @@
+package com.espirit.se.modules.youtube.catalog;
+
+import com.espirit.se.modules.youtube.YoutubeVideo;
+
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Local mirror of the uploads playlist of a channel, the videos are kept newest first.
+ * The mirror is read concurrently by editors and updated by a single sync, every update replaces an immutable
+ * snapshot. {@link #save()} writes the mirror to a temporary file which replaces the mirror file, so a crash never
+ * leaves a partial mirror behind. The mirrored videos are kept in sync with an optional {@link VideoIndex}.
+ */
+public final class ChannelMirror {
+
+	private static final int MAGIC = 0x59544355;
+	private static final int VERSION = 1;
+	private static final String TEMP_SUFFIX = ".tmp";
+
+	private final String _channelId;
+	private final Path _file;
+	private final VideoIndex _index;
+	private volatile Snapshot _snapshot;
+	private volatile long _syncedAt;
+
+	private ChannelMirror(final String channelId, final Path file, @Nullable final VideoIndex index, final Snapshot snapshot, final long syncedAt) {
+		_channelId = channelId;
+		_file = file;
+		_index = index;
+		_snapshot = snapshot;
+		_syncedAt = syncedAt;
+		if (index != null) {
+			index.replaceChannel(channelId, snapshot._videos);
+		}
+	}
+
+	/**
+	 * Opens the mirror stored in the specified file, an empty mirror is created if the file does not exist.
+	 *
+	 * @param channelId the channel id
+	 * @param file      the mirror file
+	 * @return the mirror
+	 * @throws IOException if the file cannot be read or is no mirror of the channel
+	 */
+	public static ChannelMirror open(final String channelId, final Path file) throws IOException {
+		return open(channelId, file, null);
+	}
+
+	/**
+	 * Opens the mirror stored in the specified file, an empty mirror is created if the file does not exist.
+	 *
+	 * @param channelId the channel id
+	 * @param file      the mirror file
+	 * @param index     the index of the mirrored videos, may be {@code null}
+	 * @return the mirror
+	 * @throws IOException if the file cannot be read or is no mirror of the channel
+	 */
+	public static ChannelMirror open(final String channelId, final Path file, @Nullable final VideoIndex index) throws IOException {
+		if (!Files.exists(file)) {
+			return new ChannelMirror(channelId, file, index, new Snapshot(Collections.emptyList(), null, 0), 0);
+		}
+		// the mirror is saved after every sync that changed it
+		long syncedAt = Files.getLastModifiedTime(file).toMillis();
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+			if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+				throw new IOException("No channel mirror: " + file);
+			}
+			String storedChannelId = input.readUTF();
+			if (!channelId.equals(storedChannelId)) {
+				throw new IOException(String.format("Mirror of channel '%s' expected, found '%s': %s", channelId, storedChannelId, file));
+			}
+			long fullSyncAt = input.readLong();
+			String etag = readNullable(input);
+			int count = input.readInt();
+			List<YoutubeVideo> videos = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				videos.add(new YoutubeVideo(input.readUTF(), readNullable(input), readNullable(input), readNullable(input), readNullable(input)));
+			}
+			return new ChannelMirror(channelId, file, index, new Snapshot(videos, etag, fullSyncAt), syncedAt);
+		}
+	}
+
+	/**
+	 * Gets the channel id.
+	 *
+	 * @return the channel id
+	 */
+	public String getChannelId() {
+		return _channelId;
+	}
+
+	/**
+	 * Gets the mirrored videos.
+	 *
+	 * @return the unmodifiable videos, newest first
+	 */
+	public List<YoutubeVideo> getVideos() {
+		return _snapshot._videos;
+	}
+
+	/**
+	 * Checks whether the specified video is mirrored.
+	 *
+	 * @param videoId the video id
+	 * @return true if the video is mirrored
+	 */
+	public boolean contains(final String videoId) {
+		return _snapshot._videoIds.contains(videoId);
+	}
+
+	/**
+	 * Checks whether the mirror is complete, i.e. at least one full pass over the playlist succeeded.
+	 *
+	 * @return true if the mirror is complete
+	 */
+	public boolean isComplete() {
+		return _snapshot._fullSyncAt > 0;
+	}
+
+	/**
+	 * Gets the time of the last successful sync, whether it changed the mirror or not.
+	 *
+	 * @return the time in milliseconds since the epoch, 0 if never synced
+	 */
+	public long getSyncedAt() {
+		return _syncedAt;
+	}
+
+	/**
+	 * Sets the time of the last successful sync.
+	 *
+	 * @param syncedAt the time in milliseconds since the epoch
+	 */
+	public void setSyncedAt(final long syncedAt) {
+		_syncedAt = syncedAt;
+	}
+
+	/**
+	 * Gets the time of the last full pass.
+	 *
+	 * @return the time in milliseconds since the epoch, 0 if the mirror is not complete
+	 */
+	public long getFullSyncAt() {
+		return _snapshot._fullSyncAt;
+	}
+
+	/**
+	 * Gets the ETag of the first playlist page.
+	 *
+	 * @return the ETag or {@code null} if unknown
+	 */
+	@Nullable
+	public String getEtag() {
+		return _snapshot._etag;
+	}
+
+	/**
+	 * Replaces all videos with the result of a full pass.
+	 *
+	 * @param videos     the videos, newest first
+	 * @param etag       the ETag of the first playlist page
+	 * @param fullSyncAt the time of the full pass in milliseconds since the epoch
+	 */
+	public void replace(final List<YoutubeVideo> videos, @Nullable final String etag, final long fullSyncAt) {
+		_snapshot = new Snapshot(videos, etag, fullSyncAt);
+		if (_index != null) {
+			_index.replaceChannel(_channelId, videos);
+		}
+	}
+
+	/**
+	 * Adds the new uploads of an incremental pass in front of the mirrored videos.
+	 *
+	 * @param uploads the new uploads, newest first
+	 * @param etag    the ETag of the first playlist page
+	 */
+	public void prepend(final List<YoutubeVideo> uploads, @Nullable final String etag) {
+		Snapshot snapshot = _snapshot;
+		Set<String> uploadIds = new HashSet<>();
+		uploads.forEach(video -> uploadIds.add(video.getId()));
+		List<YoutubeVideo> videos = new ArrayList<>(uploads.size() + snapshot._videos.size());
+		videos.addAll(uploads);
+		for (final YoutubeVideo video : snapshot._videos) {
+			if (!uploadIds.contains(video.getId())) {
+				videos.add(video);
+			}
+		}
+		_snapshot = new Snapshot(videos, etag, snapshot._fullSyncAt);
+		if (_index != null) {
+			_index.putAll(_channelId, uploads);
+		}
+	}
+
+	/**
+	 * Writes the mirror to its file.
+	 *
+	 * @throws IOException the io exception
+	 */
+	public void save() throws IOException {
+		Snapshot snapshot = _snapshot;
+		Files.createDirectories(_file.getParent());
+		Path tempFile = _file.resolveSibling(_file.getFileName() + TEMP_SUFFIX);
+		try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+			output.writeInt(MAGIC);
+			output.writeInt(VERSION);
+			output.writeUTF(_channelId);
+			output.writeLong(snapshot._fullSyncAt);
+			writeNullable(output, snapshot._etag);
+			output.writeInt(snapshot._videos.size());
+			for (final YoutubeVideo video : snapshot._videos) {
+				output.writeUTF(video.getId());
+				writeNullable(output, video.getTitle());
+				writeNullable(output, video.getDescription());
+				writeNullable(output, video.getThumbnailUrl());
+				writeNullable(output, video.getPosterUrl());
+			}
+		}
+		Files.move(tempFile, _file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private static void writeNullable(final DataOutputStream output, @Nullable final String value) throws IOException {
+		output.writeBoolean(value != null);
+		if (value != null) {
+			output.writeUTF(value);
+		}
+	}
+
+	@Nullable
+	private static String readNullable(final DataInputStream input) throws IOException {
+		return input.readBoolean() ? input.readUTF() : null;
+	}
+
+	/**
+	 * An immutable state of the mirror.
+	 */
+	private static class Snapshot {
+
+		private final List<YoutubeVideo> _videos;
+		private final Set<String> _videoIds;
+		private final String _etag;
+		private final long _fullSyncAt;
+
+		private Snapshot(final List<YoutubeVideo> videos, @Nullable final String etag, final long fullSyncAt) {
+			_videos = Collections.unmodifiableList(new ArrayList<>(videos));
+			_videoIds = new HashSet<>();
+			videos.forEach(video -> _videoIds.add(video.getId()));
+			_etag = etag;
+			_fullSyncAt = fullSyncAt;
+		}
+	}
+}
@@ -0,0 +1,79 @@
+package com.espirit.se.modules.youtube.catalog;
+
+import de.espirit.common.base.Logging;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Registry of the channel mirrors, one file per channel in the channels directory of the
+ * {@link VideoCatalogs#getDataDirectory() data directory}. Channels are shared by all projects, so are their mirrors.
+ * The videos of all mirrors are indexed in one {@link VideoIndex}.
+ */
+public final class ChannelMirrors {
+
+	/**
+	 * The file extension of the mirror files.
+	 */
+	static final String FILE_EXTENSION = ".uploads";
+
+	private static final Class<?> LOGGER = ChannelMirrors.class;
+	private static final Pattern CHANNEL_ID = Pattern.compile("[A-Za-z0-9_-]+");
+	private static final Map<String, ChannelMirror> MIRRORS = new ConcurrentHashMap<>();
+	private static final VideoIndex INDEX = new VideoIndex();
+
+	private ChannelMirrors() {
+		throw new IllegalStateException("Utility class");
+	}
+
+	/**
+	 * Gets the mirror of the specified channel, it is opened if necessary.
+	 *
+	 * @param channelId the channel id
+	 * @return the mirror or {@code null} if the channel id is invalid or the mirror cannot be opened
+	 */
+	@Nullable
+	public static ChannelMirror forChannel(final String channelId) {
+		if (!CHANNEL_ID.matcher(channelId).matches()) {
+			Logging.logWarning("Invalid channel id, channel not mirrored: " + channelId, LOGGER);
+			return null;
+		}
+		return MIRRORS.computeIfAbsent(channelId, ChannelMirrors::open);
+	}
+
+	/**
+	 * Gets the index of the videos of all mirrors.
+	 *
+	 * @return the index
+	 */
+	public static VideoIndex getIndex() {
+		return INDEX;
+	}
+
+	/**
+	 * Removes all mirrors from the registry and the index, their files are kept.
+	 */
+	public static void clear() {
+		MIRRORS.clear();
+		INDEX.clear();
+	}
+
+	private static Path getChannelDirectory() {
+		return VideoCatalogs.getDataDirectory().resolve("channels");
+	}
+
+	@Nullable
+	private static ChannelMirror open(final String channelId) {
+		Path file = getChannelDirectory().resolve(channelId + FILE_EXTENSION);
+		try {
+			return ChannelMirror.open(channelId, file, INDEX);
+		} catch (IOException | RuntimeException e) {
+			Logging.logError("Unable to open the channel mirror " + file, e, LOGGER);
+			return null;
+		}
+	}
+}
@@ -0,0 +1,769 @@
+package com.espirit.se.modules.youtube.catalog;
+
+import de.espirit.common.base.Logging;
+
+import com.espirit.se.modules.youtube.YoutubeVideo;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Embedded, append-only on-disk store of videos.
+ * <p>
+ * Every change is appended to a data file as a checksummed record, a record is never changed afterwards. The latest
+ * record of every video is found by a memory-mapped index, an open addressing hash table of ID hashes and record
+ * offsets. Opening a catalog only maps the index, so it takes milliseconds regardless of the number of videos.
+ * <p>
+ * The index is marked clean by a {@link #checkpoint()} and when the catalog is closed, and unclean again before the next
+ * change. If it is not clean, does not exist or belongs to another generation of the data file, e.g. after a crash, it
+ * is rebuilt from the data file and a torn record at the end of the data file is cut off. {@link #compact()} writes the latest records to new files which replace the old ones by
+ * atomic moves, a crash in between leaves either the old or the new data file, both are consistent.
+ */
+public final class VideoCatalog implements AutoCloseable {
+
+	static final String DATA_FILE = "videos.dat";
+	static final String INDEX_FILE = "videos.idx";
+	private static final String TEMP_SUFFIX = ".tmp";
+
+	private static final int DATA_MAGIC = 0x59544443;
+	private static final int INDEX_MAGIC = 0x59544449;
+	private static final int VERSION = 1;
+	private static final int DATA_HEADER_SIZE = 16;
+	private static final int RECORD_HEADER_SIZE = 8;
+	private static final int INDEX_HEADER_SIZE = 64;
+	private static final int SLOT_SIZE = 16;
+	private static final int INITIAL_CAPACITY = 1024;
+	private static final byte PUT = 1;
+	private static final byte REMOVE = 2;
+
+	// index header layout
+	private static final int MAGIC_POSITION = 0;
+	private static final int VERSION_POSITION = 4;
+	private static final int GENERATION_POSITION = 8;
+	private static final int CAPACITY_POSITION = 16;
+	private static final int USED_SLOTS_POSITION = 20;
+	private static final int SIZE_POSITION = 24;
+	private static final int CLEAN_POSITION = 28;
+	private static final int DATA_LENGTH_POSITION = 32;
+	private static final int GARBAGE_POSITION = 40;
+
+	private static final Class<?> LOGGER = VideoCatalog.class;
+
+	private final Path _directory;
+	private FileChannel _data;
+	private FileChannel _indexChannel;
+	private MappedByteBuffer _index;
+	private long _generation;
+	private int _capacity;
+	private int _usedSlots;
+	private int _size;
+	private long _dataLength;
+	private long _garbage;
+	private boolean _clean;
+	private boolean _closed;
+
+	private VideoCatalog(final Path directory) {
+		_directory = directory;
+	}
+
+	/**
+	 * Opens the catalog in the specified directory, a new catalog is created if there is none.
+	 *
+	 * @param directory the directory
+	 * @return the catalog
+	 * @throws IOException the io exception
+	 */
+	public static VideoCatalog open(final Path directory) throws IOException {
+		Files.createDirectories(directory);
+		VideoCatalog catalog = new VideoCatalog(directory);
+		try {
+			catalog.openFiles();
+		} catch (IOException | RuntimeException e) {
+			catalog.closeFiles();
+			throw e;
+		}
+		return catalog;
+	}
+
+	/**
+	 * Gets the video with the specified ID.
+	 *
+	 * @param videoId the video id
+	 * @return the video or {@code null} if unknown
+	 */
+	@Nullable
+	public synchronized YoutubeVideo get(final String videoId) {
+		Entry entry = getEntry(videoId);
+		return entry != null ? entry.getVideo() : null;
+	}
+
+	/**
+	 * Gets the entry of the video with the specified ID.
+	 *
+	 * @param videoId the video id
+	 * @return the entry or {@code null} if unknown
+	 */
+	@Nullable
+	public synchronized Entry getEntry(final String videoId) {
+		checkOpen();
+		try {
+			int slot = findSlot(videoId);
+			if (slot < 0) {
+				return null;
+			}
+			return readEntry(getOffset(slot));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Gets the entries of the specified videos.
+	 *
+	 * @param videoIds the video ids
+	 * @return the entries by video id, unknown videos are missing
+	 */
+	public synchronized Map<String, Entry> getEntries(final Collection<String> videoIds) {
+		Map<String, Entry> entries = new HashMap<>();
+		for (final String videoId : videoIds) {
+			Entry entry = getEntry(videoId);
+			if (entry != null) {
+				entries.put(videoId, entry);
+			}
+		}
+		return entries;
+	}
+
+	/**
+	 * Stores the specified video, it replaces a stored video with the same ID.
+	 *
+	 * @param video     the video
+	 * @param updatedAt the time the video was retrieved, in milliseconds since the epoch
+	 */
+	public synchronized void put(final YoutubeVideo video, final long updatedAt) {
+		checkOpen();
+		try {
+			append(video.getId(), encode(video, updatedAt), true);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Stores the specified videos.
+	 *
+	 * @param videos    the videos
+	 * @param updatedAt the time the videos were retrieved, in milliseconds since the epoch
+	 */
+	public synchronized void putAll(final Collection<YoutubeVideo> videos, final long updatedAt) {
+		videos.forEach(video -> put(video, updatedAt));
+	}
+
+	/**
+	 * Removes the specified video.
+	 *
+	 * @param videoId the video id
+	 */
+	public synchronized void remove(final String videoId) {
+		checkOpen();
+		try {
+			int slot = findSlot(videoId);
+			if (slot >= 0 && readEntry(getOffset(slot)) != null) {
+				append(videoId, encodeRemoval(videoId), false);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Calls the specified consumer for every stored entry, in no particular order.
+	 *
+	 * @param consumer the consumer
+	 */
+	public synchronized void forEach(final Consumer<Entry> consumer) {
+		checkOpen();
+		try {
+			for (int slot = 0; slot < _capacity; slot++) {
+				if (getHash(slot) != 0) {
+					Entry entry = readEntry(getOffset(slot));
+					if (entry != null) {
+						consumer.accept(entry);
+					}
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Gets the number of stored videos.
+	 *
+	 * @return the size
+	 */
+	public synchronized int size() {
+		return _size;
+	}
+
+	/**
+	 * Gets the number of bytes of the data file occupied by replaced or removed records.
+	 *
+	 * @return the garbage in bytes
+	 */
+	public synchronized long getGarbage() {
+		return _garbage;
+	}
+
+	/**
+	 * Gets the length of the data file.
+	 *
+	 * @return the length in bytes
+	 */
+	public synchronized long getDataLength() {
+		return _dataLength;
+	}
+
+	/**
+	 * Rewrites the catalog without replaced and removed records.
+	 *
+	 * @throws IOException the io exception
+	 */
+	public synchronized void compact() throws IOException {
+		checkOpen();
+		Path dataTemp = _directory.resolve(DATA_FILE + TEMP_SUFFIX);
+		Path indexTemp = _directory.resolve(INDEX_FILE + TEMP_SUFFIX);
+		long generation = newGeneration();
+		int capacity = getCapacity(_size);
+		try (FileChannel data = FileChannel.open(dataTemp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+			 FileChannel indexChannel = FileChannel.open(indexTemp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			writeDataHeader(data, generation);
+			MappedByteBuffer index = createIndex(indexChannel, generation, capacity);
+			long position = DATA_HEADER_SIZE;
+			int size = 0;
+			for (int slot = 0; slot < _capacity; slot++) {
+				long hash = getHash(slot);
+				if (hash == 0) {
+					continue;
+				}
+				ByteBuffer record = readRecord(getOffset(slot));
+				if (record == null || record.get(RECORD_HEADER_SIZE) != PUT) {
+					continue;
+				}
+				record.rewind();
+				int length = record.remaining();
+				while (record.hasRemaining()) {
+					data.write(record, position + length - record.remaining());
+				}
+				insert(index, capacity, hash, position);
+				position += length;
+				size++;
+			}
+			data.force(true);
+			index.putInt(USED_SLOTS_POSITION, size);
+			index.putInt(SIZE_POSITION, size);
+			index.putLong(DATA_LENGTH_POSITION, position);
+			index.putLong(GARBAGE_POSITION, 0);
+			index.putInt(CLEAN_POSITION, 1);
+			index.force();
+		}
+		closeFiles();
+		// a crash between the moves leaves a new data file with an index of another generation, it is rebuilt
+		Files.move(dataTemp, _directory.resolve(DATA_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		Files.move(indexTemp, _directory.resolve(INDEX_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		openFiles();
+		Logging.logInfo(String.format("Compacted video catalog '%s': %d videos, %d bytes", _directory, _size, _dataLength), LOGGER);
+	}
+
+	/**
+	 * Writes all changes to the storage device.
+	 *
+	 * @throws IOException the io exception
+	 */
+	public synchronized void flush() throws IOException {
+		checkOpen();
+		_data.force(true);
+		_index.force();
+	}
+
+	/**
+	 * Writes all changes to the storage device and marks the index clean, so the catalog is opened without a rebuild
+	 * even if it is not closed.
+	 *
+	 * @throws IOException the io exception
+	 */
+	public synchronized void checkpoint() throws IOException {
+		checkOpen();
+		if (_clean) {
+			return;
+		}
+		_data.force(true);
+		_index.force();
+		_index.putInt(CLEAN_POSITION, 1);
+		_index.force();
+		_clean = true;
+	}
+
+	/**
+	 * Checks whether the index is marked clean.
+	 *
+	 * @return true if the index is clean
+	 */
+	synchronized boolean isClean() {
+		return _clean;
+	}
+
+	/**
+	 * Flushes and closes the catalog, its index is marked clean.
+	 *
+	 * @throws IOException the io exception
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (_closed) {
+			return;
+		}
+		try {
+			checkpoint();
+		} finally {
+			_closed = true;
+			closeFiles();
+		}
+	}
+
+	private void checkOpen() {
+		if (_closed) {
+			throw new IllegalStateException("Video catalog is closed: " + _directory);
+		}
+	}
+
+	private void openFiles() throws IOException {
+		Path dataFile = _directory.resolve(DATA_FILE);
+		_data = FileChannel.open(dataFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		if (_data.size() < DATA_HEADER_SIZE) {
+			_data.truncate(0);
+			writeDataHeader(_data, newGeneration());
+			_data.force(true);
+		}
+		_generation = readDataHeader(_data);
+		Path indexFile = _directory.resolve(INDEX_FILE);
+		_indexChannel = FileChannel.open(indexFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		if (isIndexValid()) {
+			_index = _indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, _indexChannel.size());
+			_capacity = _index.getInt(CAPACITY_POSITION);
+			_usedSlots = _index.getInt(USED_SLOTS_POSITION);
+			_size = _index.getInt(SIZE_POSITION);
+			_dataLength = _index.getLong(DATA_LENGTH_POSITION);
+			_garbage = _index.getLong(GARBAGE_POSITION);
+			// records appended after the last checkpoint are unknown to the index
+			_data.truncate(_dataLength);
+			_clean = true;
+		} else {
+			rebuildIndex();
+			_clean = false;
+		}
+	}
+
+	/**
+	 * Marks the index unclean before the first change after a checkpoint.
+	 */
+	private void markUnclean() {
+		if (_clean) {
+			_index.putInt(CLEAN_POSITION, 0);
+			_index.force();
+			_clean = false;
+		}
+	}
+
+	private void closeFiles() throws IOException {
+		_index = null;
+		try {
+			if (_data != null) {
+				_data.close();
+			}
+		} finally {
+			if (_indexChannel != null) {
+				_indexChannel.close();
+			}
+		}
+	}
+
+	private boolean isIndexValid() throws IOException {
+		if (_indexChannel.size() < INDEX_HEADER_SIZE) {
+			return false;
+		}
+		ByteBuffer header = ByteBuffer.allocate(INDEX_HEADER_SIZE);
+		readFully(_indexChannel, header, 0);
+		header.flip();
+		return header.getInt(MAGIC_POSITION) == INDEX_MAGIC
+				&& header.getInt(VERSION_POSITION) == VERSION
+				&& header.getLong(GENERATION_POSITION) == _generation
+				&& header.getInt(CLEAN_POSITION) == 1
+				&& header.getLong(DATA_LENGTH_POSITION) <= _data.size()
+				&& _indexChannel.size() == INDEX_HEADER_SIZE + (long) header.getInt(CAPACITY_POSITION) * SLOT_SIZE;
+	}
+
+	/**
+	 * Rebuilds the index by scanning the data file, a torn or corrupt record ends the data file.
+	 */
+	private void rebuildIndex() throws IOException {
+		Logging.logInfo("Rebuild index of video catalog " + _directory, LOGGER);
+		_capacity = INITIAL_CAPACITY;
+		_index = createIndex(_indexChannel, _generation, _capacity);
+		_usedSlots = 0;
+		_size = 0;
+		_garbage = 0;
+		_dataLength = DATA_HEADER_SIZE;
+		long fileLength = _data.size();
+		while (_dataLength < fileLength) {
+			ByteBuffer record = readRecord(_dataLength);
+			if (record == null) {
+				Logging.logWarning(String.format("Cut off torn record at %d of video catalog %s", _dataLength, _directory), LOGGER);
+				break;
+			}
+			long offset = _dataLength;
+			_dataLength += record.limit();
+			record.position(RECORD_HEADER_SIZE);
+			byte type = record.get();
+			String videoId = readString(record);
+			index(videoId, offset, record.limit(), type == PUT);
+		}
+		_data.truncate(_dataLength);
+		writeIndexHeader();
+	}
+
+	private void append(final String videoId, final byte[] payload, final boolean put) throws IOException {
+		markUnclean();
+		ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + payload.length);
+		record.putInt(payload.length);
+		record.putInt(checksum(payload));
+		record.put(payload);
+		record.flip();
+		long offset = _dataLength;
+		while (record.hasRemaining()) {
+			_data.write(record, offset + record.position());
+		}
+		_dataLength += record.limit();
+		index(videoId, offset, record.limit(), put);
+		writeIndexHeader();
+	}
+
+	/**
+	 * Points the index entry of the specified video to the specified record.
+	 */
+	private void index(final String videoId, final long offset, final int recordLength, final boolean put) throws IOException {
+		if (!put) {
+			// a removal record is garbage as soon as it is written, compaction drops it
+			_garbage += recordLength;
+		}
+		int slot = findSlot(videoId);
+		if (slot >= 0) {
+			ByteBuffer previous = readRecord(getOffset(slot));
+			if (previous != null && previous.get(RECORD_HEADER_SIZE) == PUT) {
+				_garbage += previous.limit();
+				_size--;
+			}
+			_size += put ? 1 : 0;
+			_index.putLong(getSlotPosition(slot) + 8, offset);
+			return;
+		}
+		if (!put) {
+			return;
+		}
+		if ((_usedSlots + 1) * 2L > _capacity) {
+			grow();
+		}
+		insert(_index, _capacity, hash(videoId), offset);
+		_usedSlots++;
+		_size++;
+	}
+
+	private void grow() throws IOException {
+		int capacity = _capacity * 2;
+		Path indexTemp = _directory.resolve(INDEX_FILE + TEMP_SUFFIX);
+		try (FileChannel indexChannel = FileChannel.open(indexTemp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			MappedByteBuffer index = createIndex(indexChannel, _generation, capacity);
+			for (int slot = 0; slot < _capacity; slot++) {
+				long hash = getHash(slot);
+				if (hash != 0) {
+					insert(index, capacity, hash, getOffset(slot));
+				}
+			}
+			index.force();
+		}
+		_indexChannel.close();
+		// the new index is not clean, a crash right after the move leads to a rebuild
+		Files.move(indexTemp, _directory.resolve(INDEX_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		_indexChannel = FileChannel.open(_directory.resolve(INDEX_FILE), StandardOpenOption.READ, StandardOpenOption.WRITE);
+		_index = _indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, _indexChannel.size());
+		_capacity = capacity;
+	}
+
+	/**
+	 * Finds the slot of the specified video.
+	 *
+	 * @return the slot or -1 if the video is not indexed
+	 */
+	private int findSlot(final String videoId) throws IOException {
+		long hash = hash(videoId);
+		int mask = _capacity - 1;
+		for (int slot = (int) hash & mask; ; slot = (slot + 1) & mask) {
+			long slotHash = getHash(slot);
+			if (slotHash == 0) {
+				return -1;
+			}
+			if (slotHash == hash && videoId.equals(readVideoId(getOffset(slot)))) {
+				return slot;
+			}
+		}
+	}
+
+	private static void insert(final MappedByteBuffer index, final int capacity, final long hash, final long offset) {
+		int mask = capacity - 1;
+		int slot = (int) hash & mask;
+		while (index.getLong(getSlotPosition(slot)) != 0) {
+			slot = (slot + 1) & mask;
+		}
+		index.putLong(getSlotPosition(slot), hash);
+		index.putLong(getSlotPosition(slot) + 8, offset);
+	}
+
+	private long getHash(final int slot) {
+		return _index.getLong(getSlotPosition(slot));
+	}
+
+	private long getOffset(final int slot) {
+		return _index.getLong(getSlotPosition(slot) + 8);
+	}
+
+	private static int getSlotPosition(final int slot) {
+		return INDEX_HEADER_SIZE + slot * SLOT_SIZE;
+	}
+
+	private static MappedByteBuffer createIndex(final FileChannel indexChannel, final long generation, final int capacity) throws IOException {
+		indexChannel.truncate(0);
+		MappedByteBuffer index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, INDEX_HEADER_SIZE + (long) capacity * SLOT_SIZE);
+		index.putInt(MAGIC_POSITION, INDEX_MAGIC);
+		index.putInt(VERSION_POSITION, VERSION);
+		index.putLong(GENERATION_POSITION, generation);
+		index.putInt(CAPACITY_POSITION, capacity);
+		return index;
+	}
+
+	private void writeIndexHeader() {
+		_index.putInt(CAPACITY_POSITION, _capacity);
+		_index.putInt(USED_SLOTS_POSITION, _usedSlots);
+		_index.putInt(SIZE_POSITION, _size);
+		_index.putLong(DATA_LENGTH_POSITION, _dataLength);
+		_index.putLong(GARBAGE_POSITION, _garbage);
+	}
+
+	private static int getCapacity(final int size) {
+		int capacity = INITIAL_CAPACITY;
+		while (capacity < size * 2L + 2) {
+			capacity *= 2;
+		}
+		return capacity;
+	}
+
+	private static void writeDataHeader(final FileChannel data, final long generation) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(DATA_HEADER_SIZE);
+		header.putInt(DATA_MAGIC).putInt(VERSION).putLong(generation).flip();
+		while (header.hasRemaining()) {
+			data.write(header, header.position());
+		}
+	}
+
+	private long readDataHeader(final FileChannel data) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(DATA_HEADER_SIZE);
+		readFully(data, header, 0);
+		header.flip();
+		if (header.getInt() != DATA_MAGIC || header.getInt() != VERSION) {
+			throw new IOException("Not a video catalog: " + _directory.resolve(DATA_FILE));
+		}
+		return header.getLong();
+	}
+
+	/**
+	 * Reads the complete record at the specified offset.
+	 *
+	 * @return the record or {@code null} if it is torn or corrupt
+	 */
+	@Nullable
+	private ByteBuffer readRecord(final long offset) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+		if (!readFully(_data, header, offset)) {
+			return null;
+		}
+		header.flip();
+		int length = header.getInt();
+		int checksum = header.getInt();
+		if (length <= 0 || offset + RECORD_HEADER_SIZE + length > _data.size()) {
+			return null;
+		}
+		ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + length);
+		readFully(_data, record, offset);
+		record.flip();
+		if (checksum(record.array(), RECORD_HEADER_SIZE, length) != checksum) {
+			return null;
+		}
+		return record;
+	}
+
+	@Nullable
+	private String readVideoId(final long offset) throws IOException {
+		ByteBuffer record = readRecord(offset);
+		if (record == null) {
+			return null;
+		}
+		record.position(RECORD_HEADER_SIZE + 1);
+		return readString(record);
+	}
+
+	@Nullable
+	private Entry readEntry(final long offset) throws IOException {
+		ByteBuffer record = readRecord(offset);
+		if (record == null || record.get(RECORD_HEADER_SIZE) != PUT) {
+			return null;
+		}
+		try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(record.array(), RECORD_HEADER_SIZE + 1, record.limit() - RECORD_HEADER_SIZE - 1))) {
+			String id = input.readUTF();
+			long updatedAt = input.readLong();
+			YoutubeVideo video = new YoutubeVideo(id, readNullable(input), readNullable(input), readNullable(input), readNullable(input), readNullable(input));
+			return new Entry(video, updatedAt);
+		}
+	}
+
+	private static String readString(final ByteBuffer record) {
+		int length = record.getShort() & 0xFFFF;
+		try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(record.array(), record.position() - 2, length + 2))) {
+			return input.readUTF();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static byte[] encode(final YoutubeVideo video, final long updatedAt) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+		try (DataOutputStream output = new DataOutputStream(bytes)) {
+			output.writeByte(PUT);
+			output.writeUTF(video.getId());
+			output.writeLong(updatedAt);
+			writeNullable(output, video.getTitle());
+			writeNullable(output, video.getDescription());
+			writeNullable(output, video.getThumbnailUrl());
+			writeNullable(output, video.getPosterUrl());
+			writeNullable(output, video.getEtag());
+		}
+		return bytes.toByteArray();
+	}
+
+	private static byte[] encodeRemoval(final String videoId) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+		try (DataOutputStream output = new DataOutputStream(bytes)) {
+			output.writeByte(REMOVE);
+			output.writeUTF(videoId);
+		}
+		return bytes.toByteArray();
+	}
+
+	private static void writeNullable(final DataOutputStream output, @Nullable final String value) throws IOException {
+		output.writeBoolean(value != null);
+		if (value != null) {
+			output.writeUTF(value);
+		}
+	}
+
+	@Nullable
+	private static String readNullable(final DataInputStream input) throws IOException {
+		return input.readBoolean() ? input.readUTF() : null;
+	}
+
+	private static boolean readFully(final FileChannel channel, final ByteBuffer buffer, final long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, position + buffer.position()) < 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int checksum(final byte[] bytes) {
+		return checksum(bytes, 0, bytes.length);
+	}
+
+	private static int checksum(final byte[] bytes, final int offset, final int length) {
+		CRC32 crc = new CRC32();
+		crc.update(bytes, offset, length);
+		return (int) crc.getValue();
+	}
+
+	/**
+	 * 64 bit hash of the video id, never 0 as 0 marks an empty slot.
+	 */
+	static long hash(final String videoId) {
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < videoId.length(); i++) {
+			hash ^= videoId.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		return hash != 0 ? hash : 1;
+	}
+
+	private static long newGeneration() {
+		return ThreadLocalRandom.current().nextLong();
+	}
+
+	/**
+	 * A stored video with the time it was retrieved.
+	 */
+	public static final class Entry {
+
+		private final YoutubeVideo _video;
+		private final long _updatedAt;
+
+		private Entry(final YoutubeVideo video, final long updatedAt) {
+			_video = video;
+			_updatedAt = updatedAt;
+		}
+
+		/**
+		 * Gets the video.
+		 *
+		 * @return the video
+		 */
+		public YoutubeVideo getVideo() {
+			return _video;
+		}
+
+		/**
+		 * Gets the time the video was retrieved.
+		 *
+		 * @return the time in milliseconds since the epoch
+		 */
+		public long getUpdatedAt() {
+			return _updatedAt;
+		}
+	}
+}
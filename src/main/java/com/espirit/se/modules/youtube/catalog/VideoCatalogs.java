@@ -0,0 +1,199 @@
+package com.espirit.se.modules.youtube.catalog;
+
+import de.espirit.common.base.Logging;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Registry of the video catalogs, one per project in a sub directory of the data directory.
+ * The data directory is set by the system property {@value #DATA_DIRECTORY_PROPERTY} and defaults to the directory
+ * {@value #DEFAULT_DATA_DIRECTORY} in the directory of the FirstSpirit server, see {@value #SERVER_DIRECTORY_PROPERTY}.
+ * It also holds the channel mirrors and the quota ledger, so it must survive a restart of the server.
+ * <p>
+ * Once started, the open catalogs are checkpointed every {@link #CHECKPOINT_INTERVAL}, catalogs containing too much
+ * garbage are compacted instead. The catalogs are closed when the server shuts down, so they are opened without
+ * rebuilding their index after a restart.
+ */
+public final class VideoCatalogs {
+
+	/**
+	 * The system property of the data directory.
+	 */
+	public static final String DATA_DIRECTORY_PROPERTY = "youtube.dap.integration.dir";
+	/**
+	 * The system property of the directory of the FirstSpirit server, the working directory is used if it is not set.
+	 */
+	static final String SERVER_DIRECTORY_PROPERTY = "cmsroot";
+	/**
+	 * The data directory relative to the directory of the FirstSpirit server.
+	 */
+	static final String DEFAULT_DATA_DIRECTORY = "data/youtube-dap-integration";
+	/**
+	 * The ratio of garbage to data length compacting a catalog on a checkpoint or on close.
+	 */
+	static final double COMPACTION_RATIO = 0.5;
+	/**
+	 * The time between two checkpoints of the open catalogs.
+	 */
+	static final Duration CHECKPOINT_INTERVAL = Duration.ofMinutes(5);
+
+	private static final Class<?> LOGGER = VideoCatalogs.class;
+	private static final Map<Long, VideoCatalog> CATALOGS = new ConcurrentHashMap<>();
+	private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "youtube-catalog-checkpoint");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private static final Thread SHUTDOWN_HOOK = new Thread(VideoCatalogs::closeAll, "youtube-catalog-shutdown");
+	private static ScheduledFuture<?> _checkpoints;
+
+	private VideoCatalogs() {
+		throw new IllegalStateException("Utility class");
+	}
+
+	/**
+	 * Gets the data directory.
+	 *
+	 * @return the data directory
+	 */
+	public static Path getDataDirectory() {
+		String directory = System.getProperty(DATA_DIRECTORY_PROPERTY);
+		if (directory != null) {
+			return Paths.get(directory);
+		}
+		return Paths.get(System.getProperty(SERVER_DIRECTORY_PROPERTY, System.getProperty("user.dir"))).resolve(DEFAULT_DATA_DIRECTORY);
+	}
+
+	/**
+	 * Gets the catalog of the specified project, it is opened if necessary.
+	 *
+	 * @param projectId the project id
+	 * @return the catalog or {@code null} if it cannot be opened
+	 */
+	@Nullable
+	public static VideoCatalog forProject(final long projectId) {
+		return CATALOGS.computeIfAbsent(projectId, VideoCatalogs::open);
+	}
+
+	/**
+	 * Opens the catalogs of all projects found in the data directory, so the first requests are served from disk.
+	 *
+	 * @return the number of opened catalogs
+	 */
+	public static int warmLoad() {
+		Path catalogDirectory = getCatalogDirectory();
+		if (!Files.isDirectory(catalogDirectory)) {
+			return 0;
+		}
+		int count = 0;
+		try (Stream<Path> directories = Files.list(catalogDirectory)) {
+			for (final Path directory : (Iterable<Path>) directories::iterator) {
+				String name = directory.getFileName().toString();
+				if (Files.isDirectory(directory) && name.chars().allMatch(Character::isDigit) && forProject(Long.parseLong(name)) != null) {
+					count++;
+				}
+			}
+		} catch (IOException | NumberFormatException e) {
+			Logging.logError("Unable to load the video catalogs of " + catalogDirectory, e, LOGGER);
+		}
+		Logging.logInfo(String.format("Loaded %d video catalogs from %s", count, catalogDirectory), LOGGER);
+		return count;
+	}
+
+	/**
+	 * Starts the periodic checkpoints of the open catalogs and closes them when the server shuts down.
+	 */
+	public static synchronized void start() {
+		if (_checkpoints != null) {
+			return;
+		}
+		_checkpoints = EXECUTOR.scheduleWithFixedDelay(VideoCatalogs::checkpointAll, CHECKPOINT_INTERVAL.toMillis(), CHECKPOINT_INTERVAL.toMillis(),
+													   TimeUnit.MILLISECONDS);
+		Runtime.getRuntime().addShutdownHook(SHUTDOWN_HOOK);
+	}
+
+	/**
+	 * Checkpoints the open catalogs, catalogs containing too much garbage are compacted instead.
+	 */
+	static void checkpointAll() {
+		CATALOGS.forEach((projectId, catalog) -> {
+			try {
+				compactIfNecessary(catalog);
+				catalog.checkpoint();
+			} catch (IOException | RuntimeException e) {
+				Logging.logError("Unable to checkpoint the video catalog of project " + projectId, e, LOGGER);
+			}
+		});
+	}
+
+	/**
+	 * Closes the catalogs of all projects, catalogs containing too much garbage are compacted before. The checkpoints
+	 * are stopped.
+	 */
+	public static void closeAll() {
+		stop();
+		for (final Long projectId : CATALOGS.keySet()) {
+			VideoCatalog catalog = CATALOGS.remove(projectId);
+			if (catalog == null) {
+				continue;
+			}
+			try {
+				compactIfNecessary(catalog);
+				catalog.close();
+			} catch (IOException e) {
+				Logging.logError("Unable to close the video catalog of project " + projectId, e, LOGGER);
+			}
+		}
+	}
+
+	private static synchronized void stop() {
+		if (_checkpoints == null) {
+			return;
+		}
+		_checkpoints.cancel(false);
+		_checkpoints = null;
+		if (Thread.currentThread() != SHUTDOWN_HOOK) {
+			try {
+				Runtime.getRuntime().removeShutdownHook(SHUTDOWN_HOOK);
+			} catch (IllegalStateException e) {
+				// the server is shutting down, the hook closes the catalogs
+			}
+		}
+	}
+
+	private static void compactIfNecessary(final VideoCatalog catalog) throws IOException {
+		if (catalog.getGarbage() > catalog.getDataLength() * COMPACTION_RATIO) {
+			catalog.compact();
+		}
+	}
+
+	private static Path getCatalogDirectory() {
+		return getDataDirectory().resolve("catalog");
+	}
+
+	@Nullable
+	private static VideoCatalog open(final long projectId) {
+		Path directory = getCatalogDirectory().resolve(String.valueOf(projectId));
+		try {
+			long start = System.nanoTime();
+			VideoCatalog catalog = VideoCatalog.open(directory);
+			Logging.logDebug(String.format("Opened video catalog %s with %d videos in %d ms", directory, catalog.size(), (System.nanoTime() - start) / 1_000_000), LOGGER);
+			return catalog;
+		} catch (IOException | RuntimeException e) {
+			Logging.logError("Unable to open the video catalog " + directory, e, LOGGER);
+			return null;
+		}
+	}
+}
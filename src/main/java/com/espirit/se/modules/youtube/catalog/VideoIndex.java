@@ -0,0 +1,450 @@
+package com.espirit.se.modules.youtube.catalog;
+
+import com.espirit.se.modules.youtube.YoutubeVideo;
+
+import javax.annotation.Nullable;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over the titles and descriptions of the mirrored videos, ranked by BM25.
+ * Titles and descriptions are split into lowercase tokens of letters and digits, accents are removed. A token of the
+ * title counts {@value #TITLE_WEIGHT} times. Every video belongs to one channel, searches can be restricted to channels.
+ * The postings of a term are kept per channel, so a search restricted to channels only visits their videos, the
+ * document frequencies count the videos of all channels. The index is updated incrementally: an updated or removed
+ * video is marked as deleted and the index is rebuilt once the deleted videos outnumber the live ones. Searches run
+ * concurrently, updates are exclusive.
+ */
+public final class VideoIndex {
+
+	/**
+	 * The weight of a title token compared to a description token.
+	 */
+	static final int TITLE_WEIGHT = 2;
+	/**
+	 * The term frequency saturation of BM25.
+	 */
+	static final double K1 = 1.2;
+	/**
+	 * The document length normalization of BM25.
+	 */
+	static final double B = 0.75;
+	/**
+	 * The minimum number of deleted videos rebuilding the index.
+	 */
+	private static final int MIN_REBUILD_DELETIONS = 1024;
+
+	private final ReadWriteLock _lock = new ReentrantReadWriteLock();
+	private final Map<String, Term> _terms = new HashMap<>();
+	private final List<Term> _documentTerms = new ArrayList<>();
+	private final Map<String, Integer> _documents = new HashMap<>();
+	private final Map<String, Integer> _channelOrdinals = new HashMap<>();
+	private YoutubeVideo[] _videos = new YoutubeVideo[1024];
+	private int[] _channels = new int[1024];
+	private int[] _lengths = new int[1024];
+	private int _documentCount;
+	private int _deletedCount;
+	private long _totalLength;
+	private long _pass;
+
+	/**
+	 * Adds the specified video to the index, a video with the same id is replaced.
+	 *
+	 * @param channelId the id of the channel of the video
+	 * @param video     the video
+	 */
+	public void put(final String channelId, final YoutubeVideo video) {
+		putAll(channelId, Collections.singletonList(video));
+	}
+
+	/**
+	 * Adds the specified videos to the index, videos with the same ids are replaced.
+	 *
+	 * @param channelId the id of the channel of the videos
+	 * @param videos    the videos
+	 */
+	public void putAll(final String channelId, final Collection<YoutubeVideo> videos) {
+		_lock.writeLock().lock();
+		try {
+			int channel = _channelOrdinals.computeIfAbsent(channelId, id -> _channelOrdinals.size());
+			for (final YoutubeVideo video : videos) {
+				delete(video.getId());
+				add(channel, video);
+			}
+			rebuildIfNecessary();
+		} finally {
+			_lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Replaces all videos of the specified channel.
+	 *
+	 * @param channelId the channel id
+	 * @param videos    the videos of the channel
+	 */
+	public void replaceChannel(final String channelId, final Collection<YoutubeVideo> videos) {
+		_lock.writeLock().lock();
+		try {
+			Integer channel = _channelOrdinals.get(channelId);
+			if (channel != null) {
+				for (int document = 0; document < _documentCount; document++) {
+					if (_videos[document] != null && _channels[document] == channel) {
+						delete(_videos[document].getId());
+					}
+				}
+			}
+			putAll(channelId, videos);
+		} finally {
+			_lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes the specified video from the index.
+	 *
+	 * @param videoId the video id
+	 */
+	public void remove(final String videoId) {
+		_lock.writeLock().lock();
+		try {
+			delete(videoId);
+			rebuildIfNecessary();
+		} finally {
+			_lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes all videos from the index.
+	 */
+	public void clear() {
+		_lock.writeLock().lock();
+		try {
+			reset(1024);
+			_channelOrdinals.clear();
+		} finally {
+			_lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Gets the number of indexed videos.
+	 *
+	 * @return the number of videos
+	 */
+	public int size() {
+		_lock.readLock().lock();
+		try {
+			return _documents.size();
+		} finally {
+			_lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Searches the videos matching at least one token of the specified query, the best matches first.
+	 *
+	 * @param query      the query
+	 * @param channelIds the ids of the channels to search or {@code null} to search all channels
+	 * @param limit      the maximum number of videos
+	 * @return the matching videos ordered by descending BM25 score
+	 */
+	public List<YoutubeVideo> search(final String query, @Nullable final Collection<String> channelIds, final int limit) {
+		Set<String> terms = new HashSet<>(tokenize(query));
+		_lock.readLock().lock();
+		try {
+			if (terms.isEmpty() || _documents.isEmpty() || limit <= 0) {
+				return Collections.emptyList();
+			}
+			int[] channels = getChannels(channelIds);
+			double averageLength = (double) _totalLength / _documents.size();
+			float[] scores = new float[_documentCount];
+			int[] matches = new int[16];
+			int matchCount = 0;
+			for (final String term : terms) {
+				Term indexTerm = _terms.get(term);
+				if (indexTerm == null) {
+					continue;
+				}
+				Postings[] channelPostings = indexTerm._postings;
+				int documentFrequency = 0;
+				for (final Postings postings : channelPostings) {
+					documentFrequency += postings != null ? postings._liveCount : 0;
+				}
+				double idf = Math.log(1 + (_documents.size() - documentFrequency + 0.5) / (documentFrequency + 0.5));
+				for (final int channel : channels) {
+					Postings postings = channel < channelPostings.length ? channelPostings[channel] : null;
+					if (postings == null) {
+						continue;
+					}
+					for (int i = 0; i < postings._size; i++) {
+						int document = postings._documents[i];
+						if (_videos[document] == null) {
+							continue;
+						}
+						if (scores[document] == 0) {
+							if (matchCount == matches.length) {
+								matches = Arrays.copyOf(matches, matchCount * 2);
+							}
+							matches[matchCount++] = document;
+						}
+						int frequency = postings._frequencies[i];
+						scores[document] += (float) (idf * frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * _lengths[document] / averageLength)));
+					}
+				}
+			}
+			return getBest(scores, matches, matchCount, limit);
+		} finally {
+			_lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Splits the specified text into lowercase tokens of letters and digits without accents.
+	 *
+	 * @param text the text
+	 * @return the tokens in the order of the text
+	 */
+	static List<String> tokenize(@Nullable final String text) {
+		if (text == null || text.isEmpty()) {
+			return Collections.emptyList();
+		}
+		String normalized = isAscii(text) ? text : Normalizer.normalize(text, Normalizer.Form.NFD);
+		List<String> tokens = new ArrayList<>();
+		StringBuilder token = new StringBuilder();
+		for (int i = 0; i < normalized.length(); i++) {
+			char c = normalized.charAt(i);
+			if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+				token.append(c);
+			} else if (c >= 'A' && c <= 'Z') {
+				token.append((char) (c + ('a' - 'A')));
+			} else if (c > 0x7F && Character.isLetterOrDigit(c)) {
+				token.append(Character.toLowerCase(c));
+			} else if (Character.getType(c) != Character.NON_SPACING_MARK && token.length() > 0) {
+				tokens.add(token.toString());
+				token.setLength(0);
+			}
+		}
+		if (token.length() > 0) {
+			tokens.add(token.toString());
+		}
+		return tokens;
+	}
+
+	private static boolean isAscii(final String text) {
+		for (int i = 0; i < text.length(); i++) {
+			if (text.charAt(i) > 0x7F) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Collects the terms of the specified video in {@link #_documentTerms} with their frequencies.
+	 */
+	private void collectTerms(final YoutubeVideo video) {
+		_documentTerms.clear();
+		long pass = ++_pass;
+		collectTerms(video.getTitle(), TITLE_WEIGHT, pass);
+		collectTerms(video.getDescription(), 1, pass);
+	}
+
+	private void collectTerms(@Nullable final String text, final int weight, final long pass) {
+		for (final String token : tokenize(text)) {
+			Term term = _terms.computeIfAbsent(token, key -> new Term());
+			if (term._pass != pass) {
+				term._pass = pass;
+				term._frequency = 0;
+				_documentTerms.add(term);
+			}
+			term._frequency += weight;
+		}
+	}
+
+	private void add(final int channel, final YoutubeVideo video) {
+		if (_documentCount == _videos.length) {
+			int capacity = _documentCount * 2;
+			_videos = Arrays.copyOf(_videos, capacity);
+			_channels = Arrays.copyOf(_channels, capacity);
+			_lengths = Arrays.copyOf(_lengths, capacity);
+		}
+		int document = _documentCount++;
+		int length = 0;
+		collectTerms(video);
+		for (final Term term : _documentTerms) {
+			term.getPostings(channel).add(document, term._frequency);
+			length += term._frequency;
+		}
+		_videos[document] = video;
+		_channels[document] = channel;
+		_lengths[document] = length;
+		_totalLength += length;
+		_documents.put(video.getId(), document);
+	}
+
+	private void delete(final String videoId) {
+		Integer document = _documents.remove(videoId);
+		if (document == null) {
+			return;
+		}
+		collectTerms(_videos[document]);
+		for (final Term term : _documentTerms) {
+			term._postings[_channels[document]]._liveCount--;
+		}
+		_totalLength -= _lengths[document];
+		_videos[document] = null;
+		_deletedCount++;
+	}
+
+	private void rebuildIfNecessary() {
+		if (_deletedCount < MIN_REBUILD_DELETIONS || _deletedCount < _documents.size()) {
+			return;
+		}
+		YoutubeVideo[] videos = _videos;
+		int[] channels = _channels;
+		int documentCount = _documentCount;
+		reset(Math.max(1024, Integer.highestOneBit(Math.max(1, _documents.size())) * 2));
+		for (int document = 0; document < documentCount; document++) {
+			if (videos[document] != null) {
+				add(channels[document], videos[document]);
+			}
+		}
+	}
+
+	private void reset(final int capacity) {
+		_terms.clear();
+		_documents.clear();
+		_videos = new YoutubeVideo[capacity];
+		_channels = new int[capacity];
+		_lengths = new int[capacity];
+		_documentCount = 0;
+		_deletedCount = 0;
+		_totalLength = 0;
+	}
+
+	private int[] getChannels(@Nullable final Collection<String> channelIds) {
+		if (channelIds == null) {
+			int[] channels = new int[_channelOrdinals.size()];
+			Arrays.setAll(channels, channel -> channel);
+			return channels;
+		}
+		return channelIds.stream().distinct().map(_channelOrdinals::get).filter(Objects::nonNull).mapToInt(Integer::intValue).toArray();
+	}
+
+	private List<YoutubeVideo> getBest(final float[] scores, final int[] matches, final int matchCount, final int limit) {
+		// the best matches in a min heap, the worst of them on top
+		int[] heap = new int[Math.min(limit, matchCount)];
+		int size = 0;
+		for (int i = 0; i < matchCount; i++) {
+			int document = matches[i];
+			if (size < heap.length) {
+				heap[size] = document;
+				siftUp(heap, size++, scores);
+			} else if (isBetter(document, heap[0], scores)) {
+				heap[0] = document;
+				siftDown(heap, size, scores);
+			}
+		}
+		YoutubeVideo[] result = new YoutubeVideo[size];
+		while (size > 0) {
+			result[--size] = _videos[heap[0]];
+			heap[0] = heap[size];
+			siftDown(heap, size, scores);
+		}
+		return Arrays.asList(result);
+	}
+
+	/**
+	 * Compares two documents by score, ties are resolved in favor of the earlier indexed document.
+	 */
+	private static boolean isBetter(final int document, final int other, final float[] scores) {
+		return scores[document] > scores[other] || (scores[document] == scores[other] && document < other);
+	}
+
+	private static void siftUp(final int[] heap, int position, final float[] scores) {
+		int document = heap[position];
+		while (position > 0) {
+			int parent = (position - 1) / 2;
+			if (!isBetter(heap[parent], document, scores)) {
+				break;
+			}
+			heap[position] = heap[parent];
+			position = parent;
+		}
+		heap[position] = document;
+	}
+
+	private static void siftDown(final int[] heap, final int size, final float[] scores) {
+		int document = heap[0];
+		int position = 0;
+		while (2 * position + 1 < size) {
+			int child = 2 * position + 1;
+			if (child + 1 < size && isBetter(heap[child], heap[child + 1], scores)) {
+				child++;
+			}
+			if (!isBetter(document, heap[child], scores)) {
+				break;
+			}
+			heap[position] = heap[child];
+			position = child;
+		}
+		heap[position] = document;
+	}
+
+	/**
+	 * A term with its postings per channel. The frequency of the term in the document being added or deleted is
+	 * counted once per pass.
+	 */
+	private static class Term {
+
+		private Postings[] _postings = new Postings[0];
+		private long _pass;
+		private int _frequency;
+
+		private Postings getPostings(final int channel) {
+			if (_postings.length <= channel) {
+				_postings = Arrays.copyOf(_postings, channel + 1);
+			}
+			if (_postings[channel] == null) {
+				_postings[channel] = new Postings();
+			}
+			return _postings[channel];
+		}
+	}
+
+	/**
+	 * The documents containing a term with the frequencies of the term, deleted documents are kept until the index is
+	 * rebuilt.
+	 */
+	private static class Postings {
+
+		private int[] _documents = new int[4];
+		private int[] _frequencies = new int[4];
+		private int _size;
+		private int _liveCount;
+
+		private void add(final int document, final int frequency) {
+			if (_size == _documents.length) {
+				_documents = Arrays.copyOf(_documents, _size * 2);
+				_frequencies = Arrays.copyOf(_frequencies, _size * 2);
+			}
+			_documents[_size] = document;
+			_frequencies[_size] = frequency;
+			_size++;
+			_liveCount++;
+		}
+	}
+}
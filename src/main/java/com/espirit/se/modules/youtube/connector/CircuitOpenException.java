@@ -0,0 +1,32 @@
+package com.espirit.se.modules.youtube.connector;
+
+import java.io.IOException;
+
+/**
+ * Signals that the {@link YoutubeCircuitBreaker} of an endpoint family rejected a request without sending it to
+ * YouTube.
+ */
+public class CircuitOpenException extends IOException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final String _family;
+
+	/**
+	 * @param family  the endpoint family, e.g. {@code search}
+	 * @param message the message explaining the rejection
+	 */
+	public CircuitOpenException(final String family, final String message) {
+		super(message);
+		_family = family;
+	}
+
+	/**
+	 * Gets the endpoint family.
+	 *
+	 * @return the family
+	 */
+	public String getFamily() {
+		return _family;
+	}
+}
@@ -0,0 +1,159 @@
+package com.espirit.se.modules.youtube.connector;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Runs independent YouTube requests concurrently with a bounded degree of parallelism.
+ * The tasks of one invocation are processed by at most {@code parallelism} lanes, the calling thread being one of
+ * them. Additional lanes run on a shared pool of at most {@value #MAX_THREADS} daemon threads. The pool does not queue:
+ * while all of its threads are busy, the additional lanes are left out and the calling thread processes the tasks
+ * alone.
+ */
+final class ParallelTasks {
+
+	/**
+	 * The maximum number of threads of the shared pool.
+	 */
+	static final int MAX_THREADS = 64;
+
+	private static final ExecutorService EXECUTOR = new ThreadPoolExecutor(0, MAX_THREADS, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+		Thread thread = new Thread(runnable, "youtube-request");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private ParallelTasks() {
+		throw new IllegalStateException("Utility class");
+	}
+
+	/**
+	 * A task that performs a request.
+	 *
+	 * @param <T> the result type
+	 */
+	@FunctionalInterface
+	interface Task<T> {
+
+		/**
+		 * Performs the request.
+		 *
+		 * @return the result
+		 * @throws IOException the io exception
+		 */
+		T call() throws IOException;
+	}
+
+	/**
+	 * Gets the executor used for additional lanes, it rejects tasks with a {@link RejectedExecutionException} while all
+	 * of its threads are busy.
+	 *
+	 * @return the executor
+	 */
+	static ExecutorService getExecutor() {
+		return EXECUTOR;
+	}
+
+	/**
+	 * Runs all tasks and waits for their completion.
+	 * Once a task fails no further tasks are started and the first failure is rethrown.
+	 *
+	 * @param tasks       the tasks
+	 * @param parallelism the maximum number of tasks running at the same time
+	 * @param <T>         the result type
+	 * @return the results in the order of the tasks
+	 * @throws IOException the first exception thrown by a task
+	 */
+	static <T> List<T> invokeAll(final List<? extends Task<T>> tasks, final int parallelism) throws IOException {
+		int size = tasks.size();
+		AtomicReferenceArray<T> results = new AtomicReferenceArray<>(size);
+		AtomicInteger next = new AtomicInteger();
+		AtomicReference<Exception> failure = new AtomicReference<>();
+		Runnable lane = () -> {
+			int index;
+			while (failure.get() == null && (index = next.getAndIncrement()) < size) {
+				try {
+					results.set(index, tasks.get(index).call());
+				} catch (IOException | RuntimeException e) {
+					failure.compareAndSet(null, e);
+				}
+			}
+		};
+		int lanes = Math.min(Math.max(parallelism, 1), size);
+		List<Future<?>> futures = new ArrayList<>();
+		try {
+			for (int i = 1; i < lanes; i++) {
+				futures.add(EXECUTOR.submit(lane));
+			}
+		} catch (RejectedExecutionException e) {
+			// the pool is busy, the calling thread processes the remaining tasks
+		}
+		lane.run();
+		for (final Future<?> future : futures) {
+			try {
+				future.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				futures.forEach(pending -> pending.cancel(true));
+				throw new InterruptedIOException("Interrupted while waiting for YouTube requests");
+			} catch (ExecutionException e) {
+				failure.compareAndSet(null, new IllegalStateException(e.getCause()));
+			}
+		}
+		Exception exception = failure.get();
+		if (exception instanceof IOException) {
+			throw (IOException) exception;
+		} else if (exception != null) {
+			throw (RuntimeException) exception;
+		}
+		List<T> resultList = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			resultList.add(results.get(i));
+		}
+		return resultList;
+	}
+
+	/**
+	 * Runs all tasks and waits for their completion. Contrary to {@link #invokeAll(List, int)} a failing task does not
+	 * affect the other tasks, the result of the failure handler takes the place of its result.
+	 *
+	 * @param tasks          the tasks
+	 * @param parallelism    the maximum number of tasks running at the same time
+	 * @param failureHandler the handler that maps the failure of a task to its result
+	 * @param <T>            the result type
+	 * @return the results in the order of the tasks
+	 */
+	static <T> List<T> invokeEach(final List<? extends Task<T>> tasks, final int parallelism, final Function<? super IOException, ? extends T> failureHandler) {
+		List<Task<T>> isolatedTasks = tasks.stream().<Task<T>>map(task -> () -> {
+			try {
+				return task.call();
+			} catch (IOException e) {
+				return failureHandler.apply(e);
+			}
+		}).collect(Collectors.toList());
+		try {
+			return invokeAll(isolatedTasks, parallelism);
+		} catch (IOException e) {
+			// only thrown if interrupted while waiting
+			List<T> resultList = new ArrayList<>(tasks.size());
+			for (int i = 0; i < tasks.size(); i++) {
+				resultList.add(failureHandler.apply(e));
+			}
+			return resultList;
+		}
+	}
+}
@@ -0,0 +1,160 @@
+package com.espirit.se.modules.youtube.connector;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The plan of a search chosen by the {@link QueryPlanner}: the strategy, its estimated cost and the rejected
+ * alternatives. The cost combines the expected latency with the quota the plan consumes.
+ */
+public final class QueryPlan {
+
+	/**
+	 * The execution strategy of a search.
+	 */
+	public enum Strategy {
+		/**
+		 * The videos are requested from YouTube.
+		 */
+		LIVE,
+		/**
+		 * The first page is served from the page cache, further pages are requested from YouTube.
+		 */
+		CACHE,
+		/**
+		 * The videos are served from the mirrors of the synced channels.
+		 */
+		CATALOG,
+		/**
+		 * The synced channels are served from their mirrors, the other channels are requested from YouTube.
+		 */
+		HYBRID
+	}
+
+	private final Strategy _strategy;
+	private final String _description;
+	private final long _quotaUnits;
+	private final double _latencyMillis;
+	private final double _cost;
+	private final boolean _feasible;
+	private final RequestFactory _requestFactory;
+	private List<QueryPlan> _alternatives = Collections.emptyList();
+
+	QueryPlan(final Strategy strategy, final String description, final long quotaUnits, final double latencyMillis, final double cost, final boolean feasible,
+			  final RequestFactory requestFactory) {
+		_strategy = strategy;
+		_description = description;
+		_quotaUnits = quotaUnits;
+		_latencyMillis = latencyMillis;
+		_cost = cost;
+		_feasible = feasible;
+		_requestFactory = requestFactory;
+	}
+
+	/**
+	 * Gets the strategy.
+	 *
+	 * @return the strategy
+	 */
+	public Strategy getStrategy() {
+		return _strategy;
+	}
+
+	/**
+	 * Gets the description of the requests.
+	 *
+	 * @return the description
+	 */
+	public String getDescription() {
+		return _description;
+	}
+
+	/**
+	 * Gets the estimated quota of the first page.
+	 *
+	 * @return the quota in units
+	 */
+	public long getQuotaUnits() {
+		return _quotaUnits;
+	}
+
+	/**
+	 * Gets the estimated latency of the first page.
+	 *
+	 * @return the latency in milliseconds
+	 */
+	public double getLatencyMillis() {
+		return _latencyMillis;
+	}
+
+	/**
+	 * Gets the estimated cost, the lowest cost is chosen.
+	 *
+	 * @return the cost in milliseconds
+	 */
+	public double getCost() {
+		return _cost;
+	}
+
+	/**
+	 * Checks whether the remaining daily quota suffices for the plan and its requests are not suspended by a
+	 * {@link YoutubeCircuitBreaker}.
+	 *
+	 * @return true if the plan is feasible
+	 */
+	public boolean isFeasible() {
+		return _feasible;
+	}
+
+	/**
+	 * Gets the rejected alternatives.
+	 *
+	 * @return the alternatives, lowest cost first
+	 */
+	public List<QueryPlan> getAlternatives() {
+		return _alternatives;
+	}
+
+	void setAlternatives(final List<QueryPlan> alternatives) {
+		_alternatives = alternatives;
+	}
+
+	/**
+	 * Explains the plan and its rejected alternatives.
+	 *
+	 * @return the explanation
+	 */
+	public String explain() {
+		StringBuilder explanation = new StringBuilder(toString());
+		for (final QueryPlan alternative : _alternatives) {
+			explanation.append("\n  rejected ").append(alternative);
+		}
+		return explanation.toString();
+	}
+
+	/**
+	 * Creates the search request of the plan.
+	 *
+	 * @return the search request
+	 * @throws IOException the io exception
+	 */
+	YoutubeVideoSearchRequest createRequest() throws IOException {
+		return _requestFactory.create();
+	}
+
+	@Override
+	public String toString() {
+		return String.format(Locale.ROOT, "%s: %s, %d units, %.0f ms, cost %.0f%s", _strategy, _description, _quotaUnits, _latencyMillis, _cost,
+							 _feasible ? "" : " (not feasible)");
+	}
+
+	/**
+	 * Creates the search request of a plan.
+	 */
+	interface RequestFactory {
+
+		YoutubeVideoSearchRequest create() throws IOException;
+	}
+}
@@ -0,0 +1,218 @@
+package com.espirit.se.modules.youtube.connector;
+
+import de.espirit.common.tools.Strings;
+
+import com.espirit.se.modules.youtube.catalog.ChannelMirror;
+import com.espirit.se.modules.youtube.catalog.ChannelMirrors;
+import com.google.api.services.youtube.YouTube;
+import com.google.api.services.youtube.model.Channel;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Chooses how a search is executed. Every applicable {@link QueryPlan} is estimated by the latency of its first page,
+ * the quota it consumes and the staleness of the mirrors it reads:
+ * <ul>
+ * <li>{@link QueryPlan.Strategy#LIVE}: the videos are requested from YouTube, a search costs
+ * {@value YoutubeQuota#SEARCH_COST} units per channel, listing the uploads {@value YoutubeQuota#LIST_COST} unit per channel.</li>
+ * <li>{@link QueryPlan.Strategy#CACHE}: like live, but the first page is cached.</li>
+ * <li>{@link QueryPlan.Strategy#CATALOG}: all channels are synced, their mirrors are searched locally.</li>
+ * <li>{@link QueryPlan.Strategy#HYBRID}: the synced channels are searched locally, the others on YouTube.</li>
+ * </ul>
+ * A quota unit is weighed with {@value #QUOTA_UNIT_MILLIS} ms while the whole daily quota remains, the weight grows as
+ * the remaining quota of the api key, or of its {@link YoutubeKeyPool}, shrinks. A plan that exceeds the remaining
+ * quota is only chosen if no plan fits. A mirror adds {@value #STALENESS_PENALTY_MILLIS} ms per sync interval it is
+ * overdue and is not used at all once its last sync is older than {@link #MAX_CATALOG_AGE}.
+ * While the {@link YoutubeCircuitBreaker circuit} of the live requests is open, the plans requesting YouTube are not
+ * feasible and every mirror is used regardless of its age.
+ */
+final class QueryPlanner {
+
+	/**
+	 * The latency of a search served locally.
+	 */
+	static final double LOCAL_LATENCY_MILLIS = 1;
+	/**
+	 * The cost of a quota unit while the whole daily quota remains.
+	 */
+	static final double QUOTA_UNIT_MILLIS = 5;
+	/**
+	 * The cost of a mirror per sync interval it is overdue.
+	 */
+	static final double STALENESS_PENALTY_MILLIS = 1000;
+	/**
+	 * The maximum age of the last sync of a used mirror.
+	 */
+	static final Duration MAX_CATALOG_AGE = Duration.ofDays(1);
+
+	private final String _apiKey;
+	private final YouTube _youtube;
+	private final List<Channel> _channels;
+
+	/**
+	 * @param apiKey   the api key
+	 * @param youtube  the youtube
+	 * @param channels the configured channels
+	 */
+	QueryPlanner(final String apiKey, final YouTube youtube, final List<Channel> channels) {
+		_apiKey = apiKey;
+		_youtube = youtube;
+		_channels = channels;
+	}
+
+	/**
+	 * Plans the specified search.
+	 *
+	 * @param query         the normalized query, {@code null} to list the uploads of the channels
+	 * @param queryChannels the searched channels
+	 * @param now           the current time in milliseconds since the epoch
+	 * @return the plan with the lowest cost, the other plans are its alternatives
+	 * @throws IOException the io exception
+	 */
+	QueryPlan plan(@Nullable final String query, final List<Channel> queryChannels, final long now) throws IOException {
+		long remaining = YoutubeKeyPool.getRemaining(_apiKey);
+		boolean liveAvailable = !YoutubeCircuitBreaker.isOpen(getLiveFamily(query));
+		List<QueryPlan> plans = new ArrayList<>();
+		List<ChannelMirror> mirrors = new ArrayList<>();
+		List<Channel> liveChannels = new ArrayList<>();
+		double stalenessPenalty = 0;
+		for (final Channel channel : queryChannels) {
+			ChannelMirror mirror = getMirror(channel, now, liveAvailable);
+			if (mirror != null) {
+				mirrors.add(mirror);
+				stalenessPenalty = Math.max(stalenessPenalty, getStalenessPenalty(mirror, now));
+			} else {
+				liveChannels.add(channel);
+			}
+		}
+		if (!mirrors.isEmpty() && liveChannels.isEmpty()) {
+			String description = String.format("%s %d mirrored channel(s)", Strings.isEmpty(query) ? "list" : "search", mirrors.size());
+			plans.add(createPlan(QueryPlan.Strategy.CATALOG, description, 0, LOCAL_LATENCY_MILLIS, stalenessPenalty, remaining, true,
+								 () -> createCatalogRequest(query, mirrors)));
+		} else if (!mirrors.isEmpty()) {
+			String description = String.format("%s %d mirrored and %d live channel(s)", Strings.isEmpty(query) ? "list" : "search", mirrors.size(), liveChannels.size());
+			plans.add(createPlan(QueryPlan.Strategy.HYBRID, description, getLiveQuota(query, liveChannels), getLiveLatency(liveChannels), stalenessPenalty, remaining,
+								 liveAvailable, () -> new YoutubeCombinedSearchRequest(List.of(createCatalogRequest(query, mirrors), createLiveRequest(query, liveChannels)))));
+		}
+		long liveQuota = getLiveQuota(query, queryChannels);
+		if (liveQuota > 0 && isFirstPageCached(query, queryChannels)) {
+			plans.add(createPlan(QueryPlan.Strategy.CACHE, getLiveDescription(query, queryChannels), 0, LOCAL_LATENCY_MILLIS, 0, remaining, true,
+								 () -> createLiveRequest(query, queryChannels)));
+		} else {
+			plans.add(createPlan(QueryPlan.Strategy.LIVE, getLiveDescription(query, queryChannels), liveQuota, getLiveLatency(queryChannels), 0, remaining,
+								 liveAvailable, () -> createLiveRequest(query, queryChannels)));
+		}
+		// feasible plans first, the cheapest of them wins; without a feasible plan the lowest quota wins
+		plans.sort(Comparator.comparing((QueryPlan plan) -> !plan.isFeasible())
+						   .thenComparingDouble(plan -> plan.isFeasible() ? plan.getCost() : plan.getQuotaUnits())
+						   .thenComparingDouble(QueryPlan::getCost));
+		QueryPlan plan = plans.get(0);
+		plan.setAlternatives(plans.subList(1, plans.size()));
+		return plan;
+	}
+
+	/**
+	 * Gets the cost of a plan.
+	 *
+	 * @param quotaUnits       the quota of the plan
+	 * @param latencyMillis    the latency of the plan
+	 * @param stalenessPenalty the penalty of stale mirrors
+	 * @param remaining        the remaining daily quota
+	 * @return the cost in milliseconds
+	 */
+	static double getCost(final long quotaUnits, final double latencyMillis, final double stalenessPenalty, final long remaining) {
+		return latencyMillis + stalenessPenalty + quotaUnits * QUOTA_UNIT_MILLIS * YoutubeQuota.DAILY_LIMIT / Math.max(remaining, 1);
+	}
+
+	private static QueryPlan createPlan(final QueryPlan.Strategy strategy, final String description, final long quotaUnits, final double latencyMillis,
+										final double stalenessPenalty, final long remaining, final boolean available, final QueryPlan.RequestFactory requestFactory) {
+		return new QueryPlan(strategy, available ? description : description + " (circuit open)", quotaUnits, latencyMillis,
+							 getCost(quotaUnits, latencyMillis, stalenessPenalty, remaining), available && quotaUnits <= remaining, requestFactory);
+	}
+
+	@Nullable
+	private static ChannelMirror getMirror(final Channel channel, final long now, final boolean liveAvailable) {
+		List<ChannelMirror> mirrors = YoutubeChannelSync.getMirrors(List.of(channel));
+		if (mirrors == null || liveAvailable && now - mirrors.get(0).getSyncedAt() > MAX_CATALOG_AGE.toMillis()) {
+			return null;
+		}
+		return mirrors.get(0);
+	}
+
+	private static double getStalenessPenalty(final ChannelMirror mirror, final long now) {
+		Duration interval = YoutubeChannelSync.getInterval(mirror.getChannelId());
+		long intervalMillis = interval != null ? Math.max(1, interval.toMillis()) : MAX_CATALOG_AGE.toMillis();
+		long overdue = now - mirror.getSyncedAt() - intervalMillis;
+		return overdue > 0 ? STALENESS_PENALTY_MILLIS * overdue / intervalMillis : 0;
+	}
+
+	private static YoutubeVideoSearchRequest createCatalogRequest(@Nullable final String query, final List<ChannelMirror> mirrors) {
+		if (Strings.isEmpty(query)) {
+			return new YoutubeMirroredChannelVideosRequest(mirrors);
+		}
+		return new YoutubeIndexedVideoSearchRequest(ChannelMirrors.getIndex(), query, mirrors.stream().map(ChannelMirror::getChannelId).collect(Collectors.toList()));
+	}
+
+	private YoutubeVideoSearchRequest createLiveRequest(@Nullable final String query, final List<Channel> channels) throws IOException {
+		if (_channels.isEmpty()) {
+			// no channel configured
+			return YoutubeStandardVideoSearchRequest.createInstance(_apiKey, _youtube, query, null);
+		}
+		if (Strings.isEmpty(query)) {
+			return YoutubeChannelVideosRequest.createInstance(_apiKey, _youtube, channels);
+		}
+		if (channels.size() <= 1) {
+			return YoutubeStandardVideoSearchRequest.createInstance(_apiKey, _youtube, query, channels.isEmpty() ? null : channels.get(0));
+		}
+		return YoutubeMultiChannelVideoSearchRequest.createInstance(_apiKey, _youtube, query, channels);
+	}
+
+	private boolean isFirstPageCached(@Nullable final String query, final List<Channel> channels) throws IOException {
+		if (_channels.isEmpty()) {
+			return YoutubeStandardVideoSearchRequest.isFirstPageCached(_apiKey, _youtube, query, null);
+		}
+		if (Strings.isEmpty(query)) {
+			return YoutubeChannelVideosRequest.isFirstPageCached(_apiKey, _youtube, channels);
+		}
+		if (channels.size() <= 1) {
+			return YoutubeStandardVideoSearchRequest.isFirstPageCached(_apiKey, _youtube, query, channels.isEmpty() ? null : channels.get(0));
+		}
+		return YoutubeMultiChannelVideoSearchRequest.isFirstPageCached(_apiKey, _youtube, query, channels);
+	}
+
+	private long getLiveQuota(@Nullable final String query, final List<Channel> channels) {
+		if (_channels.isEmpty()) {
+			return YoutubeQuota.SEARCH_COST;
+		}
+		if (Strings.isEmpty(query)) {
+			return (long) YoutubeQuota.LIST_COST * channels.size();
+		}
+		return (long) YoutubeQuota.SEARCH_COST * Math.max(1, channels.size());
+	}
+
+	private static double getLiveLatency(final List<Channel> channels) {
+		// the channels are requested in rounds of parallel requests
+		int rounds = Math.max(1, (channels.size() + YoutubeConnector.MAX_PARALLEL_CHANNEL_REQUESTS - 1) / YoutubeConnector.MAX_PARALLEL_CHANNEL_REQUESTS);
+		return rounds * YoutubeRequestDispatcher.getAverageLatencyMillis();
+	}
+
+	/**
+	 * Gets the endpoint family of the live requests of the specified search.
+	 */
+	private String getLiveFamily(@Nullable final String query) {
+		return Strings.isEmpty(query) && !_channels.isEmpty() ? "playlistItems" : "search";
+	}
+
+	private String getLiveDescription(@Nullable final String query, final List<Channel> channels) {
+		if (_channels.isEmpty() || channels.isEmpty() && Strings.notEmpty(query)) {
+			return "search all videos on YouTube";
+		}
+		return String.format("%s %d channel(s) on YouTube", Strings.isEmpty(query) ? "list" : "search", channels.size());
+	}
+}
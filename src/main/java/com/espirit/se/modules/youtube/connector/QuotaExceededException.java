@@ -0,0 +1,49 @@
+package com.espirit.se.modules.youtube.connector;
+
+import java.io.IOException;
+
+/**
+ * Signals that the {@link YoutubeQuotaScheduler} rejected a request without sending it to YouTube.
+ */
+public class QuotaExceededException extends IOException {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The reason of a rejection.
+	 */
+	public enum Reason {
+		/**
+		 * The daily budget of the project is used up.
+		 */
+		PROJECT_BUDGET,
+		/**
+		 * The daily quota of the api key is used up or reserved for requests of a higher priority.
+		 */
+		DAILY_QUOTA,
+		/**
+		 * The request would have to wait longer than its priority allows for the rate limit.
+		 */
+		RATE_LIMIT
+	}
+
+	private final Reason _reason;
+
+	/**
+	 * @param reason  the reason
+	 * @param message the message explaining the rejection
+	 */
+	public QuotaExceededException(final Reason reason, final String message) {
+		super(message);
+		_reason = reason;
+	}
+
+	/**
+	 * Gets the reason.
+	 *
+	 * @return the reason
+	 */
+	public Reason getReason() {
+		return _reason;
+	}
+}
@@ -1,7 +1,11 @@
 package com.espirit.se.modules.youtube.connector;
 
+import com.espirit.se.modules.youtube.YoutubeVideo;
 import com.google.api.services.youtube.model.Channel;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+
 public class RequestChannel {
 
 	private final Channel _channel;
@@ -9,6 +13,8 @@ public class RequestChannel {
 	private int _totalVideos = 0;
 	private int _consumedVideos = 0;
 	private boolean _consumed = false;
+	private int _failures = 0;
+	private final Deque<YoutubeVideo> _bufferedVideos = new ArrayDeque<>();
 
 	/**
 	 * Instantiates a new Request channel.
@@ -93,6 +99,42 @@ public class RequestChannel {
 		_consumed = consumed;
 	}
 
+	/**
+	 * Gets the videos already requested but not yet delivered.
+	 *
+	 * @return the buffered videos
+	 */
+	public Deque<YoutubeVideo> getBufferedVideos() {
+		return _bufferedVideos;
+	}
+
+	/**
+	 * Is exhausted, i.e. consumed and all buffered videos are delivered.
+	 *
+	 * @return true if the channel provides no more videos
+	 */
+	public boolean isExhausted() {
+		return _consumed && _bufferedVideos.isEmpty();
+	}
+
+	/**
+	 * Gets the number of consecutive searches in which the channel failed.
+	 *
+	 * @return the failures
+	 */
+	public int getFailures() {
+		return _failures;
+	}
+
+	/**
+	 * Sets the number of consecutive searches in which the channel failed.
+	 *
+	 * @param failures the failures
+	 */
+	public void setFailures(final int failures) {
+		_failures = failures;
+	}
+
 	@Override
 	public String toString() {
 		return "RequestChannel{" +
@@ -101,6 +143,8 @@ public class RequestChannel {
 				", _total=" + _totalVideos +
 				", _consumed=" + _consumedVideos +
 				", isConsumed=" + _consumed +
+				", _failures=" + _failures +
+				", _buffered=" + _bufferedVideos.size() +
 				'}';
 	}
 }
@@ -0,0 +1,131 @@
+package com.espirit.se.modules.youtube.connector;
+
+import com.espirit.se.modules.youtube.YoutubeVideo;
+
+import javax.annotation.Nullable;
+
+/**
+ * Result of the lookup of a single video ID.
+ * Besides the found video it explicitly states whether YouTube does not know the ID or whether the lookup failed.
+ *
+ * @see YoutubeVideoLookup
+ */
+public class VideoLookupResult {
+
+	/**
+	 * The status of a lookup.
+	 */
+	public enum Status {
+		/**
+		 * The video was found.
+		 */
+		FOUND,
+		/**
+		 * The cached video was revalidated and is still up to date.
+		 */
+		NOT_MODIFIED,
+		/**
+		 * YouTube does not provide a video for the ID.
+		 */
+		NOT_FOUND,
+		/**
+		 * The request failed, it is unknown whether the video exists.
+		 */
+		FAILED
+	}
+
+	private final String _videoId;
+	private final YoutubeVideo _video;
+	private final Status _status;
+
+	private VideoLookupResult(final String videoId, @Nullable final YoutubeVideo video, final Status status) {
+		_videoId = videoId;
+		_video = video;
+		_status = status;
+	}
+
+	/**
+	 * Creates the result of a found video.
+	 *
+	 * @param video the video
+	 * @return the result
+	 */
+	public static VideoLookupResult found(final YoutubeVideo video) {
+		return new VideoLookupResult(video.getId(), video, Status.FOUND);
+	}
+
+	/**
+	 * Creates the result of a cached video still up to date.
+	 *
+	 * @param video the cached video
+	 * @return the result
+	 */
+	public static VideoLookupResult notModified(final YoutubeVideo video) {
+		return new VideoLookupResult(video.getId(), video, Status.NOT_MODIFIED);
+	}
+
+	/**
+	 * Creates the result of a video ID unknown to YouTube.
+	 *
+	 * @param videoId the video id
+	 * @return the result
+	 */
+	public static VideoLookupResult notFound(final String videoId) {
+		return new VideoLookupResult(videoId, null, Status.NOT_FOUND);
+	}
+
+	/**
+	 * Creates the result of a failed lookup.
+	 *
+	 * @param videoId the video id
+	 * @return the result
+	 */
+	public static VideoLookupResult failed(final String videoId) {
+		return new VideoLookupResult(videoId, null, Status.FAILED);
+	}
+
+	/**
+	 * Gets the requested video id.
+	 *
+	 * @return the video id
+	 */
+	public String getVideoId() {
+		return _videoId;
+	}
+
+	/**
+	 * Gets the video.
+	 *
+	 * @return the video or {@code null} if it was not found
+	 */
+	@Nullable
+	public YoutubeVideo getVideo() {
+		return _video;
+	}
+
+	/**
+	 * Gets the status.
+	 *
+	 * @return the status
+	 */
+	public Status getStatus() {
+		return _status;
+	}
+
+	/**
+	 * Is found.
+	 *
+	 * @return true if the video was found or is still up to date
+	 */
+	public boolean isFound() {
+		return _status == Status.FOUND || _status == Status.NOT_MODIFIED;
+	}
+
+	@Override
+	public String toString() {
+		return "VideoLookupResult{" +
+				"_videoId='" + _videoId + '\'' +
+				", _status=" + _status +
+				'}';
+	}
+}
@@ -0,0 +1,122 @@
+package com.espirit.se.modules.youtube.connector;
+
+import com.google.api.services.youtube.model.Channel;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process-wide cache of resolved YouTube channels.
+ * The channels of a configuration are resolved once and reused by every connector built for the same API key and
+ * channel IDs, so opening a report does not cost any channel request as long as the entry is valid. An expired entry
+ * is kept with the ETags of its responses, so it can be revalidated by conditional requests.
+ */
+final class YoutubeChannelCache {
+
+	/**
+	 * The time to live of a cache entry.
+	 */
+	static final long TTL_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+	private static final Map<String, Entry> ENTRIES = new ConcurrentHashMap<>();
+
+	private YoutubeChannelCache() {
+		throw new IllegalStateException("Utility class");
+	}
+
+	/**
+	 * Gets the cached channels for the specified API key and channel IDs.
+	 *
+	 * @param apiKey     the api key
+	 * @param channelIds the channel ids
+	 * @return the channels or {@code null} if there is no valid entry
+	 */
+	@Nullable
+	static List<Channel> get(final String apiKey, final List<String> channelIds) {
+		Entry entry = ENTRIES.get(getKey(apiKey, channelIds));
+		if (entry == null || entry.isExpired(System.currentTimeMillis())) {
+			return null;
+		}
+		return entry.getChannels();
+	}
+
+	/**
+	 * Gets the expired entry for the specified API key and channel IDs.
+	 *
+	 * @param apiKey     the api key
+	 * @param channelIds the channel ids
+	 * @return the entry or {@code null} if there is no expired entry
+	 */
+	@Nullable
+	static Entry getExpired(final String apiKey, final List<String> channelIds) {
+		Entry entry = ENTRIES.get(getKey(apiKey, channelIds));
+		return entry != null && entry.isExpired(System.currentTimeMillis()) ? entry : null;
+	}
+
+	/**
+	 * Stores the resolved channels for the specified API key and channel IDs.
+	 *
+	 * @param apiKey     the api key
+	 * @param channelIds the channel ids
+	 * @param channels   the resolved channels
+	 * @param etags      the ETags of the responses, one per requested chunk of channel ids
+	 */
+	static void put(final String apiKey, final List<String> channelIds, final List<Channel> channels, final List<String> etags) {
+		ENTRIES.put(getKey(apiKey, channelIds), new Entry(List.copyOf(channels), new ArrayList<>(etags), System.currentTimeMillis() + TTL_MILLIS));
+	}
+
+	/**
+	 * Removes all entries.
+	 */
+	static void clear() {
+		ENTRIES.clear();
+	}
+
+	private static String getKey(final String apiKey, final List<String> channelIds) {
+		return apiKey + '|' + String.join(",", channelIds);
+	}
+
+	/**
+	 * The resolved channels of a configuration.
+	 */
+	static class Entry {
+
+		private final List<Channel> _channels;
+		private final List<String> _etags;
+		private final long _expiresAt;
+
+		Entry(final List<Channel> channels, final List<String> etags, final long expiresAt) {
+			_channels = channels;
+			_etags = etags;
+			_expiresAt = expiresAt;
+		}
+
+		/**
+		 * Gets the channels.
+		 *
+		 * @return the channels in the configured order
+		 */
+		List<Channel> getChannels() {
+			return _channels;
+		}
+
+		/**
+		 * Gets the ETag of the response of the specified chunk of channel ids.
+		 *
+		 * @param chunk the index of the chunk
+		 * @return the etag or {@code null} if unknown
+		 */
+		@Nullable
+		String getEtag(final int chunk) {
+			return chunk < _etags.size() ? _etags.get(chunk) : null;
+		}
+
+		private boolean isExpired(final long now) {
+			return now >= _expiresAt;
+		}
+	}
+}
@@ -0,0 +1,220 @@
+package com.espirit.se.modules.youtube.connector;
+
+import de.espirit.common.base.Logging;
+import de.espirit.common.tools.Strings;
+
+import com.espirit.se.modules.youtube.YoutubeVideo;
+import com.espirit.se.modules.youtube.catalog.ChannelMirror;
+import com.espirit.se.modules.youtube.catalog.ChannelMirrors;
+import com.google.api.services.youtube.YouTube;
+import com.google.api.services.youtube.model.Channel;
+import com.google.api.services.youtube.model.PlaylistItem;
+import com.google.api.services.youtube.model.PlaylistItemListResponse;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background sync of the uploads playlists of the configured channels into their {@link ChannelMirror}s.
+ * The first run of a channel reads the whole playlist. The following runs request the first page conditionally and
+ * only read new uploads, up to the first video already mirrored. Changes of mirrored videos and removed videos are
+ * picked up by a full pass every {@link #FULL_SYNC_INTERVAL}.
+ * A channel registered by several projects is synced once, at the shortest registered interval.
+ */
+public final class YoutubeChannelSync {
+
+	/**
+	 * The interval of full passes over the playlist of a channel.
+	 */
+	static final Duration FULL_SYNC_INTERVAL = Duration.ofDays(1);
+	/**
+	 * The fields of the requested playlist pages.
+	 */
+	static final String PLAYLIST_FIELDS = "etag,nextPageToken,items(contentDetails/videoId,snippet(title,description,thumbnails(default/url,high/url)))";
+
+	private static final Class<?> LOGGER = YoutubeChannelSync.class;
+	private static final Map<String, Registration> REGISTRATIONS = new ConcurrentHashMap<>();
+	private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "youtube-channel-sync");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private YoutubeChannelSync() {
+		throw new IllegalStateException("Utility class");
+	}
+
+	/**
+	 * Registers the specified channels for the background sync, the first run starts immediately.
+	 * A channel already registered is only rescheduled if the specified interval is shorter.
+	 *
+	 * @param apiKey   the api key
+	 * @param youtube  the youtube
+	 * @param channels the channels
+	 * @param interval the interval between two runs
+	 */
+	public static void register(final String apiKey, final YouTube youtube, final List<Channel> channels, final Duration interval) {
+		for (final Channel channel : channels) {
+			REGISTRATIONS.compute(channel.getId(), (channelId, registration) -> {
+				if (registration != null && registration._interval.compareTo(interval) <= 0) {
+					return registration;
+				}
+				ChannelMirror mirror = ChannelMirrors.forChannel(channelId);
+				if (mirror == null) {
+					return registration;
+				}
+				if (registration != null) {
+					registration._future.cancel(false);
+				}
+				Logging.logInfo(String.format("Sync channel '%s' every %d minutes", channelId, interval.toMinutes()), LOGGER);
+				String playlistId = channel.getContentDetails().getRelatedPlaylists().getUploads();
+				return new Registration(interval, EXECUTOR.scheduleWithFixedDelay(() -> run(youtube, apiKey, playlistId, mirror), 0, interval.toMillis(), TimeUnit.MILLISECONDS));
+			});
+		}
+	}
+
+	/**
+	 * Gets the mirrors of the specified channels if all of them are synced.
+	 *
+	 * @param channels the channels
+	 * @return the mirrors in the order of the channels or {@code null} if at least one channel is not synced or its
+	 * first full pass is not completed yet
+	 */
+	@Nullable
+	public static List<ChannelMirror> getMirrors(final List<Channel> channels) {
+		if (REGISTRATIONS.isEmpty()) {
+			return null;
+		}
+		List<ChannelMirror> mirrors = new ArrayList<>();
+		for (final Channel channel : channels) {
+			String channelId = channel.getId();
+			ChannelMirror mirror = channelId != null && REGISTRATIONS.containsKey(channelId) ? ChannelMirrors.forChannel(channelId) : null;
+			if (mirror == null || !mirror.isComplete()) {
+				return null;
+			}
+			mirrors.add(mirror);
+		}
+		return mirrors;
+	}
+
+	/**
+	 * Gets the sync interval of the specified channel.
+	 *
+	 * @param channelId the channel id
+	 * @return the interval or {@code null} if the channel is not synced
+	 */
+	@Nullable
+	public static Duration getInterval(final String channelId) {
+		Registration registration = REGISTRATIONS.get(channelId);
+		return registration != null ? registration._interval : null;
+	}
+
+	/**
+	 * Stops the sync of all channels, runs in progress are completed.
+	 */
+	public static void shutdown() {
+		for (final String channelId : REGISTRATIONS.keySet()) {
+			Registration registration = REGISTRATIONS.remove(channelId);
+			if (registration != null) {
+				registration._future.cancel(false);
+			}
+		}
+		ChannelMirrors.clear();
+	}
+
+	/**
+	 * Syncs the specified mirror with the uploads playlist of its channel and saves it.
+	 *
+	 * @param youtube    the youtube
+	 * @param apiKey     the api key
+	 * @param playlistId the id of the uploads playlist
+	 * @param mirror     the mirror
+	 * @param now        the current time in milliseconds since the epoch
+	 * @return the number of new uploads, all videos for a full pass
+	 * @throws IOException the io exception
+	 */
+	static int sync(final YouTube youtube, final String apiKey, final String playlistId, final ChannelMirror mirror, final long now) throws IOException {
+		boolean full = !mirror.isComplete() || now - mirror.getFullSyncAt() >= FULL_SYNC_INTERVAL.toMillis();
+		List<YoutubeVideo> videos = new ArrayList<>();
+		String etag = null;
+		String pageToken = null;
+		boolean known = false;
+		do {
+			YouTube.PlaylistItems.List request = youtube.playlistItems()
+					.list("snippet,contentDetails")
+					.setKey(apiKey)
+					.setPlaylistId(playlistId)
+					.setMaxResults((long) YoutubeConnector.MAX_RESULTS_PER_REQUEST)
+					.setFields(PLAYLIST_FIELDS);
+			// the pages of the editors may be outdated
+			request.getRequestHeaders().setCacheControl(YoutubeRequestDispatcher.NO_CACHE);
+			if (pageToken != null) {
+				request.setPageToken(pageToken);
+			}
+			PlaylistItemListResponse response = YoutubeRequestDispatcher.executeIfModified(request, pageToken == null && !full ? mirror.getEtag() : null,
+																										YoutubeQuotaScheduler.Priority.BACKGROUND);
+			if (response == null) {
+				// the first page is unchanged, there are no new uploads
+				mirror.setSyncedAt(now);
+				return 0;
+			}
+			if (pageToken == null) {
+				etag = response.getEtag();
+			}
+			List<PlaylistItem> items = response.getItems() != null ? response.getItems() : Collections.emptyList();
+			for (final PlaylistItem item : items) {
+				YoutubeVideo video = YoutubeVideoSearchRequest.createYoutubeVideo(item);
+				if (!full && mirror.contains(video.getId())) {
+					known = true;
+					break;
+				}
+				videos.add(video);
+			}
+			pageToken = response.getNextPageToken();
+		} while (!known && Strings.notEmpty(pageToken));
+		// set before the new videos are visible, so a completed mirror is never taken for unsynced
+		mirror.setSyncedAt(now);
+		if (full) {
+			mirror.replace(videos, etag, now);
+		} else {
+			mirror.prepend(videos, etag);
+		}
+		mirror.save();
+		return videos.size();
+	}
+
+	private static void run(final YouTube youtube, final String apiKey, final String playlistId, final ChannelMirror mirror) {
+		try {
+			long start = System.nanoTime();
+			int count = sync(youtube, apiKey, playlistId, mirror, System.currentTimeMillis());
+			Logging.logDebug(String.format("Synced channel '%s' with %d new videos in %d ms", mirror.getChannelId(), count, (System.nanoTime() - start) / 1_000_000), LOGGER);
+		} catch (IOException | RuntimeException e) {
+			// the next run starts over, the mirror keeps serving its videos
+			Logging.logWarning(String.format("Sync of channel '%s' failed", mirror.getChannelId()), e, LOGGER);
+		}
+	}
+
+	/**
+	 * The scheduled sync of a channel.
+	 */
+	private static class Registration {
+
+		private final Duration _interval;
+		private final ScheduledFuture<?> _future;
+
+		private Registration(final Duration interval, final ScheduledFuture<?> future) {
+			_interval = interval;
+			_future = future;
+		}
+	}
+}
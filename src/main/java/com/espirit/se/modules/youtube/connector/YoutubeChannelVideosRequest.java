@@ -11,13 +11,21 @@ import com.google.api.services.youtube.model.PlaylistItemListResponse;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 public class YoutubeChannelVideosRequest implements YoutubeVideoSearchRequest {
 
+	/**
+	 * The number of consecutive calls of {@link #searchVideos(int)} in which a channel failed, after which the channel
+	 * is given up.
+	 */
+	static final int MAX_CHANNEL_FAILURES = 3;
 	private static final Class<?> LOGGER = YoutubeChannelVideosRequest.class;
 	private final YouTube.PlaylistItems.List _playList;
 	private int _total = -1;
@@ -44,11 +52,41 @@ public class YoutubeChannelVideosRequest implements YoutubeVideoSearchRequest {
 	 */
 	public static YoutubeChannelVideosRequest createInstance(final String apiKey, final YouTube youtube, final List<Channel> channels) throws IOException {
 		Logging.logInfo(String.format("List videos for channel(s) '%s'", channels.stream().map(channel -> channel.getSnippet().getTitle()).collect(Collectors.joining(","))), LOGGER);
-		YouTube.PlaylistItems.List playList = youtube.playlistItems()
+		List<RequestChannel> requestChannelList = channels.stream().map(RequestChannel::new).collect(Collectors.toList());
+		return new YoutubeChannelVideosRequest(createPlayList(apiKey, youtube), requestChannelList);
+	}
+
+	/**
+	 * Checks whether the first pages of the uploads of all specified channels are served from the page cache.
+	 *
+	 * @param apiKey   the api key
+	 * @param youtube  the youtube
+	 * @param channels the channels
+	 * @return true if all first pages are cached
+	 * @throws IOException the io exception
+	 */
+	static boolean isFirstPageCached(final String apiKey, final YouTube youtube, final List<Channel> channels) throws IOException {
+		for (final Channel channel : channels) {
+			if (!YoutubeRequestDispatcher.isCached(setPage(createPlayList(apiKey, youtube), channel, null))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static YouTube.PlaylistItems.List createPlayList(final String apiKey, final YouTube youtube) throws IOException {
+		return youtube.playlistItems()
 				.list("snippet,contentDetails")
 				.setKey(apiKey);
-		List<RequestChannel> requestChannelList = channels.stream().map(RequestChannel::new).collect(Collectors.toList());
-		return new YoutubeChannelVideosRequest(playList, requestChannelList);
+	}
+
+	private static YouTube.PlaylistItems.List setPage(final YouTube.PlaylistItems.List playList, final Channel channel, final String pageToken) {
+		playList.setMaxResults((long) YoutubeConnector.MAX_RESULTS_PER_REQUEST);
+		if (Strings.notEmpty(pageToken)) {
+			playList.setPageToken(pageToken);
+		}
+		playList.setPlaylistId(channel.getContentDetails().getRelatedPlaylists().getUploads());
+		return playList;
 	}
 
 	@Override
@@ -62,55 +100,88 @@ public class YoutubeChannelVideosRequest implements YoutubeVideoSearchRequest {
 		}
 	}
 
+	/**
+	 * Supplied a list of Youtube videos.
+	 * The uploads playlists of the channels are requested concurrently, the videos are returned in the order of the
+	 * channels. Every request fetches {@value YoutubeConnector#MAX_RESULTS_PER_REQUEST} videos, the surplus is buffered
+	 * per channel and delivered by the following calls. A failing channel is requested only once per call and skipped
+	 * for the rest of it, the next call requests it again. It is given up after {@value #MAX_CHANNEL_FAILURES}
+	 * consecutive calls in which it failed, the other channels are not affected.
+	 *
+	 * @param count the number of videos to retrieve.
+	 * @return a list of youtube videos
+	 */
 	@Override
 	public List<YoutubeVideo> searchVideos(final int count) {
 		List<YoutubeVideo> resultList = new ArrayList<>();
+		// channels that failed in this call are not requested again before the next call
+		Set<RequestChannel> failedChannels = ConcurrentHashMap.newKeySet();
 		while (resultList.size() < count && _hasNext) {
 			int requestSize = count - resultList.size();
 			// All channels that still provide videos
-			List<RequestChannel> requestChannelList = _channels.stream().filter(Predicate.not(RequestChannel::isConsumed)).collect(Collectors.toList());
-			// How many videos to request per channel
-			int channelRequestSize = requestSize / requestChannelList.size();
-			int channelRequestSizeFactor = requestSize % requestChannelList.size();
-			Iterator<RequestChannel> iterator = requestChannelList.iterator();
-			while (iterator.hasNext()) {
-				final RequestChannel requestChannel = iterator.next();
-				int currentRequestSize = channelRequestSize;
-				if (channelRequestSizeFactor > 0) {
-					currentRequestSize++;
-					channelRequestSizeFactor--;
+			List<RequestChannel> requestChannelList = _channels.stream()
+					.filter(Predicate.not(RequestChannel::isExhausted))
+					.filter(requestChannel -> !failedChannels.contains(requestChannel) || !requestChannel.getBufferedVideos().isEmpty())
+					.collect(Collectors.toList());
+			if (requestChannelList.isEmpty()) {
+				break;
+			}
+			// How many videos to take per channel
+			int[] channelRequestSizes = YoutubeMultiChannelVideoSearchRequest.getChannelRequestSizes(requestSize, requestChannelList.size());
+			List<ParallelTasks.Task<Boolean>> tasks = new ArrayList<>();
+			for (int i = 0; i < requestChannelList.size(); i++) {
+				final RequestChannel requestChannel = requestChannelList.get(i);
+				if (requestChannel.getBufferedVideos().size() < channelRequestSizes[i] && !requestChannel.isConsumed()) {
+					tasks.add(() -> executeYoutubeVideosRequest(requestChannel, failedChannels));
 				}
-				try {
-					resultList.addAll(executeYoutubeVideosRequest(requestChannel, currentRequestSize));
-				} catch (IOException e) {
-					Logging.logError("Error requesting videos", e, LOGGER);
-					_hasNext = false;
-					return resultList;
+			}
+			ParallelTasks.invokeEach(tasks, YoutubeConnector.MAX_PARALLEL_CHANNEL_REQUESTS, e -> {
+				Logging.logError("Error requesting videos", e, LOGGER);
+				return Boolean.FALSE;
+			});
+			for (int i = 0; i < requestChannelList.size(); i++) {
+				Deque<YoutubeVideo> bufferedVideos = requestChannelList.get(i).getBufferedVideos();
+				for (int j = 0; j < channelRequestSizes[i] && !bufferedVideos.isEmpty(); j++) {
+					resultList.add(bufferedVideos.poll());
 				}
 			}
-			_hasNext = _channels.stream().anyMatch(Predicate.not(RequestChannel::isConsumed));
+			_hasNext = _channels.stream().anyMatch(Predicate.not(RequestChannel::isExhausted));
+		}
+		// the total of a failed channel is not known yet
+		if (failedChannels.isEmpty()) {
+			setTotal();
 		}
-		setTotal();
 		return resultList;
 	}
 
-	private List<YoutubeVideo> executeYoutubeVideosRequest(final RequestChannel requestChannel, final int currentRequestSize) throws IOException {
-		_playList.setMaxResults(Long.valueOf(currentRequestSize));
-		if (Strings.notEmpty(requestChannel.getPageToken())) {
-			_playList.setPageToken(requestChannel.getPageToken());
+	private Boolean executeYoutubeVideosRequest(final RequestChannel requestChannel, final Set<RequestChannel> failedChannels) throws IOException {
+		// every request works on its own copy, the template is shared by all channels
+		YouTube.PlaylistItems.List playList = setPage((YouTube.PlaylistItems.List) _playList.clone(), requestChannel.getChannel(), requestChannel.getPageToken());
+		PlaylistItemListResponse channelListResponse;
+		try {
+			channelListResponse = YoutubeRequestDispatcher.execute(playList);
+		} catch (IOException e) {
+			failedChannels.add(requestChannel);
+			requestChannel.setFailures(requestChannel.getFailures() + 1);
+			if (requestChannel.getFailures() >= MAX_CHANNEL_FAILURES) {
+				Logging.logWarning(String.format("Skip channel '%s' after %d failed searches", requestChannel.getChannel().getId(), requestChannel.getFailures()), LOGGER);
+				requestChannel.setConsumed(true);
+			}
+			throw e;
 		}
-		_playList.setPlaylistId(requestChannel.getChannel().getContentDetails().getRelatedPlaylists().getUploads());
-		PlaylistItemListResponse channelListResponse = _playList.execute();
+		requestChannel.setFailures(0);
 		requestChannel.setPageToken(channelListResponse.getNextPageToken());
 		requestChannel.setTotalVideos(channelListResponse.getPageInfo().getTotalResults());
-		List<PlaylistItem> searchResults = channelListResponse.getItems();
-		if (searchResults.isEmpty()) {
+		List<PlaylistItem> searchResults = channelListResponse.getItems() != null ? channelListResponse.getItems() : Collections.emptyList();
+		if (searchResults.isEmpty() || Strings.isEmpty(channelListResponse.getNextPageToken())) {
 			requestChannel.setConsumed(true);
-		} else {
+		}
+		if (!searchResults.isEmpty()) {
 			requestChannel.setConsumedVideos(requestChannel.getConsumed() + searchResults.size());
 		}
+		searchResults.stream().map(YoutubeVideoSearchRequest::createYoutubeVideo).forEach(requestChannel.getBufferedVideos()::add);
 		Logging.logDebug(requestChannel.toString(), LOGGER);
-		return searchResults.stream().map(YoutubeVideoSearchRequest::createYoutubeVideo).collect(Collectors.toList());
+		return Boolean.TRUE;
 	}
 
 	@Override
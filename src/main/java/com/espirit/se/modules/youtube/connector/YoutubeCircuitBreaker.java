@@ -0,0 +1,335 @@
+package com.espirit.se.modules.youtube.connector;
+
+import de.espirit.common.base.Logging;
+
+import com.google.api.client.googleapis.services.AbstractGoogleClientRequest;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker of an endpoint family of the YouTube Data API, e.g. {@code search} or {@code videos}.
+ * <ul>
+ * <li>{@link State#CLOSED}: the requests are sent. A transient failure (see
+ * {@link YoutubeRequestDispatcher#isTransient(IOException)}) or a response slower than the SLO counts as failure,
+ * any other response as success. The circuit opens once more than half of the last {@value #WINDOW_SIZE} requests
+ * failed, but not before {@value #MINIMUM_CALLS} requests were sent, so a single broken resource does not suspend the
+ * requests of all editors.</li>
+ * <li>{@link State#OPEN}: the requests are rejected at once with a {@link CircuitOpenException}, the callers serve
+ * cached or persisted data instead. Once the open time is up, the request that opened the circuit is sent again in the
+ * background as probe.</li>
+ * <li>{@link State#HALF_OPEN}: the probe is in flight, the requests are still rejected. A successful probe closes the
+ * circuit, otherwise it opens again for twice the time, at most for {@link #MAX_OPEN_DURATION}.</li>
+ * </ul>
+ * Every request is sent with the generation of the circuit, which changes with every state change. Only responses of
+ * the current generation count, so the late response of a request sent before the circuit opened neither closes nor
+ * opens the circuit, only the probe decides.
+ * State changes are logged and reported to the {@link Listener listeners}.
+ */
+public final class YoutubeCircuitBreaker {
+
+	/**
+	 * The state of a circuit.
+	 */
+	public enum State {
+		/**
+		 * The requests are sent.
+		 */
+		CLOSED,
+		/**
+		 * The requests are rejected.
+		 */
+		OPEN,
+		/**
+		 * The requests are rejected while a probe is in flight.
+		 */
+		HALF_OPEN
+	}
+
+	/**
+	 * Listener of the state changes of the circuits.
+	 */
+	@FunctionalInterface
+	public interface Listener {
+
+		/**
+		 * Called when the circuit of the specified endpoint family changed its state.
+		 *
+		 * @param family the endpoint family
+		 * @param from   the previous state
+		 * @param to     the new state
+		 */
+		void stateChanged(String family, State from, State to);
+	}
+
+	/**
+	 * The number of recent requests the failure rate is computed of.
+	 */
+	static final int WINDOW_SIZE = 20;
+	/**
+	 * The minimum number of requests of a failure rate opening a circuit.
+	 */
+	static final int MINIMUM_CALLS = 10;
+	/**
+	 * The latency of a response counting as failure.
+	 */
+	static final Duration SLOW_CALL_THRESHOLD = Duration.ofSeconds(5);
+	/**
+	 * The time a circuit stays open before the first probe.
+	 */
+	static final Duration OPEN_DURATION = Duration.ofSeconds(30);
+	/**
+	 * The maximum time a circuit stays open before the next probe.
+	 */
+	static final Duration MAX_OPEN_DURATION = Duration.ofMinutes(10);
+
+	private static final Class<?> LOGGER = YoutubeCircuitBreaker.class;
+	private static final Map<String, YoutubeCircuitBreaker> BREAKERS = new ConcurrentHashMap<>();
+	private static final List<Listener> LISTENERS = new CopyOnWriteArrayList<>();
+	private static final ScheduledExecutorService PROBES = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "youtube-circuit-probe");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private static volatile int _minimumCalls = MINIMUM_CALLS;
+	private static volatile Duration _slowCallThreshold = SLOW_CALL_THRESHOLD;
+	private static volatile Duration _openDuration = OPEN_DURATION;
+
+	private final String _family;
+	private final boolean[] _window = new boolean[WINDOW_SIZE];
+	private State _state = State.CLOSED;
+	private long _generation;
+	private long _calls;
+	private int _failures;
+	private Duration _currentOpenDuration = _openDuration;
+	private Instant _openUntil;
+	private Probe _probe;
+
+	private YoutubeCircuitBreaker(final String family) {
+		_family = family;
+	}
+
+	/**
+	 * Gets the circuit breaker of the endpoint family of the specified request.
+	 *
+	 * @param request the request
+	 * @return the circuit breaker
+	 */
+	static YoutubeCircuitBreaker forRequest(final AbstractGoogleClientRequest<?> request) {
+		String family = request.getUriTemplate();
+		return forFamily(family != null ? family : "");
+	}
+
+	/**
+	 * Gets the circuit breaker of the specified endpoint family.
+	 *
+	 * @param family the endpoint family
+	 * @return the circuit breaker
+	 */
+	static YoutubeCircuitBreaker forFamily(final String family) {
+		return BREAKERS.computeIfAbsent(family, YoutubeCircuitBreaker::new);
+	}
+
+	/**
+	 * Checks whether the circuit of the specified endpoint family rejects requests.
+	 *
+	 * @param family the endpoint family, e.g. {@code search}
+	 * @return true if the circuit is open or half open
+	 */
+	public static boolean isOpen(final String family) {
+		YoutubeCircuitBreaker breaker = BREAKERS.get(family);
+		return breaker != null && breaker.getState() != State.CLOSED;
+	}
+
+	/**
+	 * Gets the states of the circuits of all endpoint families requested so far.
+	 *
+	 * @return the states by endpoint family
+	 */
+	public static Map<String, State> getStates() {
+		Map<String, State> states = new TreeMap<>();
+		BREAKERS.forEach((family, breaker) -> states.put(family, breaker.getState()));
+		return states;
+	}
+
+	/**
+	 * Adds a listener of the state changes.
+	 *
+	 * @param listener the listener
+	 */
+	public static void addListener(final Listener listener) {
+		LISTENERS.add(listener);
+	}
+
+	/**
+	 * Removes a listener of the state changes.
+	 *
+	 * @param listener the listener
+	 */
+	public static void removeListener(final Listener listener) {
+		LISTENERS.remove(listener);
+	}
+
+	/**
+	 * Sets the thresholds of all circuits, the existing circuits are closed.
+	 *
+	 * @param minimumCalls      the minimum number of requests of a failure rate opening a circuit, at most
+	 *                          {@value #WINDOW_SIZE}
+	 * @param slowCallThreshold the latency of a response counting as failure
+	 * @param openDuration      the time a circuit stays open before the first probe
+	 */
+	static void configure(final int minimumCalls, final Duration slowCallThreshold, final Duration openDuration) {
+		_minimumCalls = Math.min(minimumCalls, WINDOW_SIZE);
+		_slowCallThreshold = slowCallThreshold;
+		_openDuration = openDuration;
+		BREAKERS.clear();
+	}
+
+	/**
+	 * Closes all circuits and restores the default thresholds.
+	 */
+	public static void clear() {
+		configure(MINIMUM_CALLS, SLOW_CALL_THRESHOLD, OPEN_DURATION);
+	}
+
+	/**
+	 * Gets the state.
+	 *
+	 * @return the state
+	 */
+	synchronized State getState() {
+		return _state;
+	}
+
+	/**
+	 * Checks whether a request may be sent.
+	 *
+	 * @return the generation of the circuit the request is sent with
+	 * @throws CircuitOpenException if the circuit is open or half open
+	 */
+	synchronized long checkPermission() throws CircuitOpenException {
+		if (_state != State.CLOSED) {
+			throw new CircuitOpenException(_family, String.format("YouTube %s requests are suspended until %s after repeated failures", _family, _openUntil));
+		}
+		return _generation;
+	}
+
+	/**
+	 * Records the outcome of a request sent to YouTube.
+	 *
+	 * @param failure       the failure or {@code null} if the request succeeded
+	 * @param latencyMillis the latency of the request
+	 * @param generation    the generation of the circuit the request was sent with
+	 * @param probe         creates the probe of the circuit, called at once if the request opens the circuit
+	 */
+	synchronized void record(@Nullable final IOException failure, final double latencyMillis, final long generation, final Supplier<Probe> probe) {
+		if (generation != _generation) {
+			// responses of requests sent in another state, e.g. before the circuit opened, do not count
+			return;
+		}
+		boolean failed = failure != null && YoutubeRequestDispatcher.isTransient(failure) || latencyMillis > _slowCallThreshold.toMillis();
+		if (_state == State.CLOSED) {
+			int index = (int) (_calls++ % WINDOW_SIZE);
+			if (_calls > WINDOW_SIZE && _window[index]) {
+				_failures--;
+			}
+			_window[index] = failed;
+			if (failed) {
+				_failures++;
+			}
+			int calls = (int) Math.min(_calls, WINDOW_SIZE);
+			if (failed && calls >= _minimumCalls && _failures * 2 > calls) {
+				_probe = probe.get();
+				open(String.format("%d of %d requests failed, last: %s", _failures, calls, failure != null ? failure.getMessage() : String.format("%.0f ms", latencyMillis)));
+			}
+		} else if (_state == State.HALF_OPEN) {
+			if (failed) {
+				Duration doubled = _currentOpenDuration.multipliedBy(2);
+				_currentOpenDuration = doubled.compareTo(MAX_OPEN_DURATION) > 0 ? MAX_OPEN_DURATION : doubled;
+				open("probe failed");
+			} else {
+				_calls = 0;
+				_failures = 0;
+				_currentOpenDuration = _openDuration;
+				_probe = null;
+				changeState(State.CLOSED);
+				Logging.logInfo(String.format("Circuit of YouTube %s requests closed", _family), LOGGER);
+			}
+		}
+	}
+
+	@Override
+	public synchronized String toString() {
+		return _family + ": " + _state;
+	}
+
+	private void open(final String reason) {
+		_openUntil = Instant.now().plus(_currentOpenDuration);
+		changeState(State.OPEN);
+		Logging.logWarning(String.format("Circuit of YouTube %s requests opened for %d s: %s", _family, _currentOpenDuration.toSeconds(), reason), LOGGER);
+		PROBES.schedule(this::probe, _currentOpenDuration.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	private void probe() {
+		Probe probe;
+		long generation;
+		synchronized (this) {
+			if (_state != State.OPEN || BREAKERS.get(_family) != this) {
+				return;
+			}
+			probe = _probe;
+			changeState(State.HALF_OPEN);
+			generation = _generation;
+		}
+		try {
+			probe.send(generation);
+		} catch (IOException | RuntimeException e) {
+			Logging.logDebug(String.format("Probe of YouTube %s requests failed: %s", _family, e.getMessage()), LOGGER);
+		}
+		synchronized (this) {
+			if (_state == State.HALF_OPEN) {
+				// the probe was not sent, e.g. rejected by the quota scheduler
+				open("probe not sent");
+			}
+		}
+	}
+
+	private void changeState(final State state) {
+		State previous = _state;
+		_state = state;
+		_generation++;
+		for (final Listener listener : LISTENERS) {
+			try {
+				listener.stateChanged(_family, previous, state);
+			} catch (RuntimeException e) {
+				Logging.logError("Circuit listener failed", e, LOGGER);
+			}
+		}
+	}
+
+	/**
+	 * Sends a request again, bypassing the circuit.
+	 */
+	@FunctionalInterface
+	interface Probe {
+
+		/**
+		 * Sends the request.
+		 *
+		 * @param generation the generation of the half open circuit the probe is sent with
+		 * @throws IOException the io exception
+		 */
+		void send(long generation) throws IOException;
+	}
+}
@@ -0,0 +1,232 @@
+package com.espirit.se.modules.youtube.connector;
+
+import de.espirit.common.base.Logging;
+
+import com.google.api.client.googleapis.services.AbstractGoogleClient;
+import com.google.api.client.googleapis.services.AbstractGoogleClientRequest;
+import com.google.api.client.http.apache.ApacheHttpTransport;
+import com.google.api.client.json.jackson2.JacksonFactory;
+import com.google.api.services.youtube.YouTube;
+import org.apache.http.conn.params.ConnManagerParams;
+import org.apache.http.conn.params.ConnPerRouteBean;
+import org.apache.http.params.HttpParams;
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide registry of YouTube clients.
+ * A {@link YouTube} client is thread-safe, so one client per API key and transport settings is created and shared
+ * by all connectors. Each client owns a pooled keep-alive transport with a bounded number of connections, which lets
+ * subsequent requests reuse warm (already handshaked) connections. The clients of the projects share the transport
+ * of their API key. The timeouts of the requests are set by the {@link YoutubeRetryPolicy} of the
+ * {@link YoutubeRequestDispatcher}.
+ */
+public final class YoutubeClientRegistry {
+
+	/**
+	 * The application name sent to the YouTube Data API.
+	 */
+	static final String APP_NAME = "FirstSpirit YouTube Integration";
+	/**
+	 * The default maximum number of pooled connections per client.
+	 */
+	public static final int DEFAULT_MAX_CONNECTIONS = 20;
+
+	private static final Class<?> LOGGER = YoutubeClientRegistry.class;
+	private static final Map<ClientKey, RegisteredClient> CLIENTS = new ConcurrentHashMap<>();
+	private static final Map<AbstractGoogleClient, String> PROJECTS = new ConcurrentHashMap<>();
+
+	private YoutubeClientRegistry() {
+		throw new IllegalStateException("Utility class");
+	}
+
+	/**
+	 * Gets the shared client for the specified API key and the default transport settings.
+	 *
+	 * @param apiKey the api key
+	 * @return the youtube client
+	 */
+	public static YouTube getClient(final String apiKey) {
+		return getClient(apiKey, null, DEFAULT_MAX_CONNECTIONS);
+	}
+
+	/**
+	 * Gets the client for the specified API key and project and the default transport settings.
+	 *
+	 * @param apiKey  the api key
+	 * @param project the project the requests are attributed to, {@code null} for the shared client
+	 * @return the youtube client
+	 * @see #getClient(String, String, int, String)
+	 */
+	public static YouTube getClient(final String apiKey, @Nullable final String project) {
+		return getClient(apiKey, null, DEFAULT_MAX_CONNECTIONS, project);
+	}
+
+	/**
+	 * Gets the shared client for the specified API key and transport settings, creating it on first use.
+	 *
+	 * @param apiKey         the api key
+	 * @param rootUrl        the root url of the YouTube Data API or {@code null} for the default
+	 * @param maxConnections the maximum number of pooled connections
+	 * @return the youtube client
+	 */
+	static YouTube getClient(final String apiKey, @Nullable final String rootUrl, final int maxConnections) {
+		return getClient(apiKey, rootUrl, maxConnections, null);
+	}
+
+	/**
+	 * Gets the client for the specified API key, transport settings and project, creating it on first use.
+	 * The client of a project shares the transport of the shared client, but attributes every request to the project,
+	 * see {@link #getProject(AbstractGoogleClientRequest)}.
+	 *
+	 * @param apiKey         the api key
+	 * @param rootUrl        the root url of the YouTube Data API or {@code null} for the default
+	 * @param maxConnections the maximum number of pooled connections
+	 * @param project        the project the requests are attributed to, {@code null} for the shared client
+	 * @return the youtube client
+	 */
+	static YouTube getClient(final String apiKey, @Nullable final String rootUrl, final int maxConnections, @Nullable final String project) {
+		ClientKey key = new ClientKey(apiKey, rootUrl, maxConnections);
+		RegisteredClient client = CLIENTS.computeIfAbsent(key, YoutubeClientRegistry::createClient);
+		if (project == null) {
+			return client.getYoutube();
+		}
+		return client._projectClients.computeIfAbsent(project, name -> {
+			YouTube youtube = createBuilder(key, client.getTransport()).build();
+			PROJECTS.put(youtube, name);
+			return youtube;
+		});
+	}
+
+	/**
+	 * Gets the project the specified request is attributed to by the client it was created with. The project is never
+	 * sent to YouTube.
+	 *
+	 * @param request the request
+	 * @return the project or {@code null} if the request was created with a shared client
+	 */
+	@Nullable
+	static String getProject(final AbstractGoogleClientRequest<?> request) {
+		return PROJECTS.get(request.getAbstractGoogleClient());
+	}
+
+	/**
+	 * Gets the number of currently registered clients.
+	 *
+	 * @return the number of clients
+	 */
+	static int size() {
+		return CLIENTS.size();
+	}
+
+	/**
+	 * Removes all registered clients and releases their pooled connections.
+	 */
+	public static void shutdown() {
+		for (final ClientKey key : CLIENTS.keySet()) {
+			RegisteredClient client = CLIENTS.remove(key);
+			if (client != null) {
+				client._projectClients.values().forEach(PROJECTS::remove);
+				client.getTransport().shutdown();
+			}
+		}
+	}
+
+	@NotNull
+	private static RegisteredClient createClient(final ClientKey key) {
+		Logging.logInfo(String.format("Create YouTube client (rootUrl: '%s', maxConnections: %d)", key._rootUrl, key._maxConnections), LOGGER);
+		ApacheHttpTransport transport = createTransport(key._maxConnections);
+		return new RegisteredClient(createBuilder(key, transport).build(), transport);
+	}
+
+	private static YouTube.Builder createBuilder(final ClientKey key, final ApacheHttpTransport transport) {
+		YouTube.Builder builder = new YouTube.Builder(transport, JacksonFactory.getDefaultInstance(), request -> {
+			// read per request, so a changed policy applies to the registered clients
+			YoutubeRetryPolicy policy = YoutubeRequestDispatcher.getRetryPolicy();
+			request.setConnectTimeout((int) policy.getConnectTimeout().toMillis());
+			request.setReadTimeout((int) policy.getReadTimeout().toMillis());
+			// the retries are up to the dispatcher
+			request.setNumberOfRetries(0);
+		}).setApplicationName(APP_NAME);
+		if (key._rootUrl != null) {
+			builder.setRootUrl(key._rootUrl);
+		}
+		return builder;
+	}
+
+	/**
+	 * Creates a transport based on a thread-safe connection pool. The google http client 1.25 only exposes the
+	 * pool limits through the (deprecated) HttpClient 4 parameters.
+	 *
+	 * @param maxConnections the maximum number of pooled connections
+	 * @return the transport
+	 */
+	@SuppressWarnings("deprecation")
+	private static ApacheHttpTransport createTransport(final int maxConnections) {
+		ApacheHttpTransport.Builder transportBuilder = new ApacheHttpTransport.Builder();
+		HttpParams params = transportBuilder.getHttpParams();
+		ConnManagerParams.setMaxTotalConnections(params, maxConnections);
+		ConnManagerParams.setMaxConnectionsPerRoute(params, new ConnPerRouteBean(maxConnections));
+		return transportBuilder.build();
+	}
+
+	/**
+	 * A registered client and the transport it owns.
+	 */
+	private static class RegisteredClient {
+
+		private final YouTube _youtube;
+		private final ApacheHttpTransport _transport;
+		private final Map<String, YouTube> _projectClients = new ConcurrentHashMap<>();
+
+		private RegisteredClient(final YouTube youtube, final ApacheHttpTransport transport) {
+			_youtube = youtube;
+			_transport = transport;
+		}
+
+		private YouTube getYoutube() {
+			return _youtube;
+		}
+
+		private ApacheHttpTransport getTransport() {
+			return _transport;
+		}
+	}
+
+	/**
+	 * Key of a registered client.
+	 */
+	private static class ClientKey {
+
+		private final String _apiKey;
+		private final String _rootUrl;
+		private final int _maxConnections;
+
+		private ClientKey(final String apiKey, final String rootUrl, final int maxConnections) {
+			_apiKey = apiKey;
+			_rootUrl = rootUrl;
+			_maxConnections = maxConnections;
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			ClientKey clientKey = (ClientKey) o;
+			return _maxConnections == clientKey._maxConnections && Objects.equals(_apiKey, clientKey._apiKey) && Objects.equals(_rootUrl, clientKey._rootUrl);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(_apiKey, _rootUrl, _maxConnections);
+		}
+	}
+}
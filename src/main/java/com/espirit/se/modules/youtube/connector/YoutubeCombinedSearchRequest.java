@@ -0,0 +1,59 @@
+package com.espirit.se.modules.youtube.connector;
+
+import com.espirit.se.modules.youtube.YoutubeVideo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Combines the videos of several requests, e.g. of mirrored channels and of channels requested from YouTube.
+ * The videos are distributed over the requests like over the channels of a {@link YoutubeMultiChannelVideoSearchRequest}.
+ */
+public class YoutubeCombinedSearchRequest implements YoutubeVideoSearchRequest {
+
+	private final List<YoutubeVideoSearchRequest> _requests;
+
+	/**
+	 * @param requests the combined requests
+	 */
+	public YoutubeCombinedSearchRequest(final List<YoutubeVideoSearchRequest> requests) {
+		_requests = requests;
+	}
+
+	@Override
+	public int getTotal() {
+		int total = -1;
+		for (final YoutubeVideoSearchRequest request : _requests) {
+			if (request.getTotal() >= 0) {
+				total = Math.max(total, 0) + request.getTotal();
+			}
+		}
+		return total;
+	}
+
+	@Override
+	public List<YoutubeVideo> searchVideos(final int count) {
+		List<YoutubeVideo> resultList = new ArrayList<>();
+		while (resultList.size() < count) {
+			List<YoutubeVideoSearchRequest> requests = _requests.stream().filter(YoutubeVideoSearchRequest::hasNext).collect(Collectors.toList());
+			int[] requestSizes = YoutubeMultiChannelVideoSearchRequest.getChannelRequestSizes(count - resultList.size(), requests.size());
+			int size = resultList.size();
+			for (int i = 0; i < requests.size(); i++) {
+				if (requestSizes[i] > 0) {
+					resultList.addAll(requests.get(i).searchVideos(requestSizes[i]));
+				}
+			}
+			if (resultList.size() == size) {
+				// no request provides further videos at the moment
+				break;
+			}
+		}
+		return resultList;
+	}
+
+	@Override
+	public boolean hasNext() {
+		return _requests.stream().anyMatch(YoutubeVideoSearchRequest::hasNext);
+	}
+}
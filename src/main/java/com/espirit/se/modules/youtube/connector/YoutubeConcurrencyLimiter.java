@@ -0,0 +1,209 @@
+package com.espirit.se.modules.youtube.connector;
+
+import de.espirit.common.base.Logging;
+
+import com.google.api.client.http.HttpResponseException;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Adaptive limit of the requests an api key has in flight at the same time (AIMD, additive increase and
+ * multiplicative decrease). A request waits until one of the requests in flight completes once the limit is reached.
+ * <ul>
+ * <li>While the limit is used at least by half, every response of a healthy latency raises the limit by
+ * {@code 1 / limit}, i.e. by about one per round trip.</li>
+ * <li>A rate limit response (429, {@code rateLimitExceeded} or {@code userRateLimitExceeded}) cuts the limit by
+ * {@value #RATE_LIMIT_BACKOFF}, a response slower than {@value #LATENCY_TOLERANCE} times (and at least
+ * {@value #MIN_LATENCY_INCREASE_MILLIS} ms more than) the minimum latency of the last {@value #BASELINE_WINDOW}
+ * requests by {@value #LATENCY_BACKOFF}.</li>
+ * <li>The limit is only cut by requests sent after its last cut, so the responses of a single congestion do not cut it
+ * repeatedly.</li>
+ * </ul>
+ * The limit stays between {@value #MIN_LIMIT} and {@value #MAX_LIMIT}, the connections of the transport may cap the
+ * effective concurrency below it, see {@link YoutubeClientRegistry}.
+ */
+public final class YoutubeConcurrencyLimiter {
+
+	/**
+	 * The limit of an api key before its first response.
+	 */
+	static final int INITIAL_LIMIT = 10;
+	/**
+	 * The minimum limit.
+	 */
+	static final int MIN_LIMIT = 1;
+	/**
+	 * The maximum limit.
+	 */
+	static final int MAX_LIMIT = 64;
+	/**
+	 * The factor the limit is cut by on a rate limit response.
+	 */
+	static final double RATE_LIMIT_BACKOFF = 0.5;
+	/**
+	 * The factor the limit is cut by on a slow response.
+	 */
+	static final double LATENCY_BACKOFF = 0.9;
+	/**
+	 * The multiple of the minimum latency a response is slow at.
+	 */
+	static final double LATENCY_TOLERANCE = 2.0;
+	/**
+	 * The minimum latency increase of a slow response, so jitter of very fast responses is no congestion.
+	 */
+	static final double MIN_LATENCY_INCREASE_MILLIS = 50;
+	/**
+	 * The number of requests the minimum latency is taken of.
+	 */
+	static final int BASELINE_WINDOW = 100;
+
+	private static final Class<?> LOGGER = YoutubeConcurrencyLimiter.class;
+	private static final Map<String, YoutubeConcurrencyLimiter> LIMITERS = new ConcurrentHashMap<>();
+
+	private final String _keyId;
+	private double _limit = INITIAL_LIMIT;
+	private int _inFlight;
+	private long _cutAt = System.nanoTime();
+	private double _baselineMillis = -1;
+	private double _windowMinMillis = Double.MAX_VALUE;
+	private int _windowSamples;
+
+	private YoutubeConcurrencyLimiter(final String keyId) {
+		_keyId = keyId;
+	}
+
+	/**
+	 * Gets the limiter of the specified api key.
+	 *
+	 * @param apiKey the api key, may be {@code null}
+	 * @return the limiter
+	 */
+	static YoutubeConcurrencyLimiter forKey(@Nullable final Object apiKey) {
+		String key = apiKey != null ? apiKey.toString() : "";
+		return LIMITERS.computeIfAbsent(key, name -> new YoutubeConcurrencyLimiter(YoutubeQuota.getKeyId(name)));
+	}
+
+	/**
+	 * Gets the current limit of the specified api key.
+	 *
+	 * @param apiKey the api key
+	 * @return the number of requests the api key may have in flight
+	 */
+	public static int getLimit(final String apiKey) {
+		YoutubeConcurrencyLimiter limiter = LIMITERS.get(apiKey);
+		return limiter != null ? limiter.getLimit() : INITIAL_LIMIT;
+	}
+
+	/**
+	 * Removes all limiters.
+	 */
+	public static void clear() {
+		LIMITERS.clear();
+	}
+
+	/**
+	 * Gets the current limit.
+	 *
+	 * @return the number of requests that may be in flight
+	 */
+	synchronized int getLimit() {
+		return (int) _limit;
+	}
+
+	/**
+	 * Gets the number of requests in flight.
+	 *
+	 * @return the number of requests
+	 */
+	synchronized int getInFlight() {
+		return _inFlight;
+	}
+
+	/**
+	 * Waits until the limit admits another request.
+	 *
+	 * @throws InterruptedIOException if interrupted while waiting
+	 */
+	synchronized void acquire() throws InterruptedIOException {
+		try {
+			while (_inFlight >= (int) _limit) {
+				wait();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for the concurrency limit");
+		}
+		_inFlight++;
+	}
+
+	/**
+	 * Releases a request and adapts the limit to its outcome.
+	 *
+	 * @param startNanos    the time the request was sent, see {@link System#nanoTime()}
+	 * @param failure       the failure or {@code null} if the request succeeded
+	 * @param latencyMillis the latency of the request
+	 */
+	synchronized void release(final long startNanos, @Nullable final IOException failure, final double latencyMillis) {
+		boolean saturated = _inFlight * 2 >= (int) _limit;
+		_inFlight--;
+		if (failure != null && isRateLimited(failure)) {
+			cut(startNanos, RATE_LIMIT_BACKOFF, "rate limited");
+		} else if (failure == null || failure instanceof HttpResponseException) {
+			// any other response tells the latency, failures without response do not
+			updateBaseline(latencyMillis);
+			if (latencyMillis > Math.max(_baselineMillis * LATENCY_TOLERANCE, _baselineMillis + MIN_LATENCY_INCREASE_MILLIS)) {
+				cut(startNanos, LATENCY_BACKOFF, String.format(Locale.ROOT, "latency %.0f ms, minimum %.0f ms", latencyMillis, _baselineMillis));
+			} else if (saturated && _limit < MAX_LIMIT) {
+				_limit = Math.min(MAX_LIMIT, _limit + 1 / _limit);
+			}
+		}
+		notifyAll();
+	}
+
+	/**
+	 * Checks whether the specified failure is a rate limit response.
+	 *
+	 * @param failure the failure
+	 * @return true if YouTube asked to slow down
+	 */
+	static boolean isRateLimited(final IOException failure) {
+		if (!(failure instanceof HttpResponseException)) {
+			return false;
+		}
+		HttpResponseException e = (HttpResponseException) failure;
+		return e.getStatusCode() == 429 || YoutubeRequestDispatcher.isReason(YoutubeRequestDispatcher.getErrorReason(e), YoutubeRequestDispatcher.RATE_LIMIT_REASONS);
+	}
+
+	@Override
+	public synchronized String toString() {
+		return String.format(Locale.ROOT, "%s: limit %.1f, %d in flight", _keyId, _limit, _inFlight);
+	}
+
+	private void cut(final long startNanos, final double backoff, final String reason) {
+		if (startNanos - _cutAt < 0) {
+			return;
+		}
+		_cutAt = System.nanoTime();
+		double limit = Math.max(MIN_LIMIT, _limit * backoff);
+		Logging.logDebug(String.format(Locale.ROOT, "Concurrency limit of api key %s cut from %.1f to %.1f: %s", _keyId, _limit, limit, reason), LOGGER);
+		_limit = limit;
+	}
+
+	private void updateBaseline(final double latencyMillis) {
+		_windowMinMillis = Math.min(_windowMinMillis, latencyMillis);
+		if (_baselineMillis < 0 || latencyMillis < _baselineMillis) {
+			_baselineMillis = latencyMillis;
+		}
+		// the minimum of the last window, so the baseline follows a permanent change of the latency
+		if (++_windowSamples >= BASELINE_WINDOW) {
+			_baselineMillis = _windowMinMillis;
+			_windowMinMillis = Double.MAX_VALUE;
+			_windowSamples = 0;
+		}
+	}
+}
@@ -4,36 +4,51 @@ import de.espirit.common.base.Logging;
 import de.espirit.common.tools.Strings;
 
 import com.espirit.se.modules.youtube.YoutubeVideo;
+import com.espirit.se.modules.youtube.cache.YoutubePageCache;
 import com.espirit.se.modules.youtube.integration.YoutubeIntegrationConfig;
-import com.google.api.client.googleapis.json.GoogleJsonResponseException;
-import com.google.api.client.http.javanet.NetHttpTransport;
-import com.google.api.client.json.jackson2.JacksonFactory;
+import com.google.api.client.http.HttpResponseException;
 import com.google.api.services.youtube.YouTube;
 import com.google.api.services.youtube.model.Channel;
 import com.google.api.services.youtube.model.ChannelListResponse;
-import com.google.api.services.youtube.model.ThumbnailDetails;
-import com.google.api.services.youtube.model.Video;
-import com.google.api.services.youtube.model.VideoListResponse;
-import com.google.api.services.youtube.model.VideoSnippet;
 import org.jetbrains.annotations.NotNull;
 
 import javax.annotation.Nullable;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Youtube base class supports core features, such as searching and retrieving videos.
  */
 public class YoutubeConnector {
 
-	private static final String APP_NAME = "FirstSpirit YouTube Integration";
+	/**
+	 * The maximum number of IDs or results the YouTube Data API accepts per request.
+	 */
+	static final int MAX_RESULTS_PER_REQUEST = 50;
+	/**
+	 * The maximum number of concurrent requests of a single operation.
+	 */
+	static final int DEFAULT_PARALLELISM = 4;
+	/**
+	 * The maximum number of channels requested at the same time.
+	 */
+	static final int MAX_PARALLEL_CHANNEL_REQUESTS = 10;
 	private static final Class<?> LOGGER = YoutubeConnector.class;
 	private final YouTube _youtube;
 	private final List<Channel> _channels;
 	private final String _apiKey;
+	private final YoutubeVideoLookup _videoLookup;
+	private final QueryPlanner _queryPlanner;
 
 	/**
 	 * Instantiates a new Youtube connector.
@@ -46,10 +61,13 @@ public class YoutubeConnector {
 		_youtube = youtube;
 		_channels = channels;
 		_apiKey = apiKey;
+		_videoLookup = new YoutubeVideoLookup(youtube, apiKey, DEFAULT_PARALLELISM);
+		_queryPlanner = new QueryPlanner(apiKey, youtube, channels);
 	}
 
 	/**
 	 * Gets search request.
+	 * The request is created by the plan with the lowest cost, see {@link #plan(String, String)}.
 	 *
 	 * @param query   the query
 	 * @param channel the channel
@@ -58,59 +76,64 @@ public class YoutubeConnector {
 	public YoutubeVideoSearchRequest getSearchRequest(@Nullable String query, @Nullable String channel) {
 		YoutubeVideoSearchRequest request = null;
 		try {
-			if (_channels.isEmpty()) {
-				// no channel configured
-				request = YoutubeStandardVideoSearchRequest.createInstance(_apiKey, _youtube, query, null);
-			} else {
-				List<Channel> queryChannels = getQueryChannel(channel);
-				if (Strings.isEmpty(query)) {
-					// No request term
-					request = YoutubeChannelVideosRequest.createInstance(_apiKey, _youtube, queryChannels);
-				} else {
-					if (queryChannels.isEmpty()) {
-						request = YoutubeStandardVideoSearchRequest.createInstance(_apiKey, _youtube, query, null);
-					} else if (queryChannels.size() == 1) {
-						request = YoutubeStandardVideoSearchRequest.createInstance(_apiKey, _youtube, query, queryChannels.get(0));
-					} else {
-						request = YoutubeMultiChannelVideoSearchRequest.createInstance(_apiKey, _youtube, query, _channels);
-					}
-				}
-			}
+			QueryPlan plan = plan(query, channel);
+			Logging.logDebug("Search plan " + plan.explain(), LOGGER);
+			request = plan.createRequest();
 		} catch (IOException e) {
 			Logging.logError("Unable to create Request", e, LOGGER);
 		}
 		return request;
 	}
 
+	/**
+	 * Plans the specified search, see {@link QueryPlanner}.
+	 *
+	 * @param query   the query
+	 * @param channel the channel
+	 * @return the chosen plan with its rejected alternatives
+	 * @throws IOException the io exception
+	 */
+	public QueryPlan plan(@Nullable String query, @Nullable String channel) throws IOException {
+		return _queryPlanner.plan(trimQuery(query), getQueryChannel(channel), System.currentTimeMillis());
+	}
+
 	/**
 	 * Provides a list of videos for the specified IDs.
 	 *
 	 * @param videoIds list of video ids
-	 * @return a list of youtube videos or an empty list
+	 * @return the found youtube videos in the requested order or an empty list
 	 */
 	public List<YoutubeVideo> getVideo(Collection<String> videoIds) {
-		List<YoutubeVideo> videos = new ArrayList<>();
-		if (!videoIds.isEmpty()) {
-			try {
-				VideoListResponse response = _youtube.videos()
-						.list("snippet")
-						.setKey(_apiKey)
-						.setId(Strings.implode(videoIds, ", "))
-						.setMaxResults((long) videoIds.size())
-						.setFields("items(id,snippet(description,thumbnails/default/url,thumbnails/high/url,title))")
-						.execute();
-				for (Video video : response.getItems()) {
-					VideoSnippet snippet = video.getSnippet();
-					ThumbnailDetails thumbnails = snippet.getThumbnails();
-					videos.add(new YoutubeVideo(video.getId(), snippet.getTitle(), snippet.getDescription(), thumbnails.getDefault().getUrl(), thumbnails.getHigh().getUrl()));
-				}
-			} catch (GoogleJsonResponseException e) {
-				Logging.logError("Google API Error: " + e.getDetails().getCode() + " : " + e.getDetails().getMessage(), e, LOGGER);
-			} catch (IOException e) {
-				Logging.logError("IOException when retrieving a Youtube video.", e, LOGGER);
-			}
+		return lookupVideos(videoIds).stream()
+				.filter(VideoLookupResult::isFound)
+				.map(VideoLookupResult::getVideo)
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Looks up the videos for the specified IDs, see {@link YoutubeVideoLookup}.
+	 *
+	 * @param videoIds list of video ids
+	 * @return one result per requested ID in the requested order
+	 */
+	public List<VideoLookupResult> lookupVideos(Collection<String> videoIds) {
+		if (videoIds.isEmpty()) {
+			return Collections.emptyList();
 		}
-		return videos;
+		return _videoLookup.lookup(videoIds);
+	}
+
+	/**
+	 * Revalidates the specified cached videos, see {@link YoutubeVideoLookup#revalidate(Collection)}.
+	 *
+	 * @param videos the cached videos
+	 * @return one result per video in the specified order
+	 */
+	public List<VideoLookupResult> revalidateVideos(Collection<YoutubeVideo> videos) {
+		if (videos.isEmpty()) {
+			return Collections.emptyList();
+		}
+		return _videoLookup.revalidate(videos);
 	}
 
 	/**
@@ -134,23 +157,64 @@ public class YoutubeConnector {
 		return _channels;
 	}
 
+	/**
+	 * Trims the specified query. The query is sent as typed otherwise, the boolean operator {@code OR} of YouTube is
+	 * case-sensitive. Identical searches share their cached result pages, see
+	 * {@link YoutubePageCache#normalizeQuery(String)}.
+	 *
+	 * @param query the query
+	 * @return the trimmed query or {@code null} if empty
+	 */
+	@Nullable
+	static String trimQuery(@Nullable final String query) {
+		if (Strings.isEmpty(query) || query.isBlank()) {
+			return null;
+		}
+		return query.trim();
+	}
+
+	/**
+	 * Splits the specified list into consecutive sublists of the specified size, the last one may be smaller.
+	 *
+	 * @param list the list
+	 * @param size the maximum size of a sublist
+	 * @param <T>  the element type
+	 * @return the sublists
+	 */
+	static <T> List<List<T>> partition(final List<T> list, final int size) {
+		List<List<T>> partitions = new ArrayList<>();
+		for (int i = 0; i < list.size(); i += size) {
+			partitions.add(list.subList(i, Math.min(i + size, list.size())));
+		}
+		return partitions;
+	}
+
 	/**
 	 * Builder to create a new YouTubeConnector instance.
 	 */
 	public static class Builder {
 
 		private String _apiKey;
+		private List<String> _apiKeys;
 		private List<String> _channelIds;
+		private Duration _channelSyncInterval = Duration.ZERO;
+		private String _project;
+		private long _quotaBudget;
+		private String _rootUrl;
 
 		/**
-		 * Set the apikey and channelids based on the YoutubeIntegrationConfig
+		 * Set the apikeys, channelids, channel sync interval, project and quota budget based on the YoutubeIntegrationConfig
 		 *
 		 * @param youtubeIntegrationConfig the youtube integration config
 		 * @return Builder builder
 		 */
 		public Builder config(YoutubeIntegrationConfig youtubeIntegrationConfig) {
 			_apiKey = youtubeIntegrationConfig.getApiKey();
+			_apiKeys = youtubeIntegrationConfig.getApiKeys();
 			_channelIds = youtubeIntegrationConfig.getChannelIds();
+			_channelSyncInterval = Duration.ofMinutes(youtubeIntegrationConfig.getChannelSyncMinutes());
+			_project = youtubeIntegrationConfig.getProject();
+			_quotaBudget = youtubeIntegrationConfig.getQuotaBudget();
 			return this;
 		}
 
@@ -162,6 +226,19 @@ public class YoutubeConnector {
 		 */
 		public Builder apikey(String apiKey) {
 			_apiKey = apiKey;
+			_apiKeys = null;
+			return this;
+		}
+
+		/**
+		 * Apikeys builder, more than one key form a {@link YoutubeKeyPool}.
+		 *
+		 * @param apiKeys the api keys, the first key identifies the pool
+		 * @return the builder
+		 */
+		public Builder apikeys(List<String> apiKeys) {
+			_apiKeys = apiKeys;
+			_apiKey = apiKeys.isEmpty() ? null : apiKeys.get(0).trim();
 			return this;
 		}
 
@@ -176,30 +253,89 @@ public class YoutubeConnector {
 			return this;
 		}
 
+		/**
+		 * Channel sync builder, see {@link YoutubeChannelSync}.
+		 *
+		 * @param interval the interval between two syncs of the channels, zero if disabled
+		 * @return the builder
+		 */
+		public Builder channelSync(Duration interval) {
+			_channelSyncInterval = interval;
+			return this;
+		}
+
+		/**
+		 * Project builder, the requests of the connector are attributed to the project, see {@link YoutubeQuotaScheduler}.
+		 *
+		 * @param project the project, may be {@code null}
+		 * @return the builder
+		 */
+		public Builder project(String project) {
+			_project = project;
+			return this;
+		}
+
+		/**
+		 * Quota budget builder, see {@link YoutubeQuotaScheduler#setProjectBudget(String, long)}.
+		 *
+		 * @param units the daily quota budget of the project, 0 for no budget
+		 * @return the builder
+		 */
+		public Builder quotaBudget(long units) {
+			_quotaBudget = units;
+			return this;
+		}
+
+		/**
+		 * Root url builder, e.g. of a local stub of the YouTube Data API for tests and benchmarks.
+		 *
+		 * @param rootUrl the root url of the YouTube Data API, {@code null} for {@code https://www.googleapis.com/}
+		 * @return the builder
+		 */
+		public Builder rootUrl(String rootUrl) {
+			_rootUrl = Strings.notEmpty(rootUrl) ? rootUrl : null;
+			return this;
+		}
+
 		/**
 		 * Build youtube connector.
+		 * The underlying YouTube client is shared, see {@link YoutubeClientRegistry}, and the configured channels
+		 * are resolved once and then served from the {@link YoutubeChannelCache}. If the channel sync is enabled, the
+		 * channels are registered at the {@link YoutubeChannelSync}. The quota budget of the project is set at the
+		 * {@link YoutubeQuotaScheduler}. Several api keys are registered as {@link YoutubeKeyPool}.
 		 *
 		 * @return the youtube connector
 		 */
 		public YoutubeConnector build() {
+			if (_apiKeys != null && !_apiKeys.isEmpty()) {
+				_apiKey = YoutubeKeyPool.register(_apiKeys);
+			}
 			if (Strings.notEmpty(_apiKey)) {
-				YouTube youtube = new YouTube.Builder(new NetHttpTransport(), new JacksonFactory(), request -> {
-				}).setApplicationName(APP_NAME).build();
+				if (Strings.notEmpty(_project)) {
+					YoutubeQuotaScheduler.setProjectBudget(_project, _quotaBudget);
+				}
+				YouTube youtube = YoutubeClientRegistry.getClient(_apiKey, _rootUrl, YoutubeClientRegistry.DEFAULT_MAX_CONNECTIONS,
+																	Strings.notEmpty(_project) ? _project : null);
 				List<Channel> youtubeChannels = new ArrayList<>();
 				if (_channelIds != null && !_channelIds.isEmpty()) {
 					try {
-						youtubeChannels = getYoutubeChannels(youtube);
+						youtubeChannels = getCachedYoutubeChannels(youtube);
 					} catch (IOException e) {
 						Logging.logError("Youtube channel retrieval error", e, LOGGER);
 					}
 				}
+				if (!youtubeChannels.isEmpty() && !_channelSyncInterval.isZero() && !_channelSyncInterval.isNegative()) {
+					YoutubeChannelSync.register(_apiKey, youtube, youtubeChannels, _channelSyncInterval);
+				}
 				return new YoutubeConnector(youtube, youtubeChannels, _apiKey);
 			}
 			return null;
 		}
 
 		/**
-		 * Helper method to verify the specified api key and channel ids.
+		 * Helper method to verify the specified api keys and channel ids.
+		 * Every api key of a pool is verified, the channels are always requested, a successful resolution refreshes the
+		 * cached channels.
 		 *
 		 * @throws IOException the io exception
 		 */
@@ -207,49 +343,146 @@ public class YoutubeConnector {
 			if (Strings.isEmpty(_apiKey)) {
 				throw new IllegalArgumentException("YoutTube API KEY is missing");
 			}
-			YouTube youtube = new YouTube.Builder(new NetHttpTransport(), new JacksonFactory(), request -> {
-			}).setApplicationName(APP_NAME).build();
-			youtube.i18nLanguages()
-					.list("snippet")
-					.setKey(_apiKey)
-					.setFields("etag")
-					.execute();
+			YouTube youtube = YoutubeClientRegistry.getClient(_apiKey, _rootUrl, YoutubeClientRegistry.DEFAULT_MAX_CONNECTIONS);
+			if (_apiKeys == null || _apiKeys.size() <= 1) {
+				YoutubeRequestDispatcher.execute(youtube.i18nLanguages()
+														 .list("snippet")
+														 .setKey(_apiKey)
+														 .setFields("etag"));
+			} else {
+				checkApiKeys(youtube);
+			}
 			if (_channelIds == null || _channelIds.isEmpty()) {
 				Logging.logInfo("No channels configured", LOGGER);
 			} else {
-				getYoutubeChannels(youtube);
+				List<String> etags = new ArrayList<>();
+				YoutubeChannelCache.put(_apiKey, _channelIds, getYoutubeChannels(youtube, null, etags), etags);
 			}
 		}
 
 		/**
-		 * Gets YouTube channels.
+		 * Verifies every api key of a pool directly, so no other key of the pool answers instead.
+		 *
+		 * @param youtube the youtube
+		 * @throws IOException              the io exception
+		 * @throws IllegalArgumentException if at least one api key is rejected
+		 */
+		private void checkApiKeys(@NotNull final YouTube youtube) throws IOException {
+			List<String> errors = new ArrayList<>();
+			for (int i = 0; i < _apiKeys.size(); i++) {
+				try {
+					youtube.i18nLanguages().list("snippet").setKey(_apiKeys.get(i).trim()).setFields("etag").execute();
+				} catch (HttpResponseException e) {
+					errors.add(String.format("API key #%d rejected: %s", i + 1, e.getStatusMessage()));
+				}
+			}
+			if (!errors.isEmpty()) {
+				throw new IllegalArgumentException(String.join("\n", errors));
+			}
+		}
+
+		/**
+		 * Gets YouTube channels from the cache or requests them if they are not cached yet.
+		 * An expired cache entry is revalidated, unchanged channels are reused.
 		 *
 		 * @param youtube the youtube
 		 * @return the youtube channels
 		 * @throws IOException the io exception
 		 */
+		List<Channel> getCachedYoutubeChannels(@NotNull final YouTube youtube) throws IOException {
+			List<Channel> channels = YoutubeChannelCache.get(_apiKey, _channelIds);
+			if (channels == null) {
+				List<String> etags = new ArrayList<>();
+				channels = getYoutubeChannels(youtube, YoutubeChannelCache.getExpired(_apiKey, _channelIds), etags);
+				YoutubeChannelCache.put(_apiKey, _channelIds, channels, etags);
+			}
+			return channels;
+		}
+
+		/**
+		 * Gets YouTube channels.
+		 *
+		 * @param youtube the youtube
+		 * @return the youtube channels in the configured order
+		 * @throws IOException              the io exception
+		 * @throws IllegalArgumentException if at least one channel id is unknown or incomplete
+		 * @see #getYoutubeChannels(YouTube, YoutubeChannelCache.Entry, List)
+		 */
 		List<Channel> getYoutubeChannels(@NotNull final YouTube youtube) throws IOException {
+			return getYoutubeChannels(youtube, null, new ArrayList<>());
+		}
+
+		/**
+		 * Gets YouTube channels.
+		 * The channels are requested in chunks of {@value YoutubeConnector#MAX_RESULTS_PER_REQUEST} IDs. Every configured channel is
+		 * validated, invalid IDs are reported together. If cached channels are specified, the chunks are requested
+		 * conditionally and the cached channels of unchanged chunks are reused.
+		 *
+		 * @param youtube the youtube
+		 * @param cached  the expired cache entry to revalidate, may be {@code null}
+		 * @param etags   receives the ETags of the responses, one per chunk
+		 * @return the youtube channels in the configured order
+		 * @throws IOException              the io exception
+		 * @throws IllegalArgumentException if at least one channel id is unknown or incomplete
+		 */
+		List<Channel> getYoutubeChannels(@NotNull final YouTube youtube, @Nullable final YoutubeChannelCache.Entry cached, final List<String> etags) throws IOException {
 			List<Channel> result = new ArrayList<>();
-			for (final String channelId : _channelIds) {
-				ChannelListResponse channels = youtube.channels()
-						.list("snippet,contentDetails")
-						.setKey(_apiKey)
-						.setId(channelId)
-						.execute();
-				List<Channel> responseChannelList = channels.getItems();
-				if (responseChannelList.size() == 1) {
-					Channel channel = responseChannelList.get(0);
-					if (!channelId.equals(channel.getId())) {
-						throw new IllegalArgumentException("Incomplete ChannelId, try: " + channel.getId());
-					} else {
-						result.add(channel);
-					}
-				} else {
-					throw new IllegalArgumentException("Unknown ChannelId");
+			List<String> errors = new ArrayList<>();
+			List<String> channelIds = new ArrayList<>(new LinkedHashSet<>(_channelIds));
+			List<List<String>> chunks = partition(channelIds, MAX_RESULTS_PER_REQUEST);
+			for (int i = 0; i < chunks.size(); i++) {
+				List<String> chunk = chunks.get(i);
+				String etag = cached != null ? cached.getEtag(i) : null;
+				ChannelListResponse channels = YoutubeRequestDispatcher.executeIfModified(youtube.channels()
+																								  .list("snippet,contentDetails")
+																								  .setKey(_apiKey)
+																								  .setId(String.join(",", chunk)), etag);
+				if (channels == null) {
+					// not modified, the cached entry contains every channel of the chunk in the configured order
+					int offset = i * MAX_RESULTS_PER_REQUEST;
+					result.addAll(cached.getChannels().subList(offset, offset + chunk.size()));
+					etags.add(etag);
+					continue;
 				}
+				etags.add(channels.getEtag());
+				List<Channel> responseChannelList = channels.getItems() != null ? channels.getItems() : Collections.emptyList();
+				resolveChannels(chunk, responseChannelList, result, errors);
+			}
+			if (!errors.isEmpty()) {
+				throw new IllegalArgumentException(String.join("\n", errors));
 			}
 			return result;
 		}
 
+		private static void resolveChannels(final List<String> channelIds, final List<Channel> responseChannelList, final List<Channel> result, final List<String> errors) {
+			Set<String> requestedIds = new HashSet<>(channelIds);
+			Map<String, Channel> channelsById = new HashMap<>();
+			List<Channel> unrequestedChannels = new ArrayList<>();
+			for (final Channel channel : responseChannelList) {
+				if (requestedIds.contains(channel.getId())) {
+					channelsById.put(channel.getId(), channel);
+				} else {
+					unrequestedChannels.add(channel);
+				}
+			}
+			List<String> unknownChannelIds = new ArrayList<>();
+			for (final String channelId : channelIds) {
+				Channel channel = channelsById.get(channelId);
+				if (channel != null) {
+					result.add(channel);
+				} else {
+					unknownChannelIds.add(channelId);
+				}
+			}
+			if (unknownChannelIds.size() == 1 && unrequestedChannels.size() == 1) {
+				// the only unmatched channel of the response belongs to the only unmatched id
+				errors.add(String.format("Incomplete ChannelId '%s', try: %s", unknownChannelIds.get(0), unrequestedChannels.get(0).getId()));
+			} else {
+				for (final String channelId : unknownChannelIds) {
+					errors.add(String.format("Unknown ChannelId '%s'", channelId));
+				}
+			}
+		}
+
 	}
 }
@@ -0,0 +1,62 @@
+package com.espirit.se.modules.youtube.connector;
+
+import de.espirit.common.base.Logging;
+
+import com.espirit.se.modules.youtube.YoutubeVideo;
+import com.espirit.se.modules.youtube.catalog.VideoIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Searches the videos of mirrored channels in the local {@link VideoIndex} without any request to YouTube.
+ * Like a YouTube search, at most {@value #MAX_RESULTS} videos are provided, the best matches first.
+ */
+public class YoutubeIndexedVideoSearchRequest implements YoutubeVideoSearchRequest {
+
+	/**
+	 * The maximum number of provided videos.
+	 */
+	static final int MAX_RESULTS = 500;
+	private static final Class<?> LOGGER = YoutubeIndexedVideoSearchRequest.class;
+	private final VideoIndex _index;
+	private final String _query;
+	private final List<String> _channelIds;
+	private List<YoutubeVideo> _results;
+	private int _position = 0;
+
+	/**
+	 * @param index      the index
+	 * @param query      the query
+	 * @param channelIds the ids of the searched channels
+	 */
+	public YoutubeIndexedVideoSearchRequest(final VideoIndex index, final String query, final List<String> channelIds) {
+		_index = index;
+		_query = query;
+		_channelIds = channelIds;
+	}
+
+	@Override
+	public int getTotal() {
+		return _results != null ? _results.size() : -1;
+	}
+
+	@Override
+	public List<YoutubeVideo> searchVideos(final int count) {
+		if (_results == null) {
+			long start = System.nanoTime();
+			_results = _index.search(_query, _channelIds, MAX_RESULTS);
+			Logging.logInfo(String.format("Search mirrored videos of channel(s) '%s' for '%s': %d videos in %d µs", String.join(",", _channelIds), _query, _results.size(),
+										  (System.nanoTime() - start) / 1000), LOGGER);
+		}
+		int end = Math.min(_results.size(), _position + count);
+		List<YoutubeVideo> videos = new ArrayList<>(_results.subList(_position, end));
+		_position = end;
+		return videos;
+	}
+
+	@Override
+	public boolean hasNext() {
+		return _results == null || _position < _results.size();
+	}
+}
@@ -0,0 +1,348 @@
+package com.espirit.se.modules.youtube.connector;
+
+import de.espirit.common.base.Logging;
+import de.espirit.common.tools.Strings;
+
+import com.google.api.client.googleapis.services.AbstractGoogleClientRequest;
+import com.google.api.client.http.HttpResponseException;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Pool of api keys sharing the requests of a connector, so an installation can use more than the daily quota of one
+ * key. A pool is registered under its keys in their order joined by {@value #KEY_SEPARATOR}, which is no valid api key.
+ * The connectors set this id as key on their requests and the {@link YoutubeRequestDispatcher} lets the pool choose the
+ * key a request is sent with:
+ * <ul>
+ * <li>A request is sent with the available key with the most remaining daily quota.</li>
+ * <li>If YouTube answers with {@code quotaExceeded}, the key is exhausted until the quota is reset at midnight Pacific
+ * Time. If it answers with {@code keyInvalid}, the key is disabled for {@link #INVALID_KEY_RETRY}. In both cases the
+ * request is sent again with the next key.</li>
+ * <li>A request the {@link YoutubeQuotaScheduler} does not admit for a key is sent with the next key, unless the
+ * budget of the project is exhausted.</li>
+ * </ul>
+ * The health of every key is tracked, see {@link #getHealth(String)}.
+ */
+public final class YoutubeKeyPool {
+
+	/**
+	 * The time an invalid key is disabled before it is tried again.
+	 */
+	static final Duration INVALID_KEY_RETRY = Duration.ofHours(1);
+	/**
+	 * The error reasons of an exhausted key.
+	 */
+	static final Set<String> QUOTA_EXCEEDED_REASONS = Set.of("quotaExceeded", "dailyLimitExceeded");
+	/**
+	 * The error reason of an invalid key.
+	 */
+	static final String KEY_INVALID_REASON = "keyInvalid";
+	/**
+	 * The separator of the keys in the id of a pool.
+	 */
+	static final String KEY_SEPARATOR = ",";
+
+	private static final Class<?> LOGGER = YoutubeKeyPool.class;
+	private static final Map<String, YoutubeKeyPool> POOLS = new ConcurrentHashMap<>();
+
+	private final List<KeyHealth> _keys;
+
+	private YoutubeKeyPool(final List<String> apiKeys) {
+		_keys = apiKeys.stream().map(KeyHealth::new).collect(Collectors.toUnmodifiableList());
+	}
+
+	/**
+	 * Registers a pool of the specified keys. The pool is identified by all of its keys, so pools of different keys
+	 * never replace each other, even if they share a key. A pool of the same keys keeps the health of its keys, a
+	 * single key needs no pool.
+	 *
+	 * @param apiKeys the api keys
+	 * @return the id of the pool, the key itself if only one key is specified or {@code null} if no key is specified
+	 */
+	@Nullable
+	public static String register(final List<String> apiKeys) {
+		List<String> keys = apiKeys.stream().filter(Strings::notEmpty).map(String::trim).distinct().collect(Collectors.toList());
+		if (keys.isEmpty()) {
+			return null;
+		}
+		if (keys.size() == 1) {
+			return keys.get(0);
+		}
+		String poolId = String.join(KEY_SEPARATOR, keys);
+		POOLS.computeIfAbsent(poolId, id -> new YoutubeKeyPool(keys));
+		return poolId;
+	}
+
+	/**
+	 * Gets the pool registered under the specified id.
+	 *
+	 * @param apiKey the id of the pool
+	 * @return the pool or {@code null} if the key identifies no pool
+	 */
+	@Nullable
+	static YoutubeKeyPool forKey(final String apiKey) {
+		return POOLS.get(apiKey);
+	}
+
+	/**
+	 * Gets the remaining daily quota of the pool registered under the specified id, or of the key itself.
+	 *
+	 * @param apiKey the id of the pool or an api key
+	 * @return the remaining units of the available keys
+	 */
+	public static long getRemaining(final String apiKey) {
+		YoutubeKeyPool pool = POOLS.get(apiKey);
+		if (pool == null) {
+			return YoutubeQuota.getRemaining(apiKey);
+		}
+		Instant now = YoutubeQuota.now();
+		return pool._keys.stream().filter(key -> key.isAvailable(now)).mapToLong(KeyHealth::getRemaining).sum();
+	}
+
+	/**
+	 * Gets the health of the keys of the pool registered under the specified id.
+	 *
+	 * @param apiKey the id of the pool
+	 * @return the health of every key in the order of the pool, empty if the key identifies no pool
+	 */
+	public static List<KeyHealth> getHealth(final String apiKey) {
+		YoutubeKeyPool pool = POOLS.get(apiKey);
+		return pool != null ? pool._keys : Collections.emptyList();
+	}
+
+	/**
+	 * Removes all pools.
+	 */
+	static void clear() {
+		POOLS.clear();
+	}
+
+	/**
+	 * Sends the specified request with the keys of the pool until it succeeds or fails for another reason than its key.
+	 * The key of the request is restored afterwards.
+	 *
+	 * @param request the request
+	 * @param sender  sends the request with its current key
+	 * @param <T>     the response type
+	 * @return the response
+	 * @throws IOException the io exception of the last key tried, a {@link QuotaExceededException} if no key is available
+	 */
+	<T> T execute(final AbstractGoogleClientRequest<T> request, final Sender<T> sender) throws IOException {
+		Object poolKey = request.get("key");
+		Set<KeyHealth> tried = new LinkedHashSet<>();
+		IOException failure = null;
+		try {
+			KeyHealth key;
+			while ((key = select(tried)) != null) {
+				tried.add(key);
+				request.set("key", key._apiKey);
+				try {
+					T response = sender.send();
+					key.recordSuccess();
+					return response;
+				} catch (QuotaExceededException e) {
+					if (e.getReason() == QuotaExceededException.Reason.PROJECT_BUDGET) {
+						throw e;
+					}
+					failure = e;
+				} catch (HttpResponseException e) {
+					String reason = YoutubeRequestDispatcher.getErrorReason(e);
+					if (YoutubeRequestDispatcher.isReason(reason, QUOTA_EXCEEDED_REASONS)) {
+						key.disable(KeyHealth.State.EXHAUSTED, YoutubeQuota.getNextReset(), reason);
+					} else if (KEY_INVALID_REASON.equals(reason)) {
+						key.disable(KeyHealth.State.INVALID, YoutubeQuota.now().plus(INVALID_KEY_RETRY), reason);
+					} else {
+						throw e;
+					}
+					failure = e;
+				}
+				Logging.logDebug(String.format("Request failed with key %s, %d of %d keys tried", key.getKeyId(), tried.size(), _keys.size()), LOGGER);
+			}
+		} finally {
+			request.set("key", poolKey);
+		}
+		if (failure != null) {
+			throw failure;
+		}
+		throw new QuotaExceededException(QuotaExceededException.Reason.DAILY_QUOTA, "No api key of the pool available");
+	}
+
+	/**
+	 * Gets the api keys.
+	 *
+	 * @return the api keys in the order of the pool
+	 */
+	List<String> getApiKeys() {
+		return _keys.stream().map(key -> key._apiKey).collect(Collectors.toList());
+	}
+
+	@Override
+	public String toString() {
+		return _keys.stream().map(KeyHealth::toString).collect(Collectors.joining("; ", "[", "]"));
+	}
+
+	@Nullable
+	private KeyHealth select(final Set<KeyHealth> tried) {
+		Instant now = YoutubeQuota.now();
+		KeyHealth selected = null;
+		long selectedRemaining = -1;
+		for (final KeyHealth key : _keys) {
+			if (!tried.contains(key) && key.isAvailable(now)) {
+				long remaining = key.getRemaining();
+				if (remaining > selectedRemaining) {
+					selected = key;
+					selectedRemaining = remaining;
+				}
+			}
+		}
+		return selected;
+	}
+
+	/**
+	 * Sends a request with its current key.
+	 *
+	 * @param <T> the response type
+	 */
+	interface Sender<T> {
+
+		T send() throws IOException;
+	}
+
+	/**
+	 * The health of a key of a pool.
+	 */
+	public static final class KeyHealth {
+
+		/**
+		 * The state of a key.
+		 */
+		public enum State {
+			/**
+			 * The key is used.
+			 */
+			HEALTHY,
+			/**
+			 * The daily quota of the key is exceeded, the key is used again after the reset of the quota.
+			 */
+			EXHAUSTED,
+			/**
+			 * YouTube rejected the key as invalid, the key is tried again later.
+			 */
+			INVALID
+		}
+
+		private final String _apiKey;
+		private final String _keyId;
+		private State _state = State.HEALTHY;
+		private Instant _disabledUntil;
+		private String _lastError;
+		private long _successes;
+		private long _failures;
+
+		private KeyHealth(final String apiKey) {
+			_apiKey = apiKey;
+			_keyId = YoutubeQuota.getKeyId(apiKey);
+		}
+
+		/**
+		 * Gets the id of the key, see {@link YoutubeQuota#getKeyId(String)}.
+		 *
+		 * @return the key id
+		 */
+		public String getKeyId() {
+			return _keyId;
+		}
+
+		/**
+		 * Gets the state, a disabled key is healthy again once its time is up.
+		 *
+		 * @return the state
+		 */
+		public synchronized State getState() {
+			return isAvailable(YoutubeQuota.now()) ? State.HEALTHY : _state;
+		}
+
+		/**
+		 * Gets the time a disabled key is used again.
+		 *
+		 * @return the time or {@code null} if the key is not disabled
+		 */
+		@Nullable
+		public synchronized Instant getDisabledUntil() {
+			return getState() != State.HEALTHY ? _disabledUntil : null;
+		}
+
+		/**
+		 * Gets the remaining daily quota.
+		 *
+		 * @return the remaining units
+		 */
+		public long getRemaining() {
+			return YoutubeQuota.getRemaining(_apiKey);
+		}
+
+		/**
+		 * Gets the number of successful requests.
+		 *
+		 * @return the number of requests
+		 */
+		public synchronized long getSuccesses() {
+			return _successes;
+		}
+
+		/**
+		 * Gets the number of requests that disabled the key.
+		 *
+		 * @return the number of requests
+		 */
+		public synchronized long getFailures() {
+			return _failures;
+		}
+
+		/**
+		 * Gets the error reason of the last request that disabled the key.
+		 *
+		 * @return the reason or {@code null} if no request failed
+		 */
+		@Nullable
+		public synchronized String getLastError() {
+			return _lastError;
+		}
+
+		@Override
+		public synchronized String toString() {
+			return String.format("%s: %s, %d units remaining, %d successes, %d failures", _keyId, getState(), getRemaining(), _successes, _failures);
+		}
+
+		private synchronized boolean isAvailable(final Instant now) {
+			return _state == State.HEALTHY || !now.isBefore(_disabledUntil);
+		}
+
+		private synchronized void recordSuccess() {
+			_successes++;
+			if (_state != State.HEALTHY) {
+				Logging.logInfo(String.format("Api key %s is healthy again", _keyId), LOGGER);
+				_state = State.HEALTHY;
+				_disabledUntil = null;
+			}
+		}
+
+		private synchronized void disable(final State state, final Instant until, final String reason) {
+			_failures++;
+			_lastError = reason;
+			_state = state;
+			_disabledUntil = until;
+			Logging.logWarning(String.format("Api key %s is %s until %s: %s", _keyId, state, until, reason), LOGGER);
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package com.espirit.se.modules.youtube.connector;
+
+import de.espirit.common.base.Logging;
+
+import com.espirit.se.modules.youtube.YoutubeVideo;
+import com.espirit.se.modules.youtube.catalog.ChannelMirror;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Lists the uploads of channels from their {@link ChannelMirror}s without any request to YouTube.
+ * The videos are distributed over the channels like by {@link YoutubeChannelVideosRequest}, the request pages through
+ * the mirrored videos at the time of its creation.
+ */
+public class YoutubeMirroredChannelVideosRequest implements YoutubeVideoSearchRequest {
+
+	private static final Class<?> LOGGER = YoutubeMirroredChannelVideosRequest.class;
+	private final List<List<YoutubeVideo>> _channelVideos;
+	private final int[] _positions;
+	private final int _total;
+
+	/**
+	 * @param mirrors the mirrors of the channels
+	 */
+	public YoutubeMirroredChannelVideosRequest(final List<ChannelMirror> mirrors) {
+		Logging.logInfo(String.format("List mirrored videos for channel(s) '%s'", mirrors.stream().map(ChannelMirror::getChannelId).collect(Collectors.joining(","))), LOGGER);
+		_channelVideos = mirrors.stream().map(ChannelMirror::getVideos).collect(Collectors.toList());
+		_positions = new int[mirrors.size()];
+		_total = _channelVideos.stream().mapToInt(List::size).sum();
+	}
+
+	@Override
+	public int getTotal() {
+		return _total;
+	}
+
+	@Override
+	public List<YoutubeVideo> searchVideos(final int count) {
+		List<YoutubeVideo> resultList = new ArrayList<>();
+		while (resultList.size() < count && hasNext()) {
+			List<Integer> channels = new ArrayList<>();
+			for (int i = 0; i < _channelVideos.size(); i++) {
+				if (_positions[i] < _channelVideos.get(i).size()) {
+					channels.add(i);
+				}
+			}
+			int[] channelRequestSizes = YoutubeMultiChannelVideoSearchRequest.getChannelRequestSizes(count - resultList.size(), channels.size());
+			for (int i = 0; i < channels.size(); i++) {
+				int channel = channels.get(i);
+				List<YoutubeVideo> videos = _channelVideos.get(channel);
+				int end = Math.min(videos.size(), _positions[channel] + channelRequestSizes[i]);
+				resultList.addAll(videos.subList(_positions[channel], end));
+				_positions[channel] = end;
+			}
+		}
+		return resultList;
+	}
+
+	@Override
+	public boolean hasNext() {
+		for (int i = 0; i < _channelVideos.size(); i++) {
+			if (_positions[i] < _channelVideos.get(i).size()) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -8,12 +8,14 @@ import com.google.api.services.youtube.YouTube;
 import com.google.api.services.youtube.model.Channel;
 import com.google.api.services.youtube.model.SearchListResponse;
 import com.google.api.services.youtube.model.SearchResult;
-import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -52,18 +54,30 @@ public class YoutubeMultiChannelVideoSearchRequest implements YoutubeVideoSearch
 	public static YoutubeMultiChannelVideoSearchRequest createInstance(final String apiKey, final YouTube youtube, final String query, final List<Channel> channels) throws IOException {
 		Logging.logInfo(String.format("Create new request with query: '%s' and channel(s) '%s'", query,
 									  channels.stream().map(channel -> channel.getSnippet().getTitle()).collect(Collectors.joining(","))), LOGGER);
-		YouTube.Search.List youtubeRequestList = youtube.search()
-				.list("snippet")
-				.setKey(apiKey)
-				.setType("video")
-				.setFields("items(id/videoId,snippet(description,thumbnails/default/url,thumbnails/high/url,title)),nextPageToken,pageInfo");
-		if (Strings.notEmpty(query)) {
-			youtubeRequestList.setQ(query);
-		}
+		YouTube.Search.List youtubeRequestList = YoutubeStandardVideoSearchRequest.createRequestList(apiKey, youtube, query, null);
 		List<RequestChannel> requestChannelList = channels.stream().map(RequestChannel::new).collect(Collectors.toList());
 		return new YoutubeMultiChannelVideoSearchRequest(youtubeRequestList, requestChannelList);
 	}
 
+	/**
+	 * Checks whether the first pages of all specified channels are served from the page cache.
+	 *
+	 * @param apiKey   the api key
+	 * @param youtube  the youtube
+	 * @param query    the query
+	 * @param channels the channels
+	 * @return true if all first pages are cached
+	 * @throws IOException the io exception
+	 */
+	static boolean isFirstPageCached(final String apiKey, final YouTube youtube, final String query, final List<Channel> channels) throws IOException {
+		for (final Channel channel : channels) {
+			if (!YoutubeStandardVideoSearchRequest.isFirstPageCached(apiKey, youtube, query, channel)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	@Override
 	public int getTotal() {
 		return _total;
@@ -77,6 +91,12 @@ public class YoutubeMultiChannelVideoSearchRequest implements YoutubeVideoSearch
 
 	/**
 	 * Supplied a list of Youtube videos.
+	 * The channels are requested concurrently, the videos are returned in the order of the channels. Every request
+	 * fetches {@value YoutubeConnector#MAX_RESULTS_PER_REQUEST} videos, the surplus is buffered per channel and
+	 * delivered by the following calls. A failing channel is requested only once per call and skipped for the rest of
+	 * it, the next call requests it again. It is given up after
+	 * {@value YoutubeChannelVideosRequest#MAX_CHANNEL_FAILURES} consecutive calls in which it failed, the other channels
+	 * are not affected.
 	 *
 	 * @param count the number of videos to retrieve.
 	 * @return a list of youtube videos
@@ -84,53 +104,91 @@ public class YoutubeMultiChannelVideoSearchRequest implements YoutubeVideoSearch
 	@Override
 	public List<YoutubeVideo> searchVideos(final int count) {
 		List<YoutubeVideo> resultList = new ArrayList<>();
+		// channels that failed in this call are not requested again before the next call
+		Set<RequestChannel> failedChannels = ConcurrentHashMap.newKeySet();
 		while (resultList.size() < count && _hasNext) {
 			int requestSize = count - resultList.size();
 			// All channels that still provide videos
-			List<RequestChannel> requestChannelList = _channels.stream().filter(Predicate.not(RequestChannel::isConsumed)).collect(Collectors.toList());
-			// How many videos to request per channel
-			int channelRequestSize = requestSize / requestChannelList.size();
-			int channelRequestSizeFactor = requestSize % requestChannelList.size();
-			Iterator<RequestChannel> iterator = requestChannelList.iterator();
-			while (iterator.hasNext()) {
-				final RequestChannel requestChannel = iterator.next();
-				int currentRequestSize = channelRequestSize;
-				if (channelRequestSizeFactor > 0) {
-					currentRequestSize++;
-					channelRequestSizeFactor--;
+			List<RequestChannel> requestChannelList = _channels.stream()
+					.filter(Predicate.not(RequestChannel::isExhausted))
+					.filter(requestChannel -> !failedChannels.contains(requestChannel) || !requestChannel.getBufferedVideos().isEmpty())
+					.collect(Collectors.toList());
+			if (requestChannelList.isEmpty()) {
+				break;
+			}
+			// How many videos to take per channel
+			int[] channelRequestSizes = getChannelRequestSizes(requestSize, requestChannelList.size());
+			List<ParallelTasks.Task<Boolean>> tasks = new ArrayList<>();
+			for (int i = 0; i < requestChannelList.size(); i++) {
+				final RequestChannel requestChannel = requestChannelList.get(i);
+				if (requestChannel.getBufferedVideos().size() < channelRequestSizes[i] && !requestChannel.isConsumed()) {
+					tasks.add(() -> executeYoutubeVideosRequest(requestChannel, failedChannels));
 				}
-				try {
-					resultList.addAll(executeYoutubeVideosRequest(requestChannel, currentRequestSize));
-				} catch (IOException e) {
-					Logging.logError("Error requesting videos", e, LOGGER);
-					_hasNext = false;
-					return resultList;
+			}
+			// the videos of the other channels (whose page tokens already moved on) are kept
+			ParallelTasks.invokeEach(tasks, YoutubeConnector.MAX_PARALLEL_CHANNEL_REQUESTS, e -> {
+				Logging.logError("Error requesting videos", e, LOGGER);
+				return Boolean.FALSE;
+			});
+			for (int i = 0; i < requestChannelList.size(); i++) {
+				Deque<YoutubeVideo> bufferedVideos = requestChannelList.get(i).getBufferedVideos();
+				for (int j = 0; j < channelRequestSizes[i] && !bufferedVideos.isEmpty(); j++) {
+					resultList.add(bufferedVideos.poll());
 				}
 			}
-			_hasNext = _channels.stream().anyMatch(Predicate.not(RequestChannel::isConsumed));
+			_hasNext = _channels.stream().anyMatch(Predicate.not(RequestChannel::isExhausted));
+		}
+		// the total of a failed channel is not known yet
+		if (failedChannels.isEmpty()) {
+			setTotal();
 		}
-		setTotal();
 		return resultList;
 	}
 
-	@Nullable
-	private List<YoutubeVideo> executeYoutubeVideosRequest(final RequestChannel requestChannel, final int currentRequestSize) throws IOException {
-		_youtubeRequestList.setMaxResults(Long.valueOf(currentRequestSize));
+	/**
+	 * Distributes the requested number of videos evenly among the channels, the first channels take the remainder.
+	 */
+	static int[] getChannelRequestSizes(final int requestSize, final int channelCount) {
+		int[] channelRequestSizes = new int[channelCount];
+		for (int i = 0; i < channelCount; i++) {
+			channelRequestSizes[i] = requestSize / channelCount + (i < requestSize % channelCount ? 1 : 0);
+		}
+		return channelRequestSizes;
+	}
+
+	private Boolean executeYoutubeVideosRequest(final RequestChannel requestChannel, final Set<RequestChannel> failedChannels) throws IOException {
+		// every request works on its own copy, the template is shared by all channels
+		YouTube.Search.List youtubeRequestList = (YouTube.Search.List) _youtubeRequestList.clone();
+		youtubeRequestList.setMaxResults((long) YoutubeConnector.MAX_RESULTS_PER_REQUEST);
 		if (Strings.notEmpty(requestChannel.getPageToken())) {
-			_youtubeRequestList.setPageToken(requestChannel.getPageToken());
+			youtubeRequestList.setPageToken(requestChannel.getPageToken());
 		}
-		_youtubeRequestList.setChannelId(requestChannel.getChannel().getId());
-		SearchListResponse searchListResponse = _youtubeRequestList.execute();
+		youtubeRequestList.setChannelId(requestChannel.getChannel().getId());
+		SearchListResponse searchListResponse;
+		try {
+			searchListResponse = YoutubeRequestDispatcher.execute(youtubeRequestList);
+		} catch (IOException e) {
+			failedChannels.add(requestChannel);
+			requestChannel.setFailures(requestChannel.getFailures() + 1);
+			if (requestChannel.getFailures() >= YoutubeChannelVideosRequest.MAX_CHANNEL_FAILURES) {
+				Logging.logWarning(String.format("Skip channel '%s' after %d failed searches", requestChannel.getChannel().getId(), requestChannel.getFailures()), LOGGER);
+				requestChannel.setConsumed(true);
+			}
+			throw e;
+		}
+		requestChannel.setFailures(0);
 		requestChannel.setPageToken(searchListResponse.getNextPageToken());
 		requestChannel.setTotalVideos(searchListResponse.getPageInfo().getTotalResults());
-		List<SearchResult> searchResults = searchListResponse.getItems();
-		if (searchResults.isEmpty()) {
+		List<SearchResult> searchResults = searchListResponse.getItems() != null ? searchListResponse.getItems() : Collections.emptyList();
+		if (searchResults.isEmpty() || Strings.isEmpty(searchListResponse.getNextPageToken())) {
 			requestChannel.setConsumed(true);
-		} else {
+		}
+		if (!searchResults.isEmpty()) {
 			requestChannel.setConsumedVideos(requestChannel.getConsumed() + searchResults.size());
 		}
+		searchResults.stream().map(YoutubeVideoSearchRequest::createYoutubeVideo).forEach(requestChannel.getBufferedVideos()::add);
 		Logging.logTrace(requestChannel.toString(), LOGGER);
-		return searchResults.stream().map(YoutubeVideoSearchRequest::createYoutubeVideo).collect(Collectors.toList());
+		return Boolean.TRUE;
 	}
 
 	@Override
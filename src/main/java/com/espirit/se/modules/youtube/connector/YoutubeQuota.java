@@ -0,0 +1,233 @@
+package com.espirit.se.modules.youtube.connector;
+
+import com.espirit.se.modules.youtube.ledger.DailyRollup;
+import com.espirit.se.modules.youtube.ledger.QuotaLedger;
+import com.google.api.client.googleapis.services.AbstractGoogleClientRequest;
+import com.google.api.services.youtube.YouTube;
+
+import javax.annotation.Nullable;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks the YouTube Data API quota used per api key and per project. A search costs {@value #SEARCH_COST} units,
+ * every other request {@value #LIST_COST} unit. The quota is reset at midnight Pacific Time, like the quota of YouTube.
+ * The quota is recorded by the {@link YoutubeQuotaScheduler} when it admits a request, the quota used today before a
+ * restart is {@link #restore(DailyRollup) restored} from the {@link QuotaLedger}.
+ */
+public final class YoutubeQuota {
+
+	/**
+	 * The default daily quota of a Google Cloud project.
+	 */
+	public static final long DAILY_LIMIT = 10_000;
+	/**
+	 * The cost of a search request in units.
+	 */
+	public static final int SEARCH_COST = 100;
+	/**
+	 * The cost of a list request in units.
+	 */
+	public static final int LIST_COST = 1;
+	/**
+	 * The time zone of the quota reset.
+	 */
+	static final ZoneId RESET_ZONE = QuotaLedger.DAY_ZONE;
+	private static final int KEY_ID_LENGTH = 12;
+
+	private static final Map<String, Usage> USAGES = new ConcurrentHashMap<>();
+	private static final Map<String, Usage> PROJECT_USAGES = new ConcurrentHashMap<>();
+	private static final Map<String, Usage> RESTORED_USAGES = new ConcurrentHashMap<>();
+	private static final Map<String, String> KEY_IDS = new ConcurrentHashMap<>();
+	private static volatile Clock _clock = Clock.systemUTC();
+
+	private YoutubeQuota() {
+		throw new IllegalStateException("Utility class");
+	}
+
+	/**
+	 * Gets the cost of the specified request.
+	 *
+	 * @param request the request
+	 * @return the cost in units
+	 */
+	public static int getCost(final AbstractGoogleClientRequest<?> request) {
+		return request instanceof YouTube.Search.List ? SEARCH_COST : LIST_COST;
+	}
+
+	/**
+	 * Records the specified quota used by the specified api key.
+	 *
+	 * @param apiKey the api key
+	 * @param units  the used units
+	 */
+	static void record(final String apiKey, final long units) {
+		record(apiKey, null, units);
+	}
+
+	/**
+	 * Records the specified quota used by the specified api key on behalf of the specified project.
+	 *
+	 * @param apiKey  the api key
+	 * @param project the project, may be {@code null}
+	 * @param units   the used units
+	 */
+	static void record(final String apiKey, @Nullable final String project, final long units) {
+		LocalDate today = getToday();
+		claimRestored(apiKey);
+		add(USAGES, apiKey, today, units);
+		if (project != null) {
+			add(PROJECT_USAGES, project, today, units);
+		}
+	}
+
+	/**
+	 * Gets the quota the specified api key used today.
+	 *
+	 * @param apiKey the api key
+	 * @return the used units
+	 */
+	public static long getUsed(final String apiKey) {
+		claimRestored(apiKey);
+		return getUsed(USAGES, apiKey);
+	}
+
+	/**
+	 * Gets the quota the specified project used today, with any api key.
+	 *
+	 * @param project the project
+	 * @return the used units
+	 */
+	public static long getUsedByProject(final String project) {
+		return getUsed(PROJECT_USAGES, project);
+	}
+
+	/**
+	 * Gets the quota the specified api key has left today.
+	 *
+	 * @param apiKey the api key
+	 * @return the remaining units, never negative
+	 */
+	public static long getRemaining(final String apiKey) {
+		return Math.max(0, DAILY_LIMIT - getUsed(apiKey));
+	}
+
+	/**
+	 * Gets the id of the specified api key, the ledger records the id instead of the api key.
+	 *
+	 * @param apiKey the api key
+	 * @return the id, a prefix of the SHA-256 hash of the api key
+	 */
+	public static String getKeyId(final String apiKey) {
+		return KEY_IDS.computeIfAbsent(apiKey, key -> {
+			try {
+				byte[] hash = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+				StringBuilder keyId = new StringBuilder();
+				for (int i = 0; keyId.length() < KEY_ID_LENGTH; i++) {
+					keyId.append(String.format("%02x", hash[i]));
+				}
+				return keyId.toString();
+			} catch (NoSuchAlgorithmException e) {
+				throw new IllegalStateException(e);
+			}
+		});
+	}
+
+	/**
+	 * Restores the quota used today from the specified rollup, rollups of other days are ignored.
+	 *
+	 * @param rollup the rollup of the {@link QuotaLedger}
+	 */
+	public static void restore(final DailyRollup rollup) {
+		LocalDate today = getToday();
+		if (!rollup.getDay().equals(today)) {
+			return;
+		}
+		// the api keys are only known by their ids until they are used
+		rollup.getUnitsByKey().forEach((keyId, units) -> add(RESTORED_USAGES, keyId, today, units));
+		for (final DailyRollup.Row row : rollup.getRows()) {
+			if (row.getProject() != null) {
+				add(PROJECT_USAGES, row.getProject(), today, row.getUnits());
+			}
+		}
+	}
+
+	/**
+	 * Gets the time the quota is reset next.
+	 *
+	 * @return the next midnight Pacific Time
+	 */
+	static Instant getNextReset() {
+		return getToday().plusDays(1).atStartOfDay(RESET_ZONE).toInstant();
+	}
+
+	/**
+	 * Gets the current time of the quota clock.
+	 *
+	 * @return the current time
+	 */
+	static Instant now() {
+		return _clock.instant();
+	}
+
+	/**
+	 * Sets the clock deciding the current quota day.
+	 *
+	 * @param clock the clock
+	 */
+	static void setClock(final Clock clock) {
+		_clock = clock;
+	}
+
+	/**
+	 * Forgets the quota used by all api keys and projects.
+	 */
+	static void clear() {
+		USAGES.clear();
+		PROJECT_USAGES.clear();
+		RESTORED_USAGES.clear();
+	}
+
+	private static void claimRestored(final String apiKey) {
+		if (!RESTORED_USAGES.isEmpty()) {
+			Usage restored = RESTORED_USAGES.remove(getKeyId(apiKey));
+			if (restored != null && restored._day.equals(getToday())) {
+				add(USAGES, apiKey, restored._day, restored._used);
+			}
+		}
+	}
+
+	private static void add(final Map<String, Usage> usages, final String key, final LocalDate today, final long units) {
+		usages.compute(key, (k, usage) -> usage != null && usage._day.equals(today) ? new Usage(today, usage._used + units) : new Usage(today, units));
+	}
+
+	private static long getUsed(final Map<String, Usage> usages, final String key) {
+		Usage usage = usages.get(key);
+		return usage != null && usage._day.equals(getToday()) ? usage._used : 0;
+	}
+
+	private static LocalDate getToday() {
+		return LocalDate.now(_clock.withZone(RESET_ZONE));
+	}
+
+	/**
+	 * The quota used on a day.
+	 */
+	private static class Usage {
+
+		private final LocalDate _day;
+		private final long _used;
+
+		private Usage(final LocalDate day, final long used) {
+			_day = day;
+			_used = used;
+		}
+	}
+}
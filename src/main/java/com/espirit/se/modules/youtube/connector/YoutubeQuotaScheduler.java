@@ -0,0 +1,253 @@
+package com.espirit.se.modules.youtube.connector;
+
+import de.espirit.common.base.Logging;
+
+import com.google.api.client.googleapis.services.AbstractGoogleClientRequest;
+
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admits the requests to the YouTube Data API by their quota cost, see {@link YoutubeQuota}.
+ * <ul>
+ * <li>Every api key has a token bucket of {@value #BURST_CAPACITY} units refilled by {@value #REFILL_PER_SECOND} units
+ * per second. A request waits for its units at most as long as its {@link Priority} allows, higher priorities are
+ * served first.</li>
+ * <li>A priority may only use its share of the daily quota of the api key, the remainder is reserved for the higher
+ * priorities.</li>
+ * <li>A project with a daily budget may only use the share of its budget, the project is taken from the client the
+ * request was created with, see {@link YoutubeClientRegistry#getProject(AbstractGoogleClientRequest)}.</li>
+ * </ul>
+ * A request exceeding a daily budget is rejected at once with a {@link QuotaExceededException}, the budgets are reset at
+ * midnight Pacific Time.
+ */
+public final class YoutubeQuotaScheduler {
+
+	/**
+	 * The priority of a request.
+	 */
+	public enum Priority {
+		/**
+		 * Video lookups of the generation and the preview, they may use the whole daily quota.
+		 */
+		GENERATION(1.0, Duration.ofSeconds(10)),
+		/**
+		 * Searches of the editors.
+		 */
+		INTERACTIVE(0.9, Duration.ofSeconds(2)),
+		/**
+		 * Background syncs and refreshes.
+		 */
+		BACKGROUND(0.7, Duration.ofSeconds(30));
+
+		private final double _dailyShare;
+		private final Duration _maxDelay;
+
+		Priority(final double dailyShare, final Duration maxDelay) {
+			_dailyShare = dailyShare;
+			_maxDelay = maxDelay;
+		}
+
+		/**
+		 * Gets the share of the daily quota requests of this priority may use.
+		 *
+		 * @return the share between 0 and 1
+		 */
+		public double getDailyShare() {
+			return _dailyShare;
+		}
+
+		/**
+		 * Gets how long a request of this priority may wait for the rate limit.
+		 *
+		 * @return the maximum delay
+		 */
+		public Duration getMaxDelay() {
+			return _maxDelay;
+		}
+	}
+
+	/**
+	 * The maximum number of units an api key may use in a burst.
+	 */
+	static final long BURST_CAPACITY = 5000;
+	/**
+	 * The number of units an api key regains per second.
+	 */
+	static final double REFILL_PER_SECOND = 50;
+
+	private static final Class<?> LOGGER = YoutubeQuotaScheduler.class;
+	private static final Map<String, Bucket> BUCKETS = new ConcurrentHashMap<>();
+	private static final Map<String, Long> PROJECT_BUDGETS = new ConcurrentHashMap<>();
+	private static volatile long _capacity = BURST_CAPACITY;
+	private static volatile double _refillPerSecond = REFILL_PER_SECOND;
+
+	private YoutubeQuotaScheduler() {
+		throw new IllegalStateException("Utility class");
+	}
+
+	/**
+	 * Sets the daily budget of the specified project.
+	 *
+	 * @param project the project
+	 * @param units   the daily budget in units, 0 for no budget
+	 */
+	public static void setProjectBudget(final String project, final long units) {
+		if (units > 0) {
+			PROJECT_BUDGETS.put(project, units);
+		} else {
+			PROJECT_BUDGETS.remove(project);
+		}
+	}
+
+	/**
+	 * Gets the daily budget of the specified project.
+	 *
+	 * @param project the project
+	 * @return the daily budget in units, 0 for no budget
+	 */
+	public static long getProjectBudget(final String project) {
+		return PROJECT_BUDGETS.getOrDefault(project, 0L);
+	}
+
+	/**
+	 * Admits the specified request and records its quota, waits for the rate limit if necessary.
+	 * Requests without api key are admitted at once.
+	 *
+	 * @param request  the request
+	 * @param priority the priority
+	 * @throws QuotaExceededException if the request exceeds a budget
+	 */
+	static void acquire(final AbstractGoogleClientRequest<?> request, final Priority priority) throws QuotaExceededException {
+		Object apiKey = request.get("key");
+		if (apiKey != null) {
+			acquire(apiKey.toString(), getProject(request), YoutubeQuota.getCost(request), priority);
+		}
+	}
+
+	/**
+	 * Gets the project the specified request is attributed to.
+	 *
+	 * @param request the request
+	 * @return the project or {@code null}
+	 */
+	@Nullable
+	static String getProject(final AbstractGoogleClientRequest<?> request) {
+		return YoutubeClientRegistry.getProject(request);
+	}
+
+	/**
+	 * Admits the specified units and records them, waits for the rate limit if necessary.
+	 *
+	 * @param apiKey   the api key
+	 * @param project  the project, may be {@code null}
+	 * @param units    the units
+	 * @param priority the priority
+	 * @throws QuotaExceededException if the units exceed a budget
+	 */
+	static void acquire(final String apiKey, @Nullable final String project, final int units, final Priority priority) throws QuotaExceededException {
+		BUCKETS.computeIfAbsent(apiKey, key -> new Bucket()).acquire(apiKey, project, units, priority);
+	}
+
+	/**
+	 * Sets the token buckets of all api keys.
+	 *
+	 * @param capacity        the maximum number of units in a burst
+	 * @param refillPerSecond the number of units regained per second
+	 */
+	static void configure(final long capacity, final double refillPerSecond) {
+		_capacity = capacity;
+		_refillPerSecond = refillPerSecond;
+		BUCKETS.clear();
+	}
+
+	/**
+	 * Restores the default token buckets and removes all project budgets.
+	 */
+	static void clear() {
+		configure(BURST_CAPACITY, REFILL_PER_SECOND);
+		PROJECT_BUDGETS.clear();
+	}
+
+	private static void checkBudgets(final String apiKey, @Nullable final String project, final int units, final Priority priority) throws QuotaExceededException {
+		long allowed = (long) (YoutubeQuota.DAILY_LIMIT * priority._dailyShare);
+		long used = YoutubeQuota.getUsed(apiKey);
+		if (used + units > allowed) {
+			throw new QuotaExceededException(QuotaExceededException.Reason.DAILY_QUOTA,
+											 String.format("Daily quota of the api key exhausted for %s requests: %d of %d units used today", priority, used, allowed));
+		}
+		long budget = project != null ? getProjectBudget(project) : 0;
+		if (budget > 0) {
+			long projectAllowed = (long) (budget * priority._dailyShare);
+			long projectUsed = YoutubeQuota.getUsedByProject(project);
+			if (projectUsed + units > projectAllowed) {
+				throw new QuotaExceededException(QuotaExceededException.Reason.PROJECT_BUDGET,
+												 String.format("Daily budget of project '%s' exhausted for %s requests: %d of %d units used today", project, priority,
+															   projectUsed, projectAllowed));
+			}
+		}
+	}
+
+	/**
+	 * The token bucket of an api key.
+	 */
+	private static class Bucket {
+
+		private final long _bucketCapacity = _capacity;
+		private final double _bucketRefillPerSecond = _refillPerSecond;
+		private final int[] _waiting = new int[Priority.values().length];
+		private double _tokens = _bucketCapacity;
+		private long _refilledAt = System.nanoTime();
+
+		private synchronized void acquire(final String apiKey, @Nullable final String project, final int units, final Priority priority) throws QuotaExceededException {
+			long deadline = System.nanoTime() + priority._maxDelay.toNanos();
+			// a request larger than the bucket is admitted once the bucket is full
+			double required = Math.min(units, _bucketCapacity);
+			_waiting[priority.ordinal()]++;
+			try {
+				while (true) {
+					checkBudgets(apiKey, project, units, priority);
+					long now = System.nanoTime();
+					refill(now);
+					boolean preceded = isPreceded(priority);
+					if (!preceded && _tokens >= required) {
+						_tokens -= units;
+						YoutubeQuota.record(apiKey, project, units);
+						return;
+					}
+					long waitNanos = preceded ? deadline - now : (long) ((required - _tokens) / _bucketRefillPerSecond * TimeUnit.SECONDS.toNanos(1));
+					if (now + waitNanos > deadline || deadline - now <= 0) {
+						throw new QuotaExceededException(QuotaExceededException.Reason.RATE_LIMIT,
+														 String.format("Rate limit of the api key exceeded: %d units of a %s request not available within %d ms", units, priority,
+																	   priority._maxDelay.toMillis()));
+					}
+					Logging.logTrace(String.format("Delay %s request for %d units", priority, units), LOGGER);
+					wait(Math.max(1, TimeUnit.NANOSECONDS.toMillis(waitNanos)));
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new QuotaExceededException(QuotaExceededException.Reason.RATE_LIMIT, "Interrupted while waiting for the rate limit");
+			} finally {
+				_waiting[priority.ordinal()]--;
+				notifyAll();
+			}
+		}
+
+		private void refill(final long now) {
+			_tokens = Math.min(_bucketCapacity, _tokens + (now - _refilledAt) * _bucketRefillPerSecond / TimeUnit.SECONDS.toNanos(1));
+			_refilledAt = now;
+		}
+
+		private boolean isPreceded(final Priority priority) {
+			for (int i = 0; i < priority.ordinal(); i++) {
+				if (_waiting[i] > 0) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+}
@@ -0,0 +1,150 @@
+package com.espirit.se.modules.youtube.connector;
+
+import de.espirit.common.base.Logging;
+
+import com.espirit.se.modules.youtube.YoutubeVideo;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Request that reads ahead of another request.
+ * After a page has been delivered the following pages are fetched in the background and buffered, so the next
+ * {@link #searchVideos(int)} is served from memory. The wrapped request is not thread-safe, it is only used under its
+ * own lock, which the read ahead holds while it runs.
+ */
+public class YoutubeReadAheadSearchRequest implements YoutubeVideoSearchRequest {
+
+	private static final Class<?> LOGGER = YoutubeReadAheadSearchRequest.class;
+	private final YoutubeVideoSearchRequest _request;
+	private final int _readAheadPages;
+	private final Object _requestLock = new Object();
+	private final Deque<YoutubeVideo> _buffer = new ArrayDeque<>();
+	private volatile int _total;
+	private volatile Future<List<YoutubeVideo>> _readAhead;
+	private volatile boolean _closed;
+
+	/**
+	 * Instantiates a new Youtube read ahead search request.
+	 *
+	 * @param request        the request to read ahead of
+	 * @param readAheadPages the number of pages to buffer
+	 */
+	public YoutubeReadAheadSearchRequest(final YoutubeVideoSearchRequest request, final int readAheadPages) {
+		_request = request;
+		_readAheadPages = readAheadPages;
+		_total = request.getTotal();
+	}
+
+	/**
+	 * Gets the total as of the last request, a read ahead in flight is not waited for.
+	 *
+	 * @return the total
+	 */
+	@Override
+	public int getTotal() {
+		return _total;
+	}
+
+	/**
+	 * Supplied a list of Youtube videos, preferably from the buffer.
+	 *
+	 * @param count the number of videos to retrieve.
+	 * @return a list of youtube videos
+	 */
+	@Override
+	public synchronized List<YoutubeVideo> searchVideos(final int count) {
+		List<YoutubeVideo> resultList = new ArrayList<>();
+		while (resultList.size() < count && !_closed) {
+			if (_buffer.isEmpty()) {
+				if (_readAhead != null) {
+					_buffer.addAll(awaitReadAhead());
+				} else if (requestHasNext()) {
+					List<YoutubeVideo> videos = searchRequest(count - resultList.size());
+					if (videos.isEmpty()) {
+						break;
+					}
+					_buffer.addAll(videos);
+				} else {
+					break;
+				}
+			}
+			while (resultList.size() < count && !_buffer.isEmpty()) {
+				resultList.add(_buffer.poll());
+			}
+		}
+		startReadAhead(count);
+		return resultList;
+	}
+
+	@Override
+	public synchronized boolean hasNext() {
+		return !_closed && (!_buffer.isEmpty() || _readAhead != null || requestHasNext());
+	}
+
+	/**
+	 * Cancels the read ahead still in flight, waits until it has stopped and closes the wrapped request.
+	 */
+	@Override
+	public void close() {
+		_closed = true;
+		Future<List<YoutubeVideo>> readAhead = _readAhead;
+		if (readAhead != null) {
+			readAhead.cancel(true);
+		}
+		synchronized (_requestLock) {
+			_request.close();
+		}
+	}
+
+	private void startReadAhead(final int count) {
+		int missing = count * _readAheadPages - _buffer.size();
+		if (!_closed && _readAhead == null && missing > 0 && requestHasNext()) {
+			try {
+				_readAhead = ParallelTasks.getExecutor().submit(() -> searchRequest(missing));
+				Logging.logTrace(String.format("Read ahead %d videos", missing), LOGGER);
+			} catch (RejectedExecutionException e) {
+				Logging.logTrace("No thread left to read ahead", LOGGER);
+			}
+		}
+	}
+
+	private boolean requestHasNext() {
+		synchronized (_requestLock) {
+			return _request.hasNext();
+		}
+	}
+
+	private List<YoutubeVideo> searchRequest(final int count) {
+		synchronized (_requestLock) {
+			if (_closed) {
+				return Collections.emptyList();
+			}
+			List<YoutubeVideo> videos = _request.searchVideos(count);
+			_total = _request.getTotal();
+			return videos;
+		}
+	}
+
+	private List<YoutubeVideo> awaitReadAhead() {
+		try {
+			return _readAhead.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (CancellationException e) {
+			Logging.logDebug("Read ahead cancelled", LOGGER);
+		} catch (ExecutionException e) {
+			Logging.logError("Error reading ahead", e.getCause(), LOGGER);
+		} finally {
+			_readAhead = null;
+		}
+		return Collections.emptyList();
+	}
+}
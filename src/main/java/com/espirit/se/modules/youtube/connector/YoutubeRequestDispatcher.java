@@ -0,0 +1,635 @@
+package com.espirit.se.modules.youtube.connector;
+
+import de.espirit.common.base.Logging;
+import de.espirit.common.tools.Strings;
+
+import com.espirit.se.modules.youtube.cache.YoutubePageCache;
+import com.espirit.se.modules.youtube.ledger.LedgerEntry;
+import com.espirit.se.modules.youtube.ledger.QuotaLedgers;
+import com.google.api.client.googleapis.json.GoogleJsonError;
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.client.googleapis.services.AbstractGoogleClientRequest;
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.HttpResponseException;
+import com.google.api.client.http.HttpStatusCodes;
+import com.google.api.client.util.GenericData;
+import com.google.api.services.youtube.YouTube;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * Executes all requests to the YouTube Data API.
+ * Concurrent identical requests are coalesced: the first request is executed, all requests arriving while it is in
+ * flight wait for it and share its result. Requests are identical if their method, url and parameters (including the
+ * page token and the api key) match, regardless of the order of the parameters.
+ * Result pages of search and playlist requests are served from the {@link YoutubePageCache}, unless the request
+ * sets the {@value #NO_CACHE} cache control. Conditional requests revalidate a previous response by its ETag.
+ * A request is only sent to YouTube once the {@link YoutubeQuotaScheduler} admitted it, its latency is recorded.
+ * Every request sent or rejected is recorded in the {@link QuotaLedgers quota ledger}. The key of a request
+ * identifying a {@link YoutubeKeyPool} is chosen by the pool. Transient failures of list requests are retried and slow
+ * list requests are hedged as set by the {@link YoutubeRetryPolicy}. Requests of an endpoint family YouTube repeatedly
+ * failed to answer are suspended by its {@link YoutubeCircuitBreaker}, meanwhile expired result pages are served from
+ * the page cache. The requests an api key has in flight are bounded by its {@link YoutubeConcurrencyLimiter}.
+ */
+public final class YoutubeRequestDispatcher {
+
+	/**
+	 * The cache control of requests that must not be served from the page cache, their responses are still cached.
+	 */
+	public static final String NO_CACHE = "no-cache";
+	/**
+	 * The parameter of the query of a search.
+	 */
+	static final String QUERY_PARAMETER = "q";
+	/**
+	 * The assumed latency of a request before the first request completed.
+	 */
+	static final double DEFAULT_LATENCY_MILLIS = 300;
+	/**
+	 * The minimum number of recent latencies a request is hedged by.
+	 */
+	static final int MIN_HEDGE_SAMPLES = 20;
+	/**
+	 * The error reasons of a request exceeding a short term rate limit, such requests are retried.
+	 */
+	static final Set<String> RATE_LIMIT_REASONS = Set.of("rateLimitExceeded", "userRateLimitExceeded");
+	/**
+	 * The weight of the latest request in the average latency.
+	 */
+	private static final double LATENCY_WEIGHT = 0.2;
+	/**
+	 * The number of recent latencies the percentiles are computed of.
+	 */
+	private static final int LATENCY_SAMPLES = 200;
+	private static final Class<?> LOGGER = YoutubeRequestDispatcher.class;
+	private static final Map<String, CompletableFuture<Object>> IN_FLIGHT = new ConcurrentHashMap<>();
+	private static final double[] LATENCIES = new double[LATENCY_SAMPLES];
+	private static final AtomicLong RETRIES = new AtomicLong();
+	private static final AtomicLong HEDGES = new AtomicLong();
+	private static final Map<QuotaExceededException.Reason, AtomicLong> REJECTIONS = new EnumMap<>(QuotaExceededException.Reason.class);
+	private static double _averageLatencyMillis = -1;
+	private static long _latencyCount;
+	private static volatile YoutubeRetryPolicy _retryPolicy = YoutubeRetryPolicy.fromSystemProperties();
+
+	static {
+		for (final QuotaExceededException.Reason reason : QuotaExceededException.Reason.values()) {
+			REJECTIONS.put(reason, new AtomicLong());
+		}
+	}
+
+	private YoutubeRequestDispatcher() {
+		throw new IllegalStateException("Utility class");
+	}
+
+	/**
+	 * Executes the specified {@link YoutubeQuotaScheduler.Priority#INTERACTIVE interactive} request or joins an
+	 * identical request already in flight.
+	 *
+	 * @param request the request
+	 * @param <T>     the response type
+	 * @return the response
+	 * @throws IOException the io exception of the executed request
+	 */
+	public static <T> T execute(final AbstractGoogleClientRequest<T> request) throws IOException {
+		return execute(request, YoutubeQuotaScheduler.Priority.INTERACTIVE);
+	}
+
+	/**
+	 * Executes the specified request or joins an identical request already in flight.
+	 *
+	 * @param request  the request
+	 * @param priority the priority of the request at the {@link YoutubeQuotaScheduler}
+	 * @param <T>      the response type
+	 * @return the response
+	 * @throws IOException the io exception of the executed request, a {@link QuotaExceededException} if the request
+	 *                     was not admitted
+	 */
+	public static <T> T execute(final AbstractGoogleClientRequest<T> request, final YoutubeQuotaScheduler.Priority priority) throws IOException {
+		String key = getKey(request);
+		if (key == null) {
+			return send(request, priority);
+		}
+		boolean pageRequest = isPageRequest(request) && request.getRequestHeaders().getIfNoneMatch() == null;
+		if (pageRequest && !NO_CACHE.equals(request.getRequestHeaders().getCacheControl())) {
+			T page = getCachedPage(key);
+			if (page != null) {
+				Logging.logTrace("Page served from cache: " + key, LOGGER);
+				return page;
+			}
+			if (YoutubeCircuitBreaker.isOpen(request.getUriTemplate())) {
+				page = getStalePage(key);
+				if (page != null) {
+					Logging.logDebug("Circuit open, expired page served from cache: " + key, LOGGER);
+					return page;
+				}
+			}
+		}
+		CompletableFuture<Object> future = new CompletableFuture<>();
+		CompletableFuture<Object> inFlight = IN_FLIGHT.putIfAbsent(key, future);
+		if (inFlight != null) {
+			Logging.logTrace("Join request in flight: " + key, LOGGER);
+			return await(inFlight);
+		}
+		try {
+			T response = send(request, priority);
+			if (pageRequest && response instanceof GenericData) {
+				YoutubePageCache.put(key, (GenericData) response);
+			}
+			future.complete(response);
+			return response;
+		} catch (IOException | RuntimeException e) {
+			future.completeExceptionally(e);
+			throw e;
+		} finally {
+			IN_FLIGHT.remove(key, future);
+		}
+	}
+
+	/**
+	 * Executes the specified request conditionally, YouTube answers with 304 without a payload if the response still
+	 * has the specified ETag.
+	 *
+	 * @param request the request
+	 * @param etag    the ETag of the previous response or {@code null} to execute the request unconditionally
+	 * @param <T>     the response type
+	 * @return the response or {@code null} if it was not modified
+	 * @throws IOException the io exception of the executed request
+	 */
+	@Nullable
+	public static <T> T executeIfModified(final AbstractGoogleClientRequest<T> request, @Nullable final String etag) throws IOException {
+		return executeIfModified(request, etag, YoutubeQuotaScheduler.Priority.INTERACTIVE);
+	}
+
+	/**
+	 * Executes the specified request conditionally, see {@link #executeIfModified(AbstractGoogleClientRequest, String)}.
+	 *
+	 * @param request  the request
+	 * @param etag     the ETag of the previous response or {@code null} to execute the request unconditionally
+	 * @param priority the priority of the request at the {@link YoutubeQuotaScheduler}
+	 * @param <T>      the response type
+	 * @return the response or {@code null} if it was not modified
+	 * @throws IOException the io exception of the executed request
+	 */
+	@Nullable
+	public static <T> T executeIfModified(final AbstractGoogleClientRequest<T> request, @Nullable final String etag, final YoutubeQuotaScheduler.Priority priority)
+			throws IOException {
+		if (Strings.isEmpty(etag)) {
+			return execute(request, priority);
+		}
+		request.getRequestHeaders().setIfNoneMatch(etag);
+		try {
+			return execute(request, priority);
+		} catch (HttpResponseException e) {
+			if (e.getStatusCode() == HttpStatusCodes.STATUS_CODE_NOT_MODIFIED) {
+				Logging.logTrace("Not modified: " + etag, LOGGER);
+				return null;
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Checks whether the response of the specified request is served from the page cache.
+	 *
+	 * @param request the request
+	 * @return true if the response page is cached
+	 */
+	public static boolean isCached(final AbstractGoogleClientRequest<?> request) {
+		String key = isPageRequest(request) ? getKey(request) : null;
+		return key != null && !NO_CACHE.equals(request.getRequestHeaders().getCacheControl()) && YoutubePageCache.contains(key);
+	}
+
+	/**
+	 * Gets the exponentially weighted average latency of the requests sent to YouTube.
+	 *
+	 * @return the average latency in milliseconds, {@value #DEFAULT_LATENCY_MILLIS} before the first request
+	 */
+	public static synchronized double getAverageLatencyMillis() {
+		return _averageLatencyMillis < 0 ? DEFAULT_LATENCY_MILLIS : _averageLatencyMillis;
+	}
+
+	/**
+	 * Gets the specified percentile of the latencies of the last {@value #LATENCY_SAMPLES} requests sent to YouTube.
+	 *
+	 * @param percentile the percentile between 1 and 100
+	 * @return the latency in milliseconds or -1 if less than {@value #MIN_HEDGE_SAMPLES} requests completed
+	 */
+	static synchronized double getLatencyPercentileMillis(final int percentile) {
+		int samples = (int) Math.min(_latencyCount, LATENCY_SAMPLES);
+		if (samples < MIN_HEDGE_SAMPLES) {
+			return -1;
+		}
+		double[] latencies = Arrays.copyOf(LATENCIES, samples);
+		Arrays.sort(latencies);
+		return latencies[Math.max(0, (int) Math.ceil(percentile / 100.0 * samples) - 1)];
+	}
+
+	/**
+	 * Clears the recent latencies.
+	 */
+	static synchronized void clearLatencies() {
+		_averageLatencyMillis = -1;
+		_latencyCount = 0;
+	}
+
+	/**
+	 * Resets the state shared by all requests: the page cache, the quota and its scheduler, the circuit breakers, the
+	 * concurrency limiters, the key pools, the recent latencies and the retry policy.
+	 */
+	static void reset() {
+		YoutubePageCache.clear();
+		YoutubeQuota.setClock(Clock.systemUTC());
+		YoutubeQuota.clear();
+		YoutubeQuotaScheduler.clear();
+		YoutubeCircuitBreaker.clear();
+		YoutubeConcurrencyLimiter.clear();
+		YoutubeKeyPool.clear();
+		clearLatencies();
+		_retryPolicy = YoutubeRetryPolicy.fromSystemProperties();
+	}
+
+	private static synchronized void recordLatency(final double latencyMillis) {
+		_averageLatencyMillis = _averageLatencyMillis < 0 ? latencyMillis : _averageLatencyMillis + LATENCY_WEIGHT * (latencyMillis - _averageLatencyMillis);
+		LATENCIES[(int) (_latencyCount++ % LATENCY_SAMPLES)] = latencyMillis;
+	}
+
+	/**
+	 * Gets the policy of the timeouts, retries and hedging of the requests.
+	 *
+	 * @return the policy
+	 */
+	public static YoutubeRetryPolicy getRetryPolicy() {
+		return _retryPolicy;
+	}
+
+	/**
+	 * Sets the policy of the timeouts, retries and hedging of the requests.
+	 *
+	 * @param retryPolicy the policy
+	 */
+	public static void setRetryPolicy(final YoutubeRetryPolicy retryPolicy) {
+		Logging.logInfo("Retry policy: " + retryPolicy, LOGGER);
+		_retryPolicy = retryPolicy;
+	}
+
+	/**
+	 * Gets the number of requests retried so far.
+	 *
+	 * @return the number of retries
+	 */
+	public static long getRetryCount() {
+		return RETRIES.get();
+	}
+
+	/**
+	 * Gets the number of requests hedged so far.
+	 *
+	 * @return the number of hedged requests
+	 */
+	public static long getHedgeCount() {
+		return HEDGES.get();
+	}
+
+	/**
+	 * Gets the number of requests rejected so far for the specified reason without being sent to YouTube.
+	 *
+	 * @param reason the reason of the rejection
+	 * @return the number of rejected requests
+	 */
+	public static long getRejectionCount(final QuotaExceededException.Reason reason) {
+		return REJECTIONS.get(reason).get();
+	}
+
+	private static <T> T send(final AbstractGoogleClientRequest<T> request, final YoutubeQuotaScheduler.Priority priority) throws IOException {
+		Object apiKey = request.get("key");
+		YoutubeKeyPool pool = apiKey != null ? YoutubeKeyPool.forKey(apiKey.toString()) : null;
+		try {
+			if (pool != null) {
+				return pool.execute(request, () -> sendWithRetries(request, priority));
+			}
+			return sendWithRetries(request, priority);
+		} catch (QuotaExceededException e) {
+			REJECTIONS.get(e.getReason()).incrementAndGet();
+			throw e;
+		}
+	}
+
+	private static <T> T sendWithRetries(final AbstractGoogleClientRequest<T> request, final YoutubeQuotaScheduler.Priority priority) throws IOException {
+		YoutubeRetryPolicy policy = _retryPolicy;
+		boolean idempotent = isIdempotent(request);
+		for (int retry = 0; ; retry++) {
+			try {
+				double percentile = idempotent && policy.isHedging() ? getLatencyPercentileMillis(YoutubeRetryPolicy.HEDGE_PERCENTILE) : -1;
+				if (percentile < 0) {
+					return sendWithCurrentKey(request, priority);
+				}
+				return sendHedged(request, priority, Math.max(policy.getMinHedgeDelay().toMillis(), (long) Math.ceil(percentile)));
+			} catch (IOException e) {
+				if (!idempotent || retry >= policy.getMaxRetries() || !isTransient(e)) {
+					throw e;
+				}
+				Duration backoff = policy.getBackoff(retry);
+				Logging.logDebug(String.format("Retry %s in %d ms (%d of %d): %s", getMethod(request), backoff.toMillis(), retry + 1, policy.getMaxRetries(), e.getMessage()),
+								 LOGGER);
+				RETRIES.incrementAndGet();
+				sleep(backoff);
+			}
+		}
+	}
+
+	/**
+	 * Sends the specified request and, if it is not answered within the specified delay, a duplicate. The first
+	 * response wins, the request fails if both fail. Both are sent on copies of the request, which is not thread-safe:
+	 * the loser may still be in flight when a key pool restores the key of the request. The request is not hedged while
+	 * all threads of the {@link ParallelTasks#getExecutor() executor} are busy.
+	 */
+	private static <T> T sendHedged(final AbstractGoogleClientRequest<T> request, final YoutubeQuotaScheduler.Priority priority, final long hedgeDelayMillis)
+			throws IOException {
+		CompletableFuture<T> primary;
+		try {
+			primary = sendAsync(copy(request), priority);
+		} catch (RejectedExecutionException e) {
+			return sendWithCurrentKey(request, priority);
+		}
+		try {
+			try {
+				return primary.get(hedgeDelayMillis, TimeUnit.MILLISECONDS);
+			} catch (TimeoutException e) {
+				Logging.logDebug(String.format("Hedge %s after %d ms", getMethod(request), hedgeDelayMillis), LOGGER);
+				HEDGES.incrementAndGet();
+			}
+			CompletableFuture<T> hedge;
+			try {
+				hedge = sendAsync(copy(request), priority);
+			} catch (RejectedExecutionException e) {
+				return primary.get();
+			}
+			CompletableFuture<T> first = new CompletableFuture<>();
+			BiConsumer<T, Throwable> handler = (response, failure) -> {
+				if (failure == null) {
+					first.complete(response);
+				} else if (primary.isCompletedExceptionally() && hedge.isCompletedExceptionally()) {
+					first.completeExceptionally(failure);
+				}
+			};
+			primary.whenComplete(handler);
+			hedge.whenComplete(handler);
+			return first.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for a YouTube request");
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			throw (RuntimeException) cause;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> AbstractGoogleClientRequest<T> copy(final AbstractGoogleClientRequest<T> request) {
+		// shares the client and thereby its request initializer, the parameters and headers are copied
+		AbstractGoogleClientRequest<T> copy = (AbstractGoogleClientRequest<T>) request.clone();
+		copy.setRequestHeaders(request.getRequestHeaders().clone());
+		return copy;
+	}
+
+	private static <T> CompletableFuture<T> sendAsync(final AbstractGoogleClientRequest<T> request, final YoutubeQuotaScheduler.Priority priority) {
+		CompletableFuture<T> future = new CompletableFuture<>();
+		ParallelTasks.getExecutor().execute(() -> {
+			try {
+				future.complete(sendWithCurrentKey(request, priority));
+			} catch (IOException | RuntimeException e) {
+				future.completeExceptionally(e);
+			}
+		});
+		return future;
+	}
+
+	private static void sleep(final Duration backoff) throws InterruptedIOException {
+		try {
+			Thread.sleep(backoff.toMillis());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting to retry a YouTube request");
+		}
+	}
+
+	/**
+	 * Checks whether the specified request may be sent more than once, this holds for the list requests.
+	 *
+	 * @param request the request
+	 * @return true if the request is idempotent
+	 */
+	static boolean isIdempotent(final AbstractGoogleClientRequest<?> request) {
+		return "GET".equals(request.getRequestMethod());
+	}
+
+	/**
+	 * Checks whether the specified failure is transient: a server error, a short term rate limit or an io exception
+	 * without response like a timeout. Rejections of the {@link YoutubeQuotaScheduler} and the
+	 * {@link YoutubeCircuitBreaker} are not transient.
+	 *
+	 * @param e the failure
+	 * @return true if the request may succeed when retried
+	 */
+	static boolean isTransient(final IOException e) {
+		if (e instanceof QuotaExceededException || e instanceof CircuitOpenException || Thread.currentThread().isInterrupted()) {
+			return false;
+		}
+		if (e instanceof HttpResponseException) {
+			int statusCode = ((HttpResponseException) e).getStatusCode();
+			return statusCode >= HttpStatusCodes.STATUS_CODE_SERVER_ERROR || statusCode == 429 || isReason(getErrorReason((HttpResponseException) e), RATE_LIMIT_REASONS);
+		}
+		return true;
+	}
+
+	private static <T> T sendWithCurrentKey(final AbstractGoogleClientRequest<T> request, final YoutubeQuotaScheduler.Priority priority) throws IOException {
+		YoutubeCircuitBreaker breaker = YoutubeCircuitBreaker.forRequest(request);
+		long generation = breaker.checkPermission();
+		return sendWithCurrentKey(request, priority, breaker, generation);
+	}
+
+	private static <T> T sendWithCurrentKey(final AbstractGoogleClientRequest<T> request, final YoutubeQuotaScheduler.Priority priority,
+											final YoutubeCircuitBreaker breaker, final long generation) throws IOException {
+		Object apiKey = request.get("key");
+		try {
+			YoutubeQuotaScheduler.acquire(request, priority);
+		} catch (QuotaExceededException e) {
+			record(request, apiKey, priority, 0, 0, LedgerEntry.Outcome.REJECTED);
+			throw e;
+		}
+		YoutubeConcurrencyLimiter limiter = YoutubeConcurrencyLimiter.forKey(apiKey);
+		limiter.acquire();
+		long start = System.nanoTime();
+		LedgerEntry.Outcome outcome = LedgerEntry.Outcome.FAILED;
+		IOException failure = null;
+		try {
+			T response = request.execute();
+			outcome = LedgerEntry.Outcome.OK;
+			return response;
+		} catch (HttpResponseException e) {
+			outcome = getOutcome(e);
+			failure = e;
+			throw e;
+		} catch (IOException e) {
+			failure = e;
+			throw e;
+		} catch (RuntimeException e) {
+			// e.g. an IllegalArgumentException parsing a malformed response, counted as a failure by the limiter and the breaker
+			failure = new IOException(e);
+			throw e;
+		} finally {
+			double latencyMillis = (System.nanoTime() - start) / 1_000_000.0;
+			limiter.release(start, failure, latencyMillis);
+			recordLatency(latencyMillis);
+			record(request, apiKey, priority, YoutubeQuota.getCost(request), (int) latencyMillis, outcome);
+			breaker.record(failure, latencyMillis, generation, () -> {
+				// the probe is sent later on a copy of the request as sent, with the key of the pool chosen for it
+				AbstractGoogleClientRequest<T> sent = copy(request);
+				return probeGeneration -> sendWithCurrentKey(sent, YoutubeQuotaScheduler.Priority.BACKGROUND, breaker, probeGeneration);
+			});
+		}
+	}
+
+	private static void record(final AbstractGoogleClientRequest<?> request, @Nullable final Object apiKey, final YoutubeQuotaScheduler.Priority priority, final int units,
+							   final int latencyMillis, final LedgerEntry.Outcome outcome) {
+		if (apiKey != null && QuotaLedgers.get() != null) {
+			QuotaLedgers.record(new LedgerEntry(System.currentTimeMillis(), YoutubeQuota.getKeyId(apiKey.toString()), YoutubeQuotaScheduler.getProject(request),
+												priority.name(), getMethod(request), units, latencyMillis, outcome));
+		}
+	}
+
+	/**
+	 * Gets the api method of the specified request, e.g. {@code search.list}.
+	 *
+	 * @param request the request
+	 * @return the method
+	 */
+	static String getMethod(final AbstractGoogleClientRequest<?> request) {
+		String method = "GET".equals(request.getRequestMethod()) ? "list" : request.getRequestMethod().toLowerCase(Locale.ROOT);
+		return request.getUriTemplate() + '.' + method;
+	}
+
+	private static LedgerEntry.Outcome getOutcome(final HttpResponseException e) {
+		if (e.getStatusCode() == HttpStatusCodes.STATUS_CODE_NOT_MODIFIED) {
+			return LedgerEntry.Outcome.NOT_MODIFIED;
+		}
+		return isReason(getErrorReason(e), YoutubeKeyPool.QUOTA_EXCEEDED_REASONS) ? LedgerEntry.Outcome.QUOTA_EXCEEDED : LedgerEntry.Outcome.FAILED;
+	}
+
+	/**
+	 * Checks whether the specified error reason is one of the specified reasons.
+	 *
+	 * @param reason  the reason, may be {@code null}
+	 * @param reasons the reasons
+	 * @return true if the reason is one of the reasons
+	 */
+	static boolean isReason(@Nullable final String reason, final Set<String> reasons) {
+		return reason != null && reasons.contains(reason);
+	}
+
+	/**
+	 * Gets the reason of the first error of the specified error response, e.g. {@code quotaExceeded}.
+	 *
+	 * @param e the error response
+	 * @return the reason or {@code null} if the response has no error details
+	 */
+	@Nullable
+	static String getErrorReason(final HttpResponseException e) {
+		if (e instanceof GoogleJsonResponseException) {
+			GoogleJsonError details = ((GoogleJsonResponseException) e).getDetails();
+			if (details != null && details.getErrors() != null && !details.getErrors().isEmpty()) {
+				return details.getErrors().get(0).getReason();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Checks whether the specified request provides a page of search results or playlist items.
+	 *
+	 * @param request the request
+	 * @return true if the response is a cacheable page
+	 */
+	static boolean isPageRequest(final AbstractGoogleClientRequest<?> request) {
+		return request instanceof YouTube.Search.List || request instanceof YouTube.PlaylistItems.List;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T getCachedPage(final String key) {
+		return (T) YoutubePageCache.get(key);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T getStalePage(final String key) {
+		return (T) YoutubePageCache.getExpired(key);
+	}
+
+	/**
+	 * Gets the number of requests currently in flight.
+	 *
+	 * @return the number of requests
+	 */
+	static int getInFlightCount() {
+		return IN_FLIGHT.size();
+	}
+
+	/**
+	 * Gets the normalized key of the specified request, conditional requests are only identical if their ETags match.
+	 * Searches for the same {@link YoutubePageCache#normalizeQuery(String) normalized query} are identical. The
+	 * projects share their responses, the project a request is attributed to is no part of the request.
+	 *
+	 * @param request the request
+	 * @return the key or {@code null} if the request cannot be identified
+	 */
+	@Nullable
+	static String getKey(final AbstractGoogleClientRequest<?> request) {
+		GenericUrl url = request.buildHttpRequestUrl();
+		if (url == null) {
+			return null;
+		}
+		Map<String, Object> parameters = new TreeMap<>(url);
+		parameters.computeIfPresent(QUERY_PARAMETER, (name, query) -> YoutubePageCache.normalizeQuery(query.toString()));
+		String key = request.getRequestMethod() + ' ' + url.buildAuthority() + url.getRawPath() + parameters;
+		String etag = request.getRequestHeaders().getIfNoneMatch();
+		return etag != null ? key + " If-None-Match " + etag : key;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T await(final CompletableFuture<Object> inFlight) throws IOException {
+		try {
+			Object response = inFlight.get();
+			// every caller gets its own copy of the mutable response
+			return (T) (response instanceof GenericData ? ((GenericData) response).clone() : response);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for a YouTube request");
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			throw (RuntimeException) cause;
+		}
+	}
+}
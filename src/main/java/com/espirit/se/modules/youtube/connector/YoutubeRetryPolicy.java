@@ -0,0 +1,240 @@
+package com.espirit.se.modules.youtube.connector;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The timeouts, retries and hedging of the requests to the YouTube Data API, see {@link YoutubeRequestDispatcher}.
+ * <ul>
+ * <li>Every request is bound by a connect and a read timeout.</li>
+ * <li>A list request failing with a transient error (a 5xx or rate limit response, a timeout or a broken connection)
+ * is retried up to {@link #getMaxRetries()} times. The n-th retry waits a random time up to
+ * {@code min(maxBackoff, initialBackoff * 2^n)} ("full jitter"), so failed requests do not retry in lockstep.</li>
+ * <li>If hedging is enabled, a list request still unanswered after the {@value #HEDGE_PERCENTILE}th percentile of
+ * the recent latencies is sent a second time and the first response wins. A hedged request costs its quota twice.</li>
+ * </ul>
+ * The default policy is read from the system properties starting with {@value #PROPERTY_PREFIX}, e.g.
+ * {@code youtube.dap.integration.readTimeoutMillis}.
+ */
+public final class YoutubeRetryPolicy {
+
+	/**
+	 * The prefix of the system properties of the default policy.
+	 */
+	public static final String PROPERTY_PREFIX = "youtube.dap.integration.";
+	/**
+	 * The percentile of the recent latencies a hedged request is sent after.
+	 */
+	public static final int HEDGE_PERCENTILE = 95;
+	static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(5);
+	static final Duration DEFAULT_READ_TIMEOUT = Duration.ofSeconds(10);
+	static final int DEFAULT_MAX_RETRIES = 3;
+	static final Duration DEFAULT_INITIAL_BACKOFF = Duration.ofMillis(200);
+	static final Duration DEFAULT_MAX_BACKOFF = Duration.ofSeconds(5);
+	static final Duration DEFAULT_MIN_HEDGE_DELAY = Duration.ofMillis(50);
+
+	private final Duration _connectTimeout;
+	private final Duration _readTimeout;
+	private final int _maxRetries;
+	private final Duration _initialBackoff;
+	private final Duration _maxBackoff;
+	private final boolean _hedging;
+	private final Duration _minHedgeDelay;
+
+	private YoutubeRetryPolicy(final Builder builder) {
+		_connectTimeout = builder._connectTimeout;
+		_readTimeout = builder._readTimeout;
+		_maxRetries = builder._maxRetries;
+		_initialBackoff = builder._initialBackoff;
+		_maxBackoff = builder._maxBackoff;
+		_hedging = builder._hedging;
+		_minHedgeDelay = builder._minHedgeDelay;
+	}
+
+	/**
+	 * Creates the default policy, overridden by the system properties {@code connectTimeoutMillis},
+	 * {@code readTimeoutMillis}, {@code maxRetries}, {@code initialBackoffMillis}, {@code maxBackoffMillis} and
+	 * {@code hedging} with the prefix {@value #PROPERTY_PREFIX}.
+	 *
+	 * @return the policy
+	 */
+	public static YoutubeRetryPolicy fromSystemProperties() {
+		return new Builder()
+				.connectTimeout(Duration.ofMillis(Long.getLong(PROPERTY_PREFIX + "connectTimeoutMillis", DEFAULT_CONNECT_TIMEOUT.toMillis())))
+				.readTimeout(Duration.ofMillis(Long.getLong(PROPERTY_PREFIX + "readTimeoutMillis", DEFAULT_READ_TIMEOUT.toMillis())))
+				.maxRetries(Integer.getInteger(PROPERTY_PREFIX + "maxRetries", DEFAULT_MAX_RETRIES))
+				.backoff(Duration.ofMillis(Long.getLong(PROPERTY_PREFIX + "initialBackoffMillis", DEFAULT_INITIAL_BACKOFF.toMillis())),
+						 Duration.ofMillis(Long.getLong(PROPERTY_PREFIX + "maxBackoffMillis", DEFAULT_MAX_BACKOFF.toMillis())))
+				.hedging(Boolean.getBoolean(PROPERTY_PREFIX + "hedging"))
+				.build();
+	}
+
+	/**
+	 * Gets the connect timeout.
+	 *
+	 * @return the timeout
+	 */
+	public Duration getConnectTimeout() {
+		return _connectTimeout;
+	}
+
+	/**
+	 * Gets the read timeout.
+	 *
+	 * @return the timeout
+	 */
+	public Duration getReadTimeout() {
+		return _readTimeout;
+	}
+
+	/**
+	 * Gets the maximum number of retries of a list request.
+	 *
+	 * @return the number of retries, 0 if failed requests are not retried
+	 */
+	public int getMaxRetries() {
+		return _maxRetries;
+	}
+
+	/**
+	 * Checks whether slow list requests are hedged.
+	 *
+	 * @return true if hedging is enabled
+	 */
+	public boolean isHedging() {
+		return _hedging;
+	}
+
+	/**
+	 * Gets the minimum delay of a hedged request.
+	 *
+	 * @return the delay
+	 */
+	public Duration getMinHedgeDelay() {
+		return _minHedgeDelay;
+	}
+
+	/**
+	 * Gets a random backoff of the specified retry.
+	 *
+	 * @param retry the retry, starting with 0
+	 * @return the backoff between 0 and {@code min(maxBackoff, initialBackoff * 2^retry)}
+	 */
+	Duration getBackoff(final int retry) {
+		return Duration.ofMillis(ThreadLocalRandom.current().nextLong(getMaxBackoffMillis(retry) + 1));
+	}
+
+	/**
+	 * Gets the upper bound of the backoff of the specified retry.
+	 *
+	 * @param retry the retry, starting with 0
+	 * @return the upper bound in milliseconds
+	 */
+	long getMaxBackoffMillis(final int retry) {
+		long initialMillis = _initialBackoff.toMillis();
+		long maxMillis = _maxBackoff.toMillis();
+		// stop doubling before the shift overflows
+		if (retry >= Long.numberOfLeadingZeros(Math.max(initialMillis, 1)) - 1) {
+			return maxMillis;
+		}
+		return Math.min(maxMillis, initialMillis << retry);
+	}
+
+	@Override
+	public String toString() {
+		return String.format(Locale.ROOT, "connect timeout %d ms, read timeout %d ms, %d retries, backoff %d-%d ms, hedging %s", _connectTimeout.toMillis(),
+							 _readTimeout.toMillis(), _maxRetries, _initialBackoff.toMillis(), _maxBackoff.toMillis(), _hedging ? "on" : "off");
+	}
+
+	/**
+	 * The builder of a policy, it starts with the defaults.
+	 */
+	public static class Builder {
+
+		private Duration _connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+		private Duration _readTimeout = DEFAULT_READ_TIMEOUT;
+		private int _maxRetries = DEFAULT_MAX_RETRIES;
+		private Duration _initialBackoff = DEFAULT_INITIAL_BACKOFF;
+		private Duration _maxBackoff = DEFAULT_MAX_BACKOFF;
+		private boolean _hedging;
+		private Duration _minHedgeDelay = DEFAULT_MIN_HEDGE_DELAY;
+
+		/**
+		 * Connect timeout builder.
+		 *
+		 * @param timeout the timeout, zero for no timeout
+		 * @return the builder
+		 */
+		public Builder connectTimeout(Duration timeout) {
+			_connectTimeout = timeout;
+			return this;
+		}
+
+		/**
+		 * Read timeout builder.
+		 *
+		 * @param timeout the timeout, zero for no timeout
+		 * @return the builder
+		 */
+		public Builder readTimeout(Duration timeout) {
+			_readTimeout = timeout;
+			return this;
+		}
+
+		/**
+		 * Retries builder.
+		 *
+		 * @param maxRetries the maximum number of retries of a list request, 0 to disable retries
+		 * @return the builder
+		 */
+		public Builder maxRetries(int maxRetries) {
+			_maxRetries = Math.max(0, maxRetries);
+			return this;
+		}
+
+		/**
+		 * Backoff builder.
+		 *
+		 * @param initialBackoff the upper bound of the backoff of the first retry
+		 * @param maxBackoff     the upper bound of the backoff of any retry
+		 * @return the builder
+		 */
+		public Builder backoff(Duration initialBackoff, Duration maxBackoff) {
+			_initialBackoff = initialBackoff;
+			_maxBackoff = maxBackoff;
+			return this;
+		}
+
+		/**
+		 * Hedging builder.
+		 *
+		 * @param hedging true to hedge slow list requests
+		 * @return the builder
+		 */
+		public Builder hedging(boolean hedging) {
+			_hedging = hedging;
+			return this;
+		}
+
+		/**
+		 * Minimum hedge delay builder.
+		 *
+		 * @param minHedgeDelay the minimum delay of a hedged request
+		 * @return the builder
+		 */
+		public Builder minHedgeDelay(Duration minHedgeDelay) {
+			_minHedgeDelay = minHedgeDelay;
+			return this;
+		}
+
+		/**
+		 * Build the policy.
+		 *
+		 * @return the policy
+		 */
+		public YoutubeRetryPolicy build() {
+			return new YoutubeRetryPolicy(this);
+		}
+	}
+}
@@ -9,9 +9,10 @@ import com.google.api.services.youtube.model.Channel;
 import com.google.api.services.youtube.model.SearchListResponse;
 
 import java.io.IOException;
-import java.util.Collections;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Request to retrieve videos from a channel or all YouTube videos.
@@ -22,7 +23,8 @@ public class YoutubeStandardVideoSearchRequest implements YoutubeVideoSearchRequ
 	private final YouTube.Search.List _youtubeRequestList;
 	private String _youtubePageToken = null;
 	private int _total = -1;
-	private boolean _hasNext = true;
+	private boolean _hasNextPage = true;
+	private final Deque<YoutubeVideo> _bufferedVideos = new ArrayDeque<>();
 
 	/**
 	 * Instantiates a new Youtube standard video search request.
@@ -45,6 +47,23 @@ public class YoutubeStandardVideoSearchRequest implements YoutubeVideoSearchRequ
 	 */
 	public static YoutubeStandardVideoSearchRequest createInstance(final String apiKey, final YouTube youtube, final String query, final Channel channel) throws IOException {
 		Logging.logInfo(String.format("Create new request with query: '%s' and channel '%s'", query, channel), LOGGER);
+		if (channel != null) {
+			Logging.logDebug(String.format("Set channel: '%s'[%s]", channel.getSnippet().getTitle(), channel.getId()), LOGGER);
+		}
+		return new YoutubeStandardVideoSearchRequest(createRequestList(apiKey, youtube, query, channel));
+	}
+
+	/**
+	 * Creates the search request of the videos matching the specified query.
+	 *
+	 * @param apiKey  the api key
+	 * @param youtube the youtube
+	 * @param query   the query, may be empty
+	 * @param channel the searched channel, {@code null} to search all YouTube videos
+	 * @return the search request of the first page
+	 * @throws IOException the io exception
+	 */
+	static YouTube.Search.List createRequestList(final String apiKey, final YouTube youtube, final String query, final Channel channel) throws IOException {
 		YouTube.Search.List youtubeRequestList = youtube.search()
 				.list("snippet")
 				.setKey(apiKey)
@@ -54,10 +73,25 @@ public class YoutubeStandardVideoSearchRequest implements YoutubeVideoSearchRequ
 			youtubeRequestList.setQ(query);
 		}
 		if (channel != null) {
-			Logging.logDebug(String.format("Set channel: '%s'[%s]", channel.getSnippet().getTitle(), channel.getId()), LOGGER);
 			youtubeRequestList.setChannelId(channel.getId());
 		}
-		return new YoutubeStandardVideoSearchRequest(youtubeRequestList);
+		return youtubeRequestList;
+	}
+
+	/**
+	 * Checks whether the first page of the specified search is served from the page cache.
+	 *
+	 * @param apiKey  the api key
+	 * @param youtube the youtube
+	 * @param query   the query, may be empty
+	 * @param channel the searched channel, {@code null} to search all YouTube videos
+	 * @return true if the first page is cached
+	 * @throws IOException the io exception
+	 */
+	static boolean isFirstPageCached(final String apiKey, final YouTube youtube, final String query, final Channel channel) throws IOException {
+		YouTube.Search.List youtubeRequestList = createRequestList(apiKey, youtube, query, channel);
+		youtubeRequestList.setMaxResults((long) YoutubeConnector.MAX_RESULTS_PER_REQUEST);
+		return YoutubeRequestDispatcher.isCached(youtubeRequestList);
 	}
 
 	@Override
@@ -65,29 +99,47 @@ public class YoutubeStandardVideoSearchRequest implements YoutubeVideoSearchRequ
 		return _total;
 	}
 
+	/**
+	 * Supplied a list of Youtube videos.
+	 * Every request fetches {@value YoutubeConnector#MAX_RESULTS_PER_REQUEST} videos, the surplus is buffered and
+	 * delivered by the following calls. A call performs at most one request.
+	 *
+	 * @param count the number of videos to retrieve.
+	 * @return a list of youtube videos
+	 */
 	@Override
 	public List<YoutubeVideo> searchVideos(final int count) {
-		_youtubeRequestList.setMaxResults(Long.valueOf(count));
+		if (_bufferedVideos.size() < count && _hasNextPage) {
+			requestNextPage();
+		}
+		List<YoutubeVideo> resultList = new ArrayList<>();
+		while (resultList.size() < count && !_bufferedVideos.isEmpty()) {
+			resultList.add(_bufferedVideos.poll());
+		}
+		return resultList;
+	}
+
+	private void requestNextPage() {
+		_youtubeRequestList.setMaxResults((long) YoutubeConnector.MAX_RESULTS_PER_REQUEST);
 		if (Strings.notEmpty(_youtubePageToken)) {
 			_youtubeRequestList.setPageToken(_youtubePageToken);
 		}
 		try {
-			SearchListResponse searchListResponse = _youtubeRequestList.execute();
+			SearchListResponse searchListResponse = YoutubeRequestDispatcher.execute(_youtubeRequestList);
 			_youtubePageToken = searchListResponse.getNextPageToken();
 			_total = searchListResponse.getPageInfo().getTotalResults();
 			if (Strings.isEmpty(_youtubePageToken)) {
-				_hasNext = false;
+				_hasNextPage = false;
 			}
-			return searchListResponse.getItems().stream().map(YoutubeVideoSearchRequest::createYoutubeVideo).collect(Collectors.toList());
+			searchListResponse.getItems().stream().map(YoutubeVideoSearchRequest::createYoutubeVideo).forEach(_bufferedVideos::add);
 		} catch (IOException e) {
 			Logging.logError("Error requesting videos", e, LOGGER);
-			_hasNext = false;
+			_hasNextPage = false;
 		}
-		return Collections.emptyList();
 	}
 
 	@Override
 	public boolean hasNext() {
-		return _hasNext;
+		return _hasNextPage || !_bufferedVideos.isEmpty();
 	}
 }
@@ -0,0 +1,163 @@
+package com.espirit.se.modules.youtube.connector;
+
+import de.espirit.common.base.Logging;
+import de.espirit.common.tools.Strings;
+
+import com.espirit.se.modules.youtube.YoutubeVideo;
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.services.youtube.YouTube;
+import com.google.api.services.youtube.model.Video;
+import com.google.api.services.youtube.model.VideoListResponse;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk lookup of videos by their IDs.
+ * The IDs are de-duplicated and requested in chunks of {@value YoutubeConnector#MAX_RESULTS_PER_REQUEST}, the chunks
+ * are requested concurrently with a bounded degree of parallelism. Every video keeps the ETag of the response
+ * providing it, so videos looked up together can be revalidated together by a conditional request. The IDs of a chunk
+ * are requested in sorted order, so the revalidating request is identical to the original one.
+ */
+public class YoutubeVideoLookup {
+
+	/**
+	 * The fields requested for a video.
+	 */
+	static final String VIDEO_FIELDS = "etag,items(id,snippet(description,thumbnails/default/url,thumbnails/high/url,title))";
+	private static final Class<?> LOGGER = YoutubeVideoLookup.class;
+
+	private final YouTube _youtube;
+	private final String _apiKey;
+	private final int _parallelism;
+
+	/**
+	 * Instantiates a new Youtube video lookup.
+	 *
+	 * @param youtube     the youtube
+	 * @param apiKey      the api key
+	 * @param parallelism the maximum number of concurrent requests
+	 */
+	public YoutubeVideoLookup(final YouTube youtube, final String apiKey, final int parallelism) {
+		_youtube = youtube;
+		_apiKey = apiKey;
+		_parallelism = parallelism;
+	}
+
+	/**
+	 * Looks up the specified videos with {@link YoutubeQuotaScheduler.Priority#GENERATION generation} priority.
+	 *
+	 * @param videoIds the video ids
+	 * @return one result per requested ID in the requested order
+	 */
+	public List<VideoLookupResult> lookup(final Collection<String> videoIds) {
+		List<String> uniqueIds = videoIds.stream().filter(Strings::notEmpty).distinct().collect(Collectors.toList());
+		List<ParallelTasks.Task<Map<String, VideoLookupResult>>> tasks = new ArrayList<>();
+		for (final List<String> chunk : YoutubeConnector.partition(uniqueIds, YoutubeConnector.MAX_RESULTS_PER_REQUEST)) {
+			tasks.add(() -> lookupChunk(sorted(chunk), null, Collections.emptyMap(), YoutubeQuotaScheduler.Priority.GENERATION));
+		}
+		return getResults(videoIds, tasks);
+	}
+
+	/**
+	 * Revalidates the specified cached videos.
+	 * The videos are grouped by their ETag and every group is requested conditionally, an unchanged group is answered
+	 * without payload and its cached videos are reused. The requests have {@link YoutubeQuotaScheduler.Priority#BACKGROUND
+	 * background} priority.
+	 *
+	 * @param videos the cached videos
+	 * @return one result per video in the specified order, {@link VideoLookupResult.Status#NOT_MODIFIED} for up to date videos
+	 */
+	public List<VideoLookupResult> revalidate(final Collection<YoutubeVideo> videos) {
+		Map<String, YoutubeVideo> videosById = new HashMap<>();
+		Map<String, List<String>> videoIdsByEtag = new TreeMap<>();
+		List<String> videoIdsWithoutEtag = new ArrayList<>();
+		for (final YoutubeVideo video : videos) {
+			if (videosById.putIfAbsent(video.getId(), video) == null) {
+				if (Strings.isEmpty(video.getEtag())) {
+					videoIdsWithoutEtag.add(video.getId());
+				} else {
+					videoIdsByEtag.computeIfAbsent(video.getEtag(), etag -> new ArrayList<>()).add(video.getId());
+				}
+			}
+		}
+		List<ParallelTasks.Task<Map<String, VideoLookupResult>>> tasks = new ArrayList<>();
+		videoIdsByEtag.forEach((etag, videoIds) -> {
+			List<List<String>> chunks = YoutubeConnector.partition(videoIds, YoutubeConnector.MAX_RESULTS_PER_REQUEST);
+			// a single response provides at most one chunk, a larger group cannot match the ETag
+			String chunkEtag = chunks.size() == 1 ? etag : null;
+			for (final List<String> chunk : chunks) {
+				tasks.add(() -> lookupChunk(sorted(chunk), chunkEtag, videosById, YoutubeQuotaScheduler.Priority.BACKGROUND));
+			}
+		});
+		for (final List<String> chunk : YoutubeConnector.partition(videoIdsWithoutEtag, YoutubeConnector.MAX_RESULTS_PER_REQUEST)) {
+			tasks.add(() -> lookupChunk(sorted(chunk), null, videosById, YoutubeQuotaScheduler.Priority.BACKGROUND));
+		}
+		return getResults(videos.stream().map(YoutubeVideo::getId).collect(Collectors.toList()), tasks);
+	}
+
+	private List<VideoLookupResult> getResults(final Collection<String> videoIds, final List<ParallelTasks.Task<Map<String, VideoLookupResult>>> tasks) {
+		Map<String, VideoLookupResult> resultsById = new HashMap<>();
+		try {
+			ParallelTasks.invokeAll(tasks, _parallelism).forEach(resultsById::putAll);
+		} catch (IOException e) {
+			Logging.logError("IOException when retrieving Youtube videos.", e, LOGGER);
+		}
+		List<VideoLookupResult> results = new ArrayList<>(videoIds.size());
+		for (final String videoId : videoIds) {
+			VideoLookupResult result = resultsById.get(videoId);
+			if (result == null) {
+				result = Strings.isEmpty(videoId) ? VideoLookupResult.notFound(videoId) : VideoLookupResult.failed(videoId);
+			}
+			results.add(result);
+		}
+		return results;
+	}
+
+	private static List<String> sorted(final List<String> videoIds) {
+		List<String> sortedIds = new ArrayList<>(videoIds);
+		Collections.sort(sortedIds);
+		return sortedIds;
+	}
+
+	private Map<String, VideoLookupResult> lookupChunk(final List<String> videoIds, @Nullable final String etag, final Map<String, YoutubeVideo> cachedVideos,
+													  final YoutubeQuotaScheduler.Priority priority) {
+		Map<String, VideoLookupResult> results = new HashMap<>();
+		try {
+			VideoListResponse response = YoutubeRequestDispatcher.executeIfModified(_youtube.videos()
+																							.list("snippet")
+																							.setKey(_apiKey)
+																							.setId(String.join(",", videoIds))
+																							.setMaxResults((long) videoIds.size())
+																							.setFields(VIDEO_FIELDS), etag, priority);
+			if (response == null) {
+				// not modified, neither parse nor allocate the videos again
+				videoIds.forEach(videoId -> results.put(videoId, VideoLookupResult.notModified(cachedVideos.get(videoId))));
+				return results;
+			}
+			if (response.getItems() != null) {
+				for (final Video video : response.getItems()) {
+					results.put(video.getId(), VideoLookupResult.found(YoutubeVideoSearchRequest.createYoutubeVideo(video, response.getEtag())));
+				}
+			}
+			for (final String videoId : videoIds) {
+				results.putIfAbsent(videoId, VideoLookupResult.notFound(videoId));
+			}
+		} catch (GoogleJsonResponseException e) {
+			Logging.logError("Google API Error: " + e.getStatusCode() + " : " + (e.getDetails() != null ? e.getDetails().getMessage() : e.getStatusMessage()), e, LOGGER);
+			videoIds.forEach(videoId -> results.put(videoId, VideoLookupResult.failed(videoId)));
+		} catch (IOException e) {
+			Logging.logError("IOException when retrieving a Youtube video.", e, LOGGER);
+			videoIds.forEach(videoId -> results.put(videoId, VideoLookupResult.failed(videoId)));
+		}
+		return results;
+	}
+}
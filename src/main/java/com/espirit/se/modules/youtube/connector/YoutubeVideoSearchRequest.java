@@ -6,7 +6,10 @@ import com.google.api.services.youtube.model.PlaylistItemSnippet;
 import com.google.api.services.youtube.model.SearchResult;
 import com.google.api.services.youtube.model.SearchResultSnippet;
 import com.google.api.services.youtube.model.ThumbnailDetails;
+import com.google.api.services.youtube.model.Video;
+import com.google.api.services.youtube.model.VideoSnippet;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
 import java.util.List;
 
@@ -47,6 +50,34 @@ public interface YoutubeVideoSearchRequest {
 								thumbnails.getHigh().getUrl());
 	}
 
+	/**
+	 * Create youtube video object.
+	 *
+	 * @param video the video resource
+	 * @return the youtube video
+	 */
+	static YoutubeVideo createYoutubeVideo(final Video video) {
+		return createYoutubeVideo(video, null);
+	}
+
+	/**
+	 * Create youtube video object.
+	 *
+	 * @param video the video resource
+	 * @param etag  the ETag of the response providing the video
+	 * @return the youtube video
+	 */
+	static YoutubeVideo createYoutubeVideo(final Video video, @Nullable final String etag) {
+		VideoSnippet snippet = video.getSnippet();
+		ThumbnailDetails thumbnails = snippet.getThumbnails();
+		return new YoutubeVideo(video.getId(),
+								snippet.getTitle(),
+								snippet.getDescription(),
+								thumbnails.getDefault().getUrl(),
+								thumbnails.getHigh().getUrl(),
+								etag);
+	}
+
 	/**
 	 * Gets total.
 	 *
@@ -69,4 +100,11 @@ public interface YoutubeVideoSearchRequest {
 	 * @return the boolean
 	 */
 	boolean hasNext();
+
+	/**
+	 * Releases the resources of the request, such as requests still in flight.
+	 */
+	default void close() {
+		// Nothing
+	}
 }
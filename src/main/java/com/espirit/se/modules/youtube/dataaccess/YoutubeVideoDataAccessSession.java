@@ -1,10 +1,12 @@
 package com.espirit.se.modules.youtube.dataaccess;
 
+import de.espirit.common.base.Logging;
 import de.espirit.firstspirit.access.BaseContext;
 import de.espirit.firstspirit.access.Language;
 import de.espirit.firstspirit.access.editor.ValueIndexer;
 import de.espirit.firstspirit.agency.Image;
 import de.espirit.firstspirit.agency.ImageAgent;
+import de.espirit.firstspirit.agency.ProjectAgent;
 import de.espirit.firstspirit.agency.TransferAgent;
 import de.espirit.firstspirit.client.plugin.dataaccess.DataAccessSession;
 import de.espirit.firstspirit.client.plugin.dataaccess.DataAccessSessionBuilder;
@@ -31,16 +33,31 @@ import de.espirit.firstspirit.json.JsonPair;
 import de.espirit.firstspirit.json.values.JsonStringValue;
 
 import com.espirit.se.modules.youtube.YoutubeVideo;
+import com.espirit.se.modules.youtube.cache.WTinyLfuCache;
+import com.espirit.se.modules.youtube.cache.YoutubeVideoCache;
+import com.espirit.se.modules.youtube.catalog.VideoCatalog;
+import com.espirit.se.modules.youtube.catalog.VideoCatalogs;
+import com.espirit.se.modules.youtube.connector.VideoLookupResult;
 import com.espirit.se.modules.youtube.connector.YoutubeConnector;
 import com.espirit.se.modules.youtube.integration.YoutubeIntegrationConfig;
 import com.espirit.se.modules.youtube.integration.YoutubeIntegrationIcons;
 import com.espirit.se.modules.youtube.integration.YoutubeIntegrationProjectApp;
 
+import javax.annotation.Nullable;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Basic class to provide a Data Access Session to support the Data Access Plugin.
@@ -48,6 +65,7 @@ import java.util.Optional;
  */
 public class YoutubeVideoDataAccessSession implements DataAccessSession<YoutubeVideo> {
 
+	private static final Class<?> LOGGER = YoutubeVideoDataAccessSession.class;
 	private final BaseContext _context;
 	private final SessionAspectMap _aspects;
 
@@ -84,12 +102,113 @@ public class YoutubeVideoDataAccessSession implements DataAccessSession<YoutubeV
 		return youtubeVideos.isEmpty() ? null : youtubeVideos.get(0);
 	}
 
+	/**
+	 * Provides the videos for the specified IDs. The videos are served from the cache of the project, videos not cached
+	 * are restored from the {@link VideoCatalog} of the project, only the remaining videos are requested. Expired videos
+	 * are served stale and refreshed in the background, see {@link YoutubeVideoRefresher}, unless they expired longer
+	 * than {@link YoutubeVideoCache#MAX_STALENESS} ago. These are revalidated by their ETags, unchanged videos are not
+	 * transferred again. If the revalidation fails, the expired videos are served anyway.
+	 *
+	 * @param identifierList the video ids
+	 * @return the found videos in the requested order
+	 */
 	@Override
 	public List<YoutubeVideo> getData(Collection<String> identifierList) {
-		YoutubeIntegrationConfig configuration = YoutubeIntegrationProjectApp.getConfiguration(_context);
+		return getData(identifierList, _context.requireSpecialist(ProjectAgent.TYPE).getId(), YoutubeIntegrationProjectApp.getConfiguration(_context), null);
+	}
+
+	/**
+	 * Provides the videos for the specified IDs, see {@link #getData(Collection)}.
+	 *
+	 * @param identifierList the video ids
+	 * @param projectId      the id of the project
+	 * @param configuration  the configuration of the project
+	 * @param rootUrl        the root url of the YouTube Data API, {@code null} for YouTube itself
+	 * @return the found videos in the requested order
+	 */
+	static List<YoutubeVideo> getData(final Collection<String> identifierList, final long projectId, final YoutubeIntegrationConfig configuration,
+									  @Nullable final String rootUrl) {
+		WTinyLfuCache<String, YoutubeVideo> cache = YoutubeVideoCache.forProject(projectId);
+		Map<String, YoutubeVideo> videos = cache.getAllPresent(identifierList);
+		Set<String> missingVideoIds = new HashSet<>(identifierList);
+		missingVideoIds.removeAll(videos.keySet());
+		if (!missingVideoIds.isEmpty()) {
+			VideoCatalog catalog = VideoCatalogs.forProject(projectId);
+			if (catalog != null) {
+				restoreVideos(missingVideoIds, cache, catalog);
+				videos.putAll(cache.getAllPresent(missingVideoIds));
+				missingVideoIds.removeAll(videos.keySet());
+			}
+			YoutubeConnector youtubeConnector = createConnector(configuration, rootUrl);
+			Map<String, YoutubeVideo> staleVideos = cache.getAllExpired(missingVideoIds, YoutubeVideoCache.MAX_STALENESS);
+			if (!staleVideos.isEmpty()) {
+				videos.putAll(staleVideos);
+				missingVideoIds.removeAll(staleVideos.keySet());
+				YoutubeVideoRefresher.forProject(projectId).refresh(staleVideos.values(), youtubeConnector);
+			}
+			if (!missingVideoIds.isEmpty()) {
+				Map<String, YoutubeVideo> requestedVideos = requestVideos(missingVideoIds, cache, catalog, youtubeConnector);
+				cache.putAll(requestedVideos);
+				storeVideos(requestedVideos.values(), catalog);
+				videos.putAll(requestedVideos);
+				missingVideoIds.removeAll(requestedVideos.keySet());
+				// YouTube failed to answer, e.g. while its circuit is open
+				Map<String, YoutubeVideo> failedVideos = cache.getAllExpired(missingVideoIds);
+				if (!failedVideos.isEmpty()) {
+					Logging.logDebug("Serve expired videos after failed request: " + failedVideos.keySet(), LOGGER);
+					videos.putAll(failedVideos);
+				}
+			}
+		}
+		Logging.logDebug("Video cache: " + cache.stats(), LOGGER);
+		return identifierList.stream().map(videos::get).filter(Objects::nonNull).collect(Collectors.toList());
+	}
+
+	private static YoutubeConnector createConnector(final YoutubeIntegrationConfig configuration, @Nullable final String rootUrl) {
 		// No channels are required to retrieve videos.
-		YoutubeConnector youtubeConnector = new YoutubeConnector.Builder().apikey(configuration.getApiKey()).build();
-		return youtubeConnector.getVideo(identifierList);
+		return new YoutubeConnector.Builder().apikeys(configuration.getApiKeys()).project(configuration.getProject()).quotaBudget(configuration.getQuotaBudget())
+				.rootUrl(rootUrl).build();
+	}
+
+	/**
+	 * Restores the specified videos from the catalog to the cache, they expire as if they had been cached when retrieved.
+	 */
+	private static void restoreVideos(final Set<String> videoIds, final WTinyLfuCache<String, YoutubeVideo> cache, final VideoCatalog catalog) {
+		long now = System.currentTimeMillis();
+		for (final VideoCatalog.Entry entry : catalog.getEntries(videoIds).values()) {
+			cache.put(entry.getVideo().getId(), entry.getVideo(), Duration.ofMillis(Math.max(0, now - entry.getUpdatedAt())));
+		}
+	}
+
+	private static void storeVideos(final Collection<YoutubeVideo> videos, @Nullable final VideoCatalog catalog) {
+		if (catalog == null) {
+			return;
+		}
+		try {
+			catalog.putAll(videos, System.currentTimeMillis());
+		} catch (UncheckedIOException | IllegalStateException e) {
+			Logging.logError("Unable to store videos in the catalog", e, LOGGER);
+		}
+	}
+
+	private static Map<String, YoutubeVideo> requestVideos(final Set<String> videoIds, final WTinyLfuCache<String, YoutubeVideo> cache, @Nullable final VideoCatalog catalog, final YoutubeConnector youtubeConnector) {
+		Map<String, YoutubeVideo> expiredVideos = cache.getAllExpired(videoIds);
+		Set<String> unknownVideoIds = new HashSet<>(videoIds);
+		unknownVideoIds.removeAll(expiredVideos.keySet());
+		List<VideoLookupResult> results = new ArrayList<>(youtubeConnector.revalidateVideos(expiredVideos.values()));
+		results.addAll(youtubeConnector.lookupVideos(unknownVideoIds));
+		Map<String, YoutubeVideo> videos = new HashMap<>();
+		for (final VideoLookupResult result : results) {
+			if (result.isFound()) {
+				videos.put(result.getVideoId(), result.getVideo());
+			} else if (result.getStatus() == VideoLookupResult.Status.NOT_FOUND) {
+				cache.invalidate(result.getVideoId());
+				if (catalog != null) {
+					catalog.remove(result.getVideoId());
+				}
+			}
+		}
+		return videos;
 	}
 
 	@Override
@@ -14,6 +14,7 @@ import de.espirit.firstspirit.client.plugin.report.ParameterText;
 
 import com.espirit.se.modules.youtube.YoutubeVideo;
 import com.espirit.se.modules.youtube.connector.YoutubeConnector;
+import com.espirit.se.modules.youtube.connector.YoutubeReadAheadSearchRequest;
 import com.espirit.se.modules.youtube.connector.YoutubeVideoSearchRequest;
 import com.espirit.se.modules.youtube.integration.YoutubeIntegrationConfig;
 import com.espirit.se.modules.youtube.integration.YoutubeIntegrationProjectApp;
@@ -38,7 +39,10 @@ public class YoutubeVideoDataStream implements DataStream<YoutubeVideo> {
 
 	@Override
 	public void close() {
-		// Nothing
+		// no search request if the search could not be created
+		if (_youtubeVideoSearchRequest != null) {
+			_youtubeVideoSearchRequest.close();
+		}
 	}
 
 	@Override
@@ -68,6 +72,7 @@ public class YoutubeVideoDataStream implements DataStream<YoutubeVideo> {
 		private final FilterableAspect _filterableAspect;
 		private final StreamBuilderAspectMap _aspects;
 		private final YoutubeConnector _youtubeConnector;
+		private final int _readAheadPages;
 
 		/**
 		 * Instantiates a new Builder.
@@ -75,8 +80,18 @@ public class YoutubeVideoDataStream implements DataStream<YoutubeVideo> {
 		 * @param context the context
 		 */
 		Builder(BaseContext context) {
-			YoutubeIntegrationConfig configuration = YoutubeIntegrationProjectApp.getConfiguration(context);
-			_youtubeConnector = new YoutubeConnector.Builder().config(configuration).build();
+			this(YoutubeIntegrationProjectApp.getConfiguration(context), null);
+		}
+
+		/**
+		 * Instantiates a new Builder.
+		 *
+		 * @param configuration the configuration of the project
+		 * @param rootUrl       the root url of the YouTube Data API, {@code null} for YouTube itself
+		 */
+		Builder(YoutubeIntegrationConfig configuration, @Nullable String rootUrl) {
+			_youtubeConnector = new YoutubeConnector.Builder().config(configuration).rootUrl(rootUrl).build();
+			_readAheadPages = configuration != null ? configuration.getReadAheadPages() : 0;
 			_aspects = new StreamBuilderAspectMap();
 
 			List<ParameterSelect.SelectItem> selectItems = new ArrayList<>();
@@ -98,7 +113,22 @@ public class YoutubeVideoDataStream implements DataStream<YoutubeVideo> {
 
 		@Override
 		public DataStream<YoutubeVideo> createDataStream() {
-			return new YoutubeVideoDataStream(_youtubeConnector.getSearchRequest(_filterableAspect.getQuery(), _filterableAspect.getChannel()));
+			return createDataStream(_filterableAspect.getQuery(), _filterableAspect.getChannel());
+		}
+
+		/**
+		 * Creates a data stream of the specified filter.
+		 *
+		 * @param query   the query
+		 * @param channel the channel id
+		 * @return the data stream
+		 */
+		DataStream<YoutubeVideo> createDataStream(@Nullable String query, @Nullable String channel) {
+			YoutubeVideoSearchRequest searchRequest = _youtubeConnector.getSearchRequest(query, channel);
+			if (searchRequest != null && _readAheadPages > 0) {
+				searchRequest = new YoutubeReadAheadSearchRequest(searchRequest, _readAheadPages);
+			}
+			return new YoutubeVideoDataStream(searchRequest);
 		}
 
 		@Override
@@ -0,0 +1,181 @@
+package com.espirit.se.modules.youtube.dataaccess;
+
+import de.espirit.common.base.Logging;
+
+import com.espirit.se.modules.youtube.YoutubeVideo;
+import com.espirit.se.modules.youtube.cache.WTinyLfuCache;
+import com.espirit.se.modules.youtube.cache.YoutubeVideoCache;
+import com.espirit.se.modules.youtube.catalog.VideoCatalog;
+import com.espirit.se.modules.youtube.catalog.VideoCatalogs;
+import com.espirit.se.modules.youtube.connector.VideoLookupResult;
+import com.espirit.se.modules.youtube.connector.YoutubeConnector;
+
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.LongSupplier;
+
+/**
+ * Refreshes stale videos of a project cache and catalog in the background, so editors are served the stale videos
+ * immediately. A video is refreshed by at most one request at a time. If the refresh of a video fails, it is not retried before
+ * an exponentially growing backoff has passed.
+ */
+public final class YoutubeVideoRefresher {
+
+	/**
+	 * The backoff after the first failed refresh of a video.
+	 */
+	static final Duration INITIAL_BACKOFF = Duration.ofSeconds(30);
+	/**
+	 * The maximum backoff after failed refreshes of a video.
+	 */
+	static final Duration MAXIMUM_BACKOFF = Duration.ofMinutes(30);
+
+	private static final Class<?> LOGGER = YoutubeVideoRefresher.class;
+	private static final Map<Long, YoutubeVideoRefresher> REFRESHERS = new ConcurrentHashMap<>();
+	private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(2, runnable -> {
+		Thread thread = new Thread(runnable, "youtube-video-refresh");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final WTinyLfuCache<String, YoutubeVideo> _cache;
+	private final VideoCatalog _catalog;
+	private final LongSupplier _ticker;
+	private final Set<String> _refreshing = ConcurrentHashMap.newKeySet();
+	private final Map<String, Backoff> _backoffs = new ConcurrentHashMap<>();
+
+	/**
+	 * Instantiates a new refresher.
+	 *
+	 * @param cache   the cache to refresh
+	 * @param catalog the catalog to update, may be {@code null}
+	 * @param ticker  the source of the current time in nanoseconds
+	 */
+	YoutubeVideoRefresher(final WTinyLfuCache<String, YoutubeVideo> cache, @Nullable final VideoCatalog catalog, final LongSupplier ticker) {
+		_cache = cache;
+		_catalog = catalog;
+		_ticker = ticker;
+	}
+
+	/**
+	 * Gets the refresher of the video cache of the specified project.
+	 *
+	 * @param projectId the project id
+	 * @return the refresher
+	 */
+	public static YoutubeVideoRefresher forProject(final long projectId) {
+		return REFRESHERS.computeIfAbsent(projectId, id -> new YoutubeVideoRefresher(YoutubeVideoCache.forProject(id), VideoCatalogs.forProject(id), System::nanoTime));
+	}
+
+	/**
+	 * Removes the refreshers of all projects, refreshes in progress are completed.
+	 */
+	public static void clear() {
+		REFRESHERS.clear();
+	}
+
+	/**
+	 * Refreshes the specified stale videos in the background, videos already being refreshed or backing off are skipped.
+	 *
+	 * @param videos    the stale videos
+	 * @param connector the connector to request the videos
+	 * @return the refresh, completed when the cache is updated
+	 */
+	public CompletableFuture<Void> refresh(final Collection<YoutubeVideo> videos, final YoutubeConnector connector) {
+		long now = _ticker.getAsLong();
+		List<YoutubeVideo> refreshedVideos = new ArrayList<>();
+		for (final YoutubeVideo video : videos) {
+			Backoff backoff = _backoffs.get(video.getId());
+			if ((backoff == null || backoff.isOver(now)) && _refreshing.add(video.getId())) {
+				refreshedVideos.add(video);
+			}
+		}
+		if (refreshedVideos.isEmpty()) {
+			return CompletableFuture.completedFuture(null);
+		}
+		Logging.logDebug("Refresh " + refreshedVideos.size() + " stale videos", LOGGER);
+		return CompletableFuture.runAsync(() -> {
+			try {
+				update(connector.revalidateVideos(refreshedVideos));
+			} finally {
+				refreshedVideos.forEach(video -> _refreshing.remove(video.getId()));
+			}
+		}, EXECUTOR);
+	}
+
+	/**
+	 * Checks whether the specified video is being refreshed.
+	 *
+	 * @param videoId the video id
+	 * @return true if a refresh is in progress
+	 */
+	boolean isRefreshing(final String videoId) {
+		return _refreshing.contains(videoId);
+	}
+
+	private void update(final List<VideoLookupResult> results) {
+		for (final VideoLookupResult result : results) {
+			String videoId = result.getVideoId();
+			switch (result.getStatus()) {
+				case FAILED:
+					Backoff backoff = _backoffs.merge(videoId, new Backoff(1, _ticker.getAsLong()), (previous, first) -> previous.next(_ticker.getAsLong()));
+					Logging.logWarning(String.format("Refresh of video '%s' failed %d times, retry in %s", videoId, backoff._failures, backoff.getDuration()), LOGGER);
+					break;
+				case NOT_FOUND:
+					_backoffs.remove(videoId);
+					_cache.invalidate(videoId);
+					if (_catalog != null) {
+						_catalog.remove(videoId);
+					}
+					break;
+				default:
+					_backoffs.remove(videoId);
+					_cache.put(videoId, result.getVideo());
+					if (_catalog != null) {
+						_catalog.put(result.getVideo(), System.currentTimeMillis());
+					}
+					break;
+			}
+		}
+	}
+
+	/**
+	 * The backoff of a video after failed refreshes.
+	 */
+	private static class Backoff {
+
+		private final int _failures;
+		private final long _retryAt;
+
+		private Backoff(final int failures, final long now) {
+			_failures = failures;
+			_retryAt = now + getDuration(failures).toNanos();
+		}
+
+		private Backoff next(final long now) {
+			return new Backoff(_failures + 1, now);
+		}
+
+		private boolean isOver(final long now) {
+			return now - _retryAt >= 0;
+		}
+
+		private Duration getDuration() {
+			return getDuration(_failures);
+		}
+
+		private static Duration getDuration(final int failures) {
+			Duration duration = INITIAL_BACKOFF.multipliedBy(1L << Math.min(failures - 1, 16));
+			return duration.compareTo(MAXIMUM_BACKOFF) > 0 ? MAXIMUM_BACKOFF : duration;
+		}
+	}
+}
@@ -1,6 +1,9 @@
 package com.espirit.se.modules.youtube.integration;
 
+import javax.annotation.Nullable;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Class to outsource configurations
@@ -8,7 +11,12 @@ import java.util.List;
 public class YoutubeIntegrationConfig {
 
 	private final String _apiKey;
+	private final List<String> _apiKeys;
 	private final List<String> _channelIds;
+	private final int _readAheadPages;
+	private final int _channelSyncMinutes;
+	private final String _project;
+	private final long _quotaBudget;
 
 	/**
 	 * Initialize Configuration
@@ -17,21 +25,100 @@ public class YoutubeIntegrationConfig {
 	 * @param channelIds
 	 */
 	public YoutubeIntegrationConfig(final String apiKey, final List<String> channelIds) {
-		_apiKey = apiKey;
+		this(apiKey, channelIds, 0);
+	}
+
+	/**
+	 * Initialize Configuration
+	 *
+	 * @param apiKey
+	 * @param channelIds
+	 * @param readAheadPages
+	 */
+	public YoutubeIntegrationConfig(final String apiKey, final List<String> channelIds, final int readAheadPages) {
+		this(apiKey, channelIds, readAheadPages, 0);
+	}
+
+	/**
+	 * Initialize Configuration
+	 *
+	 * @param apiKey
+	 * @param channelIds
+	 * @param readAheadPages
+	 * @param channelSyncMinutes
+	 */
+	public YoutubeIntegrationConfig(final String apiKey, final List<String> channelIds, final int readAheadPages, final int channelSyncMinutes) {
+		this(apiKey, channelIds, readAheadPages, channelSyncMinutes, null, 0);
+	}
+
+	/**
+	 * Initialize Configuration
+	 *
+	 * @param apiKey             one api key or a comma separated pool of api keys
+	 * @param channelIds
+	 * @param readAheadPages
+	 * @param channelSyncMinutes
+	 * @param project
+	 * @param quotaBudget
+	 */
+	public YoutubeIntegrationConfig(final String apiKey, final List<String> channelIds, final int readAheadPages, final int channelSyncMinutes,
+									@Nullable final String project, final long quotaBudget) {
+		_apiKeys = apiKey != null ? Arrays.stream(apiKey.split(",")).map(String::trim).filter(key -> !key.isEmpty()).collect(Collectors.toList()) : List.of();
+		_apiKey = _apiKeys.isEmpty() ? apiKey : _apiKeys.get(0);
 		_channelIds = channelIds;
+		_readAheadPages = readAheadPages;
+		_channelSyncMinutes = channelSyncMinutes;
+		_project = project;
+		_quotaBudget = quotaBudget;
 	}
 
 	/**
-	 * @return Google API key
+	 * @return Google API key, the first key of a pool
 	 */
 	public String getApiKey() {
 		return _apiKey;
 	}
 
+	/**
+	 * @return Google API keys, more than one key form a pool
+	 */
+	public List<String> getApiKeys() {
+		return _apiKeys;
+	}
+
 	/**
 	 * @return list of YouTube channel ids
 	 */
 	public List<String> getChannelIds() {
 		return _channelIds;
 	}
+
+	/**
+	 * @return number of report pages to read ahead, 0 if disabled
+	 */
+	public int getReadAheadPages() {
+		return _readAheadPages;
+	}
+
+	/**
+	 * @return interval of the channel sync in minutes, 0 if disabled
+	 */
+	public int getChannelSyncMinutes() {
+		return _channelSyncMinutes;
+	}
+
+	/**
+	 * @return name of the project, {@code null} if unknown
+	 */
+	@Nullable
+	public String getProject() {
+		return _project;
+	}
+
+	/**
+	 * @return daily quota budget of the project in units, 0 if unlimited
+	 */
+	public long getQuotaBudget() {
+		return _quotaBudget;
+	}
 }
@@ -1,6 +1,8 @@
 package com.espirit.se.modules.youtube.integration;
 
+import de.espirit.common.base.Logging;
 import de.espirit.common.tools.Strings;
+import de.espirit.firstspirit.agency.ProjectAgent;
 import de.espirit.firstspirit.agency.SpecialistsBroker;
 import de.espirit.firstspirit.module.ProjectApp;
 import de.espirit.firstspirit.module.ProjectEnvironment;
@@ -55,11 +57,27 @@ public class YoutubeIntegrationProjectApp implements ProjectApp {
 			if (Strings.notEmpty(channelIds)) {
 				channelIdList = Arrays.stream(channelIds.split(",")).map(String::trim).collect(Collectors.toList());
 			}
-			return new YoutubeIntegrationConfig(apiKey, channelIdList);
+			int readAheadPages = getNonNegative(values.getString(YoutubeIntegrationProjectConfig.READ_AHEAD_PAGES), "number of read-ahead pages", "read-ahead");
+			int channelSyncMinutes = getNonNegative(values.getString(YoutubeIntegrationProjectConfig.CHANNEL_SYNC_MINUTES), "channel sync interval", "channel sync");
+			int quotaBudget = getNonNegative(values.getString(YoutubeIntegrationProjectConfig.QUOTA_BUDGET), "daily quota budget", "quota budget");
+			ProjectAgent projectAgent = broker.requestSpecialist(ProjectAgent.TYPE);
+			String project = projectAgent != null ? projectAgent.getName() : null;
+			return new YoutubeIntegrationConfig(apiKey, channelIdList, readAheadPages, channelSyncMinutes, project, quotaBudget);
 		}
 		return null;
 	}
 
+	private static int getNonNegative(@Nullable final String value, final String description, final String feature) {
+		if (Strings.notEmpty(value)) {
+			try {
+				return Math.max(0, Integer.parseInt(value.trim()));
+			} catch (NumberFormatException e) {
+				Logging.logWarning(String.format("Invalid %s '%s', %s disabled", description, value, feature), YoutubeIntegrationProjectApp.class);
+			}
+		}
+		return 0;
+	}
+
 	@Override
 	public void init(ProjectAppDescriptor descriptor, ProjectEnvironment environment) {
 		// Nothing needs to be done here
@@ -6,6 +6,7 @@ import de.espirit.firstspirit.access.store.StoreElement;
 import de.espirit.firstspirit.access.store.templatestore.SectionTemplate;
 import de.espirit.firstspirit.access.store.templatestore.SectionTemplates;
 import de.espirit.firstspirit.access.store.templatestore.TemplateStoreRoot;
+import de.espirit.firstspirit.agency.ServicesBroker;
 import de.espirit.firstspirit.agency.SpecialistsBroker;
 import de.espirit.firstspirit.agency.StoreAgent;
 import de.espirit.firstspirit.module.ProjectEnvironment;
@@ -13,8 +14,13 @@ import de.espirit.firstspirit.module.ProjectEnvironment;
 import com.espirit.ps.psci.genericconfiguration.ExecuteAction;
 import com.espirit.ps.psci.genericconfiguration.GenericConfigPanel;
 import com.espirit.se.modules.youtube.connector.YoutubeConnector;
+import com.espirit.se.modules.youtube.ledger.QuotaReportService;
 
 import javax.swing.JOptionPane;
+import javax.swing.JScrollPane;
+import javax.swing.JTextArea;
+import java.awt.Dimension;
+import java.awt.Font;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
@@ -31,23 +37,45 @@ import java.util.zip.ZipFile;
 public class YoutubeIntegrationProjectConfig extends GenericConfigPanel<ProjectEnvironment> {
 
 	/**
-	 * The constant that contains the key used to store and retrieve the Youtube API key.
+	 * The constant that contains the key used to store and retrieve the Youtube API key, several comma separated keys
+	 * form a pool.
 	 */
 	public static final String API_KEY = "api_key";
 	/**
 	 * The constant that contains the key used to store and retrieve the YouTube Channel IDs.
 	 */
 	public static final String CHANNEL_IDS = "channel_ids";
+	/**
+	 * The constant that contains the key used to store and retrieve the number of report pages to read ahead.
+	 */
+	public static final String READ_AHEAD_PAGES = "read_ahead_pages";
+	/**
+	 * The constant that contains the key used to store and retrieve the interval of the channel sync in minutes.
+	 */
+	public static final String CHANNEL_SYNC_MINUTES = "channel_sync_minutes";
+	/**
+	 * The constant that contains the key used to store and retrieve the daily quota budget of the project.
+	 */
+	public static final String QUOTA_BUDGET = "quota_budget";
+	/**
+	 * The number of days shown in the quota usage report.
+	 */
+	static final int QUOTA_REPORT_DAYS = 7;
 
 	@Override
 	protected void configure() {
 		ConfigGuiBuilder builder = builder().title("YouTube Integration Configuration");
-		builder.text("Google API Key", API_KEY, "");
+		builder.text("Google API Key(s), comma separated", API_KEY, "");
 		builder.text("Channel IDs (optional)", CHANNEL_IDS, "");
+		builder.text("Read-ahead pages (0 = disabled)", READ_AHEAD_PAGES, "0");
+		builder.text("Channel sync interval in minutes (0 = disabled)", CHANNEL_SYNC_MINUTES, "0");
+		builder.text("Daily quota budget in units (0 = unlimited)", QUOTA_BUDGET, "0");
 
 		CheckSettingsAction checkSettingsAction = new CheckSettingsAction(this);
 		builder.button("Check Settings", "check_button", checkSettingsAction, null);
 
+		builder.button("Show Quota Usage", "quota_button", new ShowQuotaUsageAction(getEnvironment().getBroker()), null);
+
 		ImportSampleSectionAction importSampleSectionAction = new ImportSampleSectionAction(getEnvironment().getBroker());
 		builder.button("Import Sample Template", "import_button", importSampleSectionAction, null);
 	}
@@ -81,7 +109,8 @@ public class YoutubeIntegrationProjectConfig extends GenericConfigPanel<ProjectE
 					if (!channelIds.isEmpty()) {
 						channelIdList = Arrays.stream(channelIds.split(",")).map(String::trim).collect(Collectors.toList());
 					}
-					new YoutubeConnector.Builder().apikey(apiKey).channels(channelIdList).checkSettings();
+					List<String> apiKeys = Arrays.stream(apiKey.split(",")).map(String::trim).filter(key -> !key.isEmpty()).collect(Collectors.toList());
+					new YoutubeConnector.Builder().apikeys(apiKeys).channels(channelIdList).checkSettings();
 					JOptionPane.showMessageDialog(null, "Connection successful!");
 				} catch (Exception e) {
 					Logging.logError(e.getMessage(), e, getClass());
@@ -91,6 +120,44 @@ public class YoutubeIntegrationProjectConfig extends GenericConfigPanel<ProjectE
 		}
 	}
 
+	/**
+	 * Action to show the quota used by all projects in the last days, the report is created on the server by the
+	 * {@link QuotaReportService}.
+	 */
+	private static class ShowQuotaUsageAction implements ExecuteAction {
+
+		private final SpecialistsBroker _broker;
+
+		/**
+		 * Instantiates a new Show quota usage action.
+		 *
+		 * @param broker the broker
+		 */
+		ShowQuotaUsageAction(SpecialistsBroker broker) {
+			_broker = broker;
+		}
+
+		/**
+		 * Shows the quota usage report.
+		 */
+		@Override
+		public void perform() {
+			try {
+				QuotaReportService service = _broker.requireSpecialist(ServicesBroker.TYPE).getService(QuotaReportService.class);
+				String report = service.createReport(QUOTA_REPORT_DAYS);
+				JTextArea textArea = new JTextArea(report);
+				textArea.setEditable(false);
+				textArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+				JScrollPane scrollPane = new JScrollPane(textArea);
+				scrollPane.setPreferredSize(new Dimension(900, 500));
+				JOptionPane.showMessageDialog(null, scrollPane, "YouTube Quota Usage", JOptionPane.INFORMATION_MESSAGE);
+			} catch (Exception e) {
+				Logging.logError(e.getMessage(), e, getClass());
+				JOptionPane.showMessageDialog(null, e.getMessage());
+			}
+		}
+	}
+
 	/**
 	 * Action to import the sample section template in the current project.
 	 * See fsm-resources/files/export_youtube_video.zip
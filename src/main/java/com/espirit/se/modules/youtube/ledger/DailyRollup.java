@@ -0,0 +1,238 @@
+package com.espirit.se.modules.youtube.ledger;
+
+import javax.annotation.Nullable;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The requests of a day recorded in the {@link QuotaLedger}, summed up per project, feature and method.
+ */
+public final class DailyRollup {
+
+	private final LocalDate _day;
+	private final Map<String, Long> _unitsByKey = new HashMap<>();
+	private final Map<List<String>, Row> _rows = new LinkedHashMap<>();
+
+	/**
+	 * @param day the day
+	 */
+	DailyRollup(final LocalDate day) {
+		_day = day;
+	}
+
+	/**
+	 * Gets the day.
+	 *
+	 * @return the day in Pacific Time
+	 */
+	public LocalDate getDay() {
+		return _day;
+	}
+
+	/**
+	 * Gets the rows, one per project, feature and method.
+	 *
+	 * @return the unmodifiable rows
+	 */
+	public List<Row> getRows() {
+		return Collections.unmodifiableList(new ArrayList<>(_rows.values()));
+	}
+
+	/**
+	 * Gets the quota units used by the api keys.
+	 *
+	 * @return the unmodifiable units by key id
+	 */
+	public Map<String, Long> getUnitsByKey() {
+		return Collections.unmodifiableMap(_unitsByKey);
+	}
+
+	/**
+	 * Gets the quota units used by the specified project.
+	 *
+	 * @param project the project, {@code null} for requests attributed to no project
+	 * @return the units
+	 */
+	public long getUnitsByProject(@Nullable final String project) {
+		return _rows.values().stream().filter(row -> Objects.equals(row._project, project)).mapToLong(Row::getUnits).sum();
+	}
+
+	/**
+	 * Gets the quota units of all requests.
+	 *
+	 * @return the units
+	 */
+	public long getUnits() {
+		return _rows.values().stream().mapToLong(Row::getUnits).sum();
+	}
+
+	/**
+	 * Gets the number of all requests.
+	 *
+	 * @return the number of requests
+	 */
+	public long getCalls() {
+		return _rows.values().stream().mapToLong(Row::getCalls).sum();
+	}
+
+	/**
+	 * Checks whether no request was recorded.
+	 *
+	 * @return true if empty
+	 */
+	public boolean isEmpty() {
+		return _rows.isEmpty();
+	}
+
+	void add(final LedgerEntry entry) {
+		_unitsByKey.merge(entry.getKeyId(), (long) entry.getUnits(), Long::sum);
+		getRow(entry.getProject(), entry.getFeature(), entry.getMethod()).add(entry);
+	}
+
+	void addUnits(final String keyId, final long units) {
+		_unitsByKey.merge(keyId, units, Long::sum);
+	}
+
+	Row getRow(@Nullable final String project, final String feature, final String method) {
+		return _rows.computeIfAbsent(Arrays.asList(project, feature, method), key -> new Row(project, feature, method));
+	}
+
+	DailyRollup copy() {
+		DailyRollup copy = new DailyRollup(_day);
+		copy._unitsByKey.putAll(_unitsByKey);
+		for (final Row row : _rows.values()) {
+			copy.getRow(row._project, row._feature, row._method).set(row._calls, row._units, row._totalLatencyMillis, row._maxLatencyMillis);
+		}
+		return copy;
+	}
+
+	/**
+	 * The requests of a project, feature and method.
+	 */
+	public static final class Row {
+
+		private final String _project;
+		private final String _feature;
+		private final String _method;
+		private final long[] _calls = new long[LedgerEntry.Outcome.values().length];
+		private long _units;
+		private long _totalLatencyMillis;
+		private int _maxLatencyMillis;
+
+		private Row(@Nullable final String project, final String feature, final String method) {
+			_project = project;
+			_feature = feature;
+			_method = method;
+		}
+
+		/**
+		 * Gets the project.
+		 *
+		 * @return the project or {@code null}
+		 */
+		@Nullable
+		public String getProject() {
+			return _project;
+		}
+
+		/**
+		 * Gets the feature.
+		 *
+		 * @return the feature
+		 */
+		public String getFeature() {
+			return _feature;
+		}
+
+		/**
+		 * Gets the api method.
+		 *
+		 * @return the method
+		 */
+		public String getMethod() {
+			return _method;
+		}
+
+		/**
+		 * Gets the number of requests.
+		 *
+		 * @return the number of requests
+		 */
+		public long getCalls() {
+			long calls = 0;
+			for (final long outcomeCalls : _calls) {
+				calls += outcomeCalls;
+			}
+			return calls;
+		}
+
+		/**
+		 * Gets the number of requests with the specified outcome.
+		 *
+		 * @param outcome the outcome
+		 * @return the number of requests
+		 */
+		public long getCalls(final LedgerEntry.Outcome outcome) {
+			return _calls[outcome.ordinal()];
+		}
+
+		/**
+		 * Gets the quota units.
+		 *
+		 * @return the units
+		 */
+		public long getUnits() {
+			return _units;
+		}
+
+		/**
+		 * Gets the average latency of the requests sent to YouTube.
+		 *
+		 * @return the latency in milliseconds, 0 without requests
+		 */
+		public double getAverageLatencyMillis() {
+			long sent = getCalls() - getCalls(LedgerEntry.Outcome.REJECTED);
+			return sent > 0 ? (double) _totalLatencyMillis / sent : 0;
+		}
+
+		/**
+		 * Gets the maximum latency.
+		 *
+		 * @return the latency in milliseconds
+		 */
+		public int getMaxLatencyMillis() {
+			return _maxLatencyMillis;
+		}
+
+		void add(final LedgerEntry entry) {
+			_calls[entry.getOutcome().ordinal()]++;
+			_units += entry.getUnits();
+			if (entry.getOutcome() != LedgerEntry.Outcome.REJECTED) {
+				_totalLatencyMillis += entry.getLatencyMillis();
+				_maxLatencyMillis = Math.max(_maxLatencyMillis, entry.getLatencyMillis());
+			}
+		}
+
+		void set(final long[] calls, final long units, final long totalLatencyMillis, final int maxLatencyMillis) {
+			System.arraycopy(calls, 0, _calls, 0, Math.min(calls.length, _calls.length));
+			_units = units;
+			_totalLatencyMillis = totalLatencyMillis;
+			_maxLatencyMillis = maxLatencyMillis;
+		}
+
+		long[] getOutcomeCalls() {
+			return _calls.clone();
+		}
+
+		long getTotalLatencyMillis() {
+			return _totalLatencyMillis;
+		}
+	}
+}
@@ -0,0 +1,139 @@
+package com.espirit.se.modules.youtube.ledger;
+
+import javax.annotation.Nullable;
+
+/**
+ * A request to the YouTube Data API recorded in the {@link QuotaLedger}.
+ */
+public final class LedgerEntry {
+
+	/**
+	 * The outcome of a request.
+	 */
+	public enum Outcome {
+		/**
+		 * YouTube answered the request.
+		 */
+		OK,
+		/**
+		 * YouTube answered a conditional request with 304.
+		 */
+		NOT_MODIFIED,
+		/**
+		 * YouTube rejected the request because the daily quota of the api key is exceeded.
+		 */
+		QUOTA_EXCEEDED,
+		/**
+		 * The request failed otherwise.
+		 */
+		FAILED,
+		/**
+		 * The request was rejected locally and never sent, it used no quota.
+		 */
+		REJECTED
+	}
+
+	private final long _time;
+	private final String _keyId;
+	private final String _project;
+	private final String _feature;
+	private final String _method;
+	private final int _units;
+	private final int _latencyMillis;
+	private final Outcome _outcome;
+
+	/**
+	 * @param time          the time of the request in milliseconds since the epoch
+	 * @param keyId         the id of the api key, never the api key itself
+	 * @param project       the project the request is attributed to, may be {@code null}
+	 * @param feature       the feature that sent the request
+	 * @param method        the api method, e.g. {@code search.list}
+	 * @param units         the quota units of the request
+	 * @param latencyMillis the latency in milliseconds
+	 * @param outcome       the outcome
+	 */
+	public LedgerEntry(final long time, final String keyId, @Nullable final String project, final String feature, final String method, final int units,
+					   final int latencyMillis, final Outcome outcome) {
+		_time = time;
+		_keyId = keyId;
+		_project = project;
+		_feature = feature;
+		_method = method;
+		_units = units;
+		_latencyMillis = latencyMillis;
+		_outcome = outcome;
+	}
+
+	/**
+	 * Gets the time of the request.
+	 *
+	 * @return the time in milliseconds since the epoch
+	 */
+	public long getTime() {
+		return _time;
+	}
+
+	/**
+	 * Gets the id of the api key.
+	 *
+	 * @return the key id
+	 */
+	public String getKeyId() {
+		return _keyId;
+	}
+
+	/**
+	 * Gets the project the request is attributed to.
+	 *
+	 * @return the project or {@code null}
+	 */
+	@Nullable
+	public String getProject() {
+		return _project;
+	}
+
+	/**
+	 * Gets the feature that sent the request.
+	 *
+	 * @return the feature
+	 */
+	public String getFeature() {
+		return _feature;
+	}
+
+	/**
+	 * Gets the api method.
+	 *
+	 * @return the method
+	 */
+	public String getMethod() {
+		return _method;
+	}
+
+	/**
+	 * Gets the quota units.
+	 *
+	 * @return the units
+	 */
+	public int getUnits() {
+		return _units;
+	}
+
+	/**
+	 * Gets the latency.
+	 *
+	 * @return the latency in milliseconds
+	 */
+	public int getLatencyMillis() {
+		return _latencyMillis;
+	}
+
+	/**
+	 * Gets the outcome.
+	 *
+	 * @return the outcome
+	 */
+	public Outcome getOutcome() {
+		return _outcome;
+	}
+}
@@ -0,0 +1,368 @@
+package com.espirit.se.modules.youtube.ledger;
+
+import de.espirit.common.base.Logging;
+
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Local ledger of the requests to the YouTube Data API.
+ * <p>
+ * Every request is appended to the entries file of its day, days are counted in Pacific Time like the quota of
+ * YouTube. A record is flushed once it is written, so the ledger survives a restart of the server; a torn record at the
+ * end of the file, e.g. after a crash, is cut off when the ledger is opened.
+ * <p>
+ * Once a day is over it is rolled up into a small rollup file per project, feature and method. The entries of a day are
+ * kept for {@value #ENTRY_RETENTION_DAYS} days, the rollups are kept for good.
+ */
+public final class QuotaLedger implements AutoCloseable {
+
+	/**
+	 * The time zone of the days.
+	 */
+	public static final ZoneId DAY_ZONE = ZoneId.of("America/Los_Angeles");
+	/**
+	 * The number of days the entries are kept after their day is rolled up.
+	 */
+	static final int ENTRY_RETENTION_DAYS = 7;
+	static final String ENTRIES_EXTENSION = ".entries";
+	static final String ROLLUP_EXTENSION = ".rollup";
+	private static final String TEMP_SUFFIX = ".tmp";
+
+	private static final int ENTRIES_MAGIC = 0x5954514C;
+	private static final int ROLLUP_MAGIC = 0x59545152;
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 8;
+
+	private static final Class<?> LOGGER = QuotaLedger.class;
+
+	private final Path _directory;
+	private LocalDate _day;
+	private DailyRollup _rollup;
+	private DataOutputStream _output;
+	private boolean _closed;
+
+	private QuotaLedger(final Path directory) {
+		_directory = directory;
+	}
+
+	/**
+	 * Opens the ledger in the specified directory, a new ledger is created if there is none.
+	 * Past days that are not rolled up yet are rolled up.
+	 *
+	 * @param directory the directory
+	 * @param clock     the clock deciding the current day
+	 * @return the ledger
+	 * @throws IOException the io exception
+	 */
+	public static QuotaLedger open(final Path directory, final Clock clock) throws IOException {
+		Files.createDirectories(directory);
+		QuotaLedger ledger = new QuotaLedger(directory);
+		LocalDate today = LocalDate.now(clock.withZone(DAY_ZONE));
+		ledger.rollUpPastDays(today);
+		ledger.openDay(today);
+		return ledger;
+	}
+
+	/**
+	 * Records the specified request. A request of a later day starts that day, a request of an earlier day is recorded
+	 * in the current day.
+	 *
+	 * @param entry the request
+	 * @throws IOException the io exception
+	 */
+	public synchronized void record(final LedgerEntry entry) throws IOException {
+		checkOpen();
+		LocalDate day = getDay(entry.getTime());
+		if (day.isAfter(_day)) {
+			_output.close();
+			rollUpPastDays(day);
+			openDay(day);
+		}
+		writeEntry(_output, entry);
+		_output.flush();
+		_rollup.add(entry);
+	}
+
+	/**
+	 * Gets the rollup of the specified day.
+	 *
+	 * @param day the day
+	 * @return the rollup, empty if nothing was recorded that day
+	 * @throws IOException the io exception
+	 */
+	public synchronized DailyRollup getRollup(final LocalDate day) throws IOException {
+		checkOpen();
+		return day.equals(_day) ? _rollup.copy() : readRollup(_directory, day);
+	}
+
+	/**
+	 * Gets the rollups of the specified days.
+	 *
+	 * @param from the first day
+	 * @param to   the last day
+	 * @return the rollups, one per day, oldest first
+	 * @throws IOException the io exception
+	 */
+	public List<DailyRollup> getRollups(final LocalDate from, final LocalDate to) throws IOException {
+		List<DailyRollup> rollups = new ArrayList<>();
+		for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+			rollups.add(getRollup(day));
+		}
+		return rollups;
+	}
+
+	/**
+	 * Gets the recorded requests of the specified day.
+	 *
+	 * @param day the day
+	 * @return the requests, empty if the entries of the day are not kept
+	 * @throws IOException the io exception
+	 */
+	public synchronized List<LedgerEntry> getEntries(final LocalDate day) throws IOException {
+		checkOpen();
+		List<LedgerEntry> entries = new ArrayList<>();
+		readEntries(getEntriesFile(_directory, day), entries::add);
+		return entries;
+	}
+
+	/**
+	 * Reads the rollup of the specified day from a ledger directory without opening the ledger, e.g. while the ledger is
+	 * open in another process. Today's rollup contains the requests flushed so far.
+	 *
+	 * @param directory the directory of the ledger
+	 * @param day       the day
+	 * @return the rollup, empty if nothing was recorded that day
+	 * @throws IOException the io exception
+	 */
+	public static DailyRollup readRollup(final Path directory, final LocalDate day) throws IOException {
+		Path rollupFile = getRollupFile(directory, day);
+		if (Files.exists(rollupFile)) {
+			return readRollupFile(rollupFile, day);
+		}
+		DailyRollup rollup = new DailyRollup(day);
+		readEntries(getEntriesFile(directory, day), rollup::add);
+		return rollup;
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (!_closed) {
+			_closed = true;
+			_output.close();
+		}
+	}
+
+	private void checkOpen() {
+		if (_closed) {
+			throw new IllegalStateException("Quota ledger closed: " + _directory);
+		}
+	}
+
+	private void openDay(final LocalDate day) throws IOException {
+		Path file = getEntriesFile(_directory, day);
+		DailyRollup rollup = new DailyRollup(day);
+		if (Files.exists(file)) {
+			long length = readEntries(file, rollup::add);
+			if (length < Files.size(file)) {
+				Logging.logWarning(String.format("Cut off %d bytes of a torn record: %s", Files.size(file) - length, file), LOGGER);
+				try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+					channel.truncate(length);
+				}
+			}
+			_output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file, StandardOpenOption.APPEND)));
+		} else {
+			_output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file, StandardOpenOption.CREATE_NEW)));
+			_output.writeInt(ENTRIES_MAGIC);
+			_output.writeInt(VERSION);
+			_output.flush();
+		}
+		_day = day;
+		_rollup = rollup;
+	}
+
+	private void rollUpPastDays(final LocalDate today) throws IOException {
+		List<LocalDate> days = new ArrayList<>();
+		try (Stream<Path> files = Files.list(_directory)) {
+			files.forEach(file -> {
+				LocalDate day = getDay(file, ENTRIES_EXTENSION);
+				if (day != null && day.isBefore(today)) {
+					days.add(day);
+				}
+			});
+		}
+		for (final LocalDate day : days) {
+			Path entriesFile = getEntriesFile(_directory, day);
+			Path rollupFile = getRollupFile(_directory, day);
+			if (!Files.exists(rollupFile)) {
+				DailyRollup rollup = new DailyRollup(day);
+				readEntries(entriesFile, rollup::add);
+				writeRollupFile(rollupFile, rollup);
+				Logging.logDebug(String.format("Rolled up %d requests of %s", rollup.getCalls(), day), LOGGER);
+			}
+			if (day.isBefore(today.minusDays(ENTRY_RETENTION_DAYS))) {
+				Files.delete(entriesFile);
+			}
+		}
+	}
+
+	private static LocalDate getDay(final long time) {
+		return Instant.ofEpochMilli(time).atZone(DAY_ZONE).toLocalDate();
+	}
+
+	@Nullable
+	private static LocalDate getDay(final Path file, final String extension) {
+		String name = file.getFileName().toString();
+		if (!name.endsWith(extension)) {
+			return null;
+		}
+		try {
+			return LocalDate.parse(name.substring(0, name.length() - extension.length()));
+		} catch (DateTimeParseException e) {
+			return null;
+		}
+	}
+
+	private static Path getEntriesFile(final Path directory, final LocalDate day) {
+		return directory.resolve(day + ENTRIES_EXTENSION);
+	}
+
+	private static Path getRollupFile(final Path directory, final LocalDate day) {
+		return directory.resolve(day + ROLLUP_EXTENSION);
+	}
+
+	private static void writeEntry(final DataOutputStream output, final LedgerEntry entry) throws IOException {
+		output.writeLong(entry.getTime());
+		output.writeUTF(entry.getKeyId());
+		writeNullable(output, entry.getProject());
+		output.writeUTF(entry.getFeature());
+		output.writeUTF(entry.getMethod());
+		output.writeInt(entry.getUnits());
+		output.writeInt(entry.getLatencyMillis());
+		output.writeByte(entry.getOutcome().ordinal());
+	}
+
+	/**
+	 * Reads the complete records of an entries file.
+	 *
+	 * @return the length of the complete records, 0 if the file does not exist
+	 */
+	private static long readEntries(final Path file, final Consumer<LedgerEntry> consumer) throws IOException {
+		if (!Files.exists(file)) {
+			return 0;
+		}
+		byte[] data = Files.readAllBytes(file);
+		DataInputStream input = new DataInputStream(new ByteArrayInputStream(data));
+		if (data.length < HEADER_SIZE || input.readInt() != ENTRIES_MAGIC || input.readInt() != VERSION) {
+			throw new IOException("No quota ledger: " + file);
+		}
+		long length = HEADER_SIZE;
+		LedgerEntry.Outcome[] outcomes = LedgerEntry.Outcome.values();
+		try {
+			while (input.available() > 0) {
+				long time = input.readLong();
+				String keyId = input.readUTF();
+				String project = readNullable(input);
+				String feature = input.readUTF();
+				String method = input.readUTF();
+				int units = input.readInt();
+				int latencyMillis = input.readInt();
+				int outcome = input.readUnsignedByte();
+				if (outcome >= outcomes.length) {
+					break;
+				}
+				consumer.accept(new LedgerEntry(time, keyId, project, feature, method, units, latencyMillis, outcomes[outcome]));
+				length = data.length - input.available();
+			}
+		} catch (EOFException e) {
+			// torn record
+		}
+		return length;
+	}
+
+	private static void writeRollupFile(final Path file, final DailyRollup rollup) throws IOException {
+		Path tempFile = file.resolveSibling(file.getFileName() + TEMP_SUFFIX);
+		try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+			output.writeInt(ROLLUP_MAGIC);
+			output.writeInt(VERSION);
+			output.writeLong(rollup.getDay().toEpochDay());
+			output.writeInt(rollup.getUnitsByKey().size());
+			for (final Map.Entry<String, Long> entry : rollup.getUnitsByKey().entrySet()) {
+				output.writeUTF(entry.getKey());
+				output.writeLong(entry.getValue());
+			}
+			List<DailyRollup.Row> rows = rollup.getRows();
+			output.writeInt(rows.size());
+			for (final DailyRollup.Row row : rows) {
+				writeNullable(output, row.getProject());
+				output.writeUTF(row.getFeature());
+				output.writeUTF(row.getMethod());
+				long[] calls = row.getOutcomeCalls();
+				output.writeInt(calls.length);
+				for (final long outcomeCalls : calls) {
+					output.writeLong(outcomeCalls);
+				}
+				output.writeLong(row.getUnits());
+				output.writeLong(row.getTotalLatencyMillis());
+				output.writeInt(row.getMaxLatencyMillis());
+			}
+		}
+		Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private static DailyRollup readRollupFile(final Path file, final LocalDate day) throws IOException {
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+			if (input.readInt() != ROLLUP_MAGIC || input.readInt() != VERSION || input.readLong() != day.toEpochDay()) {
+				throw new IOException("No quota rollup of " + day + ": " + file);
+			}
+			DailyRollup rollup = new DailyRollup(day);
+			int keys = input.readInt();
+			for (int i = 0; i < keys; i++) {
+				rollup.addUnits(input.readUTF(), input.readLong());
+			}
+			int rows = input.readInt();
+			for (int i = 0; i < rows; i++) {
+				DailyRollup.Row row = rollup.getRow(readNullable(input), input.readUTF(), input.readUTF());
+				long[] calls = new long[input.readInt()];
+				for (int j = 0; j < calls.length; j++) {
+					calls[j] = input.readLong();
+				}
+				row.set(calls, input.readLong(), input.readLong(), input.readInt());
+			}
+			return rollup;
+		}
+	}
+
+	private static void writeNullable(final DataOutputStream output, @Nullable final String value) throws IOException {
+		output.writeBoolean(value != null);
+		if (value != null) {
+			output.writeUTF(value);
+		}
+	}
+
+	@Nullable
+	private static String readNullable(final DataInputStream input) throws IOException {
+		return input.readBoolean() ? input.readUTF() : null;
+	}
+}
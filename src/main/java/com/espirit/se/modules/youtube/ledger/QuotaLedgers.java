@@ -0,0 +1,112 @@
+package com.espirit.se.modules.youtube.ledger;
+
+import de.espirit.common.base.Logging;
+
+import com.espirit.se.modules.youtube.catalog.VideoCatalogs;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Registry of the quota ledger of the server, it is kept in the ledger directory of the
+ * {@link VideoCatalogs#getDataDirectory() data directory}. Requests are only recorded while the ledger is open.
+ */
+public final class QuotaLedgers {
+
+	private static final Class<?> LOGGER = QuotaLedgers.class;
+	private static volatile QuotaLedger _ledger;
+
+	private QuotaLedgers() {
+		throw new IllegalStateException("Utility class");
+	}
+
+	/**
+	 * Gets the directory of the ledger.
+	 *
+	 * @return the directory
+	 */
+	public static Path getDirectory() {
+		return VideoCatalogs.getDataDirectory().resolve("ledger");
+	}
+
+	/**
+	 * Opens the ledger, unless it is open already.
+	 *
+	 * @return the ledger or {@code null} if it cannot be opened
+	 */
+	@Nullable
+	public static synchronized QuotaLedger open() {
+		if (_ledger == null) {
+			Path directory = getDirectory();
+			try {
+				_ledger = QuotaLedger.open(directory, Clock.systemUTC());
+				Logging.logInfo("Opened quota ledger " + directory, LOGGER);
+			} catch (IOException | RuntimeException e) {
+				Logging.logError("Unable to open the quota ledger " + directory, e, LOGGER);
+			}
+		}
+		return _ledger;
+	}
+
+	/**
+	 * Gets the open ledger.
+	 *
+	 * @return the ledger or {@code null} if it is not open
+	 */
+	@Nullable
+	public static QuotaLedger get() {
+		return _ledger;
+	}
+
+	/**
+	 * Records the specified request if the ledger is open.
+	 *
+	 * @param entry the request
+	 */
+	public static void record(final LedgerEntry entry) {
+		QuotaLedger ledger = _ledger;
+		if (ledger == null) {
+			return;
+		}
+		try {
+			ledger.record(entry);
+		} catch (IOException | IllegalStateException e) {
+			Logging.logWarning("Unable to record a request in the quota ledger", e, LOGGER);
+		}
+	}
+
+	/**
+	 * Gets the rollups of the specified days from the open ledger.
+	 *
+	 * @param from the first day
+	 * @param to   the last day
+	 * @return the rollups, one per day, oldest first
+	 * @throws IOException           the io exception
+	 * @throws IllegalStateException if the ledger is not open in this process
+	 */
+	public static List<DailyRollup> getRollups(final LocalDate from, final LocalDate to) throws IOException {
+		QuotaLedger ledger = _ledger;
+		if (ledger == null) {
+			throw new IllegalStateException("The quota ledger is not open");
+		}
+		return ledger.getRollups(from, to);
+	}
+
+	/**
+	 * Closes the ledger.
+	 */
+	public static synchronized void close() {
+		if (_ledger != null) {
+			try {
+				_ledger.close();
+			} catch (IOException e) {
+				Logging.logError("Unable to close the quota ledger", e, LOGGER);
+			}
+			_ledger = null;
+		}
+	}
+}
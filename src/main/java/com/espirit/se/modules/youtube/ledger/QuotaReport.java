@@ -0,0 +1,80 @@
+package com.espirit.se.modules.youtube.ledger;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Formats the rollups of the {@link QuotaLedger} as a plain text report: the quota used per project and feature over
+ * all days and the requests of every day per project, feature and method.
+ */
+public final class QuotaReport {
+
+	private static final String NO_PROJECT = "(none)";
+
+	private QuotaReport() {
+		throw new IllegalStateException("Utility class");
+	}
+
+	/**
+	 * Creates the report of the specified rollups.
+	 *
+	 * @param rollups    the rollups, oldest first
+	 * @param dailyLimit the daily quota of an api key in units
+	 * @return the report
+	 */
+	public static String create(final List<DailyRollup> rollups, final long dailyLimit) {
+		if (rollups.isEmpty()) {
+			return "No quota recorded";
+		}
+		StringBuilder report = new StringBuilder();
+		report.append(String.format(Locale.ROOT, "Quota usage %s to %s%n", rollups.get(0).getDay(), rollups.get(rollups.size() - 1).getDay()));
+		DailyRollup peak = rollups.stream().max(Comparator.comparingLong(DailyRollup::getUnits)).orElseThrow();
+		long units = rollups.stream().mapToLong(DailyRollup::getUnits).sum();
+		long calls = rollups.stream().mapToLong(DailyRollup::getCalls).sum();
+		report.append(String.format(Locale.ROOT, "Total: %d units in %d requests%n", units, calls));
+		if (peak.getUnits() > 0) {
+			int keys = Math.max(1, peak.getUnitsByKey().size());
+			report.append(String.format(Locale.ROOT, "Peak: %d units on %s, %.0f %% of the daily quota of %d api key(s)%n", peak.getUnits(), peak.getDay(),
+										100.0 * peak.getUnits() / (dailyLimit * keys), keys));
+		}
+		appendTotals(report, "Projects", rollups, row -> row.getProject() != null ? row.getProject() : NO_PROJECT);
+		appendTotals(report, "Features", rollups, DailyRollup.Row::getFeature);
+		for (int i = rollups.size() - 1; i >= 0; i--) {
+			DailyRollup rollup = rollups.get(i);
+			if (rollup.isEmpty()) {
+				continue;
+			}
+			report.append(String.format(Locale.ROOT, "%n%s: %d units in %d requests%n", rollup.getDay(), rollup.getUnits(), rollup.getCalls()));
+			report.append(String.format(Locale.ROOT, "  %-20s %-12s %-20s %8s %8s %8s %8s %8s %8s%n", "Project", "Feature", "Method", "Requests", "Units", "Failed",
+										"Quota", "Avg ms", "Max ms"));
+			rollup.getRows().stream().sorted(Comparator.comparingLong(DailyRollup.Row::getUnits).reversed()).forEach(
+					row -> report.append(String.format(Locale.ROOT, "  %-20s %-12s %-20s %8d %8d %8d %8d %8.0f %8d%n",
+													   row.getProject() != null ? row.getProject() : NO_PROJECT, row.getFeature(), row.getMethod(), row.getCalls(),
+													   row.getUnits(), row.getCalls(LedgerEntry.Outcome.FAILED) + row.getCalls(LedgerEntry.Outcome.REJECTED),
+													   row.getCalls(LedgerEntry.Outcome.QUOTA_EXCEEDED), row.getAverageLatencyMillis(), row.getMaxLatencyMillis())));
+		}
+		return report.toString();
+	}
+
+	private static void appendTotals(final StringBuilder report, final String title, final List<DailyRollup> rollups, final Function<DailyRollup.Row, String> group) {
+		Map<String, long[]> totals = new TreeMap<>();
+		for (final DailyRollup rollup : rollups) {
+			for (final DailyRollup.Row row : rollup.getRows()) {
+				long[] total = totals.computeIfAbsent(group.apply(row), key -> new long[2]);
+				total[0] += row.getUnits();
+				total[1] += row.getCalls();
+			}
+		}
+		if (totals.isEmpty()) {
+			return;
+		}
+		report.append(String.format(Locale.ROOT, "%n%s%n", title));
+		// most units first
+		totals.entrySet().stream().sorted((first, second) -> Long.compare(second.getValue()[0], first.getValue()[0])).forEach(
+				entry -> report.append(String.format(Locale.ROOT, "  %-20s %8d units %8d requests%n", entry.getKey(), entry.getValue()[0], entry.getValue()[1])));
+	}
+}
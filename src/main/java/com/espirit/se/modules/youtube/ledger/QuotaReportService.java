@@ -0,0 +1,19 @@
+package com.espirit.se.modules.youtube.ledger;
+
+import java.io.IOException;
+
+/**
+ * Service that creates the {@link QuotaReport} of the quota ledger of the server, clients like the project configuration
+ * have no access to the ledger.
+ */
+public interface QuotaReportService {
+
+	/**
+	 * Creates the report of the last days including today.
+	 *
+	 * @param days the number of days
+	 * @return the report
+	 * @throws IOException the io exception
+	 */
+	String createReport(int days) throws IOException;
+}
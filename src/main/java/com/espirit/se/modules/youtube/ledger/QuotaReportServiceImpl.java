@@ -0,0 +1,74 @@
+package com.espirit.se.modules.youtube.ledger;
+
+import de.espirit.firstspirit.module.ServerEnvironment;
+import de.espirit.firstspirit.module.Service;
+import de.espirit.firstspirit.module.ServiceProxy;
+import de.espirit.firstspirit.module.descriptor.ServiceDescriptor;
+
+import com.espirit.moddev.components.annotations.ServiceComponent;
+import com.espirit.se.modules.youtube.connector.YoutubeQuota;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * The FirstSpirit service that creates the quota report on the server, see {@link QuotaReportService}.
+ */
+@ServiceComponent(name = "YoutubeQuotaReportService",
+		displayName = "Youtube Quota Report Service",
+		description = "Creates the report of the quota used by all projects.")
+public class QuotaReportServiceImpl implements QuotaReportService, Service<QuotaReportService> {
+
+	private volatile boolean _running;
+
+	@Override
+	public String createReport(final int days) throws IOException {
+		LocalDate today = LocalDate.now(QuotaLedger.DAY_ZONE);
+		return QuotaReport.create(QuotaLedgers.getRollups(today.minusDays(days - 1L), today), YoutubeQuota.DAILY_LIMIT);
+	}
+
+	@Override
+	public void start() {
+		_running = true;
+	}
+
+	@Override
+	public void stop() {
+		_running = false;
+	}
+
+	@Override
+	public boolean isRunning() {
+		return _running;
+	}
+
+	@Override
+	public Class<? extends QuotaReportService> getServiceInterface() {
+		return QuotaReportService.class;
+	}
+
+	@Override
+	public Class<? extends ServiceProxy<QuotaReportService>> getProxyClass() {
+		return null;
+	}
+
+	@Override
+	public void init(final ServiceDescriptor descriptor, final ServerEnvironment environment) {
+		// Nothing needs to be done here, the ledger is opened by the module
+	}
+
+	@Override
+	public void installed() {
+		// Nothing needs to be done here
+	}
+
+	@Override
+	public void uninstalling() {
+		// Nothing needs to be done here
+	}
+
+	@Override
+	public void updated(final String oldVersion) {
+		// Nothing needs to be done here
+	}
+}
@@ -0,0 +1,47 @@
+package com.espirit.se.modules.youtube.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FrequencySketchTest {
+
+	@Test
+	void frequency_INCREMENTED() {
+		FrequencySketch sketch = new FrequencySketch(512);
+
+		for (int i = 0; i < 5; i++) {
+			sketch.increment("key");
+		}
+
+		assertEquals(5, sketch.frequency("key"));
+		assertEquals(0, sketch.frequency("other"));
+	}
+
+	@Test
+	void frequency_LIMITED() {
+		FrequencySketch sketch = new FrequencySketch(512);
+
+		for (int i = 0; i < 100; i++) {
+			sketch.increment("key");
+		}
+
+		assertEquals(15, sketch.frequency("key"));
+	}
+
+	@Test
+	void frequency_AGED() {
+		FrequencySketch sketch = new FrequencySketch(64);
+		for (int i = 0; i < 8; i++) {
+			sketch.increment("key");
+		}
+
+		// reaching the sample size halves all counters
+		for (int i = 0; i < 640; i++) {
+			sketch.increment(i);
+		}
+
+		assertTrue(sketch.frequency("key") <= 4, "frequency: " + sketch.frequency("key"));
+	}
+}
@@ -0,0 +1,175 @@
+package com.espirit.se.modules.youtube.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WTinyLfuCacheTest {
+
+	private final AtomicLong _time = new AtomicLong();
+
+	@Test
+	void get_PUT_VALUE() {
+		WTinyLfuCache<String, String> cache = createCache(10, Duration.ofMinutes(1));
+
+		cache.put("key", "value");
+
+		assertEquals("value", cache.get("key"));
+		assertNull(cache.get("other"));
+		assertEquals(1, cache.stats().getHitCount());
+		assertEquals(1, cache.stats().getMissCount());
+		assertEquals(0.5, cache.stats().getHitRate());
+	}
+
+	@Test
+	void get_EXPIRED() {
+		WTinyLfuCache<String, String> cache = createCache(10, Duration.ofMinutes(1));
+		cache.put("key", "value");
+
+		_time.addAndGet(Duration.ofSeconds(59).toNanos());
+		assertEquals("value", cache.get("key"));
+
+		_time.addAndGet(Duration.ofSeconds(1).toNanos());
+		assertNull(cache.get("key"));
+		assertEquals(Map.of("key", "value"), cache.getAllExpired(List.of("key", "other")));
+
+		cache.put("key", "revalidated");
+		assertEquals("revalidated", cache.get("key"));
+		assertTrue(cache.getAllExpired(List.of("key")).isEmpty());
+	}
+
+	@Test
+	void containsKey_NO_ACCESS() {
+		WTinyLfuCache<String, String> cache = createCache(10, Duration.ofMinutes(1));
+		cache.put("key", "value");
+
+		assertTrue(cache.containsKey("key"));
+		assertFalse(cache.containsKey("other"));
+		assertEquals(0, cache.stats().getHitCount() + cache.stats().getMissCount());
+
+		_time.addAndGet(Duration.ofMinutes(1).toNanos());
+		assertFalse(cache.containsKey("key"));
+	}
+
+	@Test
+	void getAllExpired_MAX_STALENESS() {
+		WTinyLfuCache<String, String> cache = createCache(10, Duration.ofMinutes(1));
+		cache.put("key", "value");
+
+		_time.addAndGet(Duration.ofMinutes(2).toNanos());
+		assertEquals(Map.of("key", "value"), cache.getAllExpired(List.of("key"), Duration.ofMinutes(1)));
+
+		_time.incrementAndGet();
+		assertTrue(cache.getAllExpired(List.of("key"), Duration.ofMinutes(1)).isEmpty());
+		assertEquals(Map.of("key", "value"), cache.getAllExpired(List.of("key")));
+	}
+
+	@Test
+	void put_WITH_AGE() {
+		WTinyLfuCache<String, String> cache = createCache(10, Duration.ofMinutes(1));
+
+		cache.put("young", "value", Duration.ofSeconds(30));
+		cache.put("old", "value", Duration.ofMinutes(2));
+
+		assertEquals("value", cache.get("young"));
+		assertNull(cache.get("old"));
+		assertEquals(Map.of("old", "value"), cache.getAllExpired(List.of("young", "old"), Duration.ofMinutes(1)));
+		_time.addAndGet(Duration.ofSeconds(30).toNanos());
+		assertNull(cache.get("young"));
+	}
+
+	@Test
+	void put_SIZE_BOUNDED() {
+		WTinyLfuCache<Integer, Integer> cache = createCache(100, Duration.ofMinutes(1));
+
+		for (int i = 0; i < 1000; i++) {
+			cache.put(i, i);
+		}
+
+		assertEquals(100, cache.size());
+		assertEquals(900, cache.stats().getEvictionCount());
+	}
+
+	@Test
+	void put_FREQUENT_ENTRIES_SURVIVE_SCAN() {
+		WTinyLfuCache<Integer, Integer> cache = createCache(100, Duration.ofMinutes(1));
+		for (int i = 0; i < 50; i++) {
+			cache.put(i, i);
+		}
+		// moves the last popular key out of the window
+		cache.put(-1, -1);
+		for (int round = 0; round < 5; round++) {
+			for (int i = 0; i < 50; i++) {
+				assertNotNull(cache.get(i));
+			}
+		}
+
+		// a scan of keys accessed only once must not replace the popular keys
+		for (int i = 1000; i < 3000; i++) {
+			cache.get(i);
+			cache.put(i, i);
+		}
+
+		for (int i = 0; i < 50; i++) {
+			assertEquals(i, cache.get(i));
+		}
+		assertEquals(100, cache.size());
+	}
+
+	@Test
+	void getAll_LOADS_MISSING_KEYS_ONLY() {
+		WTinyLfuCache<String, String> cache = createCache(10, Duration.ofMinutes(1));
+		cache.put("cached", "cached value");
+		Map<Set<String>, Integer> loads = new HashMap<>();
+
+		Map<String, String> values = cache.getAll(List.of("cached", "loaded", "unknown", "loaded"), keys -> {
+			loads.merge(keys, 1, Integer::sum);
+			return Map.of("loaded", "loaded value");
+		});
+
+		assertEquals(Map.of(Set.of("loaded", "unknown"), 1), loads);
+		assertEquals(Map.of("cached", "cached value", "loaded", "loaded value"), values);
+		assertEquals("loaded value", cache.get("loaded"));
+		assertNull(cache.get("unknown"));
+	}
+
+	@Test
+	void invalidate() {
+		WTinyLfuCache<String, String> cache = createCache(10, Duration.ofMinutes(1));
+		cache.put("key", "value");
+		cache.put("other", "value");
+
+		cache.invalidate("key");
+		assertNull(cache.get("key"));
+		assertEquals(1, cache.size());
+
+		cache.invalidateAll();
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	void constructor_INVALID_SIZE() {
+		assertThrows(IllegalArgumentException.class, () -> createCache(0, Duration.ofMinutes(1)));
+	}
+
+	@Test
+	void stats_NO_REQUESTS() {
+		assertTrue(createCache(1, Duration.ofMinutes(1)).stats().getHitRate() >= 1.0);
+	}
+
+	private <K, V> WTinyLfuCache<K, V> createCache(final long maximumSize, final Duration ttl) {
+		return new WTinyLfuCache<>(maximumSize, ttl, _time::get);
+	}
+}
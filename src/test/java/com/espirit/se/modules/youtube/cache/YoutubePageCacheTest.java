@@ -0,0 +1,48 @@
+package com.espirit.se.modules.youtube.cache;
+
+import com.google.api.services.youtube.model.SearchListResponse;
+import com.google.api.services.youtube.model.SearchResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class YoutubePageCacheTest {
+
+	@AfterEach
+	void tearDown() {
+		YoutubePageCache.clear();
+	}
+
+	@Test
+	void get_COPY_OF_PAGE() {
+		List<SearchResult> items = new ArrayList<>(List.of(new SearchResult().setEtag("etag")));
+		SearchListResponse page = new SearchListResponse().setNextPageToken("token").setItems(items);
+
+		YoutubePageCache.put("key", page);
+		page.getItems().clear();
+		SearchListResponse cachedPage = YoutubePageCache.get("key");
+
+		assertEquals("token", cachedPage.getNextPageToken());
+		assertEquals(1, cachedPage.getItems().size());
+		assertNotSame(cachedPage, YoutubePageCache.get("key"));
+	}
+
+	@Test
+	void get_NOT_CACHED() {
+		assertNull(YoutubePageCache.get("key"));
+	}
+
+	@Test
+	void normalizeQuery_OR_OPERATOR_KEPT() {
+		assertEquals("news today", YoutubePageCache.normalizeQuery("  News \t TODAY "));
+		assertEquals("news OR sports", YoutubePageCache.normalizeQuery("News OR Sports"));
+		assertEquals("news or sports", YoutubePageCache.normalizeQuery("news or sports"));
+		assertEquals("news | sports", YoutubePageCache.normalizeQuery("News | Sports"));
+	}
+}
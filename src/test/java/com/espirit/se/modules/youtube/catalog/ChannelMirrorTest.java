@@ -0,0 +1,78 @@
+package com.espirit.se.modules.youtube.catalog;
+
+import com.espirit.se.modules.youtube.YoutubeVideo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChannelMirrorTest {
+
+	@TempDir
+	Path _directory;
+
+	@Test
+	void open_NEW_MIRROR_EMPTY() throws IOException {
+		ChannelMirror mirror = ChannelMirror.open("channel", _directory.resolve("channel.uploads"));
+
+		assertTrue(mirror.getVideos().isEmpty());
+		assertFalse(mirror.isComplete());
+		assertNull(mirror.getEtag());
+	}
+
+	@Test
+	void open_SAVED() throws IOException {
+		Path file = _directory.resolve("channels").resolve("channel.uploads");
+		ChannelMirror mirror = ChannelMirror.open("channel", file);
+		mirror.replace(List.of(createVideo("second"), createVideo("first")), "etag", 42);
+		mirror.save();
+
+		ChannelMirror openedMirror = ChannelMirror.open("channel", file);
+
+		assertEquals(List.of("second", "first"), getIds(openedMirror));
+		assertEquals("Video first", openedMirror.getVideos().get(1).getTitle());
+		assertEquals("https://i.ytimg.com/vi/first/hqdefault.jpg", openedMirror.getVideos().get(1).getPosterUrl());
+		assertEquals("etag", openedMirror.getEtag());
+		assertEquals(42, openedMirror.getFullSyncAt());
+		assertTrue(openedMirror.isComplete());
+		assertTrue(openedMirror.contains("first"));
+	}
+
+	@Test
+	void open_OTHER_CHANNEL() throws IOException {
+		Path file = _directory.resolve("channel.uploads");
+		ChannelMirror.open("channel", file).save();
+
+		assertThrows(IOException.class, () -> ChannelMirror.open("other", file));
+	}
+
+	@Test
+	void prepend_UPLOADS_FIRST() throws IOException {
+		ChannelMirror mirror = ChannelMirror.open("channel", _directory.resolve("channel.uploads"));
+		mirror.replace(List.of(createVideo("second"), createVideo("first")), "etag", 42);
+
+		mirror.prepend(List.of(createVideo("third"), createVideo("second")), "new etag");
+
+		assertEquals(List.of("third", "second", "first"), getIds(mirror));
+		assertEquals("new etag", mirror.getEtag());
+		assertEquals(42, mirror.getFullSyncAt());
+	}
+
+	private static List<String> getIds(final ChannelMirror mirror) {
+		return mirror.getVideos().stream().map(YoutubeVideo::getId).collect(Collectors.toList());
+	}
+
+	private static YoutubeVideo createVideo(final String id) {
+		return new YoutubeVideo(id, "Video " + id, "Description of " + id, "https://i.ytimg.com/vi/" + id + "/default.jpg",
+								"https://i.ytimg.com/vi/" + id + "/hqdefault.jpg");
+	}
+}
@@ -0,0 +1,177 @@
+package com.espirit.se.modules.youtube.catalog;
+
+import com.espirit.se.modules.youtube.YoutubeVideo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VideoCatalogTest {
+
+	@TempDir
+	Path _directory;
+
+	@Test
+	void get_PUT_VIDEO() throws IOException {
+		try (VideoCatalog catalog = VideoCatalog.open(_directory)) {
+			catalog.put(createVideo("first", "etag"), 42);
+
+			YoutubeVideo video = catalog.get("first");
+			assertEquals("first", video.getId());
+			assertEquals("Video first", video.getTitle());
+			assertEquals("Description of first", video.getDescription());
+			assertEquals("https://i.ytimg.com/vi/first/default.jpg", video.getThumbnailUrl());
+			assertEquals("https://i.ytimg.com/vi/first/hqdefault.jpg", video.getPosterUrl());
+			assertEquals("etag", video.getEtag());
+			assertEquals(42, catalog.getEntry("first").getUpdatedAt());
+			assertNull(catalog.get("other"));
+			assertEquals(1, catalog.size());
+		}
+	}
+
+	@Test
+	void open_PERSISTED() throws IOException {
+		try (VideoCatalog catalog = VideoCatalog.open(_directory)) {
+			for (int i = 0; i < 5000; i++) {
+				catalog.put(createVideo("video" + i, null), i);
+			}
+			catalog.put(createVideo("video7", "replaced"), 7);
+			catalog.remove("video8");
+		}
+
+		try (VideoCatalog catalog = VideoCatalog.open(_directory)) {
+			assertEquals(4999, catalog.size());
+			assertEquals("video4999", catalog.get("video4999").getId());
+			assertNull(catalog.get("video4999").getEtag());
+			assertEquals("replaced", catalog.get("video7").getEtag());
+			assertNull(catalog.get("video8"));
+			Map<String, VideoCatalog.Entry> entries = catalog.getEntries(List.of("video1", "video8", "unknown"));
+			assertEquals(1, entries.size());
+			assertEquals(1, entries.get("video1").getUpdatedAt());
+		}
+	}
+
+	@Test
+	void open_UNCLEAN_INDEX_REBUILT() throws IOException {
+		VideoCatalog crashedCatalog = VideoCatalog.open(_directory);
+		crashedCatalog.put(createVideo("first", null), 1);
+		crashedCatalog.put(createVideo("second", null), 2);
+		crashedCatalog.remove("first");
+		crashedCatalog.flush();
+		// a torn record at the end of the data file
+		try (FileChannel data = FileChannel.open(_directory.resolve(VideoCatalog.DATA_FILE), StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+			data.write(ByteBuffer.wrap(new byte[]{0, 0, 1, 0, 1, 2, 3}));
+		}
+		long tornLength = Files.size(_directory.resolve(VideoCatalog.DATA_FILE));
+
+		try (VideoCatalog catalog = VideoCatalog.open(_directory)) {
+			assertEquals(1, catalog.size());
+			assertNull(catalog.get("first"));
+			assertEquals("second", catalog.get("second").getId());
+			assertEquals(tornLength - 7, catalog.getDataLength());
+			catalog.put(createVideo("third", null), 3);
+			assertEquals("third", catalog.get("third").getId());
+		}
+	}
+
+	@Test
+	void open_CHECKPOINTED_NOT_REBUILT() throws IOException {
+		VideoCatalog crashedCatalog = VideoCatalog.open(_directory);
+		crashedCatalog.put(createVideo("first", null), 1);
+		assertFalse(crashedCatalog.isClean());
+		crashedCatalog.checkpoint();
+		assertTrue(crashedCatalog.isClean());
+		crashedCatalog.put(createVideo("second", null), 2);
+		assertFalse(crashedCatalog.isClean());
+		crashedCatalog.checkpoint();
+
+		try (VideoCatalog catalog = VideoCatalog.open(_directory)) {
+			assertTrue(catalog.isClean());
+			assertEquals(2, catalog.size());
+			assertEquals("second", catalog.get("second").getId());
+		}
+	}
+
+	@Test
+	void open_INDEX_MISSING_REBUILT() throws IOException {
+		try (VideoCatalog catalog = VideoCatalog.open(_directory)) {
+			catalog.put(createVideo("first", null), 1);
+		}
+		Files.delete(_directory.resolve(VideoCatalog.INDEX_FILE));
+
+		try (VideoCatalog catalog = VideoCatalog.open(_directory)) {
+			assertEquals("first", catalog.get("first").getId());
+		}
+	}
+
+	@Test
+	void compact_GARBAGE_REMOVED() throws IOException {
+		try (VideoCatalog catalog = VideoCatalog.open(_directory)) {
+			for (int round = 0; round < 3; round++) {
+				for (int i = 0; i < 1000; i++) {
+					catalog.put(createVideo("video" + i, "etag" + round), round);
+				}
+			}
+			for (int i = 0; i < 500; i++) {
+				catalog.remove("video" + i);
+			}
+			long dataLength = catalog.getDataLength();
+			assertTrue(catalog.getGarbage() > dataLength / 2);
+
+			catalog.compact();
+
+			assertEquals(500, catalog.size());
+			assertEquals(0, catalog.getGarbage());
+			assertTrue(catalog.getDataLength() < dataLength / 5, "data length: " + catalog.getDataLength());
+			assertNull(catalog.get("video1"));
+			assertEquals("etag2", catalog.get("video999").getEtag());
+			catalog.put(createVideo("video1", null), 3);
+		}
+
+		try (VideoCatalog catalog = VideoCatalog.open(_directory)) {
+			assertEquals(501, catalog.size());
+			assertEquals("video1", catalog.get("video1").getId());
+		}
+	}
+
+	@Test
+	void forEach_ALL_VIDEOS() throws IOException {
+		try (VideoCatalog catalog = VideoCatalog.open(_directory)) {
+			catalog.put(createVideo("first", null), 1);
+			catalog.put(createVideo("second", null), 2);
+			catalog.remove("first");
+
+			List<String> videoIds = new ArrayList<>();
+			catalog.forEach(entry -> videoIds.add(entry.getVideo().getId()));
+
+			assertEquals(List.of("second"), videoIds);
+		}
+	}
+
+	@Test
+	void get_CLOSED() throws IOException {
+		VideoCatalog catalog = VideoCatalog.open(_directory);
+		catalog.close();
+
+		assertThrows(IllegalStateException.class, () -> catalog.get("first"));
+	}
+
+	private static YoutubeVideo createVideo(final String id, final String etag) {
+		return new YoutubeVideo(id, "Video " + id, "Description of " + id, "https://i.ytimg.com/vi/" + id + "/default.jpg",
+								"https://i.ytimg.com/vi/" + id + "/hqdefault.jpg", etag);
+	}
+}
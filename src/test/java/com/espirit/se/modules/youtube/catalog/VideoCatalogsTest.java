@@ -0,0 +1,59 @@
+package com.espirit.se.modules.youtube.catalog;
+
+import com.espirit.se.modules.youtube.YoutubeVideo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VideoCatalogsTest {
+
+	@TempDir
+	Path _directory;
+
+	@BeforeEach
+	void setUp() {
+		System.setProperty(VideoCatalogs.DATA_DIRECTORY_PROPERTY, _directory.toString());
+	}
+
+	@AfterEach
+	void tearDown() {
+		VideoCatalogs.closeAll();
+		System.clearProperty(VideoCatalogs.DATA_DIRECTORY_PROPERTY);
+	}
+
+	@Test
+	void checkpointAll_CLEAN() {
+		VideoCatalog catalog = VideoCatalogs.forProject(1);
+		catalog.put(createVideo("first", null), 1);
+
+		VideoCatalogs.checkpointAll();
+
+		assertTrue(catalog.isClean());
+		assertEquals("first", catalog.get("first").getId());
+	}
+
+	@Test
+	void checkpointAll_GARBAGE_COMPACTED() {
+		VideoCatalog catalog = VideoCatalogs.forProject(1);
+		for (int round = 0; round < 3; round++) {
+			catalog.put(createVideo("first", "etag" + round), round);
+		}
+
+		VideoCatalogs.checkpointAll();
+
+		assertEquals(0, catalog.getGarbage());
+		assertTrue(catalog.isClean());
+		assertEquals("etag2", catalog.get("first").getEtag());
+	}
+
+	private static YoutubeVideo createVideo(final String id, final String etag) {
+		return new YoutubeVideo(id, "Video " + id, "Description of " + id, "https://i.ytimg.com/vi/" + id + "/default.jpg",
+								"https://i.ytimg.com/vi/" + id + "/hqdefault.jpg", etag);
+	}
+}
@@ -0,0 +1,135 @@
+package com.espirit.se.modules.youtube.catalog;
+
+import com.espirit.se.modules.youtube.YoutubeVideo;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VideoIndexTest {
+
+	@Test
+	void tokenize() {
+		assertEquals(List.of("creme", "brulee", "in", "3", "steps"), VideoIndex.tokenize("Crème-Brûlée in 3 steps!"));
+		assertEquals(List.of("firstspirit", "dap"), VideoIndex.tokenize("  FirstSpirit / DAP  "));
+		assertTrue(VideoIndex.tokenize(null).isEmpty());
+	}
+
+	@Test
+	void search_RANKED() {
+		VideoIndex index = new VideoIndex();
+		index.put("channel", createVideo("description", "Cooking basics", "How to make a cake"));
+		index.put("channel", createVideo("title", "Cake recipe", "Baking for beginners"));
+		index.put("channel", createVideo("both", "Cake", "The best cake ever, cake cake cake"));
+		index.put("channel", createVideo("other", "Gardening", "Plants and flowers"));
+
+		assertEquals(List.of("both", "title", "description"), search(index, "CAKE", null));
+		assertEquals("title", search(index, "cake recipe", null).get(0));
+		assertEquals("title", search(index, "baking recipe", null).get(0));
+		assertTrue(search(index, "unknown", null).isEmpty());
+		assertTrue(search(index, " ", null).isEmpty());
+	}
+
+	@Test
+	void search_RARE_TERMS_PREFERRED() {
+		VideoIndex index = new VideoIndex();
+		for (int i = 0; i < 20; i++) {
+			index.put("channel", createVideo("video" + i, "Tutorial " + i, "A tutorial"));
+		}
+		index.put("channel", createVideo("rare", "Tutorial", "Kubernetes"));
+
+		assertEquals("rare", search(index, "tutorial kubernetes", null).get(0));
+	}
+
+	@Test
+	void search_CHANNELS_RESTRICTED() {
+		VideoIndex index = new VideoIndex();
+		index.put("first", createVideo("first-video", "News", ""));
+		index.put("second", createVideo("second-video", "News", ""));
+		index.put("third", createVideo("third-video", "News", ""));
+
+		assertEquals(List.of("first-video", "third-video"), search(index, "news", List.of("first", "third")));
+		assertTrue(search(index, "news", List.of("unknown")).isEmpty());
+		assertEquals(3, search(index, "news", null).size());
+	}
+
+	@Test
+	void search_LIMITED() {
+		VideoIndex index = new VideoIndex();
+		for (int i = 0; i < 10; i++) {
+			index.put("channel", createVideo("video" + i, "News", ""));
+		}
+
+		// equally ranked videos in the order of indexing
+		assertEquals(List.of("video0", "video1", "video2"), search(index, "news", null, 3));
+	}
+
+	@Test
+	void put_REPLACED() {
+		VideoIndex index = new VideoIndex();
+		index.put("channel", createVideo("video", "Old title", ""));
+
+		index.put("channel", createVideo("video", "New title", ""));
+
+		assertEquals(1, index.size());
+		assertTrue(search(index, "old", null).isEmpty());
+		assertEquals(List.of("video"), search(index, "new", null));
+	}
+
+	@Test
+	void remove() {
+		VideoIndex index = new VideoIndex();
+		index.put("channel", createVideo("first", "News", ""));
+		index.put("channel", createVideo("second", "News", ""));
+
+		index.remove("first");
+
+		assertEquals(1, index.size());
+		assertEquals(List.of("second"), search(index, "news", null));
+	}
+
+	@Test
+	void replaceChannel() {
+		VideoIndex index = new VideoIndex();
+		index.put("channel", createVideo("removed", "News", ""));
+		index.put("channel", createVideo("kept", "News", ""));
+		index.put("other", createVideo("other", "News", ""));
+
+		index.replaceChannel("channel", List.of(createVideo("kept", "News", ""), createVideo("added", "News", "")));
+
+		assertEquals(List.of("other", "kept", "added"), search(index, "news", null));
+	}
+
+	@Test
+	void putAll_REBUILT() {
+		VideoIndex index = new VideoIndex();
+		List<YoutubeVideo> videos = new ArrayList<>();
+		for (int i = 0; i < 3000; i++) {
+			videos.add(createVideo("video" + i, "Video " + i, i % 2 == 0 ? "even" : "odd"));
+		}
+		// every update deletes the previous version of the videos
+		for (int round = 0; round < 3; round++) {
+			index.putAll("channel", videos);
+		}
+
+		assertEquals(3000, index.size());
+		assertEquals(1500, search(index, "even", null, 5000).size());
+		assertEquals(List.of("video42"), search(index, "42", null));
+	}
+
+	private static List<String> search(final VideoIndex index, final String query, final List<String> channelIds) {
+		return search(index, query, channelIds, 100);
+	}
+
+	private static List<String> search(final VideoIndex index, final String query, final List<String> channelIds, final int limit) {
+		return index.search(query, channelIds, limit).stream().map(YoutubeVideo::getId).collect(Collectors.toList());
+	}
+
+	private static YoutubeVideo createVideo(final String id, final String title, final String description) {
+		return new YoutubeVideo(id, title, description, "https://i.ytimg.com/vi/" + id + "/default.jpg", "https://i.ytimg.com/vi/" + id + "/hqdefault.jpg");
+	}
+}
@@ -0,0 +1,116 @@
+package com.espirit.se.modules.youtube.connector;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelTasksTest {
+
+	@Test
+	void invokeAll_RESULTS_IN_TASK_ORDER() throws IOException {
+		List<ParallelTasks.Task<Integer>> tasks = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			final int value = i;
+			tasks.add(() -> {
+				sleep(20 - value);
+				return value;
+			});
+		}
+
+		List<Integer> results = ParallelTasks.invokeAll(tasks, 4);
+
+		assertEquals(20, results.size());
+		for (int i = 0; i < 20; i++) {
+			assertEquals(i, results.get(i));
+		}
+	}
+
+	@Test
+	void invokeAll_BOUNDED_PARALLELISM() throws IOException {
+		AtomicInteger active = new AtomicInteger();
+		AtomicInteger maxActive = new AtomicInteger();
+		List<ParallelTasks.Task<Integer>> tasks = Collections.nCopies(16, () -> {
+			maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+			sleep(10);
+			active.decrementAndGet();
+			return 0;
+		});
+
+		ParallelTasks.invokeAll(tasks, 3);
+
+		assertTrue(maxActive.get() <= 3, "max active: " + maxActive.get());
+	}
+
+	@Test
+	void invokeAll_FAILURE_PROPAGATED() {
+		IOException failure = new IOException("failed");
+		List<ParallelTasks.Task<Integer>> tasks = new ArrayList<>();
+		tasks.add(() -> 1);
+		tasks.add(() -> {
+			throw failure;
+		});
+		tasks.add(() -> 3);
+
+		IOException exception = assertThrows(IOException.class, () -> ParallelTasks.invokeAll(tasks, 2));
+
+		assertSame(failure, exception);
+	}
+
+	@Test
+	void invokeAll_POOL_BUSY_CALLER_RUNS() throws IOException, InterruptedException {
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch started = new CountDownLatch(ParallelTasks.MAX_THREADS);
+		for (int i = 0; i < ParallelTasks.MAX_THREADS; i++) {
+			ParallelTasks.getExecutor().execute(() -> {
+				started.countDown();
+				await(release);
+			});
+		}
+		try {
+			assertTrue(started.await(5, TimeUnit.SECONDS));
+			Thread caller = Thread.currentThread();
+			List<ParallelTasks.Task<Boolean>> tasks = Collections.nCopies(8, () -> Thread.currentThread() == caller);
+
+			List<Boolean> results = ParallelTasks.invokeAll(tasks, 4);
+
+			assertEquals(Collections.nCopies(8, true), results);
+			assertThrows(RejectedExecutionException.class, () -> ParallelTasks.getExecutor().execute(() -> {
+			}));
+		} finally {
+			release.countDown();
+		}
+	}
+
+	@Test
+	void invokeAll_NO_TASKS() throws IOException {
+		assertTrue(ParallelTasks.invokeAll(Collections.<ParallelTasks.Task<Integer>>emptyList(), 4).isEmpty());
+	}
+
+	private static void await(final CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void sleep(final long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
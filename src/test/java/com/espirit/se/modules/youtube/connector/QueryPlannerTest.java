@@ -0,0 +1,185 @@
+package com.espirit.se.modules.youtube.connector;
+
+import com.espirit.se.modules.youtube.YoutubeVideo;
+import com.espirit.se.modules.youtube.catalog.ChannelMirrors;
+import com.espirit.se.modules.youtube.catalog.VideoCatalogs;
+import com.espirit.se.modules.youtube.stub.YoutubeStubServer;
+import com.google.api.services.youtube.YouTube;
+import com.google.api.services.youtube.model.Channel;
+import com.google.api.services.youtube.model.ChannelContentDetails;
+import com.google.api.services.youtube.model.ChannelSnippet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(ResetYoutubeStateExtension.class)
+class QueryPlannerTest {
+
+	public static final String APIKEY = "apikey";
+	private static final Duration INTERVAL = Duration.ofHours(1);
+
+	@TempDir
+	Path _directory;
+	private YoutubeStubServer _stubServer;
+	private YouTube _youtube;
+	private List<Channel> _channels;
+	private QueryPlanner _planner;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		System.setProperty(VideoCatalogs.DATA_DIRECTORY_PROPERTY, _directory.toString());
+		_stubServer = YoutubeStubServer.start();
+		_youtube = YoutubeClientRegistry.getClient(APIKEY, _stubServer.getRootUrl(), YoutubeClientRegistry.DEFAULT_MAX_CONNECTIONS);
+		_channels = getChannels(2);
+		_planner = new QueryPlanner(APIKEY, _youtube, _channels);
+	}
+
+	@AfterEach
+	void tearDown() {
+		YoutubeChannelSync.shutdown();
+		System.clearProperty(VideoCatalogs.DATA_DIRECTORY_PROPERTY);
+		_stubServer.close();
+		YoutubeClientRegistry.shutdown();
+	}
+
+	@Test
+	void plan_LIVE() throws IOException {
+		QueryPlan plan = _planner.plan("news", _channels, System.currentTimeMillis());
+
+		assertEquals(QueryPlan.Strategy.LIVE, plan.getStrategy());
+		assertEquals(2L * YoutubeQuota.SEARCH_COST, plan.getQuotaUnits());
+		assertTrue(plan.isFeasible());
+		assertTrue(plan.getAlternatives().isEmpty());
+		assertTrue(plan.createRequest() instanceof YoutubeMultiChannelVideoSearchRequest);
+		assertEquals(2L * YoutubeQuota.LIST_COST, _planner.plan(null, _channels, System.currentTimeMillis()).getQuotaUnits());
+	}
+
+	@Test
+	void plan_CACHE() throws IOException {
+		List<Channel> channel = _channels.subList(0, 1);
+		_planner.plan("news", channel, System.currentTimeMillis()).createRequest().searchVideos(10);
+		int requestCount = _stubServer.getRequestCount();
+
+		QueryPlan plan = _planner.plan("news", channel, System.currentTimeMillis());
+
+		assertEquals(QueryPlan.Strategy.CACHE, plan.getStrategy());
+		assertEquals(0, plan.getQuotaUnits());
+		assertEquals(10, plan.createRequest().searchVideos(10).size());
+		assertEquals(requestCount, _stubServer.getRequestCount());
+	}
+
+	@Test
+	void plan_CATALOG() throws Exception {
+		register(_channels);
+
+		QueryPlan plan = _planner.plan("video uu1-2", _channels, System.currentTimeMillis());
+
+		assertEquals(QueryPlan.Strategy.CATALOG, plan.getStrategy());
+		assertEquals(0, plan.getQuotaUnits());
+		assertEquals(QueryPlan.Strategy.LIVE, plan.getAlternatives().get(0).getStrategy());
+		assertEquals("UU1-2", plan.createRequest().searchVideos(1).get(0).getId());
+		assertTrue(plan.explain().contains("rejected LIVE"));
+	}
+
+	@Test
+	void plan_HYBRID() throws Exception {
+		register(_channels.subList(0, 1));
+		int requestCount = _stubServer.getRequestCount();
+
+		QueryPlan plan = _planner.plan(null, _channels, System.currentTimeMillis());
+		List<String> videos = plan.createRequest().searchVideos(4).stream().map(YoutubeVideo::getId).collect(Collectors.toList());
+
+		assertEquals(QueryPlan.Strategy.HYBRID, plan.getStrategy());
+		assertEquals(YoutubeQuota.LIST_COST, plan.getQuotaUnits());
+		assertEquals(List.of("UU0-0", "UU0-1", "UU1-0", "UU1-1"), videos);
+		// only the channel without mirror is requested
+		assertEquals(requestCount + 1, _stubServer.getRequestCount());
+	}
+
+	@Test
+	void plan_STALE_CATALOG() throws Exception {
+		register(_channels);
+		long syncedAt = Math.max(ChannelMirrors.forChannel("channel0").getSyncedAt(), ChannelMirrors.forChannel("channel1").getSyncedAt());
+
+		// the stale mirrors lose against YouTube while the quota suffices
+		QueryPlan plan = _planner.plan("news", _channels, syncedAt + 10 * INTERVAL.toMillis());
+		assertEquals(QueryPlan.Strategy.LIVE, plan.getStrategy());
+		assertEquals(QueryPlan.Strategy.CATALOG, plan.getAlternatives().get(0).getStrategy());
+
+		// and win once the remaining quota is scarce
+		YoutubeQuota.record(APIKEY, YoutubeQuota.DAILY_LIMIT - 150);
+		plan = _planner.plan("news", _channels, syncedAt + 10 * INTERVAL.toMillis());
+		assertEquals(QueryPlan.Strategy.CATALOG, plan.getStrategy());
+		assertFalse(plan.getAlternatives().get(0).isFeasible());
+
+		// mirrors older than the maximum age are not used at all
+		plan = _planner.plan("news", _channels, syncedAt + QueryPlanner.MAX_CATALOG_AGE.toMillis() + 1);
+		assertEquals(QueryPlan.Strategy.LIVE, plan.getStrategy());
+		assertTrue(plan.getAlternatives().isEmpty());
+	}
+
+	@Test
+	void plan_CIRCUIT_OPEN() throws Exception {
+		register(_channels);
+		long syncedAt = Math.max(ChannelMirrors.forChannel("channel0").getSyncedAt(), ChannelMirrors.forChannel("channel1").getSyncedAt());
+		YoutubeCircuitBreaker.configure(1, Duration.ofSeconds(5), Duration.ofMinutes(1));
+		YoutubeCircuitBreaker breaker = YoutubeCircuitBreaker.forFamily("search");
+		breaker.record(new IOException("unavailable"), 0, breaker.checkPermission(), () -> generation -> {
+		});
+
+		// even mirrors older than the maximum age are used
+		QueryPlan plan = _planner.plan("news", _channels, syncedAt + QueryPlanner.MAX_CATALOG_AGE.toMillis() + 1);
+
+		assertEquals(QueryPlan.Strategy.CATALOG, plan.getStrategy());
+		assertEquals(QueryPlan.Strategy.LIVE, plan.getAlternatives().get(0).getStrategy());
+		assertFalse(plan.getAlternatives().get(0).isFeasible());
+	}
+
+	@Test
+	void plan_QUOTA_EXCEEDED() throws IOException {
+		YoutubeQuota.record(APIKEY, YoutubeQuota.DAILY_LIMIT);
+
+		QueryPlan plan = _planner.plan("news", _channels, System.currentTimeMillis());
+
+		// without alternative, the plan is chosen anyway
+		assertEquals(QueryPlan.Strategy.LIVE, plan.getStrategy());
+		assertFalse(plan.isFeasible());
+	}
+
+	@Test
+	void getCost_QUOTA_WEIGHED_BY_REMAINING() {
+		assertEquals(300 + 100 * QueryPlanner.QUOTA_UNIT_MILLIS, QueryPlanner.getCost(100, 300, 0, YoutubeQuota.DAILY_LIMIT), 0.001);
+		assertEquals(300 + 1000 * QueryPlanner.QUOTA_UNIT_MILLIS, QueryPlanner.getCost(100, 300, 0, YoutubeQuota.DAILY_LIMIT / 10), 0.001);
+		assertEquals(1 + QueryPlanner.STALENESS_PENALTY_MILLIS, QueryPlanner.getCost(0, 1, QueryPlanner.STALENESS_PENALTY_MILLIS, 0), 0.001);
+	}
+
+	private void register(final List<Channel> channels) throws InterruptedException {
+		YoutubeChannelSync.register(APIKEY, _youtube, channels, INTERVAL);
+		for (int i = 0; i < 100 && YoutubeChannelSync.getMirrors(channels) == null; i++) {
+			Thread.sleep(50);
+		}
+	}
+
+	private static List<Channel> getChannels(final int count) {
+		List<Channel> channels = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			channels.add(new Channel().setId("channel" + i)
+								 .setSnippet(new ChannelSnippet().setTitle("Channel " + i))
+								 .setContentDetails(new ChannelContentDetails().setRelatedPlaylists(new ChannelContentDetails.RelatedPlaylists().setUploads("UU" + i))));
+		}
+		return channels;
+	}
+}
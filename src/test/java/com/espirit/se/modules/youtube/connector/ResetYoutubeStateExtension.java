@@ -0,0 +1,22 @@
+package com.espirit.se.modules.youtube.connector;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * Resets the state shared by all YouTube requests before and after every test, see
+ * {@link YoutubeRequestDispatcher#reset()}.
+ */
+public class ResetYoutubeStateExtension implements BeforeEachCallback, AfterEachCallback {
+
+	@Override
+	public void beforeEach(final ExtensionContext context) {
+		YoutubeRequestDispatcher.reset();
+	}
+
+	@Override
+	public void afterEach(final ExtensionContext context) {
+		YoutubeRequestDispatcher.reset();
+	}
+}
@@ -0,0 +1,161 @@
+package com.espirit.se.modules.youtube.connector;
+
+import com.espirit.se.modules.youtube.YoutubeVideo;
+import com.espirit.se.modules.youtube.catalog.ChannelMirror;
+import com.espirit.se.modules.youtube.catalog.VideoCatalogs;
+import com.espirit.se.modules.youtube.stub.YoutubeStubServer;
+import com.google.api.services.youtube.YouTube;
+import com.google.api.services.youtube.model.Channel;
+import com.google.api.services.youtube.model.ChannelContentDetails;
+import com.google.api.services.youtube.model.ChannelSnippet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(ResetYoutubeStateExtension.class)
+class YoutubeChannelSyncTest {
+
+	public static final String APIKEY = "apikey";
+	private static final long NOW = 1_000_000;
+
+	@TempDir
+	Path _directory;
+	private YoutubeStubServer _stubServer;
+	private YouTube _youtube;
+	private ChannelMirror _mirror;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		_stubServer = YoutubeStubServer.start();
+		_youtube = YoutubeClientRegistry.getClient(APIKEY, _stubServer.getRootUrl(), YoutubeClientRegistry.DEFAULT_MAX_CONNECTIONS);
+		_mirror = ChannelMirror.open("channel", _directory.resolve("channel.uploads"));
+	}
+
+	@AfterEach
+	void tearDown() {
+		YoutubeChannelSync.shutdown();
+		System.clearProperty(VideoCatalogs.DATA_DIRECTORY_PROPERTY);
+		_stubServer.close();
+		YoutubeClientRegistry.shutdown();
+	}
+
+	@Test
+	void sync_FULL_PASS() throws IOException {
+		_stubServer.setChannelVideoCount("UU", 120);
+
+		assertEquals(120, YoutubeChannelSync.sync(_youtube, APIKEY, "UU", _mirror, NOW));
+
+		assertTrue(_mirror.isComplete());
+		assertEquals(120, _mirror.getVideos().size());
+		assertEquals("UU-0", _mirror.getVideos().get(0).getId());
+		assertEquals("UU-119", _mirror.getVideos().get(119).getId());
+		assertEquals(3, _stubServer.getRequestCount());
+		assertEquals(120, ChannelMirror.open("channel", _directory.resolve("channel.uploads")).getVideos().size());
+	}
+
+	@Test
+	void sync_NEW_UPLOADS_ONLY() throws IOException {
+		_stubServer.setChannelVideoCount("UU", 120);
+		YoutubeChannelSync.sync(_youtube, APIKEY, "UU", _mirror, NOW);
+		_stubServer.addUploads("UU", 3);
+
+		assertEquals(3, YoutubeChannelSync.sync(_youtube, APIKEY, "UU", _mirror, NOW + 1));
+
+		assertEquals(List.of("UU-upload2", "UU-upload1", "UU-upload0", "UU-0"), getIds(_mirror).subList(0, 4));
+		assertEquals(123, _mirror.getVideos().size());
+		// only the first page is requested
+		assertEquals(4, _stubServer.getRequestCount());
+	}
+
+	@Test
+	void sync_NOT_MODIFIED() throws IOException {
+		YoutubeChannelSync.sync(_youtube, APIKEY, "UU", _mirror, NOW);
+
+		assertEquals(0, YoutubeChannelSync.sync(_youtube, APIKEY, "UU", _mirror, NOW + 1));
+
+		assertEquals(1, _stubServer.getNotModifiedCount());
+		assertEquals(100, _mirror.getVideos().size());
+	}
+
+	@Test
+	void sync_FULL_PASS_AFTER_INTERVAL() throws IOException {
+		YoutubeChannelSync.sync(_youtube, APIKEY, "UU", _mirror, NOW);
+		_stubServer.setChannelVideoCount("UU", 60);
+
+		assertEquals(60, YoutubeChannelSync.sync(_youtube, APIKEY, "UU", _mirror, NOW + YoutubeChannelSync.FULL_SYNC_INTERVAL.toMillis()));
+
+		assertEquals(60, _mirror.getVideos().size());
+		assertEquals(NOW + YoutubeChannelSync.FULL_SYNC_INTERVAL.toMillis(), _mirror.getFullSyncAt());
+	}
+
+	@Test
+	void register_MIRROR_SERVED() throws InterruptedException {
+		System.setProperty(VideoCatalogs.DATA_DIRECTORY_PROPERTY, _directory.toString());
+		_stubServer.setChannelVideoCount("UU0", 3);
+		_stubServer.setChannelVideoCount("UU1", 3);
+		List<Channel> channels = getChannels(2);
+		YoutubeConnector connector = new YoutubeConnector(_youtube, channels, APIKEY);
+
+		YoutubeChannelSync.register(APIKEY, _youtube, channels, Duration.ofHours(1));
+		for (int i = 0; i < 100 && YoutubeChannelSync.getMirrors(channels) == null; i++) {
+			Thread.sleep(50);
+		}
+		int requestCount = _stubServer.getRequestCount();
+		YoutubeVideoSearchRequest request = connector.getSearchRequest(" ", null);
+		List<String> videos = request.searchVideos(4).stream().map(YoutubeVideo::getId).collect(Collectors.toList());
+
+		assertTrue(request instanceof YoutubeMirroredChannelVideosRequest);
+		assertEquals(List.of("UU0-0", "UU0-1", "UU1-0", "UU1-1"), videos);
+		assertEquals(List.of("UU0-2", "UU1-2"), request.searchVideos(4).stream().map(YoutubeVideo::getId).collect(Collectors.toList()));
+		assertEquals(6, request.getTotal());
+		assertEquals(requestCount, _stubServer.getRequestCount());
+	}
+
+	@Test
+	void register_QUERY_SERVED_FROM_INDEX() throws InterruptedException {
+		System.setProperty(VideoCatalogs.DATA_DIRECTORY_PROPERTY, _directory.toString());
+		_stubServer.setChannelVideoCount("UU0", 3);
+		_stubServer.setChannelVideoCount("UU1", 3);
+		List<Channel> channels = getChannels(2);
+		YoutubeConnector connector = new YoutubeConnector(_youtube, channels, APIKEY);
+
+		YoutubeChannelSync.register(APIKEY, _youtube, channels, Duration.ofHours(1));
+		for (int i = 0; i < 100 && YoutubeChannelSync.getMirrors(channels) == null; i++) {
+			Thread.sleep(50);
+		}
+		int requestCount = _stubServer.getRequestCount();
+		YoutubeVideoSearchRequest request = connector.getSearchRequest("Video UU1-2", "channel1");
+		List<String> videos = request.searchVideos(10).stream().map(YoutubeVideo::getId).collect(Collectors.toList());
+
+		assertTrue(request instanceof YoutubeIndexedVideoSearchRequest);
+		assertEquals(List.of("UU1-2", "UU1-0", "UU1-1"), videos);
+		assertEquals(3, request.getTotal());
+		assertEquals(requestCount, _stubServer.getRequestCount());
+	}
+
+	private static List<String> getIds(final ChannelMirror mirror) {
+		return mirror.getVideos().stream().map(YoutubeVideo::getId).collect(Collectors.toList());
+	}
+
+	private static List<Channel> getChannels(final int count) {
+		List<Channel> channels = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			channels.add(new Channel().setId("channel" + i)
+								 .setSnippet(new ChannelSnippet().setTitle("Channel " + i))
+								 .setContentDetails(new ChannelContentDetails().setRelatedPlaylists(new ChannelContentDetails.RelatedPlaylists().setUploads("UU" + i))));
+		}
+		return channels;
+	}
+}
@@ -0,0 +1,104 @@
+package com.espirit.se.modules.youtube.connector;
+
+import com.espirit.se.modules.youtube.YoutubeVideo;
+import com.espirit.se.modules.youtube.stub.YoutubeStubServer;
+import com.google.api.services.youtube.YouTube;
+import com.google.api.services.youtube.model.Channel;
+import com.google.api.services.youtube.model.ChannelContentDetails;
+import com.google.api.services.youtube.model.ChannelSnippet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(ResetYoutubeStateExtension.class)
+class YoutubeChannelVideosRequestTest {
+
+	public static final String APIKEY = "apikey";
+
+	private YoutubeStubServer _stubServer;
+	private YouTube _youtube;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		// a failed search is not retried, the channel is requested once per failure
+		YoutubeRequestDispatcher.setRetryPolicy(new YoutubeRetryPolicy.Builder().maxRetries(0).build());
+		_stubServer = YoutubeStubServer.start();
+		_youtube = YoutubeClientRegistry.getClient(APIKEY, _stubServer.getRootUrl(), YoutubeClientRegistry.DEFAULT_MAX_CONNECTIONS);
+	}
+
+	@AfterEach
+	void tearDown() {
+		_stubServer.close();
+		YoutubeClientRegistry.shutdown();
+	}
+
+	@Test
+	void searchVideos_CHANNELS_REQUESTED_CONCURRENTLY() throws IOException {
+		_stubServer.setLatency(100);
+		YoutubeChannelVideosRequest request = YoutubeChannelVideosRequest.createInstance(APIKEY, _youtube, getChannels(5));
+
+		List<String> videos = request.searchVideos(5).stream().map(YoutubeVideo::getId).collect(Collectors.toList());
+
+		assertEquals(List.of("UU0-0", "UU1-0", "UU2-0", "UU3-0", "UU4-0"), videos);
+		assertTrue(_stubServer.getMaxConcurrentRequests() > 1, "max concurrent requests: " + _stubServer.getMaxConcurrentRequests());
+	}
+
+	@Test
+	void searchVideos_FAILED_CHANNEL_ISOLATED() throws IOException {
+		_stubServer.addFailingChannels("UU1");
+		_stubServer.setChannelVideoCount("UU0", 4);
+		_stubServer.setChannelVideoCount("UU1", 4);
+		_stubServer.setChannelVideoCount("UU2", 4);
+		YoutubeChannelVideosRequest request = YoutubeChannelVideosRequest.createInstance(APIKEY, _youtube, getChannels(3));
+
+		List<String> videos = request.searchVideos(6).stream().map(YoutubeVideo::getId).collect(Collectors.toList());
+
+		// the failed channel is requested once, its share is taken from the other channels
+		assertEquals(List.of("UU0-0", "UU0-1", "UU2-0", "UU2-1", "UU0-2", "UU2-2"), videos);
+		assertTrue(request.hasNext());
+		assertEquals(-1, request.getTotal());
+
+		_stubServer.removeFailingChannels("UU1");
+		videos = request.searchVideos(6).stream().map(YoutubeVideo::getId).collect(Collectors.toList());
+
+		// the channel is back in the next call
+		assertEquals(List.of("UU0-3", "UU1-0", "UU1-1", "UU2-3", "UU1-2", "UU1-3"), videos);
+		assertFalse(request.hasNext());
+		assertEquals(12, request.getTotal());
+	}
+
+	@Test
+	void searchVideos_FAILING_CHANNEL_GIVEN_UP() throws IOException {
+		_stubServer.addFailingChannels("UU1");
+		_stubServer.setChannelVideoCount("UU0", 2);
+		YoutubeChannelVideosRequest request = YoutubeChannelVideosRequest.createInstance(APIKEY, _youtube, getChannels(2));
+
+		assertEquals(List.of("UU0-0", "UU0-1"), request.searchVideos(4).stream().map(YoutubeVideo::getId).collect(Collectors.toList()));
+		for (int i = 1; i < YoutubeChannelVideosRequest.MAX_CHANNEL_FAILURES; i++) {
+			assertTrue(request.hasNext());
+			assertTrue(request.searchVideos(4).isEmpty());
+		}
+
+		assertFalse(request.hasNext());
+	}
+
+	private static List<Channel> getChannels(final int count) {
+		List<Channel> channels = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			channels.add(new Channel().setId("channel" + i)
+								 .setSnippet(new ChannelSnippet().setTitle("Channel " + i))
+								 .setContentDetails(new ChannelContentDetails().setRelatedPlaylists(new ChannelContentDetails.RelatedPlaylists().setUploads("UU" + i))));
+		}
+		return channels;
+	}
+}
@@ -0,0 +1,223 @@
+package com.espirit.se.modules.youtube.connector;
+
+import com.espirit.se.modules.youtube.stub.YoutubeStubServer;
+import com.google.api.client.http.HttpResponseException;
+import com.google.api.services.youtube.YouTube;
+import com.google.api.services.youtube.model.VideoListResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.spy;
+
+@ExtendWith(ResetYoutubeStateExtension.class)
+class YoutubeCircuitBreakerTest {
+
+	public static final String APIKEY = "apikey";
+
+	private final List<String> _transitions = new CopyOnWriteArrayList<>();
+	private final YoutubeCircuitBreaker.Listener _listener = (family, from, to) -> _transitions.add(family + ' ' + from + '>' + to);
+	private YoutubeStubServer _stubServer;
+	private YouTube _youtube;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		YoutubeRequestDispatcher.setRetryPolicy(new YoutubeRetryPolicy.Builder().maxRetries(0).build());
+		YoutubeCircuitBreaker.addListener(_listener);
+		_stubServer = YoutubeStubServer.start();
+		_youtube = YoutubeClientRegistry.getClient(APIKEY, _stubServer.getRootUrl(), YoutubeClientRegistry.DEFAULT_MAX_CONNECTIONS);
+	}
+
+	@AfterEach
+	void tearDown() {
+		YoutubeCircuitBreaker.removeListener(_listener);
+		_stubServer.close();
+		YoutubeClientRegistry.shutdown();
+	}
+
+	@Test
+	void execute_OPENED_BY_FAILURES() throws IOException {
+		YoutubeCircuitBreaker.configure(3, Duration.ofSeconds(5), Duration.ofMinutes(1));
+		_stubServer.failNextRequests(3);
+
+		for (int i = 0; i < 3; i++) {
+			assertThrows(HttpResponseException.class, this::lookup);
+		}
+		CircuitOpenException exception = assertThrows(CircuitOpenException.class, this::lookup);
+
+		assertEquals("videos", exception.getFamily());
+		assertEquals(3, _stubServer.getRequestCount());
+		assertEquals(List.of("videos CLOSED>OPEN"), _transitions);
+		assertTrue(YoutubeCircuitBreaker.isOpen("videos"));
+		assertFalse(YoutubeCircuitBreaker.isOpen("search"));
+		assertEquals(YoutubeCircuitBreaker.State.OPEN, YoutubeCircuitBreaker.getStates().get("videos"));
+	}
+
+	@Test
+	void execute_OPENED_BY_RUNTIME_EXCEPTIONS() throws IOException {
+		YoutubeCircuitBreaker.configure(2, Duration.ofSeconds(5), Duration.ofMinutes(1));
+		YouTube.Videos.List request = spy(_youtube.videos().list("snippet").setKey(APIKEY).setId("first"));
+		doThrow(new IllegalArgumentException("malformed response")).when(request).execute();
+
+		for (int i = 0; i < 2; i++) {
+			assertThrows(IllegalArgumentException.class, () -> YoutubeRequestDispatcher.execute(request));
+		}
+
+		assertEquals(List.of("videos CLOSED>OPEN"), _transitions);
+		assertThrows(CircuitOpenException.class, this::lookup);
+	}
+
+	@Test
+	void execute_OPENED_BY_SLOW_RESPONSES() throws IOException {
+		YoutubeCircuitBreaker.configure(2, Duration.ofMillis(100), Duration.ofMinutes(1));
+		_stubServer.setLatency(200);
+
+		lookup();
+		lookup();
+
+		assertThrows(CircuitOpenException.class, this::lookup);
+		assertEquals(2, _stubServer.getRequestCount());
+	}
+
+	@Test
+	void execute_HALF_FAILED_NOT_OPENED() throws IOException {
+		YoutubeCircuitBreaker.configure(4, Duration.ofSeconds(5), Duration.ofMinutes(1));
+		_stubServer.failNextRequests(1);
+		assertThrows(HttpResponseException.class, this::lookup);
+		lookup();
+		_stubServer.failNextRequests(1);
+		assertThrows(HttpResponseException.class, this::lookup);
+
+		// client errors are answers of a healthy YouTube
+		_stubServer.addInvalidKeys(APIKEY);
+		assertThrows(HttpResponseException.class, this::lookup);
+		assertThrows(HttpResponseException.class, this::lookup);
+
+		assertEquals(YoutubeCircuitBreaker.State.CLOSED, YoutubeCircuitBreaker.forFamily("videos").getState());
+	}
+
+	@Test
+	void probe_CLOSES() throws Exception {
+		YoutubeCircuitBreaker.configure(2, Duration.ofSeconds(5), Duration.ofMillis(100));
+		CountDownLatch closed = new CountDownLatch(1);
+		YoutubeCircuitBreaker.Listener listener = (family, from, to) -> {
+			if (to == YoutubeCircuitBreaker.State.CLOSED) {
+				closed.countDown();
+			}
+		};
+		YoutubeCircuitBreaker.addListener(listener);
+		try {
+			_stubServer.failNextRequests(2);
+			assertThrows(HttpResponseException.class, this::lookup);
+			assertThrows(HttpResponseException.class, this::lookup);
+
+			assertTrue(closed.await(5, TimeUnit.SECONDS));
+			assertEquals(List.of("videos CLOSED>OPEN", "videos OPEN>HALF_OPEN", "videos HALF_OPEN>CLOSED"), _transitions);
+			assertEquals(3, _stubServer.getRequestCount());
+			assertEquals("first", lookup().getItems().get(0).getId());
+		} finally {
+			YoutubeCircuitBreaker.removeListener(listener);
+		}
+	}
+
+	@Test
+	void probe_FAILED_REOPENS() throws Exception {
+		YoutubeCircuitBreaker.configure(2, Duration.ofSeconds(5), Duration.ofMillis(100));
+		CountDownLatch reopened = new CountDownLatch(1);
+		YoutubeCircuitBreaker.Listener listener = (family, from, to) -> {
+			if (from == YoutubeCircuitBreaker.State.HALF_OPEN && to == YoutubeCircuitBreaker.State.OPEN) {
+				reopened.countDown();
+			}
+		};
+		YoutubeCircuitBreaker.addListener(listener);
+		try {
+			_stubServer.failNextRequests(3);
+			assertThrows(HttpResponseException.class, this::lookup);
+			assertThrows(HttpResponseException.class, this::lookup);
+
+			assertTrue(reopened.await(5, TimeUnit.SECONDS));
+			assertEquals(List.of("videos CLOSED>OPEN", "videos OPEN>HALF_OPEN", "videos HALF_OPEN>OPEN"), _transitions.subList(0, 3));
+			assertEquals(3, _stubServer.getRequestCount());
+		} finally {
+			YoutubeCircuitBreaker.removeListener(listener);
+		}
+	}
+
+	@Test
+	void probe_POOLED_REQUEST_SENT_WITH_KEY() throws Exception {
+		YoutubeCircuitBreaker.configure(2, Duration.ofSeconds(5), Duration.ofMillis(100));
+		String pool = YoutubeKeyPool.register(List.of("first", "second"));
+		CountDownLatch decided = new CountDownLatch(1);
+		YoutubeCircuitBreaker.Listener listener = (family, from, to) -> {
+			if (from == YoutubeCircuitBreaker.State.HALF_OPEN) {
+				decided.countDown();
+			}
+		};
+		YoutubeCircuitBreaker.addListener(listener);
+		try {
+			_stubServer.failNextRequests(2);
+			assertThrows(HttpResponseException.class, () -> YoutubeRequestDispatcher.execute(_youtube.videos().list("snippet").setKey(pool).setId("first")));
+			assertThrows(HttpResponseException.class, () -> YoutubeRequestDispatcher.execute(_youtube.videos().list("snippet").setKey(pool).setId("first")));
+
+			assertTrue(decided.await(5, TimeUnit.SECONDS));
+			// YouTube rejects the id of the pool as invalid key, which would close the circuit without a real answer
+			assertEquals(0, _stubServer.getRequestCount(pool));
+			assertEquals(3, _stubServer.getRequestCount("first") + _stubServer.getRequestCount("second"));
+			assertEquals(List.of("videos CLOSED>OPEN", "videos OPEN>HALF_OPEN", "videos HALF_OPEN>CLOSED"), _transitions);
+		} finally {
+			YoutubeCircuitBreaker.removeListener(listener);
+		}
+	}
+
+	@Test
+	void record_LATE_RESPONSE_WHILE_HALF_OPEN() throws Exception {
+		YoutubeCircuitBreaker.configure(2, Duration.ofSeconds(5), Duration.ofMillis(100));
+		YoutubeCircuitBreaker breaker = YoutubeCircuitBreaker.forFamily("test");
+		CountDownLatch probeSent = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		YoutubeCircuitBreaker.Probe probe = generation -> {
+			probeSent.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			breaker.record(null, 10, generation, () -> ignored -> {
+			});
+		};
+		// sent before the circuit opened, answered while the probe is in flight
+		long late = breaker.checkPermission();
+		breaker.record(new IOException("failed"), 10, breaker.checkPermission(), () -> probe);
+		breaker.record(new IOException("failed"), 10, breaker.checkPermission(), () -> probe);
+		assertTrue(probeSent.await(5, TimeUnit.SECONDS));
+
+		breaker.record(null, 10, late, () -> probe);
+		assertEquals(YoutubeCircuitBreaker.State.HALF_OPEN, breaker.getState());
+		breaker.record(new IOException("failed"), 10, late, () -> probe);
+		assertEquals(YoutubeCircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+		release.countDown();
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (breaker.getState() != YoutubeCircuitBreaker.State.CLOSED && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		assertEquals(List.of("test CLOSED>OPEN", "test OPEN>HALF_OPEN", "test HALF_OPEN>CLOSED"), _transitions);
+	}
+
+	private VideoListResponse lookup() throws IOException {
+		return YoutubeRequestDispatcher.execute(_youtube.videos().list("snippet").setKey(APIKEY).setId("first"));
+	}
+}
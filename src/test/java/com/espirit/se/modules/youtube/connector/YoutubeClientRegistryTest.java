@@ -0,0 +1,87 @@
+package com.espirit.se.modules.youtube.connector;
+
+import com.espirit.se.modules.youtube.stub.YoutubeStubServer;
+import com.google.api.services.youtube.YouTube;
+import com.google.api.services.youtube.model.VideoListResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class YoutubeClientRegistryTest {
+
+	public static final String APIKEY = "apikey";
+
+	@BeforeEach
+	@AfterEach
+	void reset() {
+		YoutubeClientRegistry.shutdown();
+	}
+
+	@Test
+	void getClient_SAME_SETTINGS() {
+		YouTube youtube = YoutubeClientRegistry.getClient(APIKEY);
+
+		assertSame(youtube, YoutubeClientRegistry.getClient(APIKEY));
+		assertSame(youtube, YoutubeClientRegistry.getClient(APIKEY, null, YoutubeClientRegistry.DEFAULT_MAX_CONNECTIONS));
+		assertEquals(1, YoutubeClientRegistry.size());
+	}
+
+	@Test
+	void getClient_DIFFERENT_SETTINGS() {
+		YouTube youtube = YoutubeClientRegistry.getClient(APIKEY);
+
+		assertNotSame(youtube, YoutubeClientRegistry.getClient("other apikey"));
+		assertNotSame(youtube, YoutubeClientRegistry.getClient(APIKEY, "http://localhost/", YoutubeClientRegistry.DEFAULT_MAX_CONNECTIONS));
+		assertNotSame(youtube, YoutubeClientRegistry.getClient(APIKEY, null, 1));
+		assertEquals(4, YoutubeClientRegistry.size());
+	}
+
+	@Test
+	void shutdown() {
+		YouTube youtube = YoutubeClientRegistry.getClient(APIKEY);
+
+		YoutubeClientRegistry.shutdown();
+
+		assertEquals(0, YoutubeClientRegistry.size());
+		assertNotSame(youtube, YoutubeClientRegistry.getClient(APIKEY));
+	}
+
+	@Test
+	void getProject_NOT_SENT() throws IOException {
+		YouTube youtube = YoutubeClientRegistry.getClient(APIKEY, "project");
+		YouTube.Search.List request = youtube.search().list("snippet").setKey(APIKEY).setQ("query");
+
+		assertEquals("project", YoutubeClientRegistry.getProject(request));
+		assertNull(YoutubeClientRegistry.getProject(YoutubeClientRegistry.getClient(APIKEY).search().list("snippet")));
+		assertNull(request.getQuotaUser());
+		assertFalse(request.buildHttpRequestUrl().build().contains("project"));
+		assertSame(youtube, YoutubeClientRegistry.getClient(APIKEY, "project"));
+
+		YoutubeClientRegistry.shutdown();
+
+		assertNull(YoutubeClientRegistry.getProject(request));
+	}
+
+	@Test
+	void getClient_REUSED_FOR_REQUESTS() throws IOException {
+		try (YoutubeStubServer stubServer = YoutubeStubServer.start()) {
+			for (int i = 0; i < 3; i++) {
+				YouTube youtube = YoutubeClientRegistry.getClient(APIKEY, stubServer.getRootUrl(), 2);
+				VideoListResponse response = youtube.videos().list("snippet").setKey(APIKEY).setId("a,b").execute();
+
+				assertEquals(2, response.getItems().size());
+				assertEquals("a", response.getItems().get(0).getId());
+			}
+			assertEquals(3, stubServer.getRequestCount());
+			assertEquals(1, YoutubeClientRegistry.size());
+		}
+	}
+}
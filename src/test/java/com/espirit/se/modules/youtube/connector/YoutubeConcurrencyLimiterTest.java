@@ -0,0 +1,208 @@
+package com.espirit.se.modules.youtube.connector;
+
+import com.espirit.se.modules.youtube.stub.YoutubeStubServer;
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.client.http.HttpResponseException;
+import com.google.api.services.youtube.YouTube;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(ResetYoutubeStateExtension.class)
+class YoutubeConcurrencyLimiterTest {
+
+	public static final String API_KEY = "limited";
+
+	private YoutubeStubServer _stubServer;
+
+	@AfterEach
+	void tearDown() {
+		if (_stubServer != null) {
+			_stubServer.close();
+			YoutubeClientRegistry.shutdown();
+		}
+	}
+
+	@Test
+	void release_ADDITIVE_INCREASE() throws IOException {
+		YoutubeConcurrencyLimiter limiter = YoutubeConcurrencyLimiter.forKey(API_KEY);
+
+		// every response while at least half of the limit is used raises it by 1 / limit
+		fill(limiter, YoutubeConcurrencyLimiter.INITIAL_LIMIT, 20);
+		fill(limiter, YoutubeConcurrencyLimiter.INITIAL_LIMIT, 20);
+
+		assertEquals(YoutubeConcurrencyLimiter.INITIAL_LIMIT + 1, limiter.getLimit());
+		assertEquals(0, limiter.getInFlight());
+	}
+
+	@Test
+	void release_NO_INCREASE_BELOW_HALF_USED() throws IOException {
+		YoutubeConcurrencyLimiter limiter = YoutubeConcurrencyLimiter.forKey(API_KEY);
+
+		for (int i = 0; i < 50; i++) {
+			fill(limiter, 2, 20);
+		}
+
+		assertEquals(YoutubeConcurrencyLimiter.INITIAL_LIMIT, limiter.getLimit());
+	}
+
+	@Test
+	void release_RATE_LIMITED_HALVES_ONCE() throws IOException {
+		YoutubeConcurrencyLimiter limiter = YoutubeConcurrencyLimiter.forKey(API_KEY);
+		long start = System.nanoTime();
+		for (int i = 0; i < 4; i++) {
+			limiter.acquire();
+		}
+
+		// the requests in flight during the congestion cut the limit only once
+		for (int i = 0; i < 4; i++) {
+			limiter.release(start, createResponseException(429), 1);
+		}
+		assertEquals(YoutubeConcurrencyLimiter.INITIAL_LIMIT / 2, limiter.getLimit());
+
+		limiter.acquire();
+		limiter.release(System.nanoTime(), createResponseException(429), 1);
+		assertEquals(YoutubeConcurrencyLimiter.INITIAL_LIMIT / 4, limiter.getLimit());
+	}
+
+	@Test
+	void release_MIN_LIMIT() throws IOException {
+		YoutubeConcurrencyLimiter limiter = YoutubeConcurrencyLimiter.forKey(API_KEY);
+
+		for (int i = 0; i < 10; i++) {
+			limiter.acquire();
+			limiter.release(System.nanoTime(), createResponseException(429), 1);
+		}
+
+		assertEquals(YoutubeConcurrencyLimiter.MIN_LIMIT, limiter.getLimit());
+	}
+
+	@Test
+	void release_SLOW_RESPONSE_CUTS_LIMIT() throws IOException {
+		YoutubeConcurrencyLimiter limiter = YoutubeConcurrencyLimiter.forKey(API_KEY);
+		limiter.acquire();
+		limiter.release(System.nanoTime(), null, 100);
+
+		limiter.acquire();
+		limiter.release(System.nanoTime(), null, 150);
+		assertEquals(YoutubeConcurrencyLimiter.INITIAL_LIMIT, limiter.getLimit());
+
+		limiter.acquire();
+		limiter.release(System.nanoTime(), null, 250);
+		assertEquals((int) (YoutubeConcurrencyLimiter.INITIAL_LIMIT * YoutubeConcurrencyLimiter.LATENCY_BACKOFF), limiter.getLimit());
+	}
+
+	@Test
+	void release_TIMEOUT_IGNORED() throws IOException {
+		YoutubeConcurrencyLimiter limiter = YoutubeConcurrencyLimiter.forKey(API_KEY);
+
+		fill(limiter, 1, 20);
+		limiter.acquire();
+		limiter.release(System.nanoTime(), new SocketTimeoutException("Read timed out"), 10_000);
+		fill(limiter, 1, 40);
+
+		// the timeout neither cut the limit nor raised the minimum latency
+		assertEquals(YoutubeConcurrencyLimiter.INITIAL_LIMIT, limiter.getLimit());
+	}
+
+	@Test
+	void acquire_WAITS_FOR_RELEASE() throws Exception {
+		YoutubeConcurrencyLimiter limiter = YoutubeConcurrencyLimiter.forKey(API_KEY);
+		for (int i = 0; i < YoutubeConcurrencyLimiter.INITIAL_LIMIT; i++) {
+			limiter.acquire();
+		}
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<?> waiting = executor.submit(() -> {
+				limiter.acquire();
+				return null;
+			});
+			Thread.sleep(100);
+			assertFalse(waiting.isDone());
+
+			limiter.release(System.nanoTime(), null, 20);
+			waiting.get(5, TimeUnit.SECONDS);
+			assertEquals(YoutubeConcurrencyLimiter.INITIAL_LIMIT, limiter.getInFlight());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void simulation_THROTTLING_STUB_CONVERGES() throws Exception {
+		int capacity = 8;
+		YoutubeQuotaScheduler.configure(Long.MAX_VALUE / 2, 1_000_000);
+		YoutubeRequestDispatcher.setRetryPolicy(new YoutubeRetryPolicy.Builder().maxRetries(0).build());
+		_stubServer = YoutubeStubServer.start();
+		_stubServer.setCapacity(capacity);
+		_stubServer.setLatency(20);
+		YouTube youtube = YoutubeClientRegistry.getClient(API_KEY, _stubServer.getRootUrl(), YoutubeClientRegistry.DEFAULT_MAX_CONNECTIONS);
+
+		// far more editors than the capacity of the stub
+		int threads = 32;
+		long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(3);
+		AtomicInteger succeeded = new AtomicInteger();
+		AtomicInteger sequence = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		List<Integer> limits = new ArrayList<>();
+		try {
+			for (int i = 0; i < threads; i++) {
+				executor.execute(() -> {
+					while (System.nanoTime() < end) {
+						try {
+							YoutubeRequestDispatcher.execute(youtube.videos().list("snippet").setKey(API_KEY).setId("video" + sequence.incrementAndGet()),
+															 YoutubeQuotaScheduler.Priority.GENERATION);
+							succeeded.incrementAndGet();
+						} catch (IOException e) {
+							// throttled
+						}
+					}
+				});
+			}
+			while (System.nanoTime() < end) {
+				Thread.sleep(50);
+				limits.add(YoutubeConcurrencyLimiter.getLimit(API_KEY));
+			}
+		} finally {
+			executor.shutdown();
+			assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+		}
+
+		int requests = _stubServer.getRequestCount();
+		double throttledShare = (double) _stubServer.getThrottledCount() / requests;
+		double averageLimit = limits.subList(limits.size() / 2, limits.size()).stream().mapToInt(Integer::intValue).average().orElse(0);
+		assertTrue(throttledShare < 0.1, "throttled share " + throttledShare);
+		assertTrue(averageLimit >= 2 && averageLimit <= capacity * 1.5, "average limit " + averageLimit);
+		assertTrue(_stubServer.getMaxConcurrentRequests() <= YoutubeConcurrencyLimiter.MAX_LIMIT);
+		// the capacity is used: at least a quarter of its throughput at 20 ms per request
+		assertTrue(succeeded.get() > capacity * 3 * 1000 / 20 / 4, "succeeded " + succeeded.get());
+	}
+
+	private static void fill(final YoutubeConcurrencyLimiter limiter, final int requests, final double latencyMillis) throws IOException {
+		long start = System.nanoTime();
+		for (int i = 0; i < requests; i++) {
+			limiter.acquire();
+		}
+		for (int i = 0; i < requests; i++) {
+			limiter.release(start, null, latencyMillis);
+		}
+	}
+
+	private static HttpResponseException createResponseException(final int statusCode) {
+		return new HttpResponseException.Builder(statusCode, null, new HttpHeaders()).build();
+	}
+}
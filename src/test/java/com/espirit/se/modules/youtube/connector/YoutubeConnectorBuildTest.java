@@ -1,10 +1,12 @@
 package com.espirit.se.modules.youtube.connector;
 
 import com.espirit.se.modules.youtube.integration.YoutubeIntegrationConfig;
+import com.espirit.se.modules.youtube.stub.YoutubeStubServer;
 import com.google.api.services.youtube.YouTube;
 import com.google.api.services.youtube.model.Channel;
 import com.google.api.services.youtube.model.ChannelListResponse;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
@@ -12,23 +14,29 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-@ExtendWith(MockitoExtension.class)
+@ExtendWith({MockitoExtension.class, ResetYoutubeStateExtension.class})
 class YoutubeConnectorBuildTest {
 
 	public static final String APIKEY = "apikey";
@@ -53,6 +61,11 @@ class YoutubeConnectorBuildTest {
 		when(_youTubeMock.channels()).thenReturn(channelsMock);
 	}
 
+	@BeforeEach
+	void beforeEach() {
+		YoutubeChannelCache.clear();
+	}
+
 	@Test
 	void builder_EMPTY_API_KEY() {
 		when(_youtubeIntegrationConfig.getApiKey()).thenReturn("");
@@ -92,7 +105,7 @@ class YoutubeConnectorBuildTest {
 		when(_youtubeIntegrationConfig.getChannelIds()).thenReturn(Collections.singletonList(CHANNEL_1));
 		Channel channel = mock(Channel.class);
 		YoutubeConnector.Builder spyBuilder = spy(new YoutubeConnector.Builder());
-		Mockito.doReturn(Collections.singletonList(channel)).when(spyBuilder).getYoutubeChannels(any());
+		Mockito.doReturn(Collections.singletonList(channel)).when(spyBuilder).getYoutubeChannels(any(), any(), any());
 
 		YoutubeConnector youtubeConnector = spyBuilder.config(_youtubeIntegrationConfig).build();
 
@@ -101,6 +114,22 @@ class YoutubeConnectorBuildTest {
 		assertEquals(1, youtubeConnector.getChannels().size());
 	}
 
+	@Test
+	void builder_WITH_CACHED_CHANNELS() throws IOException {
+		when(_youtubeIntegrationConfig.getApiKey()).thenReturn(APIKEY);
+		when(_youtubeIntegrationConfig.getChannelIds()).thenReturn(Arrays.asList(CHANNEL_1, "Channel 2"));
+		Channel channel = mock(Channel.class);
+		YoutubeConnector.Builder spyBuilder = spy(new YoutubeConnector.Builder());
+		Mockito.doReturn(Arrays.asList(channel, channel)).when(spyBuilder).getYoutubeChannels(any(), any(), any());
+
+		spyBuilder.config(_youtubeIntegrationConfig).build();
+		YoutubeConnector youtubeConnector = spyBuilder.config(_youtubeIntegrationConfig).build();
+
+		verify(spyBuilder, times(1)).getYoutubeChannels(any(), any(), any());
+		assertNotNull(youtubeConnector);
+		assertEquals(2, youtubeConnector.getChannels().size());
+	}
+
 	@Test
 	void builder_getYoutubeChannels_NO_CHANNEL() throws IOException {
 		when(_youtubeIntegrationConfig.getApiKey()).thenReturn("apikey");
@@ -189,4 +218,115 @@ class YoutubeConnectorBuildTest {
 		assertTrue(exception.getMessage().contains("Incomplete ChannelId"));
 	}
 
-}
\ No newline at end of file
+	@Test
+	void builder_getYoutubeChannels_CHUNKED_REQUESTS() throws IOException {
+		List<String> channelIds = IntStream.range(0, 60).mapToObj(i -> "Channel " + i).collect(Collectors.toList());
+		when(_youtubeIntegrationConfig.getApiKey()).thenReturn(APIKEY);
+		when(_youtubeIntegrationConfig.getChannelIds()).thenReturn(channelIds);
+		List<String> requestedIds = new ArrayList<>();
+		YouTube youTubeMock = getYoutubeMockAnsweringChannels(requestedIds, channelIds);
+
+		List<Channel> youtubeChannels = new YoutubeConnector.Builder().config(_youtubeIntegrationConfig).getYoutubeChannels(youTubeMock);
+
+		assertEquals(2, requestedIds.size());
+		assertEquals(50, requestedIds.get(0).split(",").length);
+		assertEquals(10, requestedIds.get(1).split(",").length);
+		assertEquals(channelIds, youtubeChannels.stream().map(Channel::getId).collect(Collectors.toList()));
+	}
+
+	@Test
+	void builder_getYoutubeChannels_UNKNOWN_CHANNELS_REPORTED() throws IOException {
+		when(_youtubeIntegrationConfig.getApiKey()).thenReturn(APIKEY);
+		when(_youtubeIntegrationConfig.getChannelIds()).thenReturn(Arrays.asList(CHANNEL_1, "Channel 2", "Channel 3"));
+		List<String> requestedIds = new ArrayList<>();
+		YouTube youTubeMock = getYoutubeMockAnsweringChannels(requestedIds, Collections.singletonList(CHANNEL_1));
+
+		YoutubeConnector.Builder builder = new YoutubeConnector.Builder().config(_youtubeIntegrationConfig);
+		Exception exception = assertThrows(IllegalArgumentException.class, () -> {
+			builder.getYoutubeChannels(youTubeMock);
+		});
+
+		assertEquals(1, requestedIds.size());
+		assertTrue(exception.getMessage().contains("Unknown ChannelId 'Channel 2'"));
+		assertTrue(exception.getMessage().contains("Unknown ChannelId 'Channel 3'"));
+	}
+
+	@Test
+	void builder_getYoutubeChannels_REVALIDATED() throws IOException {
+		List<String> channelIds = IntStream.range(0, 60).mapToObj(i -> "channel" + i).collect(Collectors.toList());
+		try (YoutubeStubServer stubServer = YoutubeStubServer.start()) {
+			YouTube youtube = YoutubeClientRegistry.getClient(APIKEY, stubServer.getRootUrl(), 2);
+			YoutubeConnector.Builder builder = new YoutubeConnector.Builder().apikey(APIKEY).channels(channelIds);
+			List<String> etags = new ArrayList<>();
+			List<Channel> channels = builder.getYoutubeChannels(youtube, null, etags);
+
+			List<String> revalidatedEtags = new ArrayList<>();
+			YoutubeChannelCache.Entry expired = new YoutubeChannelCache.Entry(channels, etags, 0);
+			List<Channel> revalidatedChannels = builder.getYoutubeChannels(youtube, expired, revalidatedEtags);
+
+			assertEquals(4, stubServer.getRequestCount());
+			assertEquals(2, stubServer.getNotModifiedCount());
+			assertEquals(etags, revalidatedEtags);
+			assertEquals(channels.size(), revalidatedChannels.size());
+			for (int i = 0; i < channels.size(); i++) {
+				assertSame(channels.get(i), revalidatedChannels.get(i));
+			}
+		} finally {
+			YoutubeClientRegistry.shutdown();
+		}
+	}
+
+	@Test
+	void builder_ROOT_URL() throws IOException {
+		try (YoutubeStubServer stubServer = YoutubeStubServer.start()) {
+			YoutubeConnector youtubeConnector = new YoutubeConnector.Builder().apikey(APIKEY).channels(List.of("channel")).rootUrl(stubServer.getRootUrl()).build();
+
+			assertEquals(1, youtubeConnector.getChannels().size());
+			assertEquals("Channel channel", youtubeConnector.getChannels().get(0).getSnippet().getTitle());
+			assertEquals(2, youtubeConnector.getVideo(List.of("video1", "video2")).size());
+			assertEquals(2, stubServer.getRequestCount(APIKEY));
+			assertEquals(2L * YoutubeStubServer.LIST_COST, stubServer.getUsedUnits(APIKEY));
+		} finally {
+			YoutubeClientRegistry.shutdown();
+		}
+	}
+
+	@Test
+	void builder_ROOT_URL_QUOTA_EXCEEDED() throws IOException {
+		try (YoutubeStubServer stubServer = YoutubeStubServer.start()) {
+			stubServer.setDailyQuota(YoutubeStubServer.LIST_COST);
+			YoutubeConnector youtubeConnector = new YoutubeConnector.Builder().apikey(APIKEY).rootUrl(stubServer.getRootUrl()).build();
+
+			assertEquals(VideoLookupResult.Status.FOUND, youtubeConnector.lookupVideos(List.of("video1")).get(0).getStatus());
+			assertEquals(VideoLookupResult.Status.FAILED, youtubeConnector.lookupVideos(List.of("video2")).get(0).getStatus());
+			assertEquals(YoutubeStubServer.LIST_COST, stubServer.getUsedUnits(APIKEY));
+		} finally {
+			YoutubeClientRegistry.shutdown();
+		}
+	}
+
+	/**
+	 * Creates a YouTube mock that answers channel requests with all requested channels that are known.
+	 */
+	private static YouTube getYoutubeMockAnsweringChannels(final List<String> requestedIds, final List<String> knownChannelIds) throws IOException {
+		YouTube youTubeMock = mock(YouTube.class);
+		YouTube.Channels channelsMock = mock(YouTube.Channels.class);
+		when(youTubeMock.channels()).thenReturn(channelsMock);
+		when(channelsMock.list(any())).thenAnswer(invocation -> {
+			YouTube.Channels.List channelsListMock = mock(YouTube.Channels.List.class);
+			when(channelsListMock.setKey(anyString())).thenReturn(channelsListMock);
+			when(channelsListMock.setId(anyString())).thenAnswer(setId -> {
+				String ids = setId.getArgument(0);
+				requestedIds.add(ids);
+				List<Channel> channels = Arrays.stream(ids.split(","))
+						.filter(knownChannelIds::contains)
+						.map(id -> new Channel().setId(id))
+						.collect(Collectors.toList());
+				when(channelsListMock.execute()).thenReturn(new ChannelListResponse().setItems(channels));
+				return channelsListMock;
+			});
+			return channelsListMock;
+		});
+		return youTubeMock;
+	}
+}
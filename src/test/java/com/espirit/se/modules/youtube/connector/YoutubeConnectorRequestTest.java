@@ -2,6 +2,7 @@ package com.espirit.se.modules.youtube.connector;
 
 import com.google.api.services.youtube.YouTube;
 import com.google.api.services.youtube.model.Channel;
+import com.google.api.services.youtube.model.ChannelContentDetails;
 import com.google.api.services.youtube.model.ChannelSnippet;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -151,6 +152,7 @@ class YoutubeConnectorRequestTest {
 		ChannelSnippet channelSnippetMock = mock(ChannelSnippet.class);
 		when(channelMock.getSnippet()).thenReturn(channelSnippetMock);
 		when(channelSnippetMock.getTitle()).thenReturn("Channel Title");
+		when(channelMock.getContentDetails()).thenReturn(new ChannelContentDetails().setRelatedPlaylists(new ChannelContentDetails.RelatedPlaylists().setUploads("UU1")));
 
 		YoutubeConnector youtubeConnector = new YoutubeConnector(_youTubeMock, Arrays.asList(channelMock, channelMock), APIKEY);
 		YoutubeVideoSearchRequest searchRequest = youtubeConnector.getSearchRequest("", "");
@@ -165,6 +167,7 @@ class YoutubeConnectorRequestTest {
 		ChannelSnippet channelSnippetMock = mock(ChannelSnippet.class);
 		when(channelMock.getSnippet()).thenReturn(channelSnippetMock);
 		when(channelSnippetMock.getTitle()).thenReturn("Channel Title");
+		when(channelMock.getContentDetails()).thenReturn(new ChannelContentDetails().setRelatedPlaylists(new ChannelContentDetails.RelatedPlaylists().setUploads("UU1")));
 
 		YoutubeConnector youtubeConnector = new YoutubeConnector(_youTubeMock, Arrays.asList(channelMock, channelMock), APIKEY);
 		YoutubeVideoSearchRequest searchRequest = youtubeConnector.getSearchRequest("", "all");
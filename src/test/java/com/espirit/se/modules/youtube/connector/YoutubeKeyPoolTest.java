@@ -0,0 +1,163 @@
+package com.espirit.se.modules.youtube.connector;
+
+import com.espirit.se.modules.youtube.stub.YoutubeStubServer;
+import com.google.api.client.http.HttpResponseException;
+import com.google.api.services.youtube.YouTube;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(ResetYoutubeStateExtension.class)
+class YoutubeKeyPoolTest {
+
+	public static final String FIRST_KEY = "first";
+	public static final String SECOND_KEY = "second";
+
+	private YoutubeStubServer _stubServer;
+	private YouTube _youtube;
+	private String _pool;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		_stubServer = YoutubeStubServer.start();
+		_youtube = YoutubeClientRegistry.getClient(FIRST_KEY, _stubServer.getRootUrl(), YoutubeClientRegistry.DEFAULT_MAX_CONNECTIONS);
+		_pool = YoutubeKeyPool.register(List.of(FIRST_KEY, SECOND_KEY));
+	}
+
+	@AfterEach
+	void tearDown() {
+		_stubServer.close();
+		YoutubeClientRegistry.shutdown();
+	}
+
+	@Test
+	void execute_SPREAD_BY_REMAINING_QUOTA() throws IOException {
+		for (int i = 0; i < 4; i++) {
+			search("query" + i);
+		}
+
+		assertEquals(2, _stubServer.getRequestCount(FIRST_KEY));
+		assertEquals(2, _stubServer.getRequestCount(SECOND_KEY));
+		assertEquals(2 * YoutubeQuota.SEARCH_COST, YoutubeQuota.getUsed(FIRST_KEY));
+		assertEquals(2 * YoutubeQuota.SEARCH_COST, YoutubeQuota.getUsed(SECOND_KEY));
+		assertEquals(2 * YoutubeQuota.DAILY_LIMIT - 4 * YoutubeQuota.SEARCH_COST, YoutubeKeyPool.getRemaining(_pool));
+	}
+
+	@Test
+	void execute_FAILOVER_ON_QUOTA_EXCEEDED() throws IOException {
+		_stubServer.addExhaustedKeys(FIRST_KEY);
+
+		YouTube.Search.List request = _youtube.search().list("snippet").setKey(_pool).setQ("first");
+		YoutubeRequestDispatcher.execute(request);
+		search("second");
+
+		assertEquals(_pool, request.getKey());
+		assertEquals(1, _stubServer.getRequestCount(FIRST_KEY));
+		assertEquals(2, _stubServer.getRequestCount(SECOND_KEY));
+		YoutubeKeyPool.KeyHealth health = YoutubeKeyPool.getHealth(_pool).get(0);
+		assertEquals(YoutubeKeyPool.KeyHealth.State.EXHAUSTED, health.getState());
+		assertEquals("quotaExceeded", health.getLastError());
+		assertEquals(YoutubeQuota.getNextReset(), health.getDisabledUntil());
+		assertEquals(2, YoutubeKeyPool.getHealth(_pool).get(1).getSuccesses());
+		assertEquals(YoutubeQuota.getRemaining(SECOND_KEY), YoutubeKeyPool.getRemaining(_pool));
+	}
+
+	@Test
+	void execute_INVALID_KEY_RETRIED_LATER() throws IOException {
+		_stubServer.addInvalidKeys(FIRST_KEY);
+		search("first");
+		assertEquals(YoutubeKeyPool.KeyHealth.State.INVALID, YoutubeKeyPool.getHealth(_pool).get(0).getState());
+
+		YoutubeQuota.setClock(Clock.offset(Clock.systemUTC(), YoutubeKeyPool.INVALID_KEY_RETRY.plusMinutes(1)));
+		search("second");
+
+		assertEquals(2, _stubServer.getRequestCount(FIRST_KEY));
+		assertEquals(2, _stubServer.getRequestCount(SECOND_KEY));
+		// still invalid, disabled again
+		assertEquals(2, YoutubeKeyPool.getHealth(_pool).get(0).getFailures());
+		assertEquals(YoutubeKeyPool.KeyHealth.State.INVALID, YoutubeKeyPool.getHealth(_pool).get(0).getState());
+	}
+
+	@Test
+	void execute_ALL_KEYS_EXHAUSTED() throws IOException {
+		_stubServer.addExhaustedKeys(FIRST_KEY, SECOND_KEY);
+
+		HttpResponseException exception = assertThrows(HttpResponseException.class, () -> search("first"));
+		assertEquals(403, exception.getStatusCode());
+		QuotaExceededException rejection = assertThrows(QuotaExceededException.class, () -> search("second"));
+
+		assertEquals(QuotaExceededException.Reason.DAILY_QUOTA, rejection.getReason());
+		assertEquals(2, _stubServer.getRequestCount());
+		assertEquals(0, YoutubeKeyPool.getRemaining(_pool));
+	}
+
+	@Test
+	void execute_SERVER_ERROR_NO_FAILOVER() {
+		YoutubeRequestDispatcher.setRetryPolicy(new YoutubeRetryPolicy.Builder().maxRetries(1).backoff(Duration.ofMillis(1), Duration.ofMillis(10)).build());
+		_stubServer.addFailingVideos("video");
+
+		assertThrows(HttpResponseException.class, () -> YoutubeRequestDispatcher.execute(_youtube.videos().list("snippet").setKey(_pool).setId("video")));
+
+		// retried with the same key
+		assertEquals(2, _stubServer.getRequestCount());
+		assertEquals(0, _stubServer.getRequestCount(SECOND_KEY));
+		assertEquals(YoutubeKeyPool.KeyHealth.State.HEALTHY, YoutubeKeyPool.getHealth(_pool).get(0).getState());
+	}
+
+	@Test
+	void execute_PROJECT_BUDGET_NO_FAILOVER() {
+		YouTube youtube = YoutubeClientRegistry.getClient(FIRST_KEY, _stubServer.getRootUrl(), YoutubeClientRegistry.DEFAULT_MAX_CONNECTIONS, "project");
+		YoutubeQuotaScheduler.setProjectBudget("project", 50);
+
+		QuotaExceededException exception = assertThrows(QuotaExceededException.class,
+														() -> YoutubeRequestDispatcher.execute(youtube.search().list("snippet").setKey(_pool).setQ("query")));
+
+		assertEquals(QuotaExceededException.Reason.PROJECT_BUDGET, exception.getReason());
+		assertEquals(0, _stubServer.getRequestCount());
+	}
+
+	@Test
+	void register() {
+		YoutubeKeyPool pool = YoutubeKeyPool.forKey(_pool);
+
+		assertEquals(FIRST_KEY + "," + SECOND_KEY, _pool);
+		assertEquals(_pool, YoutubeKeyPool.register(List.of(" first", "second", "", "first")));
+		assertSame(pool, YoutubeKeyPool.forKey(_pool));
+		assertEquals(SECOND_KEY, YoutubeKeyPool.register(List.of(SECOND_KEY)));
+		assertNull(YoutubeKeyPool.forKey(SECOND_KEY));
+		assertNull(YoutubeKeyPool.forKey(FIRST_KEY));
+		assertEquals(YoutubeQuota.DAILY_LIMIT, YoutubeKeyPool.getRemaining("unknown"));
+	}
+
+	@Test
+	void register_SHARED_FIRST_KEY() throws IOException {
+		_stubServer.addExhaustedKeys(FIRST_KEY);
+		search("query");
+		YoutubeKeyPool pool = YoutubeKeyPool.forKey(_pool);
+
+		// the pool of another project starting with the same key
+		String otherPool = YoutubeKeyPool.register(List.of(FIRST_KEY, "third"));
+		YoutubeKeyPool.register(List.of(FIRST_KEY, SECOND_KEY));
+
+		assertNotEquals(_pool, otherPool);
+		assertEquals(List.of(FIRST_KEY, "third"), YoutubeKeyPool.forKey(otherPool).getApiKeys());
+		assertSame(pool, YoutubeKeyPool.forKey(_pool));
+		assertEquals(YoutubeKeyPool.KeyHealth.State.EXHAUSTED, YoutubeKeyPool.getHealth(_pool).get(0).getState());
+	}
+
+	private void search(final String query) throws IOException {
+		YoutubeRequestDispatcher.execute(_youtube.search().list("snippet").setKey(_pool).setQ(query));
+	}
+}
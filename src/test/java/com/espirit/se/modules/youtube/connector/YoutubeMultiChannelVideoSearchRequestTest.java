@@ -0,0 +1,141 @@
+package com.espirit.se.modules.youtube.connector;
+
+import com.espirit.se.modules.youtube.YoutubeVideo;
+import com.espirit.se.modules.youtube.stub.YoutubeStubServer;
+import com.google.api.services.youtube.YouTube;
+import com.google.api.services.youtube.model.Channel;
+import com.google.api.services.youtube.model.ChannelSnippet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(ResetYoutubeStateExtension.class)
+class YoutubeMultiChannelVideoSearchRequestTest {
+
+	public static final String APIKEY = "apikey";
+
+	private YoutubeStubServer _stubServer;
+	private YouTube _youtube;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		_stubServer = YoutubeStubServer.start();
+		_youtube = YoutubeClientRegistry.getClient(APIKEY, _stubServer.getRootUrl(), YoutubeClientRegistry.DEFAULT_MAX_CONNECTIONS);
+	}
+
+	@AfterEach
+	void tearDown() {
+		_stubServer.close();
+		YoutubeClientRegistry.shutdown();
+	}
+
+	@Test
+	void searchVideos_CHANNELS_REQUESTED_CONCURRENTLY() throws IOException {
+		_stubServer.setLatency(100);
+		YoutubeMultiChannelVideoSearchRequest request = YoutubeMultiChannelVideoSearchRequest.createInstance(APIKEY, _youtube, "query", getChannels(10));
+
+		List<YoutubeVideo> videos = request.searchVideos(20);
+
+		assertEquals(10, _stubServer.getRequestCount());
+		assertTrue(_stubServer.getMaxConcurrentRequests() > 1, "max concurrent requests: " + _stubServer.getMaxConcurrentRequests());
+		List<String> expected = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			expected.add("channel" + i + "-0");
+			expected.add("channel" + i + "-1");
+		}
+		assertEquals(expected, videos.stream().map(YoutubeVideo::getId).collect(Collectors.toList()));
+	}
+
+	@Test
+	void searchVideos_PAGE_TOKENS_PER_CHANNEL() throws IOException {
+		_stubServer.setChannelVideoCount("channel0", 3);
+		_stubServer.setChannelVideoCount("channel1", 60);
+		YoutubeMultiChannelVideoSearchRequest request = YoutubeMultiChannelVideoSearchRequest.createInstance(APIKEY, _youtube, "query", getChannels(2));
+
+		List<String> videos = request.searchVideos(100).stream().map(YoutubeVideo::getId).collect(Collectors.toList());
+
+		List<String> expected = new ArrayList<>(List.of("channel0-0", "channel0-1", "channel0-2"));
+		for (int i = 0; i < 60; i++) {
+			expected.add("channel1-" + i);
+		}
+		assertEquals(expected, videos);
+		assertEquals(3, _stubServer.getRequestCount());
+		assertEquals(63, request.getTotal());
+		assertFalse(request.hasNext());
+	}
+
+	@Test
+	void searchVideos_SURPLUS_BUFFERED() throws IOException {
+		YoutubeMultiChannelVideoSearchRequest request = YoutubeMultiChannelVideoSearchRequest.createInstance(APIKEY, _youtube, "query", getChannels(2));
+
+		List<String> videos = new ArrayList<>();
+		for (int page = 0; page < 5; page++) {
+			request.searchVideos(20).stream().map(YoutubeVideo::getId).forEach(videos::add);
+		}
+
+		// 50 videos per channel are fetched by the first page and last for five pages of 20
+		assertEquals(2, _stubServer.getRequestCount());
+		assertEquals(100, videos.size());
+		assertEquals(List.of("channel0-0", "channel0-1"), videos.subList(0, 2));
+		assertEquals(List.of("channel0-40", "channel0-41"), videos.subList(80, 82));
+		assertEquals(List.of("channel1-48", "channel1-49"), videos.subList(98, 100));
+		assertTrue(request.hasNext());
+	}
+
+	@Test
+	void searchVideos_FAILED_CHANNEL_ISOLATED() throws IOException {
+		_stubServer.addFailingChannels("channel1");
+		_stubServer.setChannelVideoCount("channel0", 4);
+		_stubServer.setChannelVideoCount("channel1", 4);
+		_stubServer.setChannelVideoCount("channel2", 4);
+		YoutubeMultiChannelVideoSearchRequest request = YoutubeMultiChannelVideoSearchRequest.createInstance(APIKEY, _youtube, "query", getChannels(3));
+
+		List<String> videos = request.searchVideos(6).stream().map(YoutubeVideo::getId).collect(Collectors.toList());
+
+		// the failed channel is requested once, its share is taken from the other channels
+		assertEquals(List.of("channel0-0", "channel0-1", "channel2-0", "channel2-1", "channel0-2", "channel2-2"), videos);
+		assertTrue(request.hasNext());
+		assertEquals(-1, request.getTotal());
+
+		_stubServer.removeFailingChannels("channel1");
+		videos = request.searchVideos(6).stream().map(YoutubeVideo::getId).collect(Collectors.toList());
+
+		// the channel is back in the next call
+		assertEquals(List.of("channel0-3", "channel1-0", "channel1-1", "channel2-3", "channel1-2", "channel1-3"), videos);
+		assertFalse(request.hasNext());
+		assertEquals(12, request.getTotal());
+	}
+
+	@Test
+	void searchVideos_FAILING_CHANNEL_GIVEN_UP() throws IOException {
+		_stubServer.addFailingChannels("channel1");
+		_stubServer.setChannelVideoCount("channel0", 2);
+		YoutubeMultiChannelVideoSearchRequest request = YoutubeMultiChannelVideoSearchRequest.createInstance(APIKEY, _youtube, "query", getChannels(2));
+
+		assertEquals(List.of("channel0-0", "channel0-1"), request.searchVideos(4).stream().map(YoutubeVideo::getId).collect(Collectors.toList()));
+		for (int i = 1; i < YoutubeChannelVideosRequest.MAX_CHANNEL_FAILURES; i++) {
+			assertTrue(request.hasNext());
+			assertTrue(request.searchVideos(4).isEmpty());
+		}
+
+		assertFalse(request.hasNext());
+	}
+
+	private static List<Channel> getChannels(final int count) {
+		List<Channel> channels = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			channels.add(new Channel().setId("channel" + i).setSnippet(new ChannelSnippet().setTitle("Channel " + i)));
+		}
+		return channels;
+	}
+}
@@ -0,0 +1,97 @@
+package com.espirit.se.modules.youtube.connector;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(ResetYoutubeStateExtension.class)
+class YoutubeQuotaSchedulerTest {
+
+	public static final String APIKEY = "apikey";
+
+	@Test
+	void acquire_PRIORITY_RESERVES() throws QuotaExceededException {
+		YoutubeQuota.record(APIKEY, 6950);
+
+		YoutubeQuotaScheduler.acquire(APIKEY, null, 50, YoutubeQuotaScheduler.Priority.BACKGROUND);
+		QuotaExceededException exception = assertThrows(QuotaExceededException.class,
+														() -> YoutubeQuotaScheduler.acquire(APIKEY, null, 1, YoutubeQuotaScheduler.Priority.BACKGROUND));
+		assertEquals(QuotaExceededException.Reason.DAILY_QUOTA, exception.getReason());
+		YoutubeQuotaScheduler.acquire(APIKEY, null, 100, YoutubeQuotaScheduler.Priority.INTERACTIVE);
+
+		YoutubeQuota.record(APIKEY, 1900);
+		assertThrows(QuotaExceededException.class, () -> YoutubeQuotaScheduler.acquire(APIKEY, null, 100, YoutubeQuotaScheduler.Priority.INTERACTIVE));
+		YoutubeQuotaScheduler.acquire(APIKEY, null, 1, YoutubeQuotaScheduler.Priority.GENERATION);
+
+		assertEquals(9001, YoutubeQuota.getUsed(APIKEY));
+	}
+
+	@Test
+	void acquire_PROJECT_BUDGET() throws QuotaExceededException {
+		YoutubeQuotaScheduler.setProjectBudget("project", 200);
+
+		YoutubeQuotaScheduler.acquire(APIKEY, "project", 100, YoutubeQuotaScheduler.Priority.INTERACTIVE);
+		QuotaExceededException exception = assertThrows(QuotaExceededException.class,
+														() -> YoutubeQuotaScheduler.acquire(APIKEY, "project", 100, YoutubeQuotaScheduler.Priority.INTERACTIVE));
+		YoutubeQuotaScheduler.acquire(APIKEY, "other", 100, YoutubeQuotaScheduler.Priority.INTERACTIVE);
+		YoutubeQuotaScheduler.acquire(APIKEY, "project", 100, YoutubeQuotaScheduler.Priority.GENERATION);
+
+		assertEquals(QuotaExceededException.Reason.PROJECT_BUDGET, exception.getReason());
+		assertTrue(exception.getMessage().contains("'project'"), exception.getMessage());
+		assertEquals(200, YoutubeQuota.getUsedByProject("project"));
+		assertEquals(300, YoutubeQuota.getUsed(APIKEY));
+	}
+
+	@Test
+	void acquire_DELAYED_BY_RATE_LIMIT() throws QuotaExceededException {
+		YoutubeQuotaScheduler.configure(100, 1000);
+		YoutubeQuotaScheduler.acquire(APIKEY, null, 100, YoutubeQuotaScheduler.Priority.INTERACTIVE);
+
+		long start = System.nanoTime();
+		YoutubeQuotaScheduler.acquire(APIKEY, null, 100, YoutubeQuotaScheduler.Priority.INTERACTIVE);
+
+		assertTrue(System.nanoTime() - start >= 50_000_000L);
+		assertEquals(200, YoutubeQuota.getUsed(APIKEY));
+	}
+
+	@Test
+	void acquire_REJECTED_BY_RATE_LIMIT() throws QuotaExceededException {
+		YoutubeQuotaScheduler.configure(100, 1);
+		YoutubeQuotaScheduler.acquire(APIKEY, null, 100, YoutubeQuotaScheduler.Priority.INTERACTIVE);
+
+		QuotaExceededException exception = assertThrows(QuotaExceededException.class,
+														() -> YoutubeQuotaScheduler.acquire(APIKEY, null, 100, YoutubeQuotaScheduler.Priority.INTERACTIVE));
+
+		assertEquals(QuotaExceededException.Reason.RATE_LIMIT, exception.getReason());
+		assertEquals(100, YoutubeQuota.getUsed(APIKEY));
+	}
+
+	@Test
+	void acquire_HIGHER_PRIORITY_FIRST() throws Exception {
+		YoutubeQuotaScheduler.configure(100, 200);
+		YoutubeQuotaScheduler.acquire(APIKEY, null, 100, YoutubeQuotaScheduler.Priority.GENERATION);
+		List<YoutubeQuotaScheduler.Priority> admitted = new CopyOnWriteArrayList<>();
+		Thread background = new Thread(() -> {
+			try {
+				YoutubeQuotaScheduler.acquire(APIKEY, null, 100, YoutubeQuotaScheduler.Priority.BACKGROUND);
+				admitted.add(YoutubeQuotaScheduler.Priority.BACKGROUND);
+			} catch (QuotaExceededException e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		background.start();
+		Thread.sleep(100);
+
+		YoutubeQuotaScheduler.acquire(APIKEY, null, 100, YoutubeQuotaScheduler.Priority.GENERATION);
+		admitted.add(YoutubeQuotaScheduler.Priority.GENERATION);
+		background.join(5000);
+
+		assertEquals(List.of(YoutubeQuotaScheduler.Priority.GENERATION, YoutubeQuotaScheduler.Priority.BACKGROUND), admitted);
+	}
+}
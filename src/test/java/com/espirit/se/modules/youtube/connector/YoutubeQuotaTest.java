@@ -0,0 +1,103 @@
+package com.espirit.se.modules.youtube.connector;
+
+import com.espirit.se.modules.youtube.ledger.LedgerEntry;
+import com.espirit.se.modules.youtube.ledger.QuotaLedger;
+import com.google.api.services.youtube.YouTube;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+@ExtendWith(ResetYoutubeStateExtension.class)
+class YoutubeQuotaTest {
+
+	public static final String APIKEY = "apikey";
+
+	@TempDir
+	Path _directory;
+
+	@AfterEach
+	void tearDown() {
+		YoutubeClientRegistry.shutdown();
+	}
+
+	@Test
+	void getCost() throws IOException {
+		YouTube youtube = YoutubeClientRegistry.getClient(APIKEY);
+
+		assertEquals(YoutubeQuota.SEARCH_COST, YoutubeQuota.getCost(youtube.search().list("snippet")));
+		assertEquals(YoutubeQuota.LIST_COST, YoutubeQuota.getCost(youtube.videos().list("snippet")));
+		assertEquals(YoutubeQuota.LIST_COST, YoutubeQuota.getCost(youtube.playlistItems().list("snippet")));
+	}
+
+	@Test
+	void record_PER_API_KEY() {
+		YoutubeQuota.record(APIKEY, 100);
+		YoutubeQuota.record(APIKEY, 1);
+		YoutubeQuota.record("other", 5);
+
+		assertEquals(101, YoutubeQuota.getUsed(APIKEY));
+		assertEquals(YoutubeQuota.DAILY_LIMIT - 101, YoutubeQuota.getRemaining(APIKEY));
+		assertEquals(5, YoutubeQuota.getUsed("other"));
+		assertEquals(YoutubeQuota.DAILY_LIMIT, YoutubeQuota.getRemaining("unknown"));
+	}
+
+	@Test
+	void getRemaining_NEVER_NEGATIVE() {
+		YoutubeQuota.record(APIKEY, YoutubeQuota.DAILY_LIMIT + 100);
+
+		assertEquals(0, YoutubeQuota.getRemaining(APIKEY));
+	}
+
+	@Test
+	void record_RESET_AT_PACIFIC_MIDNIGHT() {
+		// 23:59 Pacific Daylight Time
+		YoutubeQuota.setClock(Clock.fixed(Instant.parse("2026-06-01T06:59:00Z"), ZoneOffset.UTC));
+		YoutubeQuota.record(APIKEY, 500);
+		assertEquals(500, YoutubeQuota.getUsed(APIKEY));
+
+		YoutubeQuota.setClock(Clock.fixed(Instant.parse("2026-06-01T07:00:00Z"), ZoneOffset.UTC));
+		assertEquals(0, YoutubeQuota.getUsed(APIKEY));
+		YoutubeQuota.record(APIKEY, 100);
+		assertEquals(100, YoutubeQuota.getUsed(APIKEY));
+	}
+
+	@Test
+	void restore_TODAY() throws IOException {
+		Instant now = Instant.parse("2026-06-01T19:00:00Z");
+		YoutubeQuota.setClock(Clock.fixed(now, ZoneOffset.UTC));
+		try (QuotaLedger ledger = QuotaLedger.open(_directory, Clock.fixed(now, ZoneOffset.UTC))) {
+			ledger.record(new LedgerEntry(now.toEpochMilli(), YoutubeQuota.getKeyId(APIKEY), "project", "INTERACTIVE", "search.list", 100, 20, LedgerEntry.Outcome.OK));
+			ledger.record(new LedgerEntry(now.toEpochMilli(), YoutubeQuota.getKeyId("other"), null, "INTERACTIVE", "search.list", 100, 20, LedgerEntry.Outcome.OK));
+
+			YoutubeQuota.restore(ledger.getRollup(LocalDate.of(2026, 6, 1)));
+		}
+		YoutubeQuota.record(APIKEY, "project", 1);
+
+		assertEquals(101, YoutubeQuota.getUsed(APIKEY));
+		assertEquals(100, YoutubeQuota.getUsed("other"));
+		assertEquals(101, YoutubeQuota.getUsedByProject("project"));
+		assertEquals(0, YoutubeQuota.getUsed("unknown"));
+	}
+
+	@Test
+	void getKeyId_NO_API_KEY() {
+		String keyId = YoutubeQuota.getKeyId(APIKEY);
+
+		assertEquals(12, keyId.length());
+		assertEquals(keyId, YoutubeQuota.getKeyId(APIKEY));
+		assertNotEquals(keyId, YoutubeQuota.getKeyId("other"));
+		assertFalse(keyId.contains(APIKEY));
+	}
+}
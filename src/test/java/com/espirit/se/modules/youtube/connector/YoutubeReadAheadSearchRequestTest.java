@@ -0,0 +1,139 @@
+package com.espirit.se.modules.youtube.connector;
+
+import com.espirit.se.modules.youtube.YoutubeVideo;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class YoutubeReadAheadSearchRequestTest {
+
+	@Test
+	void searchVideos_SERVED_FROM_BUFFER() throws InterruptedException {
+		VideoSource source = new VideoSource(100);
+		YoutubeReadAheadSearchRequest request = new YoutubeReadAheadSearchRequest(source, 2);
+
+		assertEquals(List.of("0", "1", "2", "3", "4"), getIds(request.searchVideos(5)));
+		assertTrue(source._readAheadStarted.await(5, TimeUnit.SECONDS));
+		source._release.countDown();
+
+		assertEquals(List.of("5", "6", "7", "8", "9"), getIds(request.searchVideos(5)));
+		assertEquals(List.of("10", "11", "12", "13", "14"), getIds(request.searchVideos(5)));
+		// one synchronous request, then two pages read ahead in the background
+		assertEquals(List.of(5, 10), source._requestSizes.subList(0, 2));
+	}
+
+	@Test
+	void searchVideos_END_OF_SOURCE() {
+		VideoSource source = new VideoSource(7);
+		source._release.countDown();
+		YoutubeReadAheadSearchRequest request = new YoutubeReadAheadSearchRequest(source, 3);
+
+		assertEquals(5, request.searchVideos(5).size());
+		assertTrue(request.hasNext());
+		assertEquals(List.of("5", "6"), getIds(request.searchVideos(5)));
+		assertFalse(request.hasNext());
+		assertTrue(request.searchVideos(5).isEmpty());
+	}
+
+	@Test
+	void close_CANCELS_READ_AHEAD() throws InterruptedException {
+		VideoSource source = new VideoSource(100);
+		YoutubeReadAheadSearchRequest request = new YoutubeReadAheadSearchRequest(source, 1);
+
+		request.searchVideos(5);
+		assertTrue(source._readAheadStarted.await(5, TimeUnit.SECONDS));
+		request.close();
+
+		// the read ahead has stopped before the source is closed
+		assertTrue(source._interrupted.await(5, TimeUnit.SECONDS));
+		assertTrue(source._closed);
+		assertFalse(source._closedWhileSearching);
+		assertFalse(request.hasNext());
+		assertTrue(request.searchVideos(5).isEmpty());
+	}
+
+	private static List<String> getIds(final List<YoutubeVideo> videos) {
+		return videos.stream().map(YoutubeVideo::getId).collect(Collectors.toList());
+	}
+
+	/**
+	 * Source of numbered videos, every request but the first one blocks until released.
+	 */
+	private static class VideoSource implements YoutubeVideoSearchRequest {
+
+		private final int _total;
+		private final AtomicInteger _next = new AtomicInteger();
+		private final List<Integer> _requestSizes = new CopyOnWriteArrayList<>();
+		private final CountDownLatch _readAheadStarted = new CountDownLatch(1);
+		private final CountDownLatch _release = new CountDownLatch(1);
+		private final CountDownLatch _interrupted = new CountDownLatch(1);
+		private volatile boolean _closed;
+		private volatile boolean _searching;
+		private volatile boolean _closedWhileSearching;
+
+		private VideoSource(final int total) {
+			_total = total;
+		}
+
+		@Override
+		public int getTotal() {
+			return _total;
+		}
+
+		@Override
+		public List<YoutubeVideo> searchVideos(final int count) {
+			_searching = true;
+			try {
+				_requestSizes.add(count);
+				if (_requestSizes.size() > 1) {
+					_readAheadStarted.countDown();
+					try {
+						_release.await();
+					} catch (InterruptedException e) {
+						// lets the close wait a bit for the read ahead still running
+						sleep();
+						_interrupted.countDown();
+						return new ArrayList<>();
+					}
+				}
+				List<YoutubeVideo> videos = new ArrayList<>();
+				while (videos.size() < count && _next.get() < _total) {
+					String id = String.valueOf(_next.getAndIncrement());
+					videos.add(new YoutubeVideo(id, "Video " + id, "", "", ""));
+				}
+				return videos;
+			} finally {
+				_searching = false;
+			}
+		}
+
+		private static void sleep() {
+			try {
+				Thread.sleep(100);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return _next.get() < _total;
+		}
+
+		@Override
+		public void close() {
+			_closedWhileSearching = _searching;
+			_closed = true;
+		}
+	}
+}
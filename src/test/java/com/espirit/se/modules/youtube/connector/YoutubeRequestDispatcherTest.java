@@ -0,0 +1,321 @@
+package com.espirit.se.modules.youtube.connector;
+
+import com.espirit.se.modules.youtube.YoutubeVideo;
+import com.espirit.se.modules.youtube.catalog.VideoCatalogs;
+import com.espirit.se.modules.youtube.ledger.LedgerEntry;
+import com.espirit.se.modules.youtube.ledger.QuotaLedger;
+import com.espirit.se.modules.youtube.ledger.QuotaLedgers;
+import com.espirit.se.modules.youtube.stub.YoutubeStubServer;
+import com.google.api.client.http.HttpResponseException;
+import com.google.api.services.youtube.YouTube;
+import com.google.api.services.youtube.model.VideoListResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(ResetYoutubeStateExtension.class)
+class YoutubeRequestDispatcherTest {
+
+	public static final String APIKEY = "apikey";
+
+	@TempDir
+	Path _directory;
+
+	private YoutubeStubServer _stubServer;
+	private YouTube _youtube;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		_stubServer = YoutubeStubServer.start();
+		_youtube = YoutubeClientRegistry.getClient(APIKEY, _stubServer.getRootUrl(), YoutubeClientRegistry.DEFAULT_MAX_CONNECTIONS);
+	}
+
+	@AfterEach
+	void tearDown() {
+		_stubServer.close();
+		YoutubeClientRegistry.shutdown();
+	}
+
+	@Test
+	void execute_CONCURRENT_IDENTICAL_LOOKUPS_COALESCED() throws Exception {
+		_stubServer.setLatency(500);
+		YoutubeConnector connector = new YoutubeConnector(_youtube, new ArrayList<>(), APIKEY);
+		int lookups = 100;
+		ExecutorService executor = Executors.newFixedThreadPool(lookups);
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<List<VideoLookupResult>>> futures = new ArrayList<>();
+			for (int i = 0; i < lookups; i++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					return connector.lookupVideos(List.of("first", "second"));
+				}));
+			}
+			start.countDown();
+
+			List<VideoLookupResult> firstResults = futures.get(0).get(10, TimeUnit.SECONDS);
+			for (final Future<List<VideoLookupResult>> future : futures) {
+				List<VideoLookupResult> results = future.get(10, TimeUnit.SECONDS);
+				assertEquals(2, results.size());
+				assertTrue(results.get(0).isFound());
+				assertEquals("second", results.get(1).getVideo().getId());
+			}
+			assertEquals(1, _stubServer.getRequestCount());
+			assertEquals(0, YoutubeRequestDispatcher.getInFlightCount());
+			assertNotSame(firstResults.get(0).getVideo(), futures.get(1).get().get(0).getVideo());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void execute_FAILURE_RELEASED() throws IOException {
+		_stubServer.addFailingVideos("broken");
+		YouTube.Videos.List request = _youtube.videos().list("snippet").setKey(APIKEY).setId("broken");
+
+		assertThrows(IOException.class, () -> YoutubeRequestDispatcher.execute(request));
+		assertEquals(0, YoutubeRequestDispatcher.getInFlightCount());
+	}
+
+	@Test
+	void execute_PAGES_CACHED() throws IOException {
+		YoutubeConnector connector = new YoutubeConnector(_youtube, new ArrayList<>(), APIKEY);
+
+		List<YoutubeVideo> videos = connector.getSearchRequest("Some  Query", null).searchVideos(20);
+		List<YoutubeVideo> cachedVideos = connector.getSearchRequest(" some query ", null).searchVideos(20);
+
+		assertEquals(1, _stubServer.getRequestCount());
+		assertEquals(videos.stream().map(YoutubeVideo::getId).collect(Collectors.toList()),
+					 cachedVideos.stream().map(YoutubeVideo::getId).collect(Collectors.toList()));
+
+		connector.getSearchRequest("other query", null).searchVideos(20);
+		assertEquals(2, _stubServer.getRequestCount());
+	}
+
+	@Test
+	void execute_VIDEOS_NOT_CACHED() throws IOException {
+		YoutubeRequestDispatcher.execute(_youtube.videos().list("snippet").setKey(APIKEY).setId("first"));
+		YoutubeRequestDispatcher.execute(_youtube.videos().list("snippet").setKey(APIKEY).setId("first"));
+
+		assertEquals(2, _stubServer.getRequestCount());
+	}
+
+	@Test
+	void execute_QUOTA_RECORDED() throws IOException {
+		YouTube.Search.List search = _youtube.search().list("snippet").setKey(APIKEY).setQ("query").setMaxResults(50L);
+
+		YoutubeRequestDispatcher.execute(search);
+		assertTrue(YoutubeRequestDispatcher.isCached(search));
+		YoutubeRequestDispatcher.execute(search);
+		YoutubeRequestDispatcher.execute(_youtube.videos().list("snippet").setKey(APIKEY).setId("first"));
+
+		// the cached page costs nothing
+		assertEquals(YoutubeQuota.SEARCH_COST + YoutubeQuota.LIST_COST, YoutubeQuota.getUsed(APIKEY));
+	}
+
+	@Test
+	void execute_PROJECTS_ATTRIBUTED() throws IOException {
+		YouTube first = YoutubeClientRegistry.getClient(APIKEY, _stubServer.getRootUrl(), YoutubeClientRegistry.DEFAULT_MAX_CONNECTIONS, "first");
+		YouTube second = YoutubeClientRegistry.getClient(APIKEY, _stubServer.getRootUrl(), YoutubeClientRegistry.DEFAULT_MAX_CONNECTIONS, "second");
+		YoutubeQuotaScheduler.setProjectBudget("second", 100);
+
+		YoutubeRequestDispatcher.execute(first.search().list("snippet").setKey(APIKEY).setQ("query"));
+		// the page of the first project is shared
+		YoutubeRequestDispatcher.execute(second.search().list("snippet").setKey(APIKEY).setQ("query"));
+		YoutubeRequestDispatcher.execute(second.videos().list("snippet").setKey(APIKEY).setId("first"));
+
+		assertEquals(2, _stubServer.getRequestCount());
+		assertEquals(YoutubeQuota.SEARCH_COST, YoutubeQuota.getUsedByProject("first"));
+		assertEquals(YoutubeQuota.LIST_COST, YoutubeQuota.getUsedByProject("second"));
+		assertThrows(QuotaExceededException.class, () -> YoutubeRequestDispatcher.execute(second.search().list("snippet").setKey(APIKEY).setQ("other")));
+	}
+
+	@Test
+	void execute_REJECTION_COUNTED() throws IOException {
+		YouTube youtube = YoutubeClientRegistry.getClient(APIKEY, _stubServer.getRootUrl(), YoutubeClientRegistry.DEFAULT_MAX_CONNECTIONS, "project");
+		YoutubeQuotaScheduler.setProjectBudget("project", 50);
+		long rejections = YoutubeRequestDispatcher.getRejectionCount(QuotaExceededException.Reason.PROJECT_BUDGET);
+
+		assertThrows(QuotaExceededException.class, () -> YoutubeRequestDispatcher.execute(youtube.search().list("snippet").setKey(APIKEY).setQ("query")));
+
+		assertEquals(rejections + 1, YoutubeRequestDispatcher.getRejectionCount(QuotaExceededException.Reason.PROJECT_BUDGET));
+		assertEquals(0, _stubServer.getRequestCount());
+	}
+
+	@Test
+	void execute_RECORDED_IN_LEDGER() throws IOException {
+		System.setProperty(VideoCatalogs.DATA_DIRECTORY_PROPERTY, _directory.toString());
+		try {
+			QuotaLedgers.open();
+			YouTube youtube = YoutubeClientRegistry.getClient(APIKEY, _stubServer.getRootUrl(), YoutubeClientRegistry.DEFAULT_MAX_CONNECTIONS, "project");
+			YoutubeQuotaScheduler.setProjectBudget("project", 150);
+
+			YoutubeRequestDispatcher.execute(youtube.search().list("snippet").setKey(APIKEY).setQ("query"), YoutubeQuotaScheduler.Priority.GENERATION);
+			assertThrows(QuotaExceededException.class, () -> YoutubeRequestDispatcher.execute(youtube.search().list("snippet").setKey(APIKEY).setQ("other")));
+
+			List<LedgerEntry> entries = QuotaLedgers.get().getEntries(LocalDate.now(QuotaLedger.DAY_ZONE));
+			assertEquals(2, entries.size());
+			assertEquals("search.list", entries.get(0).getMethod());
+			assertEquals("project", entries.get(0).getProject());
+			assertEquals("GENERATION", entries.get(0).getFeature());
+			assertEquals(YoutubeQuota.SEARCH_COST, entries.get(0).getUnits());
+			assertEquals(LedgerEntry.Outcome.OK, entries.get(0).getOutcome());
+			assertEquals(YoutubeQuota.getKeyId(APIKEY), entries.get(0).getKeyId());
+			assertEquals(LedgerEntry.Outcome.REJECTED, entries.get(1).getOutcome());
+			assertEquals(0, entries.get(1).getUnits());
+		} finally {
+			QuotaLedgers.close();
+			System.clearProperty(VideoCatalogs.DATA_DIRECTORY_PROPERTY);
+		}
+	}
+
+	@Test
+	void execute_TRANSIENT_FAILURE_RETRIED() throws IOException {
+		YoutubeRequestDispatcher.setRetryPolicy(new YoutubeRetryPolicy.Builder().backoff(Duration.ofMillis(1), Duration.ofMillis(10)).build());
+		long retries = YoutubeRequestDispatcher.getRetryCount();
+		_stubServer.failNextRequests(2);
+
+		VideoListResponse response = YoutubeRequestDispatcher.execute(_youtube.videos().list("snippet").setKey(APIKEY).setId("first"));
+
+		assertEquals("first", response.getItems().get(0).getId());
+		assertEquals(3, _stubServer.getRequestCount());
+		assertEquals(retries + 2, YoutubeRequestDispatcher.getRetryCount());
+		// every attempt costs quota
+		assertEquals(3L * YoutubeQuota.LIST_COST, YoutubeQuota.getUsed(APIKEY));
+	}
+
+	@Test
+	void execute_RETRIES_EXHAUSTED() {
+		YoutubeRequestDispatcher.setRetryPolicy(new YoutubeRetryPolicy.Builder().maxRetries(2).backoff(Duration.ofMillis(1), Duration.ofMillis(10)).build());
+		_stubServer.failNextRequests(10);
+
+		HttpResponseException exception = assertThrows(HttpResponseException.class,
+													   () -> YoutubeRequestDispatcher.execute(_youtube.videos().list("snippet").setKey(APIKEY).setId("first")));
+
+		assertEquals(503, exception.getStatusCode());
+		assertEquals(3, _stubServer.getRequestCount());
+	}
+
+	@Test
+	void execute_CLIENT_ERROR_NOT_RETRIED() {
+		_stubServer.addInvalidKeys(APIKEY);
+
+		assertThrows(HttpResponseException.class, () -> YoutubeRequestDispatcher.execute(_youtube.videos().list("snippet").setKey(APIKEY).setId("first")));
+		assertEquals(1, _stubServer.getRequestCount());
+	}
+
+	@Test
+	void execute_READ_TIMEOUT_RETRIED() throws IOException {
+		YoutubeRequestDispatcher.setRetryPolicy(new YoutubeRetryPolicy.Builder().readTimeout(Duration.ofMillis(200)).backoff(Duration.ofMillis(1), Duration.ofMillis(10)).build());
+		_stubServer.slowDownNextRequests(1, 2000);
+
+		VideoListResponse response = YoutubeRequestDispatcher.execute(_youtube.videos().list("snippet").setKey(APIKEY).setId("first"));
+
+		assertEquals("first", response.getItems().get(0).getId());
+		assertEquals(2, _stubServer.getRequestCount());
+	}
+
+	@Test
+	void execute_SLOW_REQUEST_HEDGED() throws IOException {
+		YoutubeRequestDispatcher.setRetryPolicy(new YoutubeRetryPolicy.Builder().hedging(true).minHedgeDelay(Duration.ofMillis(100)).build());
+		for (int i = 0; i < YoutubeRequestDispatcher.MIN_HEDGE_SAMPLES; i++) {
+			YoutubeRequestDispatcher.execute(_youtube.videos().list("snippet").setKey(APIKEY).setId("video" + i));
+		}
+		long hedges = YoutubeRequestDispatcher.getHedgeCount();
+		_stubServer.slowDownNextRequests(1, 5000);
+
+		long start = System.nanoTime();
+		VideoListResponse response = YoutubeRequestDispatcher.execute(_youtube.videos().list("snippet").setKey(APIKEY).setId("first"));
+
+		assertTrue(System.nanoTime() - start < Duration.ofSeconds(3).toNanos());
+		assertEquals("first", response.getItems().get(0).getId());
+		assertEquals(hedges + 1, YoutubeRequestDispatcher.getHedgeCount());
+		assertEquals(YoutubeRequestDispatcher.MIN_HEDGE_SAMPLES + 2, _stubServer.getRequestCount());
+	}
+
+	@Test
+	void execute_POOLED_REQUEST_HEDGED_ON_COPIES() throws IOException, InterruptedException {
+		String pool = YoutubeKeyPool.register(List.of("first", "second"));
+		YoutubeRequestDispatcher.setRetryPolicy(new YoutubeRetryPolicy.Builder().hedging(true).minHedgeDelay(Duration.ofMillis(100)).build());
+		for (int i = 0; i < YoutubeRequestDispatcher.MIN_HEDGE_SAMPLES; i++) {
+			YoutubeRequestDispatcher.execute(_youtube.videos().list("snippet").setKey(pool).setId("video" + i));
+		}
+		long hedges = YoutubeRequestDispatcher.getHedgeCount();
+		_stubServer.slowDownNextRequests(1, 1000);
+
+		YouTube.Videos.List request = _youtube.videos().list("snippet").setKey(pool).setId("first");
+		VideoListResponse response = YoutubeRequestDispatcher.execute(request);
+
+		assertEquals("first", response.getItems().get(0).getId());
+		assertEquals(hedges + 1, YoutubeRequestDispatcher.getHedgeCount());
+		// the request keeps the id of the pool, the primary still in flight is sent on its own copy
+		assertEquals(pool, request.getKey());
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (_stubServer.getRequestCount("first") + _stubServer.getRequestCount("second") < YoutubeRequestDispatcher.MIN_HEDGE_SAMPLES + 2
+			   && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		assertEquals(YoutubeRequestDispatcher.MIN_HEDGE_SAMPLES + 2, _stubServer.getRequestCount("first") + _stubServer.getRequestCount("second"));
+		assertEquals(0, _stubServer.getRequestCount(pool));
+	}
+
+	@Test
+	void getLatencyPercentileMillis() throws IOException {
+		assertEquals(-1, YoutubeRequestDispatcher.getLatencyPercentileMillis(YoutubeRetryPolicy.HEDGE_PERCENTILE));
+		for (int i = 0; i < YoutubeRequestDispatcher.MIN_HEDGE_SAMPLES; i++) {
+			YoutubeRequestDispatcher.execute(_youtube.videos().list("snippet").setKey(APIKEY).setId("video" + i));
+		}
+
+		double median = YoutubeRequestDispatcher.getLatencyPercentileMillis(50);
+		assertTrue(median > 0);
+		assertTrue(YoutubeRequestDispatcher.getLatencyPercentileMillis(YoutubeRetryPolicy.HEDGE_PERCENTILE) >= median);
+	}
+
+	@Test
+	void getMethod() throws IOException {
+		assertEquals("search.list", YoutubeRequestDispatcher.getMethod(_youtube.search().list("snippet")));
+		assertEquals("playlistItems.list", YoutubeRequestDispatcher.getMethod(_youtube.playlistItems().list("snippet")));
+	}
+
+	@Test
+	void getKey_NORMALIZED() throws IOException {
+		String key = YoutubeRequestDispatcher.getKey(_youtube.search().list("snippet").setKey(APIKEY).setQ("query").setPageToken("token"));
+
+		assertEquals(key, YoutubeRequestDispatcher.getKey(_youtube.search().list("snippet").setPageToken("token").setQ("query").setKey(APIKEY)));
+		assertNotEquals(key, YoutubeRequestDispatcher.getKey(_youtube.search().list("snippet").setKey(APIKEY).setQ("query").setPageToken("other")));
+		assertNotEquals(key, YoutubeRequestDispatcher.getKey(_youtube.search().list("snippet").setKey("other").setQ("query").setPageToken("token")));
+	}
+
+	@Test
+	void getKey_QUERY_NORMALIZED() throws IOException {
+		YouTube.Search.List request = _youtube.search().list("snippet").setKey(APIKEY).setQ("Breaking  News");
+		String key = YoutubeRequestDispatcher.getKey(request);
+
+		assertEquals(key, YoutubeRequestDispatcher.getKey(_youtube.search().list("snippet").setKey(APIKEY).setQ("breaking news")));
+		assertNotEquals(YoutubeRequestDispatcher.getKey(_youtube.search().list("snippet").setKey(APIKEY).setQ("news OR sports")),
+						YoutubeRequestDispatcher.getKey(_youtube.search().list("snippet").setKey(APIKEY).setQ("news or sports")));
+		// the query is sent as typed
+		assertEquals("Breaking  News", request.getQ());
+	}
+}
@@ -0,0 +1,61 @@
+package com.espirit.se.modules.youtube.connector;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class YoutubeRetryPolicyTest {
+
+	@Test
+	void getMaxBackoffMillis_CAPPED() {
+		YoutubeRetryPolicy policy = new YoutubeRetryPolicy.Builder().backoff(Duration.ofMillis(100), Duration.ofSeconds(1)).build();
+
+		assertEquals(100, policy.getMaxBackoffMillis(0));
+		assertEquals(200, policy.getMaxBackoffMillis(1));
+		assertEquals(800, policy.getMaxBackoffMillis(3));
+		assertEquals(1000, policy.getMaxBackoffMillis(4));
+		assertEquals(1000, policy.getMaxBackoffMillis(100));
+	}
+
+	@Test
+	void getBackoff_JITTERED() {
+		YoutubeRetryPolicy policy = new YoutubeRetryPolicy.Builder().backoff(Duration.ofMillis(100), Duration.ofSeconds(1)).build();
+
+		long min = Long.MAX_VALUE;
+		long max = 0;
+		for (int i = 0; i < 1000; i++) {
+			long backoff = policy.getBackoff(2).toMillis();
+			min = Math.min(min, backoff);
+			max = Math.max(max, backoff);
+		}
+
+		assertTrue(min >= 0);
+		assertTrue(max <= 400);
+		// the backoffs are spread over the whole range
+		assertTrue(max - min > 200);
+	}
+
+	@Test
+	void fromSystemProperties() {
+		System.setProperty(YoutubeRetryPolicy.PROPERTY_PREFIX + "readTimeoutMillis", "1500");
+		System.setProperty(YoutubeRetryPolicy.PROPERTY_PREFIX + "maxRetries", "0");
+		System.setProperty(YoutubeRetryPolicy.PROPERTY_PREFIX + "hedging", "true");
+		try {
+			YoutubeRetryPolicy policy = YoutubeRetryPolicy.fromSystemProperties();
+
+			assertEquals(Duration.ofMillis(1500), policy.getReadTimeout());
+			assertEquals(YoutubeRetryPolicy.DEFAULT_CONNECT_TIMEOUT, policy.getConnectTimeout());
+			assertEquals(0, policy.getMaxRetries());
+			assertTrue(policy.isHedging());
+		} finally {
+			System.clearProperty(YoutubeRetryPolicy.PROPERTY_PREFIX + "readTimeoutMillis");
+			System.clearProperty(YoutubeRetryPolicy.PROPERTY_PREFIX + "maxRetries");
+			System.clearProperty(YoutubeRetryPolicy.PROPERTY_PREFIX + "hedging");
+		}
+		assertFalse(YoutubeRetryPolicy.fromSystemProperties().isHedging());
+	}
+}
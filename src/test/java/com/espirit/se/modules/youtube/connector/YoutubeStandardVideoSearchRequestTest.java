@@ -1,5 +1,7 @@
 package com.espirit.se.modules.youtube.connector;
 
+import com.espirit.se.modules.youtube.YoutubeVideo;
+import com.espirit.se.modules.youtube.stub.YoutubeStubServer;
 import com.google.api.services.youtube.YouTube;
 import com.google.api.services.youtube.model.PageInfo;
 import com.google.api.services.youtube.model.ResourceId;
@@ -14,7 +16,9 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -24,7 +28,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-@ExtendWith(MockitoExtension.class)
+@ExtendWith({MockitoExtension.class, ResetYoutubeStateExtension.class})
 class YoutubeStandardVideoSearchRequestTest {
 
 	@Mock
@@ -32,7 +36,7 @@ class YoutubeStandardVideoSearchRequestTest {
 
 	@Test
 	void getTotal() throws IOException {
-		long requestSize = 20;
+		long requestSize = 50;
 		String pageToken = "pagetoken";
 		int totalResults = 40;
 		when(_youtubeRequestList.setMaxResults(requestSize)).thenReturn(_youtubeRequestList);
@@ -57,7 +61,7 @@ class YoutubeStandardVideoSearchRequestTest {
 
 	@Test
 	void hasNext_TRUE() throws IOException {
-		long requestSize = 20;
+		long requestSize = 50;
 		int totalResults = 40;
 		when(_youtubeRequestList.setMaxResults(requestSize)).thenReturn(_youtubeRequestList);
 
@@ -81,7 +85,7 @@ class YoutubeStandardVideoSearchRequestTest {
 
 	@Test
 	void hasNext_NOT() throws IOException {
-		long requestSize = 20;
+		long requestSize = 50;
 		int totalResults = 40;
 		when(_youtubeRequestList.setMaxResults(requestSize)).thenReturn(_youtubeRequestList);
 
@@ -105,7 +109,7 @@ class YoutubeStandardVideoSearchRequestTest {
 
 	@Test
 	void searchVideos_SET_PAGETOKEN() throws IOException {
-		long requestSize = 20;
+		long requestSize = 50;
 		String pageToken = "pagetoken";
 		int totalResults = 40;
 		when(_youtubeRequestList.setMaxResults(requestSize)).thenReturn(_youtubeRequestList);
@@ -129,6 +133,28 @@ class YoutubeStandardVideoSearchRequestTest {
 		verify(_youtubeRequestList).setPageToken(pageToken);
 	}
 
+	@Test
+	void searchVideos_SURPLUS_BUFFERED() throws IOException {
+		try (YoutubeStubServer stubServer = YoutubeStubServer.start()) {
+			YouTube youtube = YoutubeClientRegistry.getClient("apikey", stubServer.getRootUrl(), YoutubeClientRegistry.DEFAULT_MAX_CONNECTIONS);
+			YoutubeStandardVideoSearchRequest youtubeStandardVideoSearchRequest = YoutubeStandardVideoSearchRequest.createInstance("apikey", youtube, "query", null);
+
+			List<YoutubeVideo> videos = new ArrayList<>();
+			for (int page = 0; page < 5; page++) {
+				videos.addAll(youtubeStandardVideoSearchRequest.searchVideos(10));
+			}
+			assertEquals(1, stubServer.getRequestCount());
+			assertEquals("all-0", videos.get(0).getId());
+			assertEquals("all-49", videos.get(49).getId());
+
+			videos = youtubeStandardVideoSearchRequest.searchVideos(10);
+			assertEquals(2, stubServer.getRequestCount());
+			assertEquals("all-50", videos.get(0).getId());
+		} finally {
+			YoutubeClientRegistry.shutdown();
+		}
+	}
+
 	private SearchResult getSearchResultMock() {
 		SearchResult searchResultMock = mock(SearchResult.class);
 		SearchResultSnippet searchResultSnippetMock = mock(SearchResultSnippet.class);
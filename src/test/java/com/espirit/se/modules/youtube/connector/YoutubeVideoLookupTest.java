@@ -0,0 +1,150 @@
+package com.espirit.se.modules.youtube.connector;
+
+import com.espirit.se.modules.youtube.YoutubeVideo;
+import com.espirit.se.modules.youtube.stub.YoutubeStubServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(ResetYoutubeStateExtension.class)
+class YoutubeVideoLookupTest {
+
+	public static final String APIKEY = "apikey";
+
+	private YoutubeStubServer _stubServer;
+	private YoutubeVideoLookup _lookup;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		_stubServer = YoutubeStubServer.start();
+		_lookup = new YoutubeVideoLookup(YoutubeClientRegistry.getClient(APIKEY, _stubServer.getRootUrl(), 10), APIKEY, 2);
+	}
+
+	@AfterEach
+	void tearDown() {
+		_stubServer.close();
+		YoutubeClientRegistry.shutdown();
+	}
+
+	@Test
+	void lookup_CHUNKED_IN_REQUESTED_ORDER() {
+		List<String> videoIds = new ArrayList<>();
+		for (int i = 120; i > 0; i--) {
+			videoIds.add("video" + i);
+		}
+		videoIds.add("video7");
+		videoIds.add("video120");
+
+		List<VideoLookupResult> results = _lookup.lookup(videoIds);
+
+		assertEquals(3, _stubServer.getRequestCount());
+		assertEquals(videoIds.size(), results.size());
+		for (int i = 0; i < videoIds.size(); i++) {
+			VideoLookupResult result = results.get(i);
+			assertEquals(VideoLookupResult.Status.FOUND, result.getStatus());
+			assertEquals(videoIds.get(i), result.getVideoId());
+			assertEquals(videoIds.get(i), result.getVideo().getId());
+			assertEquals("Video " + videoIds.get(i), result.getVideo().getTitle());
+		}
+	}
+
+	@Test
+	void lookup_BOUNDED_PARALLELISM() {
+		_stubServer.setLatency(50);
+		List<String> videoIds = new ArrayList<>();
+		for (int i = 0; i < 300; i++) {
+			videoIds.add("video" + i);
+		}
+
+		List<VideoLookupResult> results = _lookup.lookup(videoIds);
+
+		assertEquals(300, results.size());
+		assertEquals(6, _stubServer.getRequestCount());
+		assertTrue(_stubServer.getMaxConcurrentRequests() <= 2, "max concurrent requests: " + _stubServer.getMaxConcurrentRequests());
+	}
+
+	@Test
+	void lookup_NOT_FOUND_MARKED() {
+		_stubServer.addMissingVideos("missing");
+
+		List<VideoLookupResult> results = _lookup.lookup(List.of("first", "missing", "", "second"));
+
+		assertEquals(1, _stubServer.getRequestCount());
+		assertEquals(VideoLookupResult.Status.FOUND, results.get(0).getStatus());
+		assertEquals(VideoLookupResult.Status.NOT_FOUND, results.get(1).getStatus());
+		assertNull(results.get(1).getVideo());
+		assertEquals(VideoLookupResult.Status.NOT_FOUND, results.get(2).getStatus());
+		assertEquals("second", results.get(3).getVideo().getId());
+	}
+
+	@Test
+	void lookup_FAILED_CHUNK_MARKED() {
+		List<String> videoIds = new ArrayList<>();
+		for (int i = 0; i < 60; i++) {
+			videoIds.add("video" + i);
+		}
+		_stubServer.addFailingVideos("video55");
+
+		List<VideoLookupResult> results = _lookup.lookup(videoIds);
+
+		for (int i = 0; i < 50; i++) {
+			assertEquals(VideoLookupResult.Status.FOUND, results.get(i).getStatus());
+		}
+		for (int i = 50; i < 60; i++) {
+			assertEquals(VideoLookupResult.Status.FAILED, results.get(i).getStatus());
+			assertNull(results.get(i).getVideo());
+		}
+	}
+
+	@Test
+	void revalidate_NOT_MODIFIED() {
+		List<String> videoIds = new ArrayList<>();
+		for (int i = 0; i < 60; i++) {
+			videoIds.add("video" + i);
+		}
+		List<YoutubeVideo> videos = _lookup.lookup(videoIds).stream().map(VideoLookupResult::getVideo).collect(Collectors.toList());
+
+		List<VideoLookupResult> results = _lookup.revalidate(videos);
+
+		assertEquals(4, _stubServer.getRequestCount());
+		assertEquals(2, _stubServer.getNotModifiedCount());
+		for (int i = 0; i < videos.size(); i++) {
+			assertEquals(VideoLookupResult.Status.NOT_MODIFIED, results.get(i).getStatus());
+			assertSame(videos.get(i), results.get(i).getVideo());
+		}
+	}
+
+	@Test
+	void revalidate_MODIFIED() {
+		List<YoutubeVideo> videos = _lookup.lookup(List.of("first", "second", "third")).stream().map(VideoLookupResult::getVideo).collect(Collectors.toList());
+		List<YoutubeVideo> otherVideos = _lookup.lookup(List.of("fourth")).stream().map(VideoLookupResult::getVideo).collect(Collectors.toList());
+		_stubServer.updateVideos("second");
+		_stubServer.addMissingVideos("third");
+
+		List<YoutubeVideo> cachedVideos = new ArrayList<>(videos);
+		cachedVideos.addAll(otherVideos);
+		List<VideoLookupResult> results = _lookup.revalidate(cachedVideos);
+
+		assertEquals(4, _stubServer.getRequestCount());
+		assertEquals(1, _stubServer.getNotModifiedCount());
+		assertEquals(VideoLookupResult.Status.FOUND, results.get(0).getStatus());
+		assertEquals(VideoLookupResult.Status.FOUND, results.get(1).getStatus());
+		assertEquals("Video second (revision 1)", results.get(1).getVideo().getTitle());
+		assertNotEquals(videos.get(1).getEtag(), results.get(1).getVideo().getEtag());
+		assertEquals(VideoLookupResult.Status.NOT_FOUND, results.get(2).getStatus());
+		assertEquals(VideoLookupResult.Status.NOT_MODIFIED, results.get(3).getStatus());
+		assertSame(otherVideos.get(0), results.get(3).getVideo());
+	}
+}
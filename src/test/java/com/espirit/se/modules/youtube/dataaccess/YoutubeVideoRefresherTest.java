@@ -0,0 +1,116 @@
+package com.espirit.se.modules.youtube.dataaccess;
+
+import com.espirit.se.modules.youtube.YoutubeVideo;
+import com.espirit.se.modules.youtube.cache.WTinyLfuCache;
+import com.espirit.se.modules.youtube.connector.ResetYoutubeStateExtension;
+import com.espirit.se.modules.youtube.connector.VideoLookupResult;
+import com.espirit.se.modules.youtube.connector.YoutubeConnector;
+import com.espirit.se.modules.youtube.connector.YoutubeRequestDispatcher;
+import com.espirit.se.modules.youtube.connector.YoutubeRetryPolicy;
+import com.espirit.se.modules.youtube.stub.YoutubeStubServer;
+import com.google.api.client.http.apache.ApacheHttpTransport;
+import com.google.api.client.json.jackson2.JacksonFactory;
+import com.google.api.services.youtube.YouTube;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(ResetYoutubeStateExtension.class)
+class YoutubeVideoRefresherTest {
+
+	public static final String APIKEY = "apikey";
+
+	private final AtomicLong _time = new AtomicLong();
+	private YoutubeStubServer _stubServer;
+	private YoutubeConnector _connector;
+	private WTinyLfuCache<String, YoutubeVideo> _cache;
+	private YoutubeVideoRefresher _refresher;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		_stubServer = YoutubeStubServer.start();
+		YouTube youtube = new YouTube.Builder(new ApacheHttpTransport(), JacksonFactory.getDefaultInstance(), null)
+				.setRootUrl(_stubServer.getRootUrl())
+				.setApplicationName("test")
+				.build();
+		_connector = new YoutubeConnector(youtube, new ArrayList<>(), APIKEY);
+		_cache = new WTinyLfuCache<>(100, Duration.ofHours(1));
+		_refresher = new YoutubeVideoRefresher(_cache, null, _time::get);
+	}
+
+	@AfterEach
+	void tearDown() {
+		_stubServer.close();
+	}
+
+	@Test
+	void refresh_CACHE_UPDATED() {
+		List<YoutubeVideo> videos = lookup("first", "second", "third");
+		_stubServer.updateVideos("second");
+		_stubServer.addMissingVideos("third");
+
+		_refresher.refresh(videos, _connector).join();
+
+		assertEquals("Video first", _cache.get("first").getTitle());
+		assertEquals("Video second (revision 1)", _cache.get("second").getTitle());
+		assertNull(_cache.get("third"));
+	}
+
+	@Test
+	void refresh_DEDUPLICATED() {
+		List<YoutubeVideo> videos = lookup("first");
+		_stubServer.setLatency(200);
+
+		CompletableFuture<Void> refresh = _refresher.refresh(videos, _connector);
+		CompletableFuture<Void> duplicateRefresh = _refresher.refresh(videos, _connector);
+
+		assertTrue(duplicateRefresh.isDone());
+		assertTrue(_refresher.isRefreshing("first"));
+		refresh.join();
+		assertFalse(_refresher.isRefreshing("first"));
+		assertEquals(2, _stubServer.getRequestCount());
+	}
+
+	@Test
+	void refresh_FAILURE_BACKOFF() {
+		List<YoutubeVideo> videos = lookup("first");
+		// the refresher backs off by itself
+		YoutubeRequestDispatcher.setRetryPolicy(new YoutubeRetryPolicy.Builder().maxRetries(0).build());
+		_stubServer.addFailingVideos("first");
+
+		_refresher.refresh(videos, _connector).join();
+		_refresher.refresh(videos, _connector).join();
+		assertEquals(2, _stubServer.getRequestCount());
+
+		_time.addAndGet(YoutubeVideoRefresher.INITIAL_BACKOFF.toNanos());
+		_refresher.refresh(videos, _connector).join();
+		assertEquals(3, _stubServer.getRequestCount());
+
+		// the backoff doubles with every failure
+		_time.addAndGet(YoutubeVideoRefresher.INITIAL_BACKOFF.toNanos());
+		_refresher.refresh(videos, _connector).join();
+		assertEquals(3, _stubServer.getRequestCount());
+		assertNull(_cache.get("first"));
+	}
+
+	private List<YoutubeVideo> lookup(final String... videoIds) {
+		List<YoutubeVideo> videos = new ArrayList<>();
+		for (final VideoLookupResult result : _connector.lookupVideos(List.of(videoIds))) {
+			videos.add(result.getVideo());
+		}
+		return videos;
+	}
+}
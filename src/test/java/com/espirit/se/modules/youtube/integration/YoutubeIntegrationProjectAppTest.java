@@ -8,6 +8,8 @@ import org.junit.jupiter.api.Test;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -110,4 +112,20 @@ class YoutubeIntegrationProjectAppTest {
 			assertTrue(configuration.getChannelIds().contains("Channel 1"));
 		}
 	}
-}
\ No newline at end of file
+
+	@Test
+	void getConfiguration_KEY_POOL() {
+		SpecialistsBroker specialistsBrokerMock = mock(SpecialistsBroker.class);
+		try (MockedStatic<GenericConfigPanel> genericConfigPanelMockedStatic = Mockito.mockStatic(GenericConfigPanel.class)) {
+			genericConfigPanelMockedStatic.when(() -> GenericConfigPanel.isInstalled(YoutubeIntegrationProjectApp.class, specialistsBrokerMock)).thenReturn(true);
+			Values valuesMock = mock(Values.class);
+			when(valuesMock.getString(YoutubeIntegrationProjectConfig.API_KEY)).thenReturn(" first, second,");
+			genericConfigPanelMockedStatic.when(() -> GenericConfigPanel.values(specialistsBrokerMock, YoutubeIntegrationProjectApp.class)).thenReturn(valuesMock);
+			YoutubeIntegrationConfig configuration = YoutubeIntegrationProjectApp.getConfiguration(specialistsBrokerMock);
+
+			assertNotNull(configuration);
+			assertEquals("first", configuration.getApiKey());
+			assertEquals(List.of("first", "second"), configuration.getApiKeys());
+		}
+	}
+}
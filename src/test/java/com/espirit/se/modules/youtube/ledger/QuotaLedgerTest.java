@@ -0,0 +1,130 @@
+package com.espirit.se.modules.youtube.ledger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuotaLedgerTest {
+
+	// 12:00 Pacific Daylight Time
+	private static final Instant NOON = Instant.parse("2026-06-01T19:00:00Z");
+	private static final LocalDate DAY = LocalDate.of(2026, 6, 1);
+
+	@TempDir
+	Path _directory;
+
+	@Test
+	void record_SURVIVES_RESTART() throws IOException {
+		try (QuotaLedger ledger = QuotaLedger.open(_directory, clock(NOON))) {
+			ledger.record(createEntry(NOON, "project", "search.list", 100, LedgerEntry.Outcome.OK));
+			ledger.record(createEntry(NOON, "project", "videos.list", 1, LedgerEntry.Outcome.OK));
+			ledger.record(createEntry(NOON, null, "videos.list", 1, LedgerEntry.Outcome.FAILED));
+		}
+
+		try (QuotaLedger ledger = QuotaLedger.open(_directory, clock(NOON))) {
+			DailyRollup rollup = ledger.getRollup(DAY);
+
+			assertEquals(3, ledger.getEntries(DAY).size());
+			assertEquals(102, rollup.getUnits());
+			assertEquals(101, rollup.getUnitsByProject("project"));
+			assertEquals(1, rollup.getUnitsByProject(null));
+			assertEquals(102L, rollup.getUnitsByKey().get("key"));
+			DailyRollup.Row row = rollup.getRows().stream().filter(r -> r.getProject() == null).findFirst().orElseThrow();
+			assertEquals(1, row.getCalls(LedgerEntry.Outcome.FAILED));
+			assertEquals(20, row.getMaxLatencyMillis());
+		}
+	}
+
+	@Test
+	void record_NEXT_DAY_ROLLED_UP() throws IOException {
+		Instant nextDay = NOON.plusSeconds(24 * 3600);
+		try (QuotaLedger ledger = QuotaLedger.open(_directory, clock(NOON))) {
+			ledger.record(createEntry(NOON, "project", "search.list", 100, LedgerEntry.Outcome.OK));
+			ledger.record(createEntry(nextDay, "project", "search.list", 100, LedgerEntry.Outcome.OK));
+			ledger.record(createEntry(nextDay, "project", "search.list", 0, LedgerEntry.Outcome.REJECTED));
+
+			List<DailyRollup> rollups = ledger.getRollups(DAY.minusDays(1), DAY.plusDays(1));
+
+			assertEquals(List.of(0L, 100L, 100L), List.of(rollups.get(0).getUnits(), rollups.get(1).getUnits(), rollups.get(2).getUnits()));
+			assertEquals(2, rollups.get(2).getCalls());
+			assertTrue(rollups.get(0).isEmpty());
+			assertTrue(Files.exists(_directory.resolve(DAY + QuotaLedger.ROLLUP_EXTENSION)));
+		}
+	}
+
+	@Test
+	void open_TORN_RECORD_CUT_OFF() throws IOException {
+		try (QuotaLedger ledger = QuotaLedger.open(_directory, clock(NOON))) {
+			ledger.record(createEntry(NOON, "project", "search.list", 100, LedgerEntry.Outcome.OK));
+		}
+		Path file = _directory.resolve(DAY + QuotaLedger.ENTRIES_EXTENSION);
+		Files.write(file, new byte[]{0, 0, 1}, StandardOpenOption.APPEND);
+
+		try (QuotaLedger ledger = QuotaLedger.open(_directory, clock(NOON))) {
+			ledger.record(createEntry(NOON, "project", "videos.list", 1, LedgerEntry.Outcome.OK));
+
+			assertEquals(2, ledger.getEntries(DAY).size());
+			assertEquals(101, ledger.getRollup(DAY).getUnits());
+		}
+	}
+
+	@Test
+	void open_OLD_ENTRIES_DELETED() throws IOException {
+		try (QuotaLedger ledger = QuotaLedger.open(_directory, clock(NOON))) {
+			ledger.record(createEntry(NOON, "project", "search.list", 100, LedgerEntry.Outcome.OK));
+		}
+		Instant later = NOON.plusSeconds((QuotaLedger.ENTRY_RETENTION_DAYS + 1) * 24 * 3600L);
+
+		try (QuotaLedger ledger = QuotaLedger.open(_directory, clock(later))) {
+			assertFalse(Files.exists(_directory.resolve(DAY + QuotaLedger.ENTRIES_EXTENSION)));
+			assertTrue(ledger.getEntries(DAY).isEmpty());
+			assertEquals(100, ledger.getRollup(DAY).getUnitsByProject("project"));
+		}
+	}
+
+	@Test
+	void readRollup_WHILE_OPEN() throws IOException {
+		try (QuotaLedger ledger = QuotaLedger.open(_directory, clock(NOON))) {
+			ledger.record(createEntry(NOON, "project", "search.list", 100, LedgerEntry.Outcome.QUOTA_EXCEEDED));
+
+			DailyRollup rollup = QuotaLedger.readRollup(_directory, DAY);
+
+			assertEquals(100, rollup.getUnits());
+			assertEquals(1, rollup.getRows().get(0).getCalls(LedgerEntry.Outcome.QUOTA_EXCEEDED));
+		}
+	}
+
+	@Test
+	void open_NO_LEDGER() throws IOException {
+		Files.write(_directory.resolve(DAY + QuotaLedger.ENTRIES_EXTENSION), new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+
+		assertThrows(IOException.class, () -> QuotaLedger.open(_directory, clock(NOON)));
+	}
+
+	@Test
+	void getRollups_LEDGER_NOT_OPEN() {
+		assertThrows(IllegalStateException.class, () -> QuotaLedgers.getRollups(DAY, DAY));
+	}
+
+	private static Clock clock(final Instant instant) {
+		return Clock.fixed(instant, ZoneOffset.UTC);
+	}
+
+	private static LedgerEntry createEntry(final Instant time, final String project, final String method, final int units, final LedgerEntry.Outcome outcome) {
+		return new LedgerEntry(time.toEpochMilli(), "key", project, "INTERACTIVE", method, units, 20, outcome);
+	}
+}
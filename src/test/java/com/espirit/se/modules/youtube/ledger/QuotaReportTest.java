@@ -0,0 +1,36 @@
+package com.espirit.se.modules.youtube.ledger;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuotaReportTest {
+
+	@Test
+	void create_PER_PROJECT_AND_FEATURE() {
+		DailyRollup first = new DailyRollup(LocalDate.of(2026, 6, 1));
+		first.add(new LedgerEntry(0, "key", "project", "INTERACTIVE", "search.list", 100, 200, LedgerEntry.Outcome.OK));
+		DailyRollup second = new DailyRollup(LocalDate.of(2026, 6, 2));
+		second.add(new LedgerEntry(0, "key", "project", "INTERACTIVE", "search.list", 100, 300, LedgerEntry.Outcome.OK));
+		second.add(new LedgerEntry(0, "key", null, "BACKGROUND", "playlistItems.list", 1, 100, LedgerEntry.Outcome.FAILED));
+
+		String report = QuotaReport.create(List.of(first, second), 10_000);
+
+		assertTrue(report.contains("Total: 201 units in 3 requests"), report);
+		assertTrue(report.contains("Peak: 101 units on 2026-06-02, 1 % of the daily quota of 1 api key(s)"), report);
+		assertTrue(report.matches("(?s).*project\\s+200 units\\s+2 requests.*"), report);
+		assertTrue(report.matches("(?s).*\\(none\\)\\s+1 units\\s+1 requests.*"), report);
+		assertTrue(report.matches("(?s).*BACKGROUND\\s+playlistItems.list\\s+1\\s+1\\s+1.*"), report);
+		// newest day first
+		assertTrue(report.indexOf("2026-06-02:") < report.indexOf("2026-06-01:"), report);
+	}
+
+	@Test
+	void create_NO_ROLLUPS() {
+		assertEquals("No quota recorded", QuotaReport.create(List.of(), 10_000));
+	}
+}
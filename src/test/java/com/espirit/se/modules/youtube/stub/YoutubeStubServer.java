@@ -0,0 +1,636 @@
+package com.espirit.se.modules.youtube.stub;
+
+import com.google.api.client.json.GenericJson;
+import com.google.api.client.json.jackson2.JacksonFactory;
+import com.google.api.services.youtube.model.Channel;
+import com.google.api.services.youtube.model.ChannelContentDetails;
+import com.google.api.services.youtube.model.ChannelListResponse;
+import com.google.api.services.youtube.model.ChannelSnippet;
+import com.google.api.services.youtube.model.PageInfo;
+import com.google.api.services.youtube.model.PlaylistItem;
+import com.google.api.services.youtube.model.PlaylistItemContentDetails;
+import com.google.api.services.youtube.model.PlaylistItemListResponse;
+import com.google.api.services.youtube.model.PlaylistItemSnippet;
+import com.google.api.services.youtube.model.ResourceId;
+import com.google.api.services.youtube.model.SearchListResponse;
+import com.google.api.services.youtube.model.SearchResult;
+import com.google.api.services.youtube.model.SearchResultSnippet;
+import com.google.api.services.youtube.model.Thumbnail;
+import com.google.api.services.youtube.model.ThumbnailDetails;
+import com.google.api.services.youtube.model.Video;
+import com.google.api.services.youtube.model.VideoListResponse;
+import com.google.api.services.youtube.model.VideoSnippet;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stub of the YouTube Data API that answers requests with synthetic data.
+ * Use {@link #getRootUrl()} as root url of the YouTube client. Every response carries an ETag, conditional requests
+ * with a matching {@code If-None-Match} header are answered with 304.
+ */
+public class YoutubeStubServer implements AutoCloseable {
+
+	private static final String SERVICE_PATH = "/youtube/v3/";
+	/**
+	 * The number of videos of a channel unless configured otherwise.
+	 */
+	public static final int DEFAULT_CHANNEL_VIDEO_COUNT = 100;
+	/**
+	 * The quota units of a search.
+	 */
+	public static final int SEARCH_COST = 100;
+	/**
+	 * The quota units of a list request other than a search.
+	 */
+	public static final int LIST_COST = 1;
+
+	private final HttpServer _server;
+	private final ExecutorService _executor;
+	private final AtomicInteger _requestCount = new AtomicInteger();
+	private final AtomicInteger _activeRequests = new AtomicInteger();
+	private final AtomicInteger _maxActiveRequests = new AtomicInteger();
+	private final AtomicInteger _notModifiedCount = new AtomicInteger();
+	private final Set<String> _missingVideoIds = ConcurrentHashMap.newKeySet();
+	private final Set<String> _failingVideoIds = ConcurrentHashMap.newKeySet();
+	private final Set<String> _failingChannelIds = ConcurrentHashMap.newKeySet();
+	private final Map<String, Integer> _channelVideoCounts = new ConcurrentHashMap<>();
+	private final Map<String, Integer> _channelUploads = new ConcurrentHashMap<>();
+	private final Map<String, Integer> _videoRevisions = new ConcurrentHashMap<>();
+	private final Map<String, AtomicInteger> _keyRequestCounts = new ConcurrentHashMap<>();
+	private final Set<String> _exhaustedKeys = ConcurrentHashMap.newKeySet();
+	private final Set<String> _invalidKeys = ConcurrentHashMap.newKeySet();
+	private final Map<String, AtomicLong> _keyUnits = new ConcurrentHashMap<>();
+	private volatile long _dailyQuota = Long.MAX_VALUE;
+	private final AtomicInteger _transientFailures = new AtomicInteger();
+	private final AtomicInteger _slowRequests = new AtomicInteger();
+	private final AtomicInteger _throttledCount = new AtomicInteger();
+	private volatile int _capacity = Integer.MAX_VALUE;
+	private volatile long _latencyMillis;
+	private volatile long _slowLatencyMillis;
+
+	private YoutubeStubServer(final HttpServer server, final ExecutorService executor) {
+		_server = server;
+		_executor = executor;
+	}
+
+	/**
+	 * Starts a new stub server on a free local port.
+	 *
+	 * @return the stub server
+	 * @throws IOException the io exception
+	 */
+	public static YoutubeStubServer start() throws IOException {
+		// avoid delayed ACK stalls on reused keep-alive connections
+		System.setProperty("sun.net.httpserver.nodelay", "true");
+		HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+			Thread thread = new Thread(runnable, "youtube-stub-server");
+			thread.setDaemon(true);
+			return thread;
+		});
+		YoutubeStubServer stubServer = new YoutubeStubServer(server, executor);
+		server.createContext(SERVICE_PATH + "videos", stubServer::handleVideos);
+		server.createContext(SERVICE_PATH + "channels", stubServer::handleChannels);
+		server.createContext(SERVICE_PATH + "search", stubServer::handleSearch);
+		server.createContext(SERVICE_PATH + "playlistItems", stubServer::handlePlaylistItems);
+		server.setExecutor(executor);
+		server.start();
+		return stubServer;
+	}
+
+	/**
+	 * Gets the root url to be used by YouTube clients.
+	 *
+	 * @return the root url
+	 */
+	public String getRootUrl() {
+		return "http://" + _server.getAddress().getHostString() + ":" + _server.getAddress().getPort() + "/";
+	}
+
+	/**
+	 * Gets the number of requests received so far.
+	 *
+	 * @return the request count
+	 */
+	public int getRequestCount() {
+		return _requestCount.get();
+	}
+
+	/**
+	 * Gets the number of requests received so far with the specified api key.
+	 *
+	 * @param apiKey the api key
+	 * @return the request count
+	 */
+	public int getRequestCount(final String apiKey) {
+		AtomicInteger count = _keyRequestCounts.get(apiKey);
+		return count != null ? count.get() : 0;
+	}
+
+	/**
+	 * Gets the quota units used so far by the specified api key, requests exceeding the quota do not count.
+	 *
+	 * @param apiKey the api key
+	 * @return the used units
+	 */
+	public long getUsedUnits(final String apiKey) {
+		AtomicLong units = _keyUnits.get(apiKey);
+		return units != null ? units.get() : 0;
+	}
+
+	/**
+	 * Gets the maximum number of requests handled at the same time so far.
+	 *
+	 * @return the maximum number of concurrent requests
+	 */
+	public int getMaxConcurrentRequests() {
+		return _maxActiveRequests.get();
+	}
+
+	/**
+	 * Gets the number of conditional requests answered with 304 so far.
+	 *
+	 * @return the not modified count
+	 */
+	public int getNotModifiedCount() {
+		return _notModifiedCount.get();
+	}
+
+	/**
+	 * Changes the title of the specified videos, so their responses get a new ETag.
+	 *
+	 * @param videoIds the video ids
+	 */
+	public void updateVideos(final String... videoIds) {
+		for (final String videoId : videoIds) {
+			_videoRevisions.merge(videoId, 1, Integer::sum);
+		}
+	}
+
+	/**
+	 * Lets the stub treat the specified video ids as unknown.
+	 *
+	 * @param videoIds the video ids
+	 */
+	public void addMissingVideos(final String... videoIds) {
+		_missingVideoIds.addAll(List.of(videoIds));
+	}
+
+	/**
+	 * Lets every video request containing one of the specified ids fail with a server error.
+	 *
+	 * @param videoIds the video ids
+	 */
+	public void addFailingVideos(final String... videoIds) {
+		_failingVideoIds.addAll(List.of(videoIds));
+	}
+
+	/**
+	 * Lets every request for one of the specified channels fail with a server error.
+	 * Playlists are treated like channels, so playlist ids are accepted as well.
+	 *
+	 * @param channelIds the channel or playlist ids
+	 */
+	public void addFailingChannels(final String... channelIds) {
+		_failingChannelIds.addAll(List.of(channelIds));
+	}
+
+	/**
+	 * Lets the requests for the specified channels succeed again.
+	 *
+	 * @param channelIds the channel or playlist ids
+	 */
+	public void removeFailingChannels(final String... channelIds) {
+		_failingChannelIds.removeAll(List.of(channelIds));
+	}
+
+	/**
+	 * Sets the number of videos the specified channel or playlist provides.
+	 *
+	 * @param channelId  the channel or playlist id
+	 * @param videoCount the number of videos
+	 */
+	public void setChannelVideoCount(final String channelId, final int videoCount) {
+		_channelVideoCounts.put(channelId, videoCount);
+	}
+
+	/**
+	 * Uploads new videos to the specified channel or playlist, they are listed before the existing videos.
+	 * The n-th upload has the id {@code <channelId>-upload<n>}, starting with 0.
+	 *
+	 * @param channelId the channel or playlist id
+	 * @param count     the number of new videos
+	 */
+	public void addUploads(final String channelId, final int count) {
+		_channelUploads.merge(channelId, count, Integer::sum);
+	}
+
+	/**
+	 * Lets every request with one of the specified api keys fail with 403 {@code quotaExceeded}.
+	 *
+	 * @param apiKeys the api keys
+	 */
+	public void addExhaustedKeys(final String... apiKeys) {
+		_exhaustedKeys.addAll(List.of(apiKeys));
+	}
+
+	/**
+	 * Lets every request with one of the specified api keys fail with 400 {@code keyInvalid}.
+	 *
+	 * @param apiKeys the api keys
+	 */
+	public void addInvalidKeys(final String... apiKeys) {
+		_invalidKeys.addAll(List.of(apiKeys));
+	}
+
+	/**
+	 * Sets the daily quota of every api key, a request exceeding the quota of its key fails with 403
+	 * {@code quotaExceeded}. A search costs {@value #SEARCH_COST} units, any other request {@value #LIST_COST}.
+	 *
+	 * @param units the quota units per api key
+	 */
+	public void setDailyQuota(final long units) {
+		_dailyQuota = units;
+	}
+
+	/**
+	 * Lets the next requests fail with 503 {@code backendError}.
+	 *
+	 * @param count the number of failing requests
+	 */
+	public void failNextRequests(final int count) {
+		_transientFailures.set(count);
+	}
+
+	/**
+	 * Adds the specified latency to the next requests, in addition to the latency of every response.
+	 *
+	 * @param count         the number of slow requests
+	 * @param latencyMillis the latency in milliseconds
+	 */
+	public void slowDownNextRequests(final int count, final long latencyMillis) {
+		_slowLatencyMillis = latencyMillis;
+		_slowRequests.set(count);
+	}
+
+	/**
+	 * Sets the number of requests the stub serves at the same time, further requests are rejected with 429
+	 * {@code rateLimitExceeded}.
+	 *
+	 * @param capacity the number of concurrent requests
+	 */
+	public void setCapacity(final int capacity) {
+		_capacity = capacity;
+	}
+
+	/**
+	 * Gets the number of requests rejected for exceeding the capacity, see {@link #setCapacity(int)}.
+	 *
+	 * @return the number of rejected requests
+	 */
+	public int getThrottledCount() {
+		return _throttledCount.get();
+	}
+
+	/**
+	 * Sets the latency added to every response.
+	 *
+	 * @param latencyMillis the latency in milliseconds
+	 */
+	public void setLatency(final long latencyMillis) {
+		_latencyMillis = latencyMillis;
+	}
+
+	@Override
+	public void close() {
+		_server.stop(0);
+		_executor.shutdownNow();
+	}
+
+	private void handleVideos(final HttpExchange exchange) throws IOException {
+		_requestCount.incrementAndGet();
+		int activeRequests = _activeRequests.incrementAndGet();
+		_maxActiveRequests.accumulateAndGet(activeRequests, Math::max);
+		try {
+			if (!checkCapacity(exchange, activeRequests)) {
+				return;
+			}
+			delay();
+			if (!checkKey(exchange, LIST_COST)) {
+				return;
+			}
+			List<Video> items = new ArrayList<>();
+			String ids = getParameters(exchange).get("id");
+			if (ids != null) {
+				for (final String id : ids.split(",")) {
+					String videoId = id.trim();
+					if (_failingVideoIds.contains(videoId)) {
+						sendError(exchange, 500, "backendError");
+						return;
+					}
+					if (!_missingVideoIds.contains(videoId)) {
+						Video video = createVideo(videoId);
+						int revision = _videoRevisions.getOrDefault(videoId, 0);
+						if (revision > 0) {
+							video.getSnippet().setTitle(video.getSnippet().getTitle() + " (revision " + revision + ")");
+						}
+						items.add(video);
+					}
+				}
+			}
+			send(exchange, new VideoListResponse().setKind("youtube#videoListResponse").setItems(items));
+		} finally {
+			_activeRequests.decrementAndGet();
+		}
+	}
+
+	private void handleChannels(final HttpExchange exchange) throws IOException {
+		_requestCount.incrementAndGet();
+		int activeRequests = _activeRequests.incrementAndGet();
+		_maxActiveRequests.accumulateAndGet(activeRequests, Math::max);
+		try {
+			if (!checkCapacity(exchange, activeRequests)) {
+				return;
+			}
+			delay();
+			if (!checkKey(exchange, LIST_COST)) {
+				return;
+			}
+			List<Channel> items = new ArrayList<>();
+			String ids = getParameters(exchange).get("id");
+			if (ids != null) {
+				for (final String id : ids.split(",")) {
+					String channelId = id.trim();
+					if (_failingChannelIds.contains(channelId)) {
+						sendError(exchange, 500, "backendError");
+						return;
+					}
+					// the uploads playlist shares the id of the channel, so both provide the same videos
+					items.add(new Channel().setKind("youtube#channel")
+									  .setId(channelId)
+									  .setSnippet(new ChannelSnippet().setTitle("Channel " + channelId))
+									  .setContentDetails(new ChannelContentDetails()
+																 .setRelatedPlaylists(new ChannelContentDetails.RelatedPlaylists().setUploads(channelId))));
+				}
+			}
+			send(exchange, new ChannelListResponse().setKind("youtube#channelListResponse").setItems(items));
+		} finally {
+			_activeRequests.decrementAndGet();
+		}
+	}
+
+	private void handleSearch(final HttpExchange exchange) throws IOException {
+		_requestCount.incrementAndGet();
+		int activeRequests = _activeRequests.incrementAndGet();
+		_maxActiveRequests.accumulateAndGet(activeRequests, Math::max);
+		try {
+			if (!checkCapacity(exchange, activeRequests)) {
+				return;
+			}
+			delay();
+			if (!checkKey(exchange, SEARCH_COST)) {
+				return;
+			}
+			Map<String, String> parameters = getParameters(exchange);
+			String channelId = parameters.getOrDefault("channelId", "all");
+			if (_failingChannelIds.contains(channelId)) {
+				sendError(exchange, 500, "backendError");
+				return;
+			}
+			Page page = getPage(channelId, parameters);
+			List<SearchResult> items = new ArrayList<>();
+			for (final Video video : page._videos) {
+				items.add(new SearchResult().setKind("youtube#searchResult")
+								  .setId(new ResourceId().setKind("youtube#video").setVideoId(video.getId()))
+								  .setSnippet(new SearchResultSnippet()
+													  .setChannelId(channelId)
+													  .setTitle(video.getSnippet().getTitle())
+													  .setDescription(video.getSnippet().getDescription())
+													  .setThumbnails(video.getSnippet().getThumbnails())));
+			}
+			send(exchange, new SearchListResponse().setKind("youtube#searchListResponse")
+					.setItems(items)
+					.setNextPageToken(page._nextPageToken)
+					.setPageInfo(page._pageInfo));
+		} finally {
+			_activeRequests.decrementAndGet();
+		}
+	}
+
+	private void handlePlaylistItems(final HttpExchange exchange) throws IOException {
+		_requestCount.incrementAndGet();
+		int activeRequests = _activeRequests.incrementAndGet();
+		_maxActiveRequests.accumulateAndGet(activeRequests, Math::max);
+		try {
+			if (!checkCapacity(exchange, activeRequests)) {
+				return;
+			}
+			delay();
+			if (!checkKey(exchange, LIST_COST)) {
+				return;
+			}
+			Map<String, String> parameters = getParameters(exchange);
+			String playlistId = parameters.getOrDefault("playlistId", "");
+			if (_failingChannelIds.contains(playlistId)) {
+				sendError(exchange, 500, "backendError");
+				return;
+			}
+			Page page = getPage(playlistId, parameters);
+			List<PlaylistItem> items = new ArrayList<>();
+			for (final Video video : page._videos) {
+				items.add(new PlaylistItem().setKind("youtube#playlistItem")
+								  .setId("item-" + video.getId())
+								  .setContentDetails(new PlaylistItemContentDetails().setVideoId(video.getId()))
+								  .setSnippet(new PlaylistItemSnippet()
+													  .setPlaylistId(playlistId)
+													  .setTitle(video.getSnippet().getTitle())
+													  .setDescription(video.getSnippet().getDescription())
+													  .setThumbnails(video.getSnippet().getThumbnails())
+													  .setResourceId(new ResourceId().setKind("youtube#video").setVideoId(video.getId()))));
+			}
+			send(exchange, new PlaylistItemListResponse().setKind("youtube#playlistItemListResponse")
+					.setItems(items)
+					.setNextPageToken(page._nextPageToken)
+					.setPageInfo(page._pageInfo));
+		} finally {
+			_activeRequests.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Gets the requested page of the synthetic videos of a channel or playlist, the page token is the offset.
+	 * The uploads are listed newest first before the other videos.
+	 */
+	private Page getPage(final String key, final Map<String, String> parameters) {
+		int uploads = _channelUploads.getOrDefault(key, 0);
+		int total = _channelVideoCounts.getOrDefault(key, DEFAULT_CHANNEL_VIDEO_COUNT) + uploads;
+		int offset = parameters.containsKey("pageToken") ? Integer.parseInt(parameters.get("pageToken")) : 0;
+		int maxResults = parameters.containsKey("maxResults") ? Integer.parseInt(parameters.get("maxResults")) : 5;
+		int end = Math.min(total, offset + maxResults);
+		List<Video> videos = new ArrayList<>();
+		for (int i = offset; i < end; i++) {
+			videos.add(createVideo(i < uploads ? key + "-upload" + (uploads - 1 - i) : key + "-" + (i - uploads)));
+		}
+		return new Page(videos, end < total ? String.valueOf(end) : null, new PageInfo().setTotalResults(total).setResultsPerPage(maxResults));
+	}
+
+	/**
+	 * Counts the request per api key, rejects exhausted and invalid keys and lets the next requests fail, see
+	 * {@link #failNextRequests(int)}.
+	 *
+	 * @return true if the key is accepted
+	 */
+	private boolean checkKey(final HttpExchange exchange, final int cost) throws IOException {
+		String apiKey = getParameters(exchange).get("key");
+		if (apiKey == null) {
+			return checkTransientFailure(exchange);
+		}
+		_keyRequestCounts.computeIfAbsent(apiKey, key -> new AtomicInteger()).incrementAndGet();
+		// the id of a key pool is no valid api key either
+		if (_invalidKeys.contains(apiKey) || apiKey.contains(",")) {
+			sendError(exchange, 400, "keyInvalid");
+			return false;
+		}
+		if (_exhaustedKeys.contains(apiKey) || !consume(apiKey, cost)) {
+			sendError(exchange, 403, "quotaExceeded");
+			return false;
+		}
+		return checkTransientFailure(exchange);
+	}
+
+	private boolean consume(final String apiKey, final int cost) {
+		long quota = _dailyQuota;
+		AtomicLong units = _keyUnits.computeIfAbsent(apiKey, key -> new AtomicLong());
+		long used = units.getAndUpdate(current -> current + cost <= quota ? current + cost : current);
+		return used + cost <= quota;
+	}
+
+	private boolean checkCapacity(final HttpExchange exchange, final int activeRequests) throws IOException {
+		if (activeRequests > _capacity) {
+			_throttledCount.incrementAndGet();
+			sendError(exchange, 429, "rateLimitExceeded");
+			return false;
+		}
+		return true;
+	}
+
+	private boolean checkTransientFailure(final HttpExchange exchange) throws IOException {
+		if (_transientFailures.getAndUpdate(count -> Math.max(0, count - 1)) > 0) {
+			sendError(exchange, 503, "backendError");
+			return false;
+		}
+		return true;
+	}
+
+	private void delay() {
+		long latencyMillis = _latencyMillis;
+		if (_slowRequests.getAndUpdate(count -> Math.max(0, count - 1)) > 0) {
+			latencyMillis += _slowLatencyMillis;
+		}
+		if (latencyMillis > 0) {
+			try {
+				Thread.sleep(latencyMillis);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Creates a synthetic video for the specified id.
+	 *
+	 * @param id the video id
+	 * @return the video
+	 */
+	public static Video createVideo(final String id) {
+		ThumbnailDetails thumbnails = new ThumbnailDetails()
+				.setDefault(new Thumbnail().setUrl("https://i.ytimg.com/vi/" + id + "/default.jpg"))
+				.setHigh(new Thumbnail().setUrl("https://i.ytimg.com/vi/" + id + "/hqdefault.jpg"));
+		VideoSnippet snippet = new VideoSnippet()
+				.setTitle("Video " + id)
+				.setDescription("Description of video " + id)
+				.setThumbnails(thumbnails);
+		return new Video().setKind("youtube#video").setId(id).setSnippet(snippet);
+	}
+
+	private static Map<String, String> getParameters(final HttpExchange exchange) {
+		Map<String, String> parameters = new HashMap<>();
+		String query = exchange.getRequestURI().getRawQuery();
+		if (query != null) {
+			for (final String pair : query.split("&")) {
+				int separator = pair.indexOf('=');
+				if (separator > 0) {
+					parameters.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+								   URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+				}
+			}
+		}
+		return parameters;
+	}
+
+	private void send(final HttpExchange exchange, final GenericJson response) throws IOException {
+		String etag = '"' + Integer.toHexString(Arrays.hashCode(JacksonFactory.getDefaultInstance().toByteArray(response))) + '"';
+		exchange.getResponseHeaders().set("ETag", etag);
+		if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+			_notModifiedCount.incrementAndGet();
+			// the server drops the connection after a response without body, keep the client from reusing it
+			exchange.getResponseHeaders().set("Connection", "close");
+			exchange.sendResponseHeaders(304, -1);
+			exchange.close();
+			return;
+		}
+		response.set("etag", etag);
+		byte[] body = JacksonFactory.getDefaultInstance().toByteArray(response);
+		exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+		exchange.sendResponseHeaders(200, body.length);
+		try (OutputStream outputStream = exchange.getResponseBody()) {
+			outputStream.write(body);
+		}
+	}
+
+	private static void sendError(final HttpExchange exchange, final int statusCode, final String reason) throws IOException {
+		String message = "Stubbed error " + statusCode;
+		byte[] body = String.format("{\"error\":{\"code\":%d,\"message\":\"%s\",\"errors\":[{\"domain\":\"global\",\"reason\":\"%s\",\"message\":\"%s\"}]}}", statusCode, message, reason,
+									message)
+				.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+		exchange.sendResponseHeaders(statusCode, body.length);
+		try (OutputStream outputStream = exchange.getResponseBody()) {
+			outputStream.write(body);
+		}
+	}
+
+	/**
+	 * A page of synthetic videos.
+	 */
+	private static class Page {
+
+		private final List<Video> _videos;
+		private final String _nextPageToken;
+		private final PageInfo _pageInfo;
+
+		private Page(final List<Video> videos, final String nextPageToken, final PageInfo pageInfo) {
+			_videos = videos;
+			_nextPageToken = nextPageToken;
+			_pageInfo = pageInfo;
+		}
+	}
+}